@@ -0,0 +1,90 @@
+package com.justblackmagic.shopify.api.graphql;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.justblackmagic.shopify.api.graphql.model.Extensions;
+import com.justblackmagic.shopify.api.graphql.model.Products;
+
+/**
+ * Decoding of a products response of the GraphQL client, with its {@code extensions.cost}. {@code legacy} decodes it as the client used to: a new
+ * mapper per response, a tree of the whole body, {@code extensions} and the data node serialized back to strings and parsed again, and the root
+ * field name looked up by reflection. {@code singlePass} decodes it with the {@link GraphqlResponseReader}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GraphqlResponseReaderBenchmark {
+
+	/** Product nodes in the response, up to Shopify's maximum page */
+	@Param({"250"})
+	public int nodeCount;
+
+	private String responseBody;
+
+
+	@Setup
+	public void setUp() {
+		final StringBuilder builder = new StringBuilder("{\"data\":{\"products\":{\"edges\":[");
+		for (int i = 1; i <= nodeCount; i++) {
+			if (i > 1) {
+				builder.append(',');
+			}
+			builder.append("{\"node\":{\"id\":\"gid://shopify/Product/").append(7_000_000_000L + i).append("\",\"title\":\"Benchmark Product ").append(i)
+					.append("\",\"handle\":\"benchmark-product-").append(i).append("\"}}");
+		}
+		builder.append("]}},\"extensions\":{\"cost\":{\"requestedQueryCost\":").append(2 + nodeCount).append(",\"actualQueryCost\":").append(2 + nodeCount)
+				.append(",\"throttleStatus\":{\"maximumAvailable\":1000.0,\"currentlyAvailable\":").append(998 - nodeCount)
+				.append(",\"restoreRate\":50.0}}}}");
+		responseBody = builder.toString();
+	}
+
+
+	/**
+	 * @param blackhole
+	 * @return Products
+	 * @throws Exception
+	 */
+	@Benchmark
+	public Products legacy(final Blackhole blackhole) throws Exception {
+		final ObjectMapper objectMapper = new ObjectMapper();
+		final JsonNode jsonNode = objectMapper.readTree(responseBody);
+		if (jsonNode.get(GraphqlResponseReader.ERRORS_NODE_NAME) != null) {
+			return null;
+		}
+		final JsonNode extensionsNode = jsonNode.get(GraphqlResponseReader.EXTENSIONS_NODE_NAME);
+		final Extensions extensions = objectMapper.readValue(extensionsNode.toString(), Extensions.class);
+		final JsonNode dataNode = jsonNode.get(GraphqlResponseReader.DATA_NODE_NAME);
+		final JsonNode objectNode = dataNode.get(Products.class.getField(GraphqlResponseReader.NODE_NAME_FIELD_NAME).get(null).toString());
+		final Products products = objectMapper.readValue(objectNode.toString(), Products.class);
+		blackhole.consume(extensions);
+		return products;
+	}
+
+
+	/**
+	 * @return GraphqlResult
+	 * @throws IOException
+	 */
+	@Benchmark
+	public GraphqlResult<Products> singlePass() throws IOException {
+		return GraphqlResponseReader.read(responseBody, Products.class);
+	}
+
+}
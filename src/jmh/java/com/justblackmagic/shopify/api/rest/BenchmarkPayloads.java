@@ -0,0 +1,311 @@
+package com.justblackmagic.shopify.api.rest;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+import com.justblackmagic.shopify.api.rest.model.Image;
+import com.justblackmagic.shopify.api.rest.model.InventoryPolicy;
+import com.justblackmagic.shopify.api.rest.model.Option;
+import com.justblackmagic.shopify.api.rest.model.ShopifyProduct;
+import com.justblackmagic.shopify.api.rest.model.ShopifyVariant;
+
+/**
+ * Payloads shaped like the Shopify Admin REST API's, for the benchmarks. Bodies carry the fields Shopify sends, including those the model ignores,
+ * in Shopify's wire formats: comma separated tags, lower case currencies and inventory policies, and offset date-times.
+ */
+public final class BenchmarkPayloads {
+
+	public static final int VARIANTS_PER_PRODUCT = 6;
+	public static final int IMAGES_PER_PRODUCT = 4;
+	public static final int LINE_ITEMS_PER_ORDER = 3;
+
+	private static final String[] SIZES = {"S", "M", "L"};
+	private static final String[] COLORS = {"Black", "Ivory"};
+	private static final String UPDATED_AT = "2026-09-14T10:21:07-04:00";
+
+	private BenchmarkPayloads() {}
+
+
+	/**
+	 * @param count
+	 * @return a {@code GET /products.json} body with the given number of products
+	 */
+	public static byte[] productsBody(final int count) {
+		final StringBuilder json = new StringBuilder(count * 6000).append("{\"products\":[");
+		for (int i = 0; i < count; i++) {
+			if (i > 0) {
+				json.append(',');
+			}
+			appendProduct(json, 7_400_000_000L + i);
+		}
+		return json.append("]}").toString().getBytes(StandardCharsets.UTF_8);
+	}
+
+
+	/**
+	 * @param count
+	 * @return a {@code GET /orders.json} body with the given number of orders
+	 */
+	public static byte[] ordersBody(final int count) {
+		final StringBuilder json = new StringBuilder(count * 6000).append("{\"orders\":[");
+		for (int i = 0; i < count; i++) {
+			if (i > 0) {
+				json.append(',');
+			}
+			appendOrder(json, 5_600_000_000L + i, 1001 + i);
+		}
+		return json.append("]}").toString().getBytes(StandardCharsets.UTF_8);
+	}
+
+
+	/**
+	 * @param id
+	 * @return a new product as {@link ShopifyRestClient#getProduct(String)} returns it, for the update request builders to modify
+	 */
+	public static ShopifyProduct product(final long id) {
+		final ShopifyProduct product = new ShopifyProduct();
+		product.setId(String.valueOf(id));
+		product.setTitle("Merino Crew &amp; Scarf Set " + id);
+		product.setProductType("Knitwear");
+		product.setBodyHtml("<p>Soft merino wool, knitted in Portugal. Machine washable at 30&deg;C.</p>");
+		product.setVendor("Northwind Knits");
+		product.setTags(new LinkedHashSet<>(List.of("wool", "winter", "gift", "bestseller")));
+		product.setHandle("merino-crew-scarf-set-" + id);
+		product.setPublishedAt(UPDATED_AT);
+		product.setStatus("active");
+		final List<Option> options = new LinkedList<>();
+		options.add(option(id, "Size", 1, List.of(SIZES)));
+		options.add(option(id, "Color", 2, List.of(COLORS)));
+		product.setOptions(options);
+		final List<Image> images = new LinkedList<>();
+		for (int i = 1; i <= IMAGES_PER_PRODUCT; i++) {
+			final Image image = new Image();
+			image.setId(String.valueOf(id * 10 + i));
+			image.setProductId(String.valueOf(id));
+			image.setPosition(i);
+			image.setSource(imageSource(id, i));
+			images.add(image);
+		}
+		product.setImages(images);
+		final List<ShopifyVariant> variants = new LinkedList<>();
+		for (int i = 1; i <= VARIANTS_PER_PRODUCT; i++) {
+			variants.add(variant(id, i));
+		}
+		product.setVariants(variants);
+		return product;
+	}
+
+
+	/**
+	 * @param productId
+	 * @param position
+	 * @return a new variant as {@link ShopifyRestClient#getProduct(String)} returns it, for the update request builders to modify
+	 */
+	public static ShopifyVariant variant(final long productId, final int position) {
+		final ShopifyVariant variant = new ShopifyVariant();
+		variant.setId(String.valueOf(productId * 100 + position));
+		variant.setProductId(String.valueOf(productId));
+		variant.setTitle(size(position) + " / " + color(position));
+		variant.setPrice(new BigDecimal("89.00"));
+		variant.setCompareAtPrice(new BigDecimal("109.00"));
+		variant.setSku(sku(productId, position));
+		variant.setBarcode(barcode(productId, position));
+		variant.setPosition(position);
+		variant.setInventoryPolicy(InventoryPolicy.DENY);
+		variant.setInventoryManagement("shopify");
+		variant.setFulfillmentService("manual");
+		variant.setOption1(size(position));
+		variant.setOption2(color(position));
+		variant.setGrams(450L);
+		variant.setWeight(0.45);
+		variant.setWeightUnit("kg");
+		variant.setInventoryItemId(productId * 1000 + position);
+		variant.setInventoryQuantity(12L);
+		variant.setRequiresShipping(true);
+		variant.setTaxable(true);
+		return variant;
+	}
+
+
+	/**
+	 * @return the tags of a product after a merchandiser edit
+	 */
+	public static Set<String> editedTags() {
+		return new LinkedHashSet<>(List.of("wool", "winter", "gift", "bestseller", "new-arrival"));
+	}
+
+
+	/**
+	 * @param productId
+	 * @param position
+	 * @return String
+	 */
+	public static String imageSource(final long productId, final int position) {
+		return "https://cdn.shopify.com/s/files/1/0612/4471/5101/products/merino-" + productId + "-" + position + ".jpg?v=1694701267";
+	}
+
+
+	/**
+	 * @param json
+	 * @param id
+	 */
+	private static void appendProduct(final StringBuilder json, final long id) {
+		json.append("{\"id\":").append(id).append(",\"title\":\"Merino Crew & Scarf Set ").append(id)
+				.append("\",\"body_html\":\"<p>Soft merino wool, knitted in Portugal. Machine washable at 30&deg;C.<\\/p>\",")
+				.append("\"vendor\":\"Northwind Knits\",\"product_type\":\"Knitwear\",\"created_at\":\"2026-02-03T09:12:44-05:00\",")
+				.append("\"handle\":\"merino-crew-scarf-set-").append(id).append("\",\"updated_at\":\"").append(UPDATED_AT)
+				.append("\",\"published_at\":\"2026-02-03T09:15:00-05:00\",\"template_suffix\":\"\",\"published_scope\":\"web\",")
+				.append("\"tags\":\"bestseller, gift, winter, wool\",\"status\":\"active\",\"admin_graphql_api_id\":\"gid:\\/\\/shopify\\/Product\\/")
+				.append(id).append("\",\"variants\":[");
+		for (int i = 1; i <= VARIANTS_PER_PRODUCT; i++) {
+			if (i > 1) {
+				json.append(',');
+			}
+			final long variantId = id * 100 + i;
+			json.append("{\"id\":").append(variantId).append(",\"product_id\":").append(id).append(",\"title\":\"").append(size(i)).append(" \\/ ")
+					.append(color(i)).append("\",\"price\":\"89.00\",\"sku\":\"").append(sku(id, i)).append("\",\"position\":").append(i)
+					.append(",\"inventory_policy\":\"").append(i % 3 == 0 ? "continue" : "deny")
+					.append("\",\"compare_at_price\":\"109.00\",\"fulfillment_service\":\"manual\",\"inventory_management\":\"shopify\",")
+					.append("\"option1\":\"").append(size(i)).append("\",\"option2\":\"").append(color(i))
+					.append("\",\"option3\":null,\"created_at\":\"2026-02-03T09:12:44-05:00\",\"updated_at\":\"").append(UPDATED_AT)
+					.append("\",\"taxable\":true,\"barcode\":\"").append(barcode(id, i)).append("\",\"grams\":450,\"image_id\":")
+					.append(id * 10 + (i % IMAGES_PER_PRODUCT) + 1).append(",\"weight\":0.45,\"weight_unit\":\"kg\",\"inventory_item_id\":")
+					.append(id * 1000 + i).append(",\"inventory_quantity\":12,\"old_inventory_quantity\":12,\"requires_shipping\":true,")
+					.append("\"admin_graphql_api_id\":\"gid:\\/\\/shopify\\/ProductVariant\\/").append(variantId).append("\"}");
+		}
+		json.append("],\"options\":[{\"id\":").append(id * 10 + 1).append(",\"product_id\":").append(id)
+				.append(",\"name\":\"Size\",\"position\":1,\"values\":[\"S\",\"M\",\"L\"]},{\"id\":").append(id * 10 + 2).append(",\"product_id\":")
+				.append(id).append(",\"name\":\"Color\",\"position\":2,\"values\":[\"Black\",\"Ivory\"]}],\"images\":[");
+		for (int i = 1; i <= IMAGES_PER_PRODUCT; i++) {
+			if (i > 1) {
+				json.append(',');
+			}
+			json.append("{\"id\":").append(id * 10 + i).append(",\"alt\":null,\"position\":").append(i).append(",\"product_id\":").append(id)
+					.append(",\"created_at\":\"2026-02-03T09:13:02-05:00\",\"updated_at\":\"").append(UPDATED_AT)
+					.append("\",\"width\":2048,\"height\":2048,\"src\":\"").append(imageSource(id, i).replace("/", "\\/"))
+					.append("\",\"variant_ids\":[").append(id * 100 + i).append("]}");
+		}
+		json.append("],\"image\":{\"id\":").append(id * 10 + 1).append(",\"position\":1,\"product_id\":").append(id).append(",\"src\":\"")
+				.append(imageSource(id, 1).replace("/", "\\/")).append("\",\"variant_ids\":[]}}");
+	}
+
+
+	/**
+	 * @param json
+	 * @param id
+	 * @param number
+	 */
+	private static void appendOrder(final StringBuilder json, final long id, final int number) {
+		json.append("{\"id\":").append(id).append(",\"admin_graphql_api_id\":\"gid:\\/\\/shopify\\/Order\\/").append(id)
+				.append("\",\"browser_ip\":\"203.0.113.").append(number % 250).append("\",\"buyer_accepts_marketing\":").append(number % 2 == 0)
+				.append(",\"cancel_reason\":null,\"cancelled_at\":null,\"cart_token\":\"c1-").append(Long.toHexString(id))
+				.append("\",\"closed_at\":null,\"confirmed\":true,\"contact_email\":\"customer").append(number)
+				.append("@example.com\",\"created_at\":\"2026-09-12T15:42:11-04:00\",\"currency\":\"usd\",\"email\":\"customer").append(number)
+				.append("@example.com\",\"financial_status\":\"paid\",\"fulfillment_status\":null,\"landing_site\":\"\\/products\\/merino\",")
+				.append("\"name\":\"#").append(number).append("\",\"note\":null,\"number\":").append(number - 1000).append(",\"order_number\":")
+				.append(number).append(",\"order_status_url\":\"https:\\/\\/example.myshopify.com\\/orders\\/").append(Long.toHexString(id * 31))
+				.append("\\/authenticate\",\"processed_at\":\"2026-09-12T15:42:10-04:00\",\"processing_method\":\"direct\",")
+				.append("\"referring_site\":\"https:\\/\\/www.google.com\\/\",\"source_name\":\"web\",\"subtotal_price\":\"267.00\",")
+				.append("\"tags\":\"wholesale, priority\",\"taxes_included\":false,\"token\":\"").append(Long.toHexString(id * 17))
+				.append("\",\"total_discounts\":\"0.00\",\"total_line_items_price\":\"267.00\",\"total_price\":\"290.36\",\"total_tax\":\"23.36\",")
+				.append("\"total_weight\":1350,\"updated_at\":\"").append(UPDATED_AT).append("\",\"user_id\":null,\"location_id\":null,")
+				.append("\"billing_address\":");
+		appendAddress(json, number);
+		json.append(",\"shipping_address\":");
+		appendAddress(json, number);
+		json.append(",\"customer\":{\"id\":").append(6_900_000_000L + number).append(",\"email\":\"customer").append(number)
+				.append("@example.com\",\"accepts_marketing\":false,\"created_at\":\"2025-11-02T08:01:55-04:00\",\"updated_at\":\"").append(UPDATED_AT)
+				.append("\",\"first_name\":\"Avery\",\"last_name\":\"Lindqvist\",\"orders_count\":3,\"state\":\"enabled\",\"total_spent\":\"512.40\",")
+				.append("\"note\":null,\"phone\":null,\"tags\":\"\",\"currency\":\"USD\"},\"line_items\":[");
+		for (int i = 1; i <= LINE_ITEMS_PER_ORDER; i++) {
+			if (i > 1) {
+				json.append(',');
+			}
+			final long productId = 7_400_000_000L + i;
+			json.append("{\"id\":").append(id * 10 + i).append(",\"variant_id\":").append(productId * 100 + i)
+					.append(",\"title\":\"Merino Crew & Scarf Set\",\"quantity\":1,\"price\":\"89.00\",\"grams\":450,\"sku\":\"").append(sku(productId, i))
+					.append("\",\"variant_title\":\"").append(size(i)).append(" \\/ ").append(color(i)).append("\",\"vendor\":\"Northwind Knits\",")
+					.append("\"product_id\":").append(productId).append(",\"requires_shipping\":true,\"taxable\":true,\"gift_card\":false,")
+					.append("\"name\":\"Merino Crew & Scarf Set - ").append(size(i)).append(" \\/ ").append(color(i))
+					.append("\",\"variant_inventory_management\":\"shopify\",\"fulfillable_quantity\":1,\"total_discount\":\"0.00\",")
+					.append("\"fulfillment_status\":null,\"fulfillment_service\":\"manual\",\"properties\":[],\"tax_lines\":[")
+					.append("{\"title\":\"NY State Tax\",\"price\":\"3.56\",\"rate\":0.04},{\"title\":\"New York City Tax\",\"price\":\"4.23\",\"rate\":0.045}]}");
+		}
+		json.append("],\"shipping_lines\":[{\"id\":").append(id * 3).append(",\"title\":\"Standard\",\"price\":\"0.00\",\"code\":\"Standard\",")
+				.append("\"source\":\"shopify\"}],\"tax_lines\":[{\"title\":\"NY State Tax\",\"price\":\"10.68\",\"rate\":0.04},")
+				.append("{\"title\":\"New York City Tax\",\"price\":\"12.68\",\"rate\":0.045}],\"fulfillments\":[],\"refunds\":[]}");
+	}
+
+
+	/**
+	 * @param json
+	 * @param number
+	 */
+	private static void appendAddress(final StringBuilder json, final int number) {
+		json.append("{\"first_name\":\"Avery\",\"last_name\":\"Lindqvist\",\"name\":\"Avery Lindqvist\",\"company\":null,\"address1\":\"")
+				.append(number).append(" Hudson Street\",\"address2\":\"Apt 4\",\"city\":\"New York\",\"zip\":\"10013\",\"province\":\"New York\",")
+				.append("\"country\":\"United States\",\"province_code\":\"NY\",\"country_code\":\"US\",\"phone\":\"+1 212-555-0147\",")
+				.append("\"latitude\":40.7205,\"longitude\":-74.0089}");
+	}
+
+
+	/**
+	 * @param productId
+	 * @param name
+	 * @param position
+	 * @param values
+	 * @return Option
+	 */
+	private static Option option(final long productId, final String name, final int position, final List<String> values) {
+		final Option option = new Option();
+		option.setId(String.valueOf(productId * 10 + position));
+		option.setProductId(String.valueOf(productId));
+		option.setName(name);
+		option.setPosition(position);
+		option.setValues(new ArrayList<>(values));
+		return option;
+	}
+
+
+	/**
+	 * @param position
+	 * @return String
+	 */
+	private static String size(final int position) {
+		return SIZES[(position - 1) % SIZES.length];
+	}
+
+
+	/**
+	 * @param position
+	 * @return String
+	 */
+	private static String color(final int position) {
+		return COLORS[(position - 1) / SIZES.length % COLORS.length];
+	}
+
+
+	/**
+	 * @param productId
+	 * @param position
+	 * @return String
+	 */
+	private static String sku(final long productId, final int position) {
+		return "NWK-" + productId + "-" + size(position) + "-" + color(position).toUpperCase();
+	}
+
+
+	/**
+	 * @param productId
+	 * @param position
+	 * @return String
+	 */
+	private static String barcode(final long productId, final int position) {
+		return String.valueOf(400_000_000_000L + productId % 1_000_000 * 100 + position);
+	}
+
+}
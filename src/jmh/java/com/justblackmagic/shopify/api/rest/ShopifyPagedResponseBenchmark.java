@@ -0,0 +1,74 @@
+package com.justblackmagic.shopify.api.rest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import com.justblackmagic.shopify.api.rest.model.ShopifyPage;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.Response;
+
+/**
+ * {@link ShopifyRestClient#mapPagedResponse(List, Response)}: copying a page's items and parsing the {@code page_info} cursors of its
+ * {@code Link} header, as every paged call of the REST client does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ShopifyPagedResponseBenchmark {
+
+	private static final String PAGE_URL = "https://example.myshopify.com/admin/api/2024-10/products.json?limit=250&page_info=";
+
+	@Param({"50", "250"})
+	public int pageSize;
+
+	private List<Object> items;
+	private Response middlePage;
+	private Response lastPage;
+
+
+	@Setup
+	public void setUp() {
+		items = new ArrayList<>(pageSize);
+		for (int i = 0; i < pageSize; i++) {
+			items.add(new Object());
+		}
+		middlePage = Response.ok()
+				.header(HttpHeaders.LINK, "<" + PAGE_URL + "eyJkaXJlY3Rpb24iOiJwcmV2IiwibGFzdF9pZCI6NzQwMDAwMDI1MH0>; rel=\"previous\"")
+				.header(HttpHeaders.LINK, "<" + PAGE_URL + "eyJkaXJlY3Rpb24iOiJuZXh0IiwibGFzdF9pZCI6NzQwMDAwMDUwMH0>; rel=\"next\"").build();
+		lastPage = Response.ok()
+				.header(HttpHeaders.LINK, "<" + PAGE_URL + "eyJkaXJlY3Rpb24iOiJwcmV2IiwibGFzdF9pZCI6NzQwMDAwMDc1MH0>; rel=\"previous\"").build();
+	}
+
+
+	/**
+	 * @return ShopifyPage<Object>
+	 */
+	@Benchmark
+	public ShopifyPage<Object> mapMiddlePage() {
+		return ShopifyRestClient.mapPagedResponse(items, middlePage);
+	}
+
+
+	/**
+	 * @return ShopifyPage<Object>
+	 */
+	@Benchmark
+	public ShopifyPage<Object> mapLastPage() {
+		return ShopifyRestClient.mapPagedResponse(items, lastPage);
+	}
+
+}
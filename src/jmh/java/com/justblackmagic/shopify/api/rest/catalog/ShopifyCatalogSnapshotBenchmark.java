@@ -0,0 +1,212 @@
+package com.justblackmagic.shopify.api.rest.catalog;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.justblackmagic.shopify.api.rest.BenchmarkPayloads;
+import com.justblackmagic.shopify.api.rest.mappers.ShopifySdkObjectMapper;
+import com.justblackmagic.shopify.api.rest.model.ShopifyProduct;
+import com.justblackmagic.shopify.api.rest.model.ShopifyProducts;
+import com.justblackmagic.shopify.api.rest.model.ShopifyProductsRoot;
+import com.justblackmagic.shopify.api.rest.model.ShopifyVariant;
+
+/**
+ * {@link ShopifyCatalogSnapshot} against {@link ShopifyProducts} for a whole catalog read page by page, as the REST client reads it. The
+ * {@code retain} benchmarks report the heap each one keeps alive, after full collections, in the {@code retainedBytes} counter, which JMH sums
+ * over the measurement iterations; the {@code sum} benchmarks walk every variant of the catalog, and the {@code find} ones look a variant up by
+ * SKU.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+public class ShopifyCatalogSnapshotBenchmark {
+
+	private static final int PAGE_SIZE = 250;
+
+	/** Products in the catalog, each with {@link BenchmarkPayloads#VARIANTS_PER_PRODUCT} variants */
+	@Param({"10000"})
+	public int productCount;
+
+	private ObjectMapper objectMapper;
+	private byte[] pageBody;
+	private ShopifyProducts products;
+	private ShopifyCatalogSnapshot snapshot;
+	private String lastSku;
+
+	/**
+	 * Heap kept alive by the catalog built in an invocation.
+	 */
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	public static class Footprint {
+
+		public long retainedBytes;
+
+
+		@Setup(Level.Iteration)
+		public void reset() {
+			retainedBytes = 0;
+		}
+	}
+
+
+	@Setup
+	public void setUp() throws IOException {
+		objectMapper = ShopifySdkObjectMapper.buildMapper();
+		pageBody = BenchmarkPayloads.productsBody(PAGE_SIZE);
+		final List<ShopifyProduct> catalog = new ArrayList<>(productCount);
+		readCatalog(catalog::add);
+		products = new ShopifyProducts(catalog);
+		final ShopifyCatalogSnapshot.Builder builder = ShopifyCatalogSnapshot.builder();
+		readCatalog(builder::add);
+		snapshot = builder.build();
+		lastSku = snapshot.getSku(snapshot.getVariantCount() - 1);
+	}
+
+
+	/**
+	 * @param footprint
+	 * @return ShopifyProducts
+	 * @throws IOException
+	 */
+	@Benchmark
+	@BenchmarkMode(Mode.SingleShotTime)
+	@Warmup(iterations = 1)
+	@Measurement(iterations = 3)
+	public ShopifyProducts retainProducts(final Footprint footprint) throws IOException {
+		products = null;
+		final long before = usedHeap();
+		final List<ShopifyProduct> catalog = new ArrayList<>(productCount);
+		readCatalog(catalog::add);
+		final ShopifyProducts retained = new ShopifyProducts(catalog);
+		catalog.clear();
+		footprint.retainedBytes = usedHeap() - before;
+		products = retained;
+		return retained;
+	}
+
+
+	/**
+	 * @param footprint
+	 * @return ShopifyCatalogSnapshot
+	 * @throws IOException
+	 */
+	@Benchmark
+	@BenchmarkMode(Mode.SingleShotTime)
+	@Warmup(iterations = 1)
+	@Measurement(iterations = 3)
+	public ShopifyCatalogSnapshot retainSnapshot(final Footprint footprint) throws IOException {
+		snapshot = null;
+		final long before = usedHeap();
+		final ShopifyCatalogSnapshot.Builder builder = ShopifyCatalogSnapshot.builder();
+		readCatalog(builder::add);
+		final ShopifyCatalogSnapshot retained = builder.build();
+		footprint.retainedBytes = usedHeap() - before;
+		snapshot = retained;
+		return retained;
+	}
+
+
+	/**
+	 * @return the total price of the variants
+	 */
+	@Benchmark
+	public BigDecimal sumPricesOfProducts() {
+		BigDecimal total = BigDecimal.ZERO;
+		for (final ShopifyVariant variant : products.getVariants()) {
+			total = total.add(variant.getPrice());
+		}
+		return total;
+	}
+
+
+	/**
+	 * @return the total price of the variants
+	 */
+	@Benchmark
+	public BigDecimal sumPricesOfSnapshot() {
+		BigDecimal total = BigDecimal.ZERO;
+		for (int variant = 0; variant < snapshot.getVariantCount(); variant++) {
+			total = total.add(snapshot.getPrice(variant));
+		}
+		return total;
+	}
+
+
+	/**
+	 * @return the variant with the SKU of the last variant of the catalog
+	 */
+	@Benchmark
+	public ShopifyVariant findVariantBySkuInProducts() {
+		for (final ShopifyVariant variant : products.getVariants()) {
+			if (lastSku.equals(variant.getSku())) {
+				return variant;
+			}
+		}
+		return null;
+	}
+
+
+	/**
+	 * @return the index of the variant with the SKU of the last variant of the catalog
+	 */
+	@Benchmark
+	public int findVariantBySkuInSnapshot() {
+		return snapshot.indexOfVariantBySku(lastSku);
+	}
+
+
+	/**
+	 * Reads the catalog one page at a time, giving every product and variant its own id and every variant its own SKU.
+	 *
+	 * @param action called with each product
+	 * @throws IOException
+	 */
+	private void readCatalog(final Consumer<ShopifyProduct> action) throws IOException {
+		for (int read = 0; read < productCount; read += PAGE_SIZE) {
+			for (final ShopifyProduct product : objectMapper.readValue(pageBody, ShopifyProductsRoot.class).getProducts()) {
+				final long productId = Long.parseLong(product.getId()) + read;
+				product.setId(String.valueOf(productId));
+				int position = 0;
+				for (final ShopifyVariant variant : product.getVariants()) {
+					variant.setId(String.valueOf(productId * 100 + ++position));
+					variant.setSku(variant.getSku() + "-" + read / PAGE_SIZE);
+				}
+				action.accept(product);
+			}
+		}
+	}
+
+
+	/**
+	 * @return the heap in use after full collections
+	 */
+	private static long usedHeap() {
+		for (int i = 0; i < 3; i++) {
+			System.gc();
+		}
+		return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+	}
+
+}
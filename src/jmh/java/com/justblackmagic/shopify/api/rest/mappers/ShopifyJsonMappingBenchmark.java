@@ -0,0 +1,103 @@
+package com.justblackmagic.shopify.api.rest.mappers;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.justblackmagic.shopify.api.rest.BenchmarkPayloads;
+import com.justblackmagic.shopify.api.rest.model.ShopifyOrdersRoot;
+import com.justblackmagic.shopify.api.rest.model.ShopifyProductRoot;
+import com.justblackmagic.shopify.api.rest.model.ShopifyProductsRoot;
+
+/**
+ * The {@link ShopifyJsonMapping}s compared on the same payloads: {@code COMPATIBLE} reads and writes through the mapper, as the generic Jersey
+ * provider does, and {@code PRECOMPILED} through the prebuilt readers and writers of the {@link ShopifyObjectReaderRegistry}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ShopifyJsonMappingBenchmark {
+
+	@Param({"COMPATIBLE", "PRECOMPILED"})
+	public ShopifyJsonMapping jsonMapping;
+
+	@Param({"50"})
+	public int pageSize;
+
+	private ObjectMapper objectMapper;
+	private ObjectReader ordersReader;
+	private ObjectReader productsReader;
+	private ObjectWriter productWriter;
+	private byte[] ordersBody;
+	private byte[] productsBody;
+	private ShopifyProductRoot productRoot;
+
+
+	@Setup
+	public void setUp() {
+		final ShopifyObjectReaderRegistry registry = ShopifyObjectReaderRegistry.forMapping(jsonMapping);
+		objectMapper = registry.getObjectMapper();
+		ordersReader = registry.readerFor(ShopifyOrdersRoot.class);
+		productsReader = registry.readerFor(ShopifyProductsRoot.class);
+		productWriter = registry.writerFor(ShopifyProductRoot.class);
+		ordersBody = BenchmarkPayloads.ordersBody(pageSize);
+		productsBody = BenchmarkPayloads.productsBody(pageSize);
+		productRoot = new ShopifyProductRoot();
+		productRoot.setProduct(BenchmarkPayloads.product(7_400_000_001L));
+	}
+
+
+	/**
+	 * @return ShopifyOrdersRoot
+	 * @throws IOException
+	 */
+	@Benchmark
+	public ShopifyOrdersRoot readOrders() throws IOException {
+		if (jsonMapping == ShopifyJsonMapping.PRECOMPILED) {
+			return ordersReader.readValue(ordersBody);
+		}
+		return objectMapper.readValue(ordersBody, ShopifyOrdersRoot.class);
+	}
+
+
+	/**
+	 * @return ShopifyProductsRoot
+	 * @throws IOException
+	 */
+	@Benchmark
+	public ShopifyProductsRoot readProducts() throws IOException {
+		if (jsonMapping == ShopifyJsonMapping.PRECOMPILED) {
+			return productsReader.readValue(productsBody);
+		}
+		return objectMapper.readValue(productsBody, ShopifyProductsRoot.class);
+	}
+
+
+	/**
+	 * @return the request body
+	 * @throws IOException
+	 */
+	@Benchmark
+	public byte[] writeProduct() throws IOException {
+		if (jsonMapping == ShopifyJsonMapping.PRECOMPILED) {
+			return productWriter.writeValueAsBytes(productRoot);
+		}
+		return objectMapper.writeValueAsBytes(productRoot);
+	}
+
+}
@@ -0,0 +1,69 @@
+package com.justblackmagic.shopify.api.rest.mappers;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.justblackmagic.shopify.api.rest.BenchmarkPayloads;
+import com.justblackmagic.shopify.api.rest.model.ShopifyOrdersRoot;
+import com.justblackmagic.shopify.api.rest.model.ShopifyProductsRoot;
+
+/**
+ * Deserialization of order and product pages by the {@link ShopifySdkObjectMapper}, as the REST client reads them. The payloads exercise the custom
+ * {@code TagsDeserializer}, {@code CurrencyDeserializer} and {@code InventoryPolicyDeserializer}, and the properties the model ignores.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ShopifySdkObjectMapperReadBenchmark {
+
+	/** Items per page: a single resource, a typical page and Shopify's maximum page */
+	@Param({"1", "50", "250"})
+	public int pageSize;
+
+	private ObjectMapper objectMapper;
+	private byte[] ordersBody;
+	private byte[] productsBody;
+
+
+	@Setup
+	public void setUp() {
+		objectMapper = ShopifySdkObjectMapper.buildMapper();
+		ordersBody = BenchmarkPayloads.ordersBody(pageSize);
+		productsBody = BenchmarkPayloads.productsBody(pageSize);
+	}
+
+
+	/**
+	 * @return ShopifyOrdersRoot
+	 * @throws IOException
+	 */
+	@Benchmark
+	public ShopifyOrdersRoot readOrders() throws IOException {
+		return objectMapper.readValue(ordersBody, ShopifyOrdersRoot.class);
+	}
+
+
+	/**
+	 * @return ShopifyProductsRoot
+	 * @throws IOException
+	 */
+	@Benchmark
+	public ShopifyProductsRoot readProducts() throws IOException {
+		return objectMapper.readValue(productsBody, ShopifyProductsRoot.class);
+	}
+
+}
@@ -0,0 +1,104 @@
+package com.justblackmagic.shopify.api.rest.mappers;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.justblackmagic.shopify.api.rest.BenchmarkPayloads;
+import com.justblackmagic.shopify.api.rest.model.InventoryPolicy;
+import com.justblackmagic.shopify.api.rest.model.ShopifyProduct;
+import com.justblackmagic.shopify.api.rest.model.ShopifyProductRoot;
+import com.justblackmagic.shopify.api.rest.model.ShopifyProductUpdateRequest;
+import com.justblackmagic.shopify.api.rest.model.ShopifyVariant;
+import com.justblackmagic.shopify.api.rest.model.ShopifyVariantRequest;
+import com.justblackmagic.shopify.api.rest.model.ShopifyVariantRoot;
+import com.justblackmagic.shopify.api.rest.model.ShopifyVariantUpdateRequest;
+
+/**
+ * Building product and variant update requests with their step builders and serializing them with the {@link ShopifySdkObjectMapper}, as
+ * {@code updateProduct} and {@code updateVariant} send them. The builders modify the resource they are given, so every invocation starts from a new
+ * one, built with setters rather than read, to keep deserialization out of the measurement.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ShopifySdkObjectMapperWriteBenchmark {
+
+	private static final long PRODUCT_ID = 7_400_000_001L;
+
+	private ObjectMapper objectMapper;
+
+
+	@Setup
+	public void setUp() {
+		objectMapper = ShopifySdkObjectMapper.buildMapper();
+	}
+
+
+	/**
+	 * @return the request body
+	 * @throws IOException
+	 */
+	@Benchmark
+	public byte[] writeProductUpdateRequest() throws IOException {
+		final ShopifyProduct currentProduct = BenchmarkPayloads.product(PRODUCT_ID);
+		final List<ShopifyVariantRequest> variantRequests = new ArrayList<>(currentProduct.getVariants().size());
+		for (final ShopifyVariant currentVariant : currentProduct.getVariants()) {
+			variantRequests.add(variantUpdateRequest(currentVariant));
+		}
+		final List<String> imageSources = new ArrayList<>(BenchmarkPayloads.IMAGES_PER_PRODUCT);
+		for (int i = 1; i <= BenchmarkPayloads.IMAGES_PER_PRODUCT; i++) {
+			imageSources.add(BenchmarkPayloads.imageSource(PRODUCT_ID, i));
+		}
+		final ShopifyProductUpdateRequest productUpdateRequest = ShopifyProductUpdateRequest.newBuilder().withCurrentShopifyProduct(currentProduct)
+				.withTitle("Merino Crew & Scarf Set").withSameMetafieldsGlobalTitleTag().withSameProductType()
+				.withBodyHtml("<p>Soft merino wool, knitted in Portugal. Machine washable at 30&deg;C. Now in gift packaging.</p>")
+				.withSameMetafieldsGlobalDescriptionTag().withSameVendor().withTags(BenchmarkPayloads.editedTags()).withSameOptions()
+				.withImageSources(imageSources).withVariantRequests(variantRequests).withPublished(true).build();
+
+		final ShopifyProductRoot productRoot = new ShopifyProductRoot();
+		productRoot.setProduct(productUpdateRequest.getRequest());
+		return objectMapper.writeValueAsBytes(productRoot);
+	}
+
+
+	/**
+	 * @return the request body
+	 * @throws IOException
+	 */
+	@Benchmark
+	public byte[] writeVariantUpdateRequest() throws IOException {
+		final ShopifyVariantRoot variantRoot = new ShopifyVariantRoot();
+		variantRoot.setVariant(variantUpdateRequest(BenchmarkPayloads.variant(PRODUCT_ID, 1)).getRequest());
+		return objectMapper.writeValueAsBytes(variantRoot);
+	}
+
+
+	/**
+	 * @param currentVariant
+	 * @return an update of the variant's price, stock and inventory policy
+	 */
+	private static ShopifyVariantUpdateRequest variantUpdateRequest(final ShopifyVariant currentVariant) {
+		return ShopifyVariantUpdateRequest.newBuilder().withCurrentShopifyVariant(currentVariant).withPrice(new BigDecimal("79.00"))
+				.withSameCompareAtPrice().withSameSku().withSameBarcode().withWeight(new BigDecimal("452.4")).withAvailable(9L)
+				.withSameFirstOption().withSameSecondOption().withSameThirdOption().withSameImage().withSameInventoryManagement()
+				.withInventoryPolicy(InventoryPolicy.CONTINUE).withSameFulfillmentService().withSameRequiresShipping().withSameTaxable()
+				.withSameInventoryItemId().build();
+	}
+
+}
@@ -0,0 +1,153 @@
+package com.justblackmagic.shopify.api.rest.projection;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.ZonedDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.justblackmagic.shopify.api.rest.BenchmarkPayloads;
+import com.justblackmagic.shopify.api.rest.mappers.ShopifyJsonArrayReader;
+import com.justblackmagic.shopify.api.rest.mappers.ShopifyJsonMapping;
+import com.justblackmagic.shopify.api.rest.mappers.ShopifyObjectReaderRegistry;
+import com.justblackmagic.shopify.api.rest.mappers.ShopifySdkObjectMapper;
+import com.justblackmagic.shopify.api.rest.model.ShopifyOrder;
+
+/**
+ * A page of full orders against the same page projected to the three fields an order sync job needs, each read as the paging methods read them.
+ * The projected page is what Shopify returns for the {@code fields} of the {@link OrderSync} projection. The setup prints the size of both pages,
+ * plain and gzip compressed; with {@code compressed} the benchmarks also inflate the page, as the client does for gzip responses.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ShopifyProjectionBenchmark {
+
+	private static final String ORDERS = "orders";
+	private static final ShopifyObjectReaderRegistry READERS = ShopifyObjectReaderRegistry.forMapping(ShopifyJsonMapping.COMPATIBLE);
+
+	@Param({"250"})
+	public int pageSize;
+
+	@Param({"false", "true"})
+	public boolean compressed;
+
+	private byte[] fullBody;
+	private byte[] projectedBody;
+
+	/**
+	 * The partial order of an order sync job.
+	 */
+	public static class OrderSync {
+
+		public String id;
+
+		@JsonProperty("updated_at")
+		public ZonedDateTime updatedAt;
+
+		@JsonProperty("financial_status")
+		public String financialStatus;
+	}
+
+
+	@Setup
+	public void setUp() throws IOException {
+		final byte[] fullPage = BenchmarkPayloads.ordersBody(pageSize);
+		final byte[] projectedPage = project(fullPage, ShopifyProjection.of(OrderSync.class).getFields().split(","));
+		fullBody = compressed ? gzip(fullPage) : fullPage;
+		projectedBody = compressed ? gzip(projectedPage) : projectedPage;
+		System.out.printf("%n%d orders: full page %,d bytes (%,d gzip), projected page %,d bytes (%,d gzip)%n", pageSize, fullPage.length,
+				gzip(fullPage).length, projectedPage.length, gzip(projectedPage).length);
+	}
+
+
+	/**
+	 * @param blackhole
+	 * @return the number of orders read
+	 * @throws IOException
+	 */
+	@Benchmark
+	public int readFullPage(final Blackhole blackhole) throws IOException {
+		return ShopifyJsonArrayReader.readArray(open(fullBody), ORDERS, READERS.readerFor(ShopifyOrder.class), blackhole::consume);
+	}
+
+
+	/**
+	 * @param blackhole
+	 * @return the number of orders read
+	 * @throws IOException
+	 */
+	@Benchmark
+	public int readProjectedPage(final Blackhole blackhole) throws IOException {
+		return ShopifyJsonArrayReader.readArray(open(projectedBody), ORDERS, READERS.readerFor(OrderSync.class), blackhole::consume);
+	}
+
+
+	/**
+	 * @param body
+	 * @return the stream of the body as the client reads it
+	 * @throws IOException
+	 */
+	private InputStream open(final byte[] body) throws IOException {
+		final InputStream inputStream = new ByteArrayInputStream(body);
+		return compressed ? new GZIPInputStream(inputStream) : inputStream;
+	}
+
+
+	/**
+	 * @param page
+	 * @param fields
+	 * @return the page with only the given fields of each order, as Shopify returns it for the {@code fields} parameter
+	 * @throws IOException
+	 */
+	private static byte[] project(final byte[] page, final String... fields) throws IOException {
+		final ObjectMapper mapper = ShopifySdkObjectMapper.buildMapper();
+		final ArrayNode orders = mapper.createArrayNode();
+		for (final JsonNode order : mapper.readTree(page).get(ORDERS)) {
+			final ObjectNode projected = orders.addObject();
+			for (final String field : fields) {
+				projected.set(field, order.get(field));
+			}
+		}
+		final ObjectNode root = mapper.createObjectNode();
+		root.set(ORDERS, orders);
+		return mapper.writeValueAsBytes(root);
+	}
+
+
+	/**
+	 * @param body
+	 * @return the body compressed as Shopify sends it for {@code Accept-Encoding: gzip}
+	 * @throws IOException
+	 */
+	private static byte[] gzip(final byte[] body) throws IOException {
+		final ByteArrayOutputStream compressedBody = new ByteArrayOutputStream();
+		try (final GZIPOutputStream gzip = new GZIPOutputStream(compressedBody)) {
+			gzip.write(body);
+		}
+		return compressedBody.toByteArray();
+	}
+
+}
@@ -2,9 +2,18 @@ package com.justblackmagic.shopify;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.persistence.autoconfigure.EntityScan;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import com.justblackmagic.shopify.auth.persistence.model.AuthorizedClient;
+import com.justblackmagic.shopify.auth.persistence.repository.JPAAuthorizedClientRepository;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
+// The sync entities and repositories are registered by OrderSyncConfig, only when the order sync is enabled
+@EntityScan(basePackageClasses = AuthorizedClient.class)
+@EnableJpaRepositories(basePackageClasses = JPAAuthorizedClientRepository.class)
 @EnableJpaAuditing
+@EnableScheduling
 @SpringBootApplication
 public class ShopifyApplication {
 
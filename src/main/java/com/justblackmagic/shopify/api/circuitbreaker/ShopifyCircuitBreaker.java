@@ -0,0 +1,333 @@
+package com.justblackmagic.shopify.api.circuitbreaker;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Per-shop circuit breaker shared by the REST and GraphQL clients of a shop.
+ *
+ * <p>While {@link State#CLOSED CLOSED} every call goes through and the outcomes of the most recent calls are recorded. Once at least
+ * {@value #DEFAULT_MINIMUM_CALLS} calls have been recorded and half or more of them failed with a server error, the breaker trips to
+ * {@link State#OPEN OPEN} and rejects every call immediately with a {@link ShopifyCircuitBreakerOpenException}, so a shop whose API is down no longer
+ * ties up worker threads with retries. After the open duration it moves to {@link State#HALF_OPEN HALF_OPEN} and lets a few probe calls through:
+ * if they all succeed the breaker closes again, any failure re-opens it.
+ *
+ * <p>Only outages count as failures: 5xx and 423 Locked responses, and calls that fail without a response. Rate limiting and other client errors are
+ * successes as far as the breaker is concerned.
+ *
+ * <p>State changes are logged, passed to the listeners added with {@link #addStateChangeListener(Consumer)}, and counted in the
+ * {@code shopify.api.circuitbreaker.transitions} metric. Gauges report the number of open and half-open breakers.
+ */
+@Slf4j
+public class ShopifyCircuitBreaker {
+
+	/**
+	 * The states of a circuit breaker.
+	 */
+	public enum State {
+		CLOSED, OPEN, HALF_OPEN
+	}
+
+	/**
+	 * A state change of a shop's circuit breaker.
+	 *
+	 * @param shop the shop of the circuit breaker
+	 * @param fromState the state before the change
+	 * @param toState the state after the change
+	 */
+	public record StateChange(String shop, State fromState, State toState) {
+	}
+
+	/** Number of most recent calls the failure rate is computed over. */
+	static final int DEFAULT_WINDOW_SIZE = 20;
+
+	/** Calls that must be recorded before the failure rate can trip the breaker. */
+	static final int DEFAULT_MINIMUM_CALLS = 10;
+
+	/** Failure rate at or above which the breaker trips. */
+	static final double DEFAULT_FAILURE_RATE_THRESHOLD = 0.5d;
+
+	/** Time the breaker stays open before probing the shop again. */
+	static final long DEFAULT_OPEN_DURATION_MILLIS = 30000L;
+
+	/** Probe calls let through while half-open, all of which must succeed to close the breaker. */
+	static final int DEFAULT_PROBE_CALLS = 3;
+
+	static final String METRIC_PREFIX = "shopify.api.circuitbreaker";
+
+	/** Circuit breakers by shop, evicted after 10 minutes of inactivity to prevent memory leaks */
+	private static final Cache<String, ShopifyCircuitBreaker> BREAKERS =
+			Caffeine.newBuilder().expireAfterAccess(10, TimeUnit.MINUTES).maximumSize(10_000).build();
+
+	private static final List<Consumer<StateChange>> STATE_CHANGE_LISTENERS = new CopyOnWriteArrayList<>();
+
+	static {
+		for (final State state : new State[] { State.OPEN, State.HALF_OPEN }) {
+			Gauge.builder(METRIC_PREFIX + ".state", () -> BREAKERS.asMap().values().stream().filter(breaker -> breaker.getState() == state).count())
+					.tag("state", state.name()).description("Shopify shops whose circuit breaker is in the given state").register(Metrics.globalRegistry);
+		}
+	}
+
+	private final String shop;
+	private final LongSupplier nanoClock;
+	private final long openDurationNanos;
+
+	/** Ring buffer of the most recent call outcomes, true for a failure. */
+	private final boolean[] outcomes = new boolean[DEFAULT_WINDOW_SIZE];
+	private int outcomeIndex;
+	private int recordedCalls;
+	private int failedCalls;
+
+	private State state = State.CLOSED;
+	private long openedAtNanos;
+	private int probesStarted;
+	private int probesSucceeded;
+	private long rejectedCallCount;
+
+
+	ShopifyCircuitBreaker(final String shop, final LongSupplier nanoClock, final long openDurationMillis) {
+		this.shop = shop;
+		this.nanoClock = nanoClock;
+		this.openDurationNanos = TimeUnit.MILLISECONDS.toNanos(openDurationMillis);
+	}
+
+
+	/**
+	 * Returns the circuit breaker shared by all clients of the given shop.
+	 *
+	 * @param shop the shop subdomain (e.g. {@code my-shop.myshopify.com}) or API host
+	 * @return ShopifyCircuitBreaker
+	 */
+	public static ShopifyCircuitBreaker forShop(final String shop) {
+		return BREAKERS.get(shop, key -> new ShopifyCircuitBreaker(key, System::nanoTime, DEFAULT_OPEN_DURATION_MILLIS));
+	}
+
+
+	/**
+	 * Read-only view of the currently active circuit breakers by shop, for metrics and diagnostics.
+	 *
+	 * @return Map<String, ShopifyCircuitBreaker>
+	 */
+	public static Map<String, ShopifyCircuitBreaker> getCircuitBreakers() {
+		return Collections.unmodifiableMap(BREAKERS.asMap());
+	}
+
+
+	/**
+	 * Adds a listener called on every state change of any shop's circuit breaker. Listeners run on the thread whose call caused the change and must
+	 * not block.
+	 *
+	 * @param listener
+	 */
+	public static void addStateChangeListener(final Consumer<StateChange> listener) {
+		STATE_CHANGE_LISTENERS.add(listener);
+	}
+
+
+	/**
+	 * @param listener
+	 */
+	public static void removeStateChangeListener(final Consumer<StateChange> listener) {
+		STATE_CHANGE_LISTENERS.remove(listener);
+	}
+
+
+	/**
+	 * Checks that a call may be made, and throws if the breaker is open. Every successful acquisition must be followed by exactly one call to
+	 * {@link #onSuccess()}, {@link #onFailure()} or {@link #onIgnored()}.
+	 *
+	 * @throws ShopifyCircuitBreakerOpenException if the breaker is open, or half-open with all probe calls already in flight
+	 */
+	public void acquirePermission() {
+		if (!tryAcquirePermission()) {
+			throw new ShopifyCircuitBreakerOpenException(shop);
+		}
+	}
+
+
+	/**
+	 * @return true if a call may be made, false if it must be rejected
+	 */
+	public boolean tryAcquirePermission() {
+		final StateChange stateChange;
+		synchronized (this) {
+			if (state == State.CLOSED) {
+				return true;
+			}
+			if (state == State.OPEN) {
+				if (nanoClock.getAsLong() - openedAtNanos < openDurationNanos) {
+					rejectedCallCount++;
+					return false;
+				}
+				stateChange = transitionTo(State.HALF_OPEN);
+			} else {
+				stateChange = null;
+			}
+			if (probesStarted >= DEFAULT_PROBE_CALLS) {
+				rejectedCallCount++;
+				return false;
+			}
+			probesStarted++;
+		}
+		publish(stateChange);
+		return true;
+	}
+
+
+	/**
+	 * Records a call that completed without a sign of an outage.
+	 */
+	public void onSuccess() {
+		final StateChange stateChange;
+		synchronized (this) {
+			if (state == State.HALF_OPEN) {
+				probesSucceeded++;
+				stateChange = probesSucceeded >= DEFAULT_PROBE_CALLS ? transitionTo(State.CLOSED) : null;
+			} else if (state == State.CLOSED) {
+				record(false);
+				stateChange = null;
+			} else {
+				stateChange = null;
+			}
+		}
+		publish(stateChange);
+	}
+
+
+	/**
+	 * Records a call that failed with a server error or without a response.
+	 */
+	public void onFailure() {
+		final StateChange stateChange;
+		synchronized (this) {
+			if (state == State.HALF_OPEN) {
+				stateChange = transitionTo(State.OPEN);
+			} else if (state == State.CLOSED) {
+				record(true);
+				stateChange = recordedCalls >= DEFAULT_MINIMUM_CALLS && (double) failedCalls / recordedCalls >= DEFAULT_FAILURE_RATE_THRESHOLD
+						? transitionTo(State.OPEN)
+						: null;
+			} else {
+				stateChange = null;
+			}
+		}
+		publish(stateChange);
+	}
+
+
+	/**
+	 * Releases a permission whose call was abandoned before it said anything about the shop's health, e.g. because the caller was interrupted.
+	 */
+	public synchronized void onIgnored() {
+		if (state == State.HALF_OPEN && probesStarted > probesSucceeded) {
+			probesStarted--;
+		}
+	}
+
+
+	/**
+	 * @return State
+	 */
+	public synchronized State getState() {
+		return state;
+	}
+
+
+	/**
+	 * @return String
+	 */
+	public String getShop() {
+		return shop;
+	}
+
+
+	/**
+	 * @return the failure rate over the recorded calls while closed
+	 */
+	public synchronized double getFailureRate() {
+		return recordedCalls == 0 ? 0.0d : (double) failedCalls / recordedCalls;
+	}
+
+
+	/**
+	 * @return the number of calls rejected without being sent
+	 */
+	public synchronized long getRejectedCallCount() {
+		return rejectedCallCount;
+	}
+
+
+	/**
+	 * @param failure
+	 */
+	private void record(final boolean failure) {
+		if (recordedCalls == outcomes.length) {
+			if (outcomes[outcomeIndex]) {
+				failedCalls--;
+			}
+		} else {
+			recordedCalls++;
+		}
+		outcomes[outcomeIndex] = failure;
+		if (failure) {
+			failedCalls++;
+		}
+		outcomeIndex = (outcomeIndex + 1) % outcomes.length;
+	}
+
+
+	/**
+	 * @param newState
+	 * @return StateChange
+	 */
+	private StateChange transitionTo(final State newState) {
+		final State oldState = state;
+		state = newState;
+		probesStarted = 0;
+		probesSucceeded = 0;
+		if (newState == State.OPEN) {
+			openedAtNanos = nanoClock.getAsLong();
+		} else if (newState == State.CLOSED) {
+			outcomeIndex = 0;
+			recordedCalls = 0;
+			failedCalls = 0;
+		}
+		return new StateChange(shop, oldState, newState);
+	}
+
+
+	/**
+	 * Notifies listeners outside the lock, so a slow listener cannot stall calls to the shop.
+	 *
+	 * @param stateChange
+	 */
+	private static void publish(final StateChange stateChange) {
+		if (stateChange == null) {
+			return;
+		}
+		if (stateChange.toState() == State.OPEN) {
+			log.warn("Circuit breaker for shop {} opened, failing calls fast", stateChange.shop());
+		} else {
+			log.info("Circuit breaker for shop {} changed from {} to {}", stateChange.shop(), stateChange.fromState(), stateChange.toState());
+		}
+		Metrics.counter(METRIC_PREFIX + ".transitions", "from", stateChange.fromState().name(), "to", stateChange.toState().name()).increment();
+		for (final Consumer<StateChange> listener : STATE_CHANGE_LISTENERS) {
+			try {
+				listener.accept(stateChange);
+			} catch (final RuntimeException e) {
+				log.error("Circuit breaker state change listener failed", e);
+			}
+		}
+	}
+
+}
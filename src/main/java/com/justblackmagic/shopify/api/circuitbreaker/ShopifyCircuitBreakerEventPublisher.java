@@ -0,0 +1,35 @@
+package com.justblackmagic.shopify.api.circuitbreaker;
+
+import java.util.function.Consumer;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import com.justblackmagic.shopify.api.circuitbreaker.ShopifyCircuitBreaker.StateChange;
+import com.justblackmagic.shopify.event.events.CircuitBreakerStateChangeEvent;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Republishes the state changes of every shop's {@link ShopifyCircuitBreaker} as Spring {@link CircuitBreakerStateChangeEvent}s, so the application
+ * can react to them with regular event listeners.
+ */
+@Component
+public class ShopifyCircuitBreakerEventPublisher {
+
+	private final Consumer<StateChange> listener;
+
+
+	/**
+	 * @param eventPublisher
+	 */
+	public ShopifyCircuitBreakerEventPublisher(final ApplicationEventPublisher eventPublisher) {
+		this.listener = stateChange -> eventPublisher
+				.publishEvent(new CircuitBreakerStateChangeEvent(stateChange.shop(), stateChange.fromState(), stateChange.toState()));
+		ShopifyCircuitBreaker.addStateChangeListener(listener);
+	}
+
+
+	@PreDestroy
+	public void close() {
+		ShopifyCircuitBreaker.removeStateChangeListener(listener);
+	}
+
+}
@@ -0,0 +1,25 @@
+package com.justblackmagic.shopify.api.circuitbreaker;
+
+import com.justblackmagic.shopify.api.rest.exceptions.ShopifyClientException;
+
+public class ShopifyCircuitBreakerOpenException extends ShopifyClientException {
+
+	private static final long serialVersionUID = 3902917652278845531L;
+	static final String MESSAGE = "Circuit breaker for shop %s is open, the call was not sent.";
+
+	private final String shop;
+
+	public ShopifyCircuitBreakerOpenException(final String shop) {
+		super(String.format(MESSAGE, shop), null);
+		this.shop = shop;
+	}
+
+
+	/**
+	 * @return String
+	 */
+	public String getShop() {
+		return shop;
+	}
+
+}
@@ -0,0 +1,128 @@
+package com.justblackmagic.shopify.api.graphql;
+
+import java.util.Map;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+import com.justblackmagic.shopify.api.rest.mappers.ShopifySdkObjectMapper;
+
+/**
+ * A GraphQL query loaded by the {@link GraphqlQueryRegistry}, with its variables template and the parts of its request body that never change
+ * serialized once.
+ *
+ * <p>A query without variables always sends the same body, so it is built once and reused. A query with variables reuses the serialized query and
+ * only serializes its variables: the template is parsed once, and placeholders such as {@code $titleValue} in its string values are replaced with
+ * the given values, escaped as JSON.
+ *
+ * @author justblackmagic
+ */
+public final class GraphqlQuery {
+
+    private static final ObjectMapper MAPPER = ShopifySdkObjectMapper.buildMapper();
+    private static final String INPUT_FIELD_NAME = "input";
+
+    private final String name;
+    private final String query;
+    private final JsonNode variablesTemplate;
+    private final String bodyPrefix;
+    private final String body;
+
+
+    /**
+     * @param name
+     * @param query
+     * @param variablesTemplate the parsed variables template, or null if the query has none
+     * @throws JsonProcessingException
+     */
+    GraphqlQuery(String name, String query, JsonNode variablesTemplate) throws JsonProcessingException {
+        this.name = name;
+        this.query = query;
+        this.variablesTemplate = variablesTemplate;
+        this.bodyPrefix = "{\"query\":" + MAPPER.writeValueAsString(query);
+        this.body = bodyPrefix + "}";
+    }
+
+
+    /**
+     * @return the file name of the query, without its extension
+     */
+    public String getName() {
+        return name;
+    }
+
+
+    /**
+     * @return the query text
+     */
+    public String getQuery() {
+        return query;
+    }
+
+
+    /**
+     * @return true if the query has a variables template
+     */
+    public boolean hasVariables() {
+        return variablesTemplate != null;
+    }
+
+
+    /**
+     * @return the request body of the query without variables, serialized once
+     */
+    public String getRequestBody() {
+        return body;
+    }
+
+
+    /**
+     * @param variables the values of the placeholders of the variables template, by placeholder, may be null
+     * @return the request body, with the variables template filled in under {@code variables.input}, or without variables if the query has no
+     *         template or no values are given
+     * @throws JsonProcessingException
+     */
+    public String getRequestBody(Map<String, String> variables) throws JsonProcessingException {
+        if (variablesTemplate == null || variables == null) {
+            return body;
+        }
+        final ObjectNode variablesNode = MAPPER.createObjectNode();
+        variablesNode.set(INPUT_FIELD_NAME, fill(variablesTemplate.deepCopy(), variables));
+        return bodyPrefix + ",\"variables\":" + MAPPER.writeValueAsString(variablesNode) + "}";
+    }
+
+
+    @Override
+    public String toString() {
+        return name;
+    }
+
+
+    /**
+     * @param node a copy of the template, filled in place
+     * @param variables
+     * @return the node with every placeholder of its string values replaced
+     */
+    private static JsonNode fill(JsonNode node, Map<String, String> variables) {
+        if (node.isTextual()) {
+            String text = node.textValue();
+            for (Map.Entry<String, String> variable : variables.entrySet()) {
+                text = text.replace(variable.getKey(), variable.getValue());
+            }
+            return TextNode.valueOf(text);
+        }
+        if (node.isObject()) {
+            for (Map.Entry<String, JsonNode> field : ((ObjectNode) node).properties()) {
+                field.setValue(fill(field.getValue(), variables));
+            }
+        } else if (node.isArray()) {
+            for (int i = 0; i < node.size(); i++) {
+                ((ArrayNode) node).set(i, fill(node.get(i), variables));
+            }
+        }
+        return node;
+    }
+
+}
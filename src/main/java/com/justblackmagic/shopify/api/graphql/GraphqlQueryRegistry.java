@@ -0,0 +1,194 @@
+package com.justblackmagic.shopify.api.graphql;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.justblackmagic.shopify.api.rest.mappers.ShopifySdkObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Loads every {@code graphql/*.graphql} query on the classpath, with its optional {@code graphql/<name>Variables.json} variables template, once,
+ * and keeps them as {@link GraphqlQuery}s with their request bodies serialized up front. Every query is validated when loaded: it must not be
+ * blank, its braces and parentheses must balance, and its variables template must be a JSON object. An invalid query or a query required with
+ * {@link #require(Collection)} that is missing fails the load with an {@link IllegalStateException}, so a broken query stops the application at
+ * startup rather than failing its calls at runtime.
+ *
+ * @author justblackmagic
+ */
+@Slf4j
+public final class GraphqlQueryRegistry {
+
+    static final String QUERY_LOCATION_PATTERN = "classpath*:graphql/*.graphql";
+    static final String QUERY_FILE_EXTENSION = ".graphql";
+    static final String VARIABLES_FILE_SUFFIX = "Variables.json";
+
+    private static final ObjectMapper MAPPER = ShopifySdkObjectMapper.buildMapper();
+
+    private final Map<String, GraphqlQuery> queries;
+
+
+    /**
+     * Loads the queries on first use.
+     */
+    private static final class DefaultRegistryHolder {
+        private static final GraphqlQueryRegistry DEFAULT_REGISTRY = load(new PathMatchingResourcePatternResolver(), QUERY_LOCATION_PATTERN);
+    }
+
+
+    /**
+     * @param queries
+     */
+    private GraphqlQueryRegistry(Map<String, GraphqlQuery> queries) {
+        this.queries = Collections.unmodifiableMap(queries);
+    }
+
+
+    /**
+     * @return the registry of the queries in the {@code graphql} folder of the classpath, loaded on first use
+     * @throws IllegalStateException if a query cannot be read or is invalid
+     */
+    public static GraphqlQueryRegistry getDefault() {
+        return DefaultRegistryHolder.DEFAULT_REGISTRY;
+    }
+
+
+    /**
+     * @param resolver
+     * @param locationPattern the pattern of the query files, such as {@value #QUERY_LOCATION_PATTERN}
+     * @return GraphqlQueryRegistry
+     * @throws IllegalStateException if a query cannot be read or is invalid
+     */
+    static GraphqlQueryRegistry load(ResourcePatternResolver resolver, String locationPattern) {
+        Map<String, GraphqlQuery> queries = new LinkedHashMap<>();
+        List<String> problems = new ArrayList<>();
+        try {
+            for (Resource resource : resolver.getResources(locationPattern)) {
+                String fileName = resource.getFilename();
+                String name = fileName.substring(0, fileName.length() - QUERY_FILE_EXTENSION.length());
+                try {
+                    String query = read(resource);
+                    String problem = validate(query);
+                    if (problem != null) {
+                        problems.add(fileName + ": " + problem);
+                        continue;
+                    }
+                    Resource variablesResource = resource.createRelative(name + VARIABLES_FILE_SUFFIX);
+                    JsonNode variablesTemplate = variablesResource.exists() ? MAPPER.readTree(read(variablesResource)) : null;
+                    if (variablesTemplate != null && !variablesTemplate.isObject()) {
+                        problems.add(variablesResource.getFilename() + ": the variables template is not a JSON object");
+                        continue;
+                    }
+                    queries.putIfAbsent(name, new GraphqlQuery(name, query, variablesTemplate));
+                } catch (IOException e) {
+                    problems.add(fileName + ": " + e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not list the GraphQL queries in " + locationPattern, e);
+        }
+        if (!problems.isEmpty()) {
+            throw new IllegalStateException("Invalid GraphQL queries: " + String.join("; ", problems));
+        }
+        log.info("Loaded {} GraphQL queries: {}", queries.size(), queries.values());
+        return new GraphqlQueryRegistry(queries);
+    }
+
+
+    /**
+     * @param name the file name of the query, without its extension
+     * @return GraphqlQuery
+     * @throws IllegalArgumentException if there is no such query
+     */
+    public GraphqlQuery get(String name) {
+        GraphqlQuery query = queries.get(name);
+        if (query == null) {
+            throw new IllegalArgumentException("No GraphQL query named " + name + " in graphql/" + name + QUERY_FILE_EXTENSION);
+        }
+        return query;
+    }
+
+
+    /**
+     * @param names the names of the queries an application uses
+     * @return this registry
+     * @throws IllegalStateException if any of the queries is missing
+     */
+    public GraphqlQueryRegistry require(Collection<String> names) {
+        List<String> missing = names.stream().filter(name -> !queries.containsKey(name)).map(name -> "graphql/" + name + QUERY_FILE_EXTENSION)
+                .toList();
+        if (!missing.isEmpty()) {
+            throw new IllegalStateException("Missing GraphQL queries: " + String.join(", ", missing));
+        }
+        return this;
+    }
+
+
+    /**
+     * @return the queries by name
+     */
+    public Map<String, GraphqlQuery> getQueries() {
+        return queries;
+    }
+
+
+    /**
+     * @param resource
+     * @return the content of the resource
+     * @throws IOException
+     */
+    private static String read(Resource resource) throws IOException {
+        try (InputStream inputStream = resource.getInputStream()) {
+            return new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+
+    /**
+     * @param query
+     * @return what is wrong with the query, or null if it is valid
+     */
+    static String validate(String query) {
+        if (query.isBlank()) {
+            return "the query is empty";
+        }
+        int braces = 0;
+        int parentheses = 0;
+        for (int i = 0; i < query.length(); i++) {
+            char c = query.charAt(i);
+            if (c == '#') {
+                int end = query.indexOf('\n', i);
+                i = end < 0 ? query.length() : end;
+            } else if (c == '"') {
+                int end = query.indexOf('"', i + 1);
+                if (end < 0) {
+                    return "a string is not closed";
+                }
+                i = end;
+            } else if (c == '{') {
+                braces++;
+            } else if (c == '}' && --braces < 0) {
+                return "a closing brace has no opening brace";
+            } else if (c == '(') {
+                parentheses++;
+            } else if (c == ')' && --parentheses < 0) {
+                return "a closing parenthesis has no opening parenthesis";
+            }
+        }
+        if (braces != 0 || parentheses != 0) {
+            return "braces or parentheses are not closed";
+        }
+        return null;
+    }
+
+}
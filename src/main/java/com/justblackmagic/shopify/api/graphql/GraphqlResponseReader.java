@@ -0,0 +1,184 @@
+package com.justblackmagic.shopify.api.graphql;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import com.fasterxml.jackson.annotation.JsonRootName;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.justblackmagic.shopify.api.graphql.model.Extensions;
+import com.justblackmagic.shopify.api.rest.mappers.ShopifySdkObjectMapper;
+
+/**
+ * Decodes a Shopify GraphQL response in a single pass over its tokens. The root field of the {@code data} node, such as {@code shop} of
+ * {@code {"data": {"shop": {...}}}}, and the {@code extensions} node are bound straight from the parser, and only the {@code errors} node is read as a
+ * tree. Everything else is skipped without being built.
+ *
+ * <p>The root field name of each type, from its {@code NODE_NAME} field or its {@link JsonRootName}, and its {@link ObjectReader} are resolved once,
+ * on first use, and every response is read with one shared, configured mapper.
+ *
+ * @author justblackmagic
+ */
+public final class GraphqlResponseReader {
+
+    private static final ObjectMapper MAPPER = ShopifySdkObjectMapper.buildMapper();
+    private static final ObjectReader EXTENSIONS_READER = MAPPER.readerFor(Extensions.class);
+
+    static final String DATA_NODE_NAME = "data";
+    static final String EXTENSIONS_NODE_NAME = "extensions";
+    static final String ERRORS_NODE_NAME = "errors";
+    static final String NODE_NAME_FIELD_NAME = "NODE_NAME";
+
+    private static final ClassValue<RootBinding> ROOT_BINDINGS = new ClassValue<>() {
+        @Override
+        protected RootBinding computeValue(Class<?> type) {
+            return new RootBinding(resolveRootFieldName(type), MAPPER.readerFor(type));
+        }
+    };
+
+
+    /**
+     * The root field name of a type and the reader it is bound with.
+     */
+    private record RootBinding(String fieldName, ObjectReader reader) {
+    }
+
+
+    private GraphqlResponseReader() {}
+
+
+    /**
+     * @param <T>
+     * @param jsonString the full Shopify GraphQL response
+     * @param type the class the root field of the data node is bound to
+     * @return the decoded response
+     * @throws IOException if the response is not valid JSON or cannot be bound to the type
+     * @throws IllegalArgumentException if the type has no root field name
+     */
+    public static <T> GraphqlResult<T> read(String jsonString, Class<T> type) throws IOException {
+        try (JsonParser parser = MAPPER.getFactory().createParser(jsonString)) {
+            return read(parser, type);
+        }
+    }
+
+
+    /**
+     * @param <T>
+     * @param jsonBytes the full Shopify GraphQL response, as UTF-8
+     * @param type the class the root field of the data node is bound to
+     * @return the decoded response
+     * @throws IOException if the response is not valid JSON or cannot be bound to the type
+     * @throws IllegalArgumentException if the type has no root field name
+     */
+    public static <T> GraphqlResult<T> read(byte[] jsonBytes, Class<T> type) throws IOException {
+        try (JsonParser parser = MAPPER.getFactory().createParser(jsonBytes)) {
+            return read(parser, type);
+        }
+    }
+
+
+    /**
+     * @param <T>
+     * @param inputStream the full Shopify GraphQL response, such as the joined data buffers of a reactive response, closed once read
+     * @param type the class the root field of the data node is bound to
+     * @return the decoded response
+     * @throws IOException if the response is not valid JSON or cannot be bound to the type
+     * @throws IllegalArgumentException if the type has no root field name
+     */
+    public static <T> GraphqlResult<T> read(InputStream inputStream, Class<T> type) throws IOException {
+        try (JsonParser parser = MAPPER.getFactory().createParser(inputStream)) {
+            return read(parser, type);
+        }
+    }
+
+
+    /**
+     * @param type
+     * @return the name of the field of the data node the type is bound from
+     * @throws IllegalArgumentException if the type has no root field name
+     */
+    public static String getRootFieldName(Class<?> type) {
+        return ROOT_BINDINGS.get(type).fieldName();
+    }
+
+
+    /**
+     * @param <T>
+     * @param parser positioned before the response object
+     * @param type
+     * @return the decoded response
+     * @throws IOException
+     */
+    private static <T> GraphqlResult<T> read(JsonParser parser, Class<T> type) throws IOException {
+        RootBinding binding = ROOT_BINDINGS.get(type);
+        T data = null;
+        Extensions extensions = null;
+        JsonNode errors = null;
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new IOException("The GraphQL response is not a JSON object");
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String fieldName = parser.currentName();
+            JsonToken valueToken = parser.nextToken();
+            if (DATA_NODE_NAME.equals(fieldName) && valueToken == JsonToken.START_OBJECT) {
+                data = readData(parser, binding);
+            } else if (EXTENSIONS_NODE_NAME.equals(fieldName) && valueToken == JsonToken.START_OBJECT) {
+                extensions = EXTENSIONS_READER.readValue(parser);
+            } else if (ERRORS_NODE_NAME.equals(fieldName)) {
+                errors = MAPPER.readTree(parser);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return new GraphqlResult<>(data, extensions, errors);
+    }
+
+
+    /**
+     * @param <T>
+     * @param parser positioned on the start of the data node
+     * @param binding
+     * @return the value bound from the root field, which may be an object, an array or a scalar, or null if the data node does not have it
+     * @throws IOException
+     */
+    private static <T> T readData(JsonParser parser, RootBinding binding) throws IOException {
+        T data = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String fieldName = parser.currentName();
+            parser.nextToken();
+            if (binding.fieldName().equals(fieldName)) {
+                data = binding.reader().readValue(parser);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return data;
+    }
+
+
+    /**
+     * @param type
+     * @return the value of the public static NODE_NAME field of the type, or else the value of its JsonRootName annotation
+     * @throws IllegalArgumentException if the type has neither
+     */
+    private static String resolveRootFieldName(Class<?> type) {
+        try {
+            Field field = type.getField(NODE_NAME_FIELD_NAME);
+            if (Modifier.isStatic(field.getModifiers()) && field.get(null) != null) {
+                return field.get(null).toString();
+            }
+        } catch (NoSuchFieldException | IllegalAccessException e) {
+            // Fall back to the JsonRootName annotation
+        }
+        JsonRootName rootName = type.getAnnotation(JsonRootName.class);
+        if (rootName != null && !rootName.value().isEmpty()) {
+            return rootName.value();
+        }
+        throw new IllegalArgumentException(type.getName() + " has no static " + NODE_NAME_FIELD_NAME + " field or JsonRootName annotation");
+    }
+
+}
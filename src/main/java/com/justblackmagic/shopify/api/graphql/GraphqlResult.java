@@ -0,0 +1,92 @@
+package com.justblackmagic.shopify.api.graphql;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.justblackmagic.shopify.api.graphql.model.Cost;
+import com.justblackmagic.shopify.api.graphql.model.Extensions;
+
+/**
+ * A GraphQL response decoded by the {@link GraphqlResponseReader}: the object bound from the root field of its {@code data} node, its
+ * {@code extensions} and its {@code errors}.
+ *
+ * @param <T> the type of the root field
+ * @author justblackmagic
+ */
+public final class GraphqlResult<T> {
+
+    private static final String EXTENSIONS_NODE_NAME = "extensions";
+    private static final String CODE_NODE_NAME = "code";
+    private static final String THROTTLED_CODE = "THROTTLED";
+
+    private final T data;
+    private final Extensions extensions;
+    private final JsonNode errors;
+
+
+    /**
+     * @param data
+     * @param extensions
+     * @param errors
+     */
+    GraphqlResult(T data, Extensions extensions, JsonNode errors) {
+        this.data = data;
+        this.extensions = extensions;
+        this.errors = errors;
+    }
+
+
+    /**
+     * @return the object bound from the root field of the data node, or null if the response has none
+     */
+    public T getData() {
+        return data;
+    }
+
+
+    /**
+     * @return the extensions of the response, or null if it has none
+     */
+    public Extensions getExtensions() {
+        return extensions;
+    }
+
+
+    /**
+     * @return the errors of the response, or null if it has none
+     */
+    public JsonNode getErrors() {
+        return errors;
+    }
+
+
+    /**
+     * @return true if the response has errors
+     */
+    public boolean hasErrors() {
+        return errors != null && !errors.isNull();
+    }
+
+
+    /**
+     * @return the extensions.cost of the response, or null if it has none
+     */
+    public Cost getCost() {
+        return extensions == null ? null : extensions.getCost();
+    }
+
+
+    /**
+     * @return true if Shopify refused to run the query for lack of points
+     */
+    public boolean isThrottled() {
+        if (!hasErrors()) {
+            return false;
+        }
+        for (JsonNode error : errors) {
+            if (THROTTLED_CODE.equals(error.path(EXTENSIONS_NODE_NAME).path(CODE_NODE_NAME).asText())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+}
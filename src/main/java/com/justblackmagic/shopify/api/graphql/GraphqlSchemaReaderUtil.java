@@ -2,8 +2,13 @@ package com.justblackmagic.shopify.api.graphql;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import lombok.extern.slf4j.Slf4j;
 
+/**
+ * Reads a single query or variables file from the classpath on each call. The GraphQL client uses the {@link GraphqlQueryRegistry} instead, which
+ * loads them all once.
+ */
 @Slf4j
 public class GraphqlSchemaReaderUtil {
 
@@ -14,12 +19,12 @@ public class GraphqlSchemaReaderUtil {
      */
     /* Load GraphQL schema from file in the classpath. */
     public static String getSchemaFromFileName(final String filename) throws IOException {
-        InputStream inputStream = GraphqlSchemaReaderUtil.class.getClassLoader().getResourceAsStream("graphql/" + filename + ".graphql");
-        if (inputStream == null) {
-            log.error("getSchemaFromFileName: no file found with name: {}", "graphql/" + filename + ".graphql");
-            return null;
-        } else {
-            return new String(inputStream.readAllBytes());
+        try (InputStream inputStream = GraphqlSchemaReaderUtil.class.getClassLoader().getResourceAsStream("graphql/" + filename + ".graphql")) {
+            if (inputStream == null) {
+                log.error("getSchemaFromFileName: no file found with name: {}", "graphql/" + filename + ".graphql");
+                return null;
+            }
+            return new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
         }
     }
 
@@ -31,12 +36,12 @@ public class GraphqlSchemaReaderUtil {
      */
     /* Load GraphQL variables from file in the classpath. */
     public static String getVariablesFromFileName(final String filename) throws IOException {
-        InputStream inputStream = GraphqlSchemaReaderUtil.class.getClassLoader().getResourceAsStream("graphql/" + filename + "Variables.json");
-        if (inputStream == null) {
-            log.error("getVariablesFromFileName: no file found with name: {}", "graphql/" + filename + "Variables.json");
-            return null;
-        } else {
-            return new String(inputStream.readAllBytes());
+        try (InputStream inputStream = GraphqlSchemaReaderUtil.class.getClassLoader().getResourceAsStream("graphql/" + filename + "Variables.json")) {
+            if (inputStream == null) {
+                log.error("getVariablesFromFileName: no file found with name: {}", "graphql/" + filename + "Variables.json");
+                return null;
+            }
+            return new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
         }
     }
 
@@ -1,24 +1,42 @@
 package com.justblackmagic.shopify.api.graphql;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.justblackmagic.shopify.api.circuitbreaker.ShopifyCircuitBreaker;
+import com.justblackmagic.shopify.api.circuitbreaker.ShopifyCircuitBreakerOpenException;
+import com.justblackmagic.shopify.api.graphql.model.Cost;
 import com.justblackmagic.shopify.api.graphql.model.Extensions;
 import com.justblackmagic.shopify.api.graphql.model.GraphQLResponse;
-import com.justblackmagic.shopify.api.graphql.model.InputWrapper;
 import com.justblackmagic.shopify.api.graphql.model.Product;
 import com.justblackmagic.shopify.api.graphql.model.ProductCreate;
 import com.justblackmagic.shopify.api.graphql.model.Products;
 import com.justblackmagic.shopify.api.graphql.model.Shop;
+import com.justblackmagic.shopify.api.graphql.ratelimit.ShopifyGraphQLCostScheduler;
+import com.justblackmagic.shopify.api.metrics.ShopifyApiMetrics;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import io.micrometer.core.instrument.Timer;
 import io.netty.handler.logging.LogLevel;
-import io.netty.util.internal.StringUtil;
 import lombok.Data;
 import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import reactor.netty.http.client.HttpClient;
 import reactor.netty.transport.logging.AdvancedByteBufFormat;
 
@@ -31,6 +49,12 @@ import reactor.netty.transport.logging.AdvancedByteBufFormat;
  * easy to extend, to help decouple your custom code from the core framework. However, at this point, you just pull the framework into your project,
  * and make you changes directly.
  * 
+ * Queries are scheduled against the shop's query cost bucket by the ShopifyGraphQLCostScheduler, so heavy use is paced by Shopify's restore rate
+ * rather than throttled.
+ * 
+ * The getShop, getProducts and createProduct methods block the calling thread for the whole round trip. Reactive callers should use getShopAsync,
+ * getProductsFlux or execute instead, which never block and can be composed across many shops on the shared connector's event loop.
+ * 
  * @author justblackmagic
  * 
  * @since 0.0.1
@@ -40,9 +64,23 @@ import reactor.netty.transport.logging.AdvancedByteBufFormat;
 public class ShopifyGraphQLClient {
     private static final String CONTENT_TYPE_HEADER_NAME = "Content-Type";
     private static final String SHOPIFY_ACCESS_TOKEN_HEADER_NAME = "X-Shopify-Access-Token";
-    private static final String DATA_NODE_NAME = "data";
-    private static final String EXTENSIONS_NODE_NAME = "extensions";
-    private static final String NODE_NAME_FIELD_NAME = "NODE_NAME";
+    private static final int LOCKED_STATUS_CODE = 423;
+    private static final int TOO_MANY_REQUESTS_STATUS_CODE = 429;
+    private static final String DEPRECATED_REASON_HEADER_NAME = "X-Shopify-API-Deprecated-Reason";
+    private static final String POST_METHOD = "POST";
+    private static final int MAX_THROTTLED_RETRIES = 5;
+
+    static final String GET_SHOP_QUERY = "getShop";
+    static final String GET_PRODUCTS_QUERY = "getProducts";
+    static final String CREATE_PRODUCT_QUERY = "createProduct";
+
+    /** The queries this client runs, which must be in the query registry */
+    public static final List<String> QUERY_NAMES = List.of(GET_SHOP_QUERY, GET_PRODUCTS_QUERY, CREATE_PRODUCT_QUERY);
+
+    /**
+     * Connector shared by every client without wiretap, so all shops reuse a single Reactor Netty connection pool and event loop.
+     */
+    private static final ReactorClientHttpConnector SHARED_CONNECTOR = new ReactorClientHttpConnector(HttpClient.create());
 
     private String shopName;
     private String accessToken;
@@ -51,6 +89,8 @@ public class ShopifyGraphQLClient {
 
     private WebClient webClient;
 
+    private GraphqlQueryRegistry queryRegistry;
+
     /**
      * Creates a new ShopifyGraphQLClient with wiretap disabled (recommended for production).
      */
@@ -71,20 +111,32 @@ public class ShopifyGraphQLClient {
         this.accessToken = accessToken;
         this.apiVersion = apiVersion;
         this.enableWiretap = enableWiretap;
+        this.queryRegistry = GraphqlQueryRegistry.getDefault().require(QUERY_NAMES);
 
-        HttpClient httpClient = HttpClient.create();
+        ReactorClientHttpConnector connector = SHARED_CONNECTOR;
 
         // Only enable wiretap in non-production environments for debugging
         // WARNING: Wiretap logs sensitive data including access tokens and request/response bodies
         if (enableWiretap && log.isDebugEnabled()) {
             log.warn("HTTP wiretap enabled - this should NOT be used in production as it logs sensitive data");
-            httpClient = httpClient.wiretap("reactor.netty.http.client.HttpClient", LogLevel.DEBUG, AdvancedByteBufFormat.TEXTUAL);
+            connector = new ReactorClientHttpConnector(
+                    HttpClient.create().wiretap("reactor.netty.http.client.HttpClient", LogLevel.DEBUG, AdvancedByteBufFormat.TEXTUAL));
         }
 
         this.webClient = WebClient.builder().baseUrl("https://" + shopName + "/admin/api/" + apiVersion + "/graphql.json")
                 .defaultHeader(SHOPIFY_ACCESS_TOKEN_HEADER_NAME, accessToken)
-                .defaultHeader(CONTENT_TYPE_HEADER_NAME, MediaType.APPLICATION_JSON_VALUE).clientConnector(new ReactorClientHttpConnector(httpClient))
-                .build();
+                .defaultHeader(CONTENT_TYPE_HEADER_NAME, MediaType.APPLICATION_JSON_VALUE).clientConnector(connector).build();
+    }
+
+    /**
+     * @return the cost scheduler shared by every client of the shop, so all their queries are scheduled against the shop's one cost bucket
+     */
+    /*
+     * Looked up on every query rather than kept by the client: an idle scheduler is evicted after 10 minutes, while the client may be cached for
+     * longer, and a kept one would schedule against a second bucket next to the one other clients use.
+     */
+    public ShopifyGraphQLCostScheduler getCostScheduler() {
+        return ShopifyGraphQLCostScheduler.forShop(shopName);
     }
 
 
@@ -96,9 +148,9 @@ public class ShopifyGraphQLClient {
      */
     public Shop getShop() {
         // Run the GraphQL API Call and return the JSON String response
-        String jsonString = runQuery("getShop");
-        // Parse the JSON String response into a Shop object
-        Shop shop = handleResponse(jsonString, Shop.class);
+        GraphqlResult<Shop> result = runQuery(GET_SHOP_QUERY, Shop.class);
+        // Take the Shop object out of the decoded response
+        Shop shop = handleResponse(result);
         return shop;
     };
 
@@ -110,8 +162,8 @@ public class ShopifyGraphQLClient {
      * A simple GraphQL query to get very basic product information. The request is configured in the resources/graphql/getProducts.graphql file.
      */
     public Products getProducts() {
-        String jsonString = runQuery("getProducts");
-        Products products = handleResponse(jsonString, Products.class);
+        GraphqlResult<Products> result = runQuery(GET_PRODUCTS_QUERY, Products.class);
+        Products products = handleResponse(result);
         return products;
     }
 
@@ -128,8 +180,8 @@ public class ShopifyGraphQLClient {
         Map<String, String> variablesMap = new HashMap<String, String>();
         variablesMap.put("$titleValue", product.getTitle());
 
-        String jsonString = runQuery("createProduct", variablesMap);
-        ProductCreate createdProduct = handleResponse(jsonString, ProductCreate.class);
+        GraphqlResult<ProductCreate> result = runQuery(CREATE_PRODUCT_QUERY, variablesMap, ProductCreate.class);
+        ProductCreate createdProduct = handleResponse(result);
         if (createdProduct != null) {
             return createdProduct.getProduct();
         } else {
@@ -140,108 +192,377 @@ public class ShopifyGraphQLClient {
 
 
     /**
+     * @return a Mono of the Shop, empty if the response has errors
+     */
+    /*
+     * The non-blocking version of getShop, for reactive callers. Nothing is sent until the Mono is subscribed to.
+     */
+    public Mono<Shop> getShopAsync() {
+        return execute(GET_SHOP_QUERY, null, Shop.class);
+    }
+
+
+    /**
+     * @return a Flux of the products, empty if the response has errors
+     */
+    /*
+     * The non-blocking version of getProducts, for reactive callers. Nothing is sent until the Flux is subscribed to.
+     */
+    public Flux<Product> getProductsFlux() {
+        return execute(GET_PRODUCTS_QUERY, null, Products.class).flatMapIterable(Products::getProducts);
+    }
+
+
+    /**
+     * Runs a query of the query registry without blocking. The query is scheduled against the shop's cost bucket with a timer rather than a sleep,
+     * THROTTLED responses are retried the same way, and the response is decoded straight from the received data buffers. Many queries, for many
+     * shops, can run concurrently on the few event loop threads of the shared connector.
+     *
+     * @param <T>
+     * @param queryName the name of the query in the query registry, such as getShop
+     * @param variables the values of the placeholders of the query's variables template, by placeholder, may be null
+     * @param type the class the root field of the response data is bound to
+     * @return a Mono of the object bound from the response, empty if the response has errors, or an error if the call fails
+     */
+    public <T> Mono<T> execute(String queryName, Map<String, String> variables, Class<T> type) {
+        return Mono.defer(() -> {
+            GraphqlQuery query = queryRegistry.get(queryName);
+            String requestBody;
+            try {
+                requestBody = query.getRequestBody(variables);
+            } catch (JsonProcessingException e) {
+                return Mono.error(e);
+            }
+            return executeAsync(query, requestBody, type, 0);
+        }).flatMap(result -> Mono.justOrEmpty(handleResponse(result)));
+    }
+
+
+    /**
+     * @param <T>
      * @param queryFileName
      * @param variablesMap
-     * @return String
+     * @param type the class the root field of the response data is bound to
+     * @return GraphqlResult
      */
     /*
-     * This method is used to run a GraphQL query, with an optional variables file, and return the response as a JSON String.
+     * This method is used to run a GraphQL query from the query registry, with its optional variables template filled in, and return the decoded
+     * response.
      */
-    private String runQuery(String queryFileName, Map<String, String> variablesMap) {
-        String jsonString = null;
+    private <T> GraphqlResult<T> runQuery(String queryFileName, Map<String, String> variablesMap, Class<T> type) {
+        GraphqlResult<T> result = null;
         try {
-            // Load the query from a file
-            String query = GraphqlSchemaReaderUtil.getSchemaFromFileName(queryFileName);
-            // Try to load variables if there are any for this query
-            String variablesString = GraphqlSchemaReaderUtil.getVariablesFromFileName(queryFileName);
-            log.debug("variablesString: " + variablesString);
-
-            GraphqlRequestBody graphQLRequestBody = new GraphqlRequestBody();
-            graphQLRequestBody.setQuery(query);
-            // If we have a variables JSON file AND the variablesMap is not empty, then we have variables to process
-            if (StringUtil.isNullOrEmpty(variablesString) == false && variablesMap != null) {
-                for (Map.Entry<String, String> entry : variablesMap.entrySet()) {
-                    String key = entry.getKey();
-                    String value = entry.getValue();
-                    variablesString = variablesString.replace(key, value);
-                }
-                log.debug("Variables: " + variablesString);
-                InputWrapper inputWrapper = new InputWrapper(variablesString);
-                graphQLRequestBody.setVariables(inputWrapper);
-            }
-            // Run the GraphQL API Call and return the JSON String response
-            jsonString = webClient.post().bodyValue(graphQLRequestBody).retrieve().bodyToMono(String.class).block();
+            // The query and its variables template were loaded and validated once, and the body is only built around the variables
+            GraphqlQuery query = queryRegistry.get(queryFileName);
+            String requestBody = query.getRequestBody(variablesMap);
+            // Run the GraphQL API Call and return the decoded response
+            result = execute(query, requestBody, type);
         } catch (IOException e) {
             log.error("IOException in runQuery!", e);
         }
-        return jsonString;
+        return result;
     }
 
 
     /**
-     * @param queryFileName
-     * @return String
+     * @param <T>
+     * @param query
+     * @param requestBody
+     * @param type
+     * @return the decoded response, or null if it has no body
+     * @throws IOException if the response cannot be decoded
      */
     /*
-     * This method is used to run a GraphQL query and return the response as a JSON String.
+     * Sends the request once the shop's cost scheduler has enough points for it, and corrects the scheduler from the cost Shopify reports. A
+     * THROTTLED response is retried as soon as the points it asked for have been restored, up to MAX_THROTTLED_RETRIES times.
      */
-    private String runQuery(String queryFileName) {
-        return runQuery(queryFileName, null);
+    private <T> GraphqlResult<T> execute(GraphqlQuery query, String requestBody, Class<T> type) throws IOException {
+        String queryName = query.getName();
+        for (int attempt = 0;; attempt++) {
+            ShopifyGraphQLCostScheduler costScheduler = getCostScheduler();
+            int estimatedCost = costScheduler.estimateCost(queryName, query.getQuery());
+            costScheduler.acquire(estimatedCost);
+            GraphqlResult<T> result;
+            try {
+                result = post(queryName, requestBody, type);
+            } catch (IOException | RuntimeException | Error e) {
+                // Also a response that cannot be decoded, which tells the scheduler nothing about the cost of the query
+                costScheduler.cancel(estimatedCost);
+                throw e;
+            }
+            Cost cost = result == null ? null : result.getCost();
+            if (result == null || !result.isThrottled()) {
+                costScheduler.onResponse(queryName, estimatedCost, cost);
+                return result;
+            }
+            long refillNanos = costScheduler.onThrottled(queryName, estimatedCost, cost);
+            if (attempt >= MAX_THROTTLED_RETRIES) {
+                log.warn("Query {} to shop {} is still throttled after {} retries", queryName, shopName, attempt);
+                return result;
+            }
+            log.debug("Query {} to shop {} was throttled, retrying in {} ms", queryName, shopName, TimeUnit.NANOSECONDS.toMillis(refillNanos));
+        }
     }
 
 
+    /**
+     * @param <T>
+     * @param query
+     * @param requestBody
+     * @param type
+     * @param attempt the number of THROTTLED responses so far
+     * @return a Mono of the decoded response, empty if it has no body
+     */
+    /*
+     * The non-blocking counterpart of execute: the cost is reserved up front and the request is delayed on a timer by the wait the scheduler
+     * returns, instead of sleeping, and a THROTTLED response is retried by resubscribing with the next attempt.
+     */
+    private <T> Mono<GraphqlResult<T>> executeAsync(GraphqlQuery query, String requestBody, Class<T> type, int attempt) {
+        return Mono.defer(() -> {
+            String queryName = query.getName();
+            ShopifyGraphQLCostScheduler costScheduler = getCostScheduler();
+            int estimatedCost = costScheduler.estimateCost(queryName, query.getQuery());
+            long waitNanos = costScheduler.reserve(estimatedCost);
+            Mono<GraphqlResult<T>> response = postAsync(queryName, requestBody, type);
+            if (waitNanos > 0) {
+                response = Mono.delay(Duration.ofNanos(waitNanos)).then(response);
+            }
+            return response.doOnError(e -> costScheduler.cancel(estimatedCost)).doOnCancel(() -> costScheduler.cancel(estimatedCost))
+                    .switchIfEmpty(Mono.fromRunnable(() -> costScheduler.onResponse(queryName, estimatedCost, null))).flatMap(result -> {
+                        Cost cost = result.getCost();
+                        if (!result.isThrottled()) {
+                            costScheduler.onResponse(queryName, estimatedCost, cost);
+                            return Mono.just(result);
+                        }
+                        long refillNanos = costScheduler.onThrottled(queryName, estimatedCost, cost);
+                        if (attempt >= MAX_THROTTLED_RETRIES) {
+                            log.warn("Query {} to shop {} is still throttled after {} retries", queryName, shopName, attempt);
+                            return Mono.just(result);
+                        }
+                        log.debug("Query {} to shop {} was throttled, retrying in {} ms", queryName, shopName,
+                                TimeUnit.NANOSECONDS.toMillis(refillNanos));
+                        return executeAsync(query, requestBody, type, attempt + 1);
+                    });
+        });
+    }
+
 
     /**
-     * This method is used to parse the JSON response from the GraphQL API call into a Java object. It takes the object class in as a parameter and
-     * returns the fully constructed object.
-     * 
-     * The Shopify response has a top level "data" object that contains the actual data inside it, and an "extensions" object contains additional
-     * information.
-     * 
      * @param <T>
-     * @param jsonString the full Shopify GraphQL response
-     * @param clazz the class literal of the object to be constructed
-     * @return the fully constructed object of type clazz
-     * @throws IOException
+     * @param queryName
+     * @param requestBody
+     * @param type
+     * @return the decoded response, or null if it has no body
+     * @throws IOException if the response cannot be decoded
      */
-    private <T> T handleResponse(String jsonString, Class<T> clazz) {
-        T objectToReturn = null;
+    /*
+     * Sends the request through the shop's circuit breaker, which is shared with the REST client. Server errors and failed connections count
+     * against the shop, and calls fail fast with a ShopifyCircuitBreakerOpenException while the breaker is open. Every call is recorded in the
+     * ShopifyApiMetrics under the graphql.<queryName> endpoint. The response is decoded once, and the cost and errors the scheduler and the metrics
+     * need come out of the same pass as the data.
+     */
+    private <T> GraphqlResult<T> post(String queryName, String requestBody, Class<T> type) throws IOException {
+        String endpoint = ShopifyApiMetrics.graphqlEndpoint(queryName);
+        Timer.Sample sample = ShopifyApiMetrics.startCall();
+        Integer status = null;
+        ShopifyCircuitBreaker circuitBreaker = ShopifyCircuitBreaker.forShop(shopName);
+        boolean permissionReleased = false;
         try {
-            ObjectMapper objectMapper = new ObjectMapper();
-            JsonNode jsonNode = objectMapper.readTree(jsonString);
-
-            JsonNode errorNode = jsonNode.get("errors");
-            if (errorNode != null) {
-                log.error("Error in GraphQL API call: " + errorNode.toString());
-                return null;
+            circuitBreaker.acquirePermission();
+            ShopifyApiMetrics.recordBytesSent(ShopifyApiMetrics.GRAPHQL_API, endpoint, apiVersion, requestBody.getBytes(StandardCharsets.UTF_8).length);
+            ResponseEntity<String> response = webClient.post().bodyValue(requestBody).retrieve().toEntity(String.class).block();
+            status = response.getStatusCode().value();
+            circuitBreaker.onSuccess();
+            permissionReleased = true;
+            String jsonString = response.getBody();
+            GraphqlResult<T> result = jsonString == null ? null : GraphqlResponseReader.read(jsonString, type);
+            recordResponseMetrics(endpoint, response.getHeaders(), jsonString, result);
+            return result;
+        } catch (Throwable e) {
+            // Any failure before the response, also an Error, must give the permission back, or a half-open breaker loses a probe for good
+            if (!permissionReleased) {
+                status = onCallFailure(circuitBreaker, endpoint, e);
             }
+            throw e;
+        } finally {
+            ShopifyApiMetrics.recordCall(sample, ShopifyApiMetrics.GRAPHQL_API, endpoint, apiVersion, POST_METHOD, status);
+        }
+    }
 
-            JsonNode extensionsNode = jsonNode.get(EXTENSIONS_NODE_NAME);
-            Extensions extensions = null;
-            if (extensionsNode != null) {
-                extensions = objectMapper.readValue(extensionsNode.toString(), Extensions.class);
-                log.debug("extensions: {}", extensions.toString());
+
+    /**
+     * @param <T>
+     * @param queryName
+     * @param requestBody
+     * @param type
+     * @return a Mono of the decoded response, empty if it has no body
+     */
+    /*
+     * The non-blocking counterpart of post, with the same circuit breaker and metrics. The body is joined from the DataBuffers Reactor Netty
+     * received and decoded from them, without building a String, on the event loop thread that completed the response.
+     */
+    private <T> Mono<GraphqlResult<T>> postAsync(String queryName, String requestBody, Class<T> type) {
+        return Mono.defer(() -> {
+            String endpoint = ShopifyApiMetrics.graphqlEndpoint(queryName);
+            Timer.Sample sample = ShopifyApiMetrics.startCall();
+            AtomicReference<Integer> status = new AtomicReference<>();
+            ShopifyCircuitBreaker circuitBreaker = ShopifyCircuitBreaker.forShop(shopName);
+            try {
+                circuitBreaker.acquirePermission();
+            } catch (ShopifyCircuitBreakerOpenException e) {
+                ShopifyApiMetrics.recordCall(sample, ShopifyApiMetrics.GRAPHQL_API, endpoint, apiVersion, POST_METHOD, null);
+                return Mono.error(e);
             }
+            ShopifyApiMetrics.recordBytesSent(ShopifyApiMetrics.GRAPHQL_API, endpoint, apiVersion, requestBody.getBytes(StandardCharsets.UTF_8).length);
+            return webClient.post().bodyValue(requestBody).exchangeToMono(response -> {
+                if (response.statusCode().isError()) {
+                    return response.<DataBuffer>createError();
+                }
+                status.set(response.statusCode().value());
+                recordDeprecatedCall(endpoint, response.headers().asHttpHeaders());
+                return DataBufferUtils.join(response.bodyToFlux(DataBuffer.class));
+            }).doOnSuccess(buffer -> circuitBreaker.onSuccess()).doOnError(e -> status.set(onCallFailure(circuitBreaker, endpoint, e)))
+                    .doOnCancel(circuitBreaker::onIgnored)
+                    .doFinally(signal -> ShopifyApiMetrics.recordCall(sample, ShopifyApiMetrics.GRAPHQL_API, endpoint, apiVersion, POST_METHOD, status.get()))
+                    .map(buffer -> decode(endpoint, buffer, type)).doOnDiscard(DataBuffer.class, DataBufferUtils::release);
+        });
+    }
 
-            JsonNode dataNode = jsonNode.get(DATA_NODE_NAME);
-            log.debug("dataNode: {}", dataNode.toString());
 
-            JsonNode objectNode = dataNode.get(clazz.getField(NODE_NAME_FIELD_NAME).get(null).toString());
-            objectToReturn = objectMapper.readValue(objectNode.toString(), clazz);
-            if (objectToReturn instanceof GraphQLResponse && extensions != null) {
-                ((GraphQLResponse) objectToReturn).setExtensions(extensions);
-                ((GraphQLResponse) objectToReturn).setExtensions(extensions);
-            }
-        } catch (NoSuchFieldException e) {
-            log.error("NoSuchFieldException: {}", e.getMessage());
-        } catch (SecurityException e) {
-            log.error("SecurityException: {}", e.getMessage());
-        } catch (IllegalAccessException e) {
-            log.error("IllegalAccessException: {}", e.getMessage());
+    /**
+     * @param <T>
+     * @param endpoint
+     * @param buffer the joined response body, released once read
+     * @param type
+     * @return the decoded response
+     * @throws UncheckedIOException if the response cannot be decoded
+     */
+    private <T> GraphqlResult<T> decode(String endpoint, DataBuffer buffer, Class<T> type) {
+        ShopifyApiMetrics.recordBytesReceived(ShopifyApiMetrics.GRAPHQL_API, endpoint, apiVersion, buffer.readableByteCount());
+        GraphqlResult<T> result;
+        try (InputStream inputStream = buffer.asInputStream(true)) {
+            result = GraphqlResponseReader.read(inputStream, type);
         } catch (IOException e) {
-            log.error("IOException: {}", e.getMessage());
+            throw new UncheckedIOException("Could not decode the GraphQL response of " + endpoint, e);
+        }
+        recordThrottled(endpoint, result);
+        return result;
+    }
+
+
+    /**
+     * @param circuitBreaker
+     * @param endpoint
+     * @param e the failure of a call
+     * @return the status code of the response, or null if there was none
+     */
+    /*
+     * Server errors, locked shops and failed connections count against the shop's circuit breaker. Other error responses show Shopify is up, and
+     * any other failure is neither.
+     */
+    private Integer onCallFailure(ShopifyCircuitBreaker circuitBreaker, String endpoint, Throwable e) {
+        if (e instanceof WebClientResponseException responseException) {
+            int status = responseException.getStatusCode().value();
+            if (responseException.getStatusCode().is5xxServerError() || status == LOCKED_STATUS_CODE) {
+                ShopifyApiMetrics.recordServerError(ShopifyApiMetrics.GRAPHQL_API, endpoint, apiVersion, status);
+                circuitBreaker.onFailure();
+            } else {
+                if (status == TOO_MANY_REQUESTS_STATUS_CODE) {
+                    ShopifyApiMetrics.recordThrottled(ShopifyApiMetrics.GRAPHQL_API, endpoint, apiVersion, shopName);
+                }
+                circuitBreaker.onSuccess();
+            }
+            return status;
+        }
+        if (e instanceof WebClientRequestException) {
+            circuitBreaker.onFailure();
+        } else if (!(e instanceof ShopifyCircuitBreakerOpenException)) {
+            circuitBreaker.onIgnored();
+        }
+        return null;
+    }
+
+
+    /**
+     * @param endpoint
+     * @param headers
+     * @param jsonString
+     * @param result the decoded response, may be null
+     */
+    private void recordResponseMetrics(String endpoint, HttpHeaders headers, String jsonString, GraphqlResult<?> result) {
+        if (jsonString != null) {
+            ShopifyApiMetrics.recordBytesReceived(ShopifyApiMetrics.GRAPHQL_API, endpoint, apiVersion, jsonString.getBytes(StandardCharsets.UTF_8).length);
+        }
+        recordThrottled(endpoint, result);
+        recordDeprecatedCall(endpoint, headers);
+    }
+
+
+    /**
+     * @param endpoint
+     * @param result the decoded response, may be null
+     */
+    /*
+     * Shopify throttles GraphQL calls with a THROTTLED error in a 200 response rather than with a 429, so the decoded errors are checked as well.
+     */
+    private void recordThrottled(String endpoint, GraphqlResult<?> result) {
+        if (result != null && result.isThrottled()) {
+            ShopifyApiMetrics.recordThrottled(ShopifyApiMetrics.GRAPHQL_API, endpoint, apiVersion, shopName);
+        }
+    }
+
+
+    /**
+     * @param endpoint
+     * @param headers
+     */
+    private void recordDeprecatedCall(String endpoint, HttpHeaders headers) {
+        String deprecatedReason = headers.getFirst(DEPRECATED_REASON_HEADER_NAME);
+        if (deprecatedReason != null) {
+            ShopifyApiMetrics.recordDeprecatedCall(ShopifyApiMetrics.GRAPHQL_API, endpoint, apiVersion, deprecatedReason);
         }
+    }
 
+
+    /**
+     * @param <T>
+     * @param queryFileName
+     * @param type
+     * @return GraphqlResult
+     */
+    /*
+     * This method is used to run a GraphQL query without variables and return the decoded response.
+     */
+    private <T> GraphqlResult<T> runQuery(String queryFileName, Class<T> type) {
+        return runQuery(queryFileName, null, type);
+    }
+
+
+
+    /**
+     * This method is used to take the Java object out of a GraphQL response decoded by the GraphqlResponseReader, which bound it from the root field
+     * of the top level "data" object in the same pass that read the "extensions" object of additional information.
+     * 
+     * @param <T>
+     * @param result the decoded Shopify GraphQL response, may be null
+     * @return the fully constructed object, or null if the call failed or the response has errors
+     */
+    private <T> T handleResponse(GraphqlResult<T> result) {
+        if (result == null) {
+            return null;
+        }
+        if (result.hasErrors()) {
+            log.error("Error in GraphQL API call: " + result.getErrors().toString());
+            return null;
+        }
+        Extensions extensions = result.getExtensions();
+        if (extensions != null) {
+            log.debug("extensions: {}", extensions.toString());
+        }
+        T objectToReturn = result.getData();
+        if (objectToReturn instanceof GraphQLResponse && extensions != null) {
+            ((GraphQLResponse) objectToReturn).setExtensions(extensions);
+        }
         return objectToReturn;
     }
 
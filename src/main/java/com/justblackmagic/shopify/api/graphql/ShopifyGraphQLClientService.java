@@ -1,13 +1,27 @@
 package com.justblackmagic.shopify.api.graphql;
 
+import java.util.concurrent.TimeUnit;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.justblackmagic.shopify.api.rest.ShopifyRestClientService;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import jakarta.annotation.PostConstruct;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.Getter;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 
 /**
  * Spring Service component which generates GraphQL client instances with the given shop name and access token,
  * using the API version configured in shopify.api.graphql.version property.
+ *
+ * Clients are cached by shop and access token hash and reused across requests. Call invalidateShopifyGraphQLClients
+ * when a shop uninstalls the app or its access token changes.
+ *
+ * The GraphQL queries are loaded and checked when the service starts, so a missing or invalid query fails the application
+ * at boot rather than its first call.
  */
 @Slf4j
 @Service
@@ -24,8 +38,25 @@ public class ShopifyGraphQLClientService {
     @Value("${shopify.api.graphql.wiretap.enabled:false}")
     private boolean wiretapEnabled = false;
 
+    /** Cache with automatic eviction after 30 minutes of inactivity to prevent memory leaks */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final Cache<String, ShopifyGraphQLClient> clients =
+            Caffeine.newBuilder().expireAfterAccess(30, TimeUnit.MINUTES).maximumSize(10_000).build();
+
+    /**
+     * Loads the GraphQL query registry and checks it has every query the clients run.
+     *
+     * @throws IllegalStateException if a query is missing or invalid
+     */
+    @PostConstruct
+    public void loadQueries() {
+        final GraphqlQueryRegistry queryRegistry = GraphqlQueryRegistry.getDefault().require(ShopifyGraphQLClient.QUERY_NAMES);
+        log.debug("GraphQL queries ready: {}", queryRegistry.getQueries().keySet());
+    }
+
     /**
-     * Creates a ShopifyGraphQLClient for the given shop.
+     * Returns the cached ShopifyGraphQLClient for the given shop and token, creating it on first use.
      *
      * @param shopName the Shopify shop name
      * @param accessToken the API access token
@@ -34,7 +65,19 @@ public class ShopifyGraphQLClientService {
     public ShopifyGraphQLClient getShopifyGraphQLClient(final String shopName, final String accessToken) {
         log.debug("getShopifyGraphQLClient called for shop: {}", shopName);
         // Never log access tokens - they are sensitive credentials
-        return new ShopifyGraphQLClient(shopName, accessToken, apiVersion, wiretapEnabled);
+        return clients.get(ShopifyRestClientService.buildCacheKey(shopName, accessToken),
+                key -> new ShopifyGraphQLClient(shopName, accessToken, apiVersion, wiretapEnabled));
+    }
+
+    /**
+     * Drops every cached client for the given shop. Call this when the shop uninstalls the app or its access token changes.
+     *
+     * @param shopName the Shopify shop name
+     */
+    public void invalidateShopifyGraphQLClients(final String shopName) {
+        log.debug("invalidateShopifyGraphQLClients called for shop: {}", shopName);
+        final String keyPrefix = ShopifyRestClientService.buildCacheKeyPrefix(shopName);
+        clients.asMap().keySet().removeIf(key -> key.startsWith(keyPrefix));
     }
 
 }
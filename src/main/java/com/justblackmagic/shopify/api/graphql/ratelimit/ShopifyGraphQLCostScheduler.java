@@ -0,0 +1,396 @@
+package com.justblackmagic.shopify.api.graphql.ratelimit;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.justblackmagic.shopify.api.graphql.model.Cost;
+import com.justblackmagic.shopify.api.graphql.model.ThrottleStatus;
+import com.justblackmagic.shopify.api.rest.exceptions.ShopifyClientException;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Proactive, per-shop query cost scheduler for the Shopify GraphQL Admin API.
+ *
+ * <p>Shopify limits GraphQL calls by calculated query cost: each app and shop has a bucket of points that refills at a restore rate, every query
+ * needs its requested cost available to run, and is then charged its actual cost. The bucket state comes back in {@code extensions.cost} of every
+ * response. This scheduler models that bucket locally: each query reserves its estimated cost, and is delayed until enough points have been
+ * restored to run it, so concurrent and bulk queries are queued at the restore rate and keep the bucket near empty without being throttled. The
+ * model is corrected from the reported {@link ThrottleStatus} on every response, so queries sent by other client instances or nodes for the same shop
+ * are taken into account.
+ *
+ * <p>The cost of a query is the {@code requestedQueryCost} Shopify last reported for it, or, before it has been sent once, an estimate computed from
+ * the query text with Shopify's rules: one point per object, two per connection plus its page size times the cost of its nodes, and ten for a
+ * mutation.
+ *
+ * <p>Schedulers are shared by every client instance for the same shop through {@link #forShop(String)}. Idle schedulers are evicted after 10 minutes.
+ */
+@Slf4j
+public class ShopifyGraphQLCostScheduler {
+
+    /** Bucket size for a standard Shopify plan. Larger plans report a larger bucket in the throttle status. */
+    static final double DEFAULT_MAXIMUM_AVAILABLE = 1000.0d;
+
+    /** Points restored per second for a standard Shopify plan. */
+    static final double DEFAULT_RESTORE_RATE = 50.0d;
+
+    /** Points kept free so queries from other nodes racing ours do not find the bucket short. */
+    static final int DEFAULT_HEADROOM = 20;
+
+    static final int OBJECT_COST = 1;
+    static final int CONNECTION_COST = 2;
+    static final int MUTATION_COST = 10;
+
+    /** Page size assumed for a connection sized by a variable, until Shopify reports the real cost of the query */
+    static final int VARIABLE_PAGE_SIZE = 250;
+
+    private static final String EDGES_FIELD_NAME = "edges";
+    private static final String MUTATION_OPERATION = "mutation";
+    private static final Pattern PAGE_SIZE_ARGUMENT = Pattern.compile("\\b(?:first|last)\\s*:\\s*(\\d+|\\$\\w+)");
+    private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+    private static final String INTERRUPTED_MESSAGE = "Interrupted while waiting for Shopify query cost budget for shop %s";
+
+    /** Schedulers by shop, evicted after 10 minutes of inactivity to prevent memory leaks */
+    private static final Cache<String, ShopifyGraphQLCostScheduler> SCHEDULERS =
+            Caffeine.newBuilder().expireAfterAccess(10, TimeUnit.MINUTES).maximumSize(10_000).build();
+
+    private final String shop;
+    private final LongSupplier nanoClock;
+    private final int headroom;
+    private final Map<String, Integer> queryCosts = new ConcurrentHashMap<>();
+
+    private double maximumAvailable = DEFAULT_MAXIMUM_AVAILABLE;
+    private double restoreRate = DEFAULT_RESTORE_RATE;
+    private double available = DEFAULT_MAXIMUM_AVAILABLE;
+    private long lastRestoreNanos;
+
+    private long queryCount;
+    private long delayedQueryCount;
+    private long totalWaitNanos;
+    private long throttledCount;
+
+
+    ShopifyGraphQLCostScheduler(final String shop, final LongSupplier nanoClock, final int headroom) {
+        this.shop = shop;
+        this.nanoClock = nanoClock;
+        this.headroom = headroom;
+        this.lastRestoreNanos = nanoClock.getAsLong();
+    }
+
+
+    /**
+     * Returns the scheduler shared by all GraphQL clients of the given shop.
+     *
+     * @param shop the shop name (e.g. {@code my-shop.myshopify.com})
+     * @return ShopifyGraphQLCostScheduler
+     */
+    public static ShopifyGraphQLCostScheduler forShop(final String shop) {
+        return SCHEDULERS.get(shop, key -> new ShopifyGraphQLCostScheduler(key, System::nanoTime, DEFAULT_HEADROOM));
+    }
+
+
+    /**
+     * Read-only view of the currently active schedulers by shop, for metrics and diagnostics.
+     *
+     * @return Map<String, ShopifyGraphQLCostScheduler>
+     */
+    public static Map<String, ShopifyGraphQLCostScheduler> getSchedulers() {
+        return Collections.unmodifiableMap(SCHEDULERS.asMap());
+    }
+
+
+    /**
+     * @param queryName the name the query is sent and reported under
+     * @param query the query text, estimated on first use
+     * @return the cost to reserve for the query
+     */
+    public int estimateCost(final String queryName, final String query) {
+        return queryCosts.computeIfAbsent(queryName, key -> estimateQueryCost(query));
+    }
+
+
+    /**
+     * Reserves the cost of one query, blocking until enough points have been restored to send it.
+     *
+     * @param cost the estimated cost of the query
+     */
+    public void acquire(final int cost) {
+        final long waitNanos = reserve(cost);
+        if (waitNanos > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                cancel(cost);
+                throw new ShopifyClientException(String.format(INTERRUPTED_MESSAGE, shop), e);
+            }
+        }
+    }
+
+
+    /**
+     * Reserves the cost of one query without waiting. The caller must delay the query by the returned number of nanoseconds. Reservations
+     * accumulate, so concurrent callers receive staggered delays and are queued at the restore rate.
+     *
+     * @param cost the estimated cost of the query
+     * @return the number of nanoseconds to wait before sending the query, zero if it can be sent right away
+     */
+    public synchronized long reserve(final int cost) {
+        restore();
+        queryCount++;
+        available -= reserved(cost);
+        final double shortfall = headroom - available;
+        if (shortfall <= 0) {
+            return 0L;
+        }
+        final long waitNanos = (long) Math.ceil(shortfall / restoreRate * NANOS_PER_SECOND);
+        delayedQueryCount++;
+        totalWaitNanos += waitNanos;
+        log.debug("Delaying query of cost {} to shop {} by {} ms, {} of {} points available", cost, shop, TimeUnit.NANOSECONDS.toMillis(waitNanos),
+                available, maximumAvailable);
+        return waitNanos;
+    }
+
+
+    /**
+     * Gives back the points of a reservation whose query was not sent or failed before Shopify ran it.
+     *
+     * @param cost the cost reserved
+     */
+    public synchronized void cancel(final int cost) {
+        restore();
+        available = Math.min(maximumAvailable, available + reserved(cost));
+    }
+
+
+    /**
+     * Corrects the local bucket model from the cost Shopify reported for a query it ran, and remembers the requested cost of the query.
+     *
+     * @param queryName
+     * @param reservedCost the cost reserved for the query
+     * @param cost the {@code extensions.cost} of the response, may be null
+     */
+    public synchronized void onResponse(final String queryName, final int reservedCost, final Cost cost) {
+        restore();
+        if (cost == null) {
+            return;
+        }
+        queryCosts.put(queryName, cost.getRequestedQueryCost());
+        // Shopify charges the actual cost, usually well below the requested cost the query was reserved with
+        available = Math.min(maximumAvailable, available + reserved(reservedCost) - cost.getActualQueryCost());
+        update(cost.getThrottleStatus());
+    }
+
+
+    /**
+     * Corrects the local bucket model from a THROTTLED response. Shopify did not run the query, so its reservation is given back, and the bucket is
+     * set to the points Shopify reported.
+     *
+     * @param queryName
+     * @param reservedCost the cost reserved for the query
+     * @param cost the {@code extensions.cost} of the response, may be null
+     * @return the number of nanoseconds until the points the query needs are restored, which the next reservation of its cost waits for
+     */
+    public synchronized long onThrottled(final String queryName, final int reservedCost, final Cost cost) {
+        restore();
+        throttledCount++;
+        available = Math.min(maximumAvailable, available + reserved(reservedCost));
+        int requestedCost = reservedCost;
+        if (cost != null) {
+            requestedCost = cost.getRequestedQueryCost();
+            queryCosts.put(queryName, requestedCost);
+            update(cost.getThrottleStatus());
+        }
+        final double shortfall = reserved(requestedCost) + headroom - available;
+        log.debug("Query {} of cost {} to shop {} was throttled with {} points available", queryName, requestedCost, shop, available);
+        return shortfall <= 0 ? 0L : (long) Math.ceil(shortfall / restoreRate * NANOS_PER_SECOND);
+    }
+
+
+    /**
+     * A query costing more than the bucket holds would otherwise wait forever, so its reservation is capped at the bucket less the headroom. Refunds
+     * give back this capped amount, not the cost, so they never return points that were not taken.
+     *
+     * @param cost the cost of a query
+     * @return the points reserved for it
+     */
+    private double reserved(final int cost) {
+        return Math.min(cost, maximumAvailable - headroom);
+    }
+
+
+    /**
+     * @param throttleStatus may be null
+     */
+    private void update(final ThrottleStatus throttleStatus) {
+        if (throttleStatus == null) {
+            return;
+        }
+        if (throttleStatus.getMaximumAvailable() > 0) {
+            maximumAvailable = throttleStatus.getMaximumAvailable();
+        }
+        if (throttleStatus.getRestoreRate() > 0) {
+            restoreRate = throttleStatus.getRestoreRate();
+        }
+        // Our local bucket also holds reservations still in flight, which Shopify has not seen yet, so only ever lower it here.
+        available = Math.min(available, throttleStatus.getCurrentlyAvailable());
+    }
+
+
+    /**
+     * Refills the bucket for the time elapsed since the last update.
+     */
+    private void restore() {
+        final long now = nanoClock.getAsLong();
+        final long elapsedNanos = now - lastRestoreNanos;
+        if (elapsedNanos > 0) {
+            available = Math.min(maximumAvailable, available + (elapsedNanos / NANOS_PER_SECOND) * restoreRate);
+            lastRestoreNanos = now;
+        }
+    }
+
+
+    /**
+     * Estimates the requested cost of a query the way Shopify calculates it: every object selected costs one point, every connection two points plus
+     * its {@code first} or {@code last} page size times the cost of its nodes, and a mutation ten points, plus the connections of its payload.
+     * Scalars are free.
+     *
+     * @param query the query text
+     * @return the estimated cost, at least one point
+     */
+    static int estimateQueryCost(final String query) {
+        if (query == null) {
+            return OBJECT_COST;
+        }
+        final boolean mutation = query.stripLeading().startsWith(MUTATION_OPERATION);
+        double cost = mutation ? MUTATION_COST : 0;
+        final Deque<Double> multipliers = new ArrayDeque<>();
+        double multiplier = 1;
+        String fieldName = null;
+        int pageSize = 0;
+        for (int i = 0; i < query.length(); i++) {
+            final char c = query.charAt(i);
+            if (Character.isLetter(c) || c == '_') {
+                final int start = i;
+                while (i + 1 < query.length() && (Character.isLetterOrDigit(query.charAt(i + 1)) || query.charAt(i + 1) == '_')) {
+                    i++;
+                }
+                fieldName = query.substring(start, i + 1);
+                pageSize = 0;
+            } else if (c == '(') {
+                final int end = query.indexOf(')', i);
+                pageSize = pageSize(query.substring(i + 1, end < 0 ? query.length() : end));
+                i = end < 0 ? query.length() : end;
+            } else if (c == '{') {
+                multipliers.push(multiplier);
+                if (multipliers.size() > 1) {
+                    if (pageSize > 0) {
+                        cost += multiplier * CONNECTION_COST;
+                        multiplier *= pageSize;
+                    } else if (!mutation && !EDGES_FIELD_NAME.equals(fieldName)) {
+                        cost += multiplier * OBJECT_COST;
+                    }
+                }
+                fieldName = null;
+                pageSize = 0;
+            } else if (c == '}' && !multipliers.isEmpty()) {
+                multiplier = multipliers.pop();
+            } else if (c == '#') {
+                final int end = query.indexOf('\n', i);
+                i = end < 0 ? query.length() : end;
+            } else if (c == '"') {
+                final int end = query.indexOf('"', i + 1);
+                i = end < 0 ? query.length() : end;
+            }
+        }
+        return (int) Math.max(OBJECT_COST, Math.min(Integer.MAX_VALUE, Math.ceil(cost)));
+    }
+
+
+    /**
+     * @param arguments the arguments of a field
+     * @return the {@code first} or {@code last} page size of the field, {@value #VARIABLE_PAGE_SIZE} if it is a variable, or zero if it is not a
+     *         connection
+     */
+    private static int pageSize(final String arguments) {
+        final Matcher matcher = PAGE_SIZE_ARGUMENT.matcher(arguments);
+        if (!matcher.find()) {
+            return 0;
+        }
+        final String value = matcher.group(1);
+        return value.charAt(0) == '$' ? VARIABLE_PAGE_SIZE : Integer.parseInt(value);
+    }
+
+
+    /**
+     * @return String
+     */
+    public String getShop() {
+        return shop;
+    }
+
+
+    /**
+     * @return the bucket size last reported by Shopify
+     */
+    public synchronized double getMaximumAvailable() {
+        return maximumAvailable;
+    }
+
+
+    /**
+     * @return the points restored per second
+     */
+    public synchronized double getRestoreRate() {
+        return restoreRate;
+    }
+
+
+    /**
+     * @return the estimated points available right now, after the reservations made, negative while queries are queued
+     */
+    public synchronized double getCurrentlyAvailable() {
+        restore();
+        return available;
+    }
+
+
+    /**
+     * @return the total number of queries that reserved their cost
+     */
+    public synchronized long getQueryCount() {
+        return queryCount;
+    }
+
+
+    /**
+     * @return the number of queries that had to wait for points to be restored
+     */
+    public synchronized long getDelayedQueryCount() {
+        return delayedQueryCount;
+    }
+
+
+    /**
+     * @return the total time queries were asked to wait, in milliseconds
+     */
+    public synchronized long getTotalWaitMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(totalWaitNanos);
+    }
+
+
+    /**
+     * @return the number of THROTTLED responses seen despite scheduling
+     */
+    public synchronized long getThrottledCount() {
+        return throttledCount;
+    }
+
+}
@@ -0,0 +1,294 @@
+package com.justblackmagic.shopify.api.metrics;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Micrometer instrumentation of every call the REST and GraphQL clients make to Shopify, published on the global registry, which Spring Boot links
+ * to the application's registry and its Actuator {@code metrics} endpoint:
+ * <ul>
+ * <li>{@code shopify.api.requests} - timer of whole calls, retries and pacing included, tagged with the status and outcome of the final response</li>
+ * <li>{@code shopify.api.throttled} - 429 responses, also tagged with the shop, to tell which shop runs out of API budget</li>
+ * <li>{@code shopify.api.retries} - retried attempts, tagged with the reason</li>
+ * <li>{@code shopify.api.server.errors} - 5xx and 423 responses, tagged with the status</li>
+ * <li>{@code shopify.api.deprecated.calls} - responses carrying Shopify's deprecation header</li>
+ * <li>{@code shopify.api.bytes.sent} and {@code shopify.api.bytes.received} - request and response body bytes</li>
+ * </ul>
+ *
+ * <p>Every metric is tagged with the {@code api} (rest or graphql), the {@code api.version} and the logical {@code endpoint}, e.g.
+ * {@code products.get} or {@code orders.list}. Endpoints are derived from the request path with ids dropped, so the number of tag values stays
+ * bounded by the number of endpoints used rather than the number of resources.
+ */
+@Slf4j
+public final class ShopifyApiMetrics {
+
+	public static final String REST_API = "rest";
+	public static final String GRAPHQL_API = "graphql";
+
+	/** Request property carrying the endpoint of a REST call to {@link ShopifyApiMetricsInterceptor} */
+	public static final String ENDPOINT_PROPERTY = "shopify.metrics.endpoint";
+
+	/** Request property carrying the API version of a REST call to {@link ShopifyApiMetricsInterceptor} */
+	public static final String API_VERSION_PROPERTY = "shopify.metrics.apiVersion";
+
+	static final String METRIC_PREFIX = "shopify.api";
+	static final String UNVERSIONED = "unversioned";
+	static final String NO_STATUS = "NONE";
+
+	private static final String API_TAG = "api";
+	private static final String ENDPOINT_TAG = "endpoint";
+	private static final String API_VERSION_TAG = "api.version";
+	private static final String METHOD_TAG = "method";
+	private static final String STATUS_TAG = "status";
+	private static final String OUTCOME_TAG = "outcome";
+	private static final String REASON_TAG = "reason";
+	private static final String SHOP_TAG = "shop";
+
+	private static final String API_PATH_SEGMENT = "api";
+	private static final String JSON_EXTENSION = ".json";
+	private static final String ENDPOINT_SEPARATOR = ".";
+	private static final String UNKNOWN_ENDPOINT = "unknown";
+
+	/** Resources that exist once per parent, so a GET of them reads one resource rather than listing many */
+	private static final Set<String> SINGLE_RESOURCES = Set.of("shop", "count");
+
+	/** Path segments naming an action on the resource before them, e.g. {@code orders/{id}/cancel} */
+	private static final Set<String> ACTIONS = Set.of("activate", "adjust", "cancel", "close", "connect", "open", "set");
+
+	/** Endpoints whose deprecation was already logged, so every deprecated endpoint is logged once rather than on every call */
+	private static final Set<String> LOGGED_DEPRECATIONS = ConcurrentHashMap.newKeySet();
+
+	private ShopifyApiMetrics() {}
+
+
+	/**
+	 * Derives the logical endpoint of a REST call from its method and path, e.g. {@code products.get} for {@code GET /admin/api/2024-10/products/1},
+	 * {@code products.list} for {@code GET .../products} and {@code products.images.create} for {@code POST .../products/1/images}.
+	 *
+	 * @param method the HTTP method
+	 * @param uri the request URI
+	 * @return the endpoint
+	 */
+	public static String restEndpoint(final String method, final URI uri) {
+		final List<String> segments = new ArrayList<>();
+		boolean lastSegmentIsId = false;
+		for (final String segment : resourceSegments(uri.getPath())) {
+			final String resource = segment.endsWith(JSON_EXTENSION) ? segment.substring(0, segment.length() - JSON_EXTENSION.length()) : segment;
+			lastSegmentIsId = isId(resource);
+			if (!lastSegmentIsId && !resource.isEmpty()) {
+				segments.add(resource);
+			}
+		}
+		if (segments.isEmpty()) {
+			return UNKNOWN_ENDPOINT;
+		}
+		final String lastSegment = segments.get(segments.size() - 1);
+		final String resourcePath = String.join(ENDPOINT_SEPARATOR, segments);
+		if (!lastSegmentIsId && ACTIONS.contains(lastSegment)) {
+			return resourcePath;
+		}
+		return resourcePath + ENDPOINT_SEPARATOR + action(method, lastSegmentIsId || SINGLE_RESOURCES.contains(lastSegment));
+	}
+
+
+	/**
+	 * @param queryName the name of the GraphQL query or mutation, e.g. {@code getShop}
+	 * @return the endpoint
+	 */
+	public static String graphqlEndpoint(final String queryName) {
+		return GRAPHQL_API + ENDPOINT_SEPARATOR + queryName;
+	}
+
+
+	/**
+	 * @return a sample to pass to {@link #recordCall(Timer.Sample, String, String, String, String, Integer)} once the call is over
+	 */
+	public static Timer.Sample startCall() {
+		return Timer.start(Metrics.globalRegistry);
+	}
+
+
+	/**
+	 * @param sample
+	 * @param api
+	 * @param endpoint
+	 * @param apiVersion
+	 * @param method
+	 * @param status the status of the final response, or null if the call failed without one
+	 */
+	public static void recordCall(final Timer.Sample sample, final String api, final String endpoint, final String apiVersion, final String method,
+			final Integer status) {
+		sample.stop(Timer.builder(METRIC_PREFIX + ".requests").description("Shopify API calls, retries and pacing included")
+				.tags(tags(api, endpoint, apiVersion)).tag(METHOD_TAG, method).tag(STATUS_TAG, status == null ? NO_STATUS : String.valueOf(status))
+				.tag(OUTCOME_TAG, outcome(status)).register(Metrics.globalRegistry));
+	}
+
+
+	/**
+	 * @param api
+	 * @param endpoint
+	 * @param apiVersion
+	 * @param shop
+	 */
+	public static void recordThrottled(final String api, final String endpoint, final String apiVersion, final String shop) {
+		counter("throttled", "Shopify API responses rejected for exceeding the shop's call limit", tags(api, endpoint, apiVersion).and(SHOP_TAG, shop))
+				.increment();
+	}
+
+
+	/**
+	 * @param api
+	 * @param endpoint
+	 * @param apiVersion
+	 * @param reason why the attempt is retried, e.g. {@code rate_limited}
+	 */
+	public static void recordRetry(final String api, final String endpoint, final String apiVersion, final String reason) {
+		counter("retries", "Retried Shopify API attempts", tags(api, endpoint, apiVersion).and(REASON_TAG, reason)).increment();
+	}
+
+
+	/**
+	 * @param api
+	 * @param endpoint
+	 * @param apiVersion
+	 * @param status
+	 */
+	public static void recordServerError(final String api, final String endpoint, final String apiVersion, final int status) {
+		counter("server.errors", "Shopify API server error responses", tags(api, endpoint, apiVersion).and(STATUS_TAG, String.valueOf(status)))
+				.increment();
+	}
+
+
+	/**
+	 * Counts a response carrying Shopify's deprecation header, and logs the first one of every endpoint.
+	 *
+	 * @param api
+	 * @param endpoint
+	 * @param apiVersion
+	 * @param reason the deprecation reason sent by Shopify
+	 */
+	public static void recordDeprecatedCall(final String api, final String endpoint, final String apiVersion, final String reason) {
+		counter("deprecated.calls", "Shopify API calls Shopify reported as deprecated", tags(api, endpoint, apiVersion)).increment();
+		if (LOGGED_DEPRECATIONS.add(api + ENDPOINT_SEPARATOR + endpoint)) {
+			log.warn("Shopify {} endpoint {} of API version {} is deprecated: {}", api, endpoint, versionTag(apiVersion), reason);
+		}
+	}
+
+
+	/**
+	 * @param api
+	 * @param endpoint
+	 * @param apiVersion
+	 * @param bytes
+	 */
+	public static void recordBytesSent(final String api, final String endpoint, final String apiVersion, final long bytes) {
+		counter("bytes.sent", "Request body bytes sent to the Shopify API", tags(api, endpoint, apiVersion)).increment(bytes);
+	}
+
+
+	/**
+	 * @param api
+	 * @param endpoint
+	 * @param apiVersion
+	 * @param bytes
+	 */
+	public static void recordBytesReceived(final String api, final String endpoint, final String apiVersion, final long bytes) {
+		counter("bytes.received", "Response body bytes received from the Shopify API", tags(api, endpoint, apiVersion)).increment(bytes);
+	}
+
+
+	/**
+	 * @param path
+	 * @return the path segments after {@code /admin/api/{version}}, or all of them if the path has no such prefix
+	 */
+	private static List<String> resourceSegments(final String path) {
+		final List<String> segments = List.of(path == null ? new String[0] : path.split("/"));
+		final int apiIndex = segments.indexOf(API_PATH_SEGMENT);
+		return apiIndex < 0 || apiIndex + 2 > segments.size() ? segments : segments.subList(apiIndex + 2, segments.size());
+	}
+
+
+	/**
+	 * @param segment
+	 * @return true if the segment is a numeric Shopify id
+	 */
+	private static boolean isId(final String segment) {
+		return !segment.isEmpty() && segment.chars().allMatch(Character::isDigit);
+	}
+
+
+	/**
+	 * @param method
+	 * @param singleResource
+	 * @return the action of the call
+	 */
+	private static String action(final String method, final boolean singleResource) {
+		return switch (method.toUpperCase(Locale.ROOT)) {
+			case "GET" -> singleResource ? "get" : "list";
+			case "POST" -> "create";
+			case "PUT" -> "update";
+			case "DELETE" -> "delete";
+			default -> method.toLowerCase(Locale.ROOT);
+		};
+	}
+
+
+	/**
+	 * @param status
+	 * @return the outcome of the status, as Spring's own HTTP client metrics name it
+	 */
+	private static String outcome(final Integer status) {
+		if (status == null) {
+			return "UNKNOWN";
+		}
+		return switch (status / 100) {
+			case 1 -> "INFORMATIONAL";
+			case 2 -> "SUCCESS";
+			case 3 -> "REDIRECTION";
+			case 4 -> "CLIENT_ERROR";
+			case 5 -> "SERVER_ERROR";
+			default -> "UNKNOWN";
+		};
+	}
+
+
+	/**
+	 * @param api
+	 * @param endpoint
+	 * @param apiVersion
+	 * @return Tags
+	 */
+	private static Tags tags(final String api, final String endpoint, final String apiVersion) {
+		return Tags.of(API_TAG, api, ENDPOINT_TAG, endpoint, API_VERSION_TAG, versionTag(apiVersion));
+	}
+
+
+	/**
+	 * @param apiVersion
+	 * @return the API version, or {@value #UNVERSIONED} for clients built without one
+	 */
+	private static String versionTag(final String apiVersion) {
+		return apiVersion == null || apiVersion.isBlank() ? UNVERSIONED : apiVersion;
+	}
+
+
+	/**
+	 * @param name
+	 * @param description
+	 * @param tags
+	 * @return Counter
+	 */
+	private static Counter counter(final String name, final String description, final Tags tags) {
+		return Counter.builder(METRIC_PREFIX + ENDPOINT_SEPARATOR + name).description(description).tags(tags).register(Metrics.globalRegistry);
+	}
+
+}
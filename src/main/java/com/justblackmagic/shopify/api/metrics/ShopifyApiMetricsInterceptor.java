@@ -0,0 +1,127 @@
+package com.justblackmagic.shopify.api.metrics;
+
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import jakarta.ws.rs.ext.ReaderInterceptor;
+import jakarta.ws.rs.ext.ReaderInterceptorContext;
+import jakarta.ws.rs.ext.WriterInterceptor;
+import jakarta.ws.rs.ext.WriterInterceptorContext;
+
+/**
+ * Counts the body bytes of the REST calls tagged with {@link ShopifyApiMetrics#ENDPOINT_PROPERTY}, as they are written to and read from the wire.
+ * Response bodies are counted when their stream is closed, so bodies streamed element by element are counted as well as buffered ones.
+ * Registered with a priority ahead of the content encoders, so compressed bodies are counted compressed, as they are transferred.
+ */
+public class ShopifyApiMetricsInterceptor implements ReaderInterceptor, WriterInterceptor {
+
+	@Override
+	public void aroundWriteTo(final WriterInterceptorContext context) throws IOException {
+		final Object endpoint = context.getProperty(ShopifyApiMetrics.ENDPOINT_PROPERTY);
+		if (endpoint == null) {
+			context.proceed();
+			return;
+		}
+		final CountingOutputStream countingOutputStream = new CountingOutputStream(context.getOutputStream());
+		context.setOutputStream(countingOutputStream);
+		try {
+			context.proceed();
+		} finally {
+			ShopifyApiMetrics.recordBytesSent(ShopifyApiMetrics.REST_API, endpoint.toString(),
+					(String) context.getProperty(ShopifyApiMetrics.API_VERSION_PROPERTY), countingOutputStream.count);
+		}
+	}
+
+
+	@Override
+	public Object aroundReadFrom(final ReaderInterceptorContext context) throws IOException {
+		final Object endpoint = context.getProperty(ShopifyApiMetrics.ENDPOINT_PROPERTY);
+		if (endpoint != null) {
+			context.setInputStream(new CountingInputStream(context.getInputStream(), endpoint.toString(),
+					(String) context.getProperty(ShopifyApiMetrics.API_VERSION_PROPERTY)));
+		}
+		return context.proceed();
+	}
+
+
+	/**
+	 * Counts the bytes written through it.
+	 */
+	private static final class CountingOutputStream extends FilterOutputStream {
+
+		private long count;
+
+		CountingOutputStream(final OutputStream outputStream) {
+			super(outputStream);
+		}
+
+		@Override
+		public void write(final int b) throws IOException {
+			out.write(b);
+			count++;
+		}
+
+		@Override
+		public void write(final byte[] b, final int off, final int len) throws IOException {
+			out.write(b, off, len);
+			count += len;
+		}
+	}
+
+	/**
+	 * Counts the bytes read through it, and records them once when closed.
+	 */
+	private static final class CountingInputStream extends FilterInputStream {
+
+		private final String endpoint;
+		private final String apiVersion;
+		private long count;
+		private boolean recorded;
+
+		CountingInputStream(final InputStream inputStream, final String endpoint, final String apiVersion) {
+			super(inputStream);
+			this.endpoint = endpoint;
+			this.apiVersion = apiVersion;
+		}
+
+		@Override
+		public int read() throws IOException {
+			final int b = in.read();
+			if (b >= 0) {
+				count++;
+			}
+			return b;
+		}
+
+		@Override
+		public int read(final byte[] b, final int off, final int len) throws IOException {
+			final int read = in.read(b, off, len);
+			if (read > 0) {
+				count += read;
+			}
+			return read;
+		}
+
+		@Override
+		public long skip(final long n) throws IOException {
+			final long skipped = in.skip(n);
+			count += skipped;
+			return skipped;
+		}
+
+		@Override
+		public void close() throws IOException {
+			try {
+				in.close();
+			} finally {
+				if (!recorded) {
+					recorded = true;
+					ShopifyApiMetrics.recordBytesReceived(ShopifyApiMetrics.REST_API, endpoint, apiVersion, count);
+				}
+			}
+		}
+	}
+
+}
@@ -0,0 +1,651 @@
+package com.justblackmagic.shopify.api.rest;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+import com.justblackmagic.shopify.api.rest.catalog.ShopifyCatalogSnapshot;
+import com.justblackmagic.shopify.api.rest.model.Metafield;
+import com.justblackmagic.shopify.api.rest.model.ShopifyCustomCollection;
+import com.justblackmagic.shopify.api.rest.model.ShopifyCustomCollectionCreationRequest;
+import com.justblackmagic.shopify.api.rest.model.ShopifyCustomer;
+import com.justblackmagic.shopify.api.rest.model.ShopifyCustomerUpdateRequest;
+import com.justblackmagic.shopify.api.rest.model.ShopifyFulfillment;
+import com.justblackmagic.shopify.api.rest.model.ShopifyFulfillmentCreationRequest;
+import com.justblackmagic.shopify.api.rest.model.ShopifyFulfillmentUpdateRequest;
+import com.justblackmagic.shopify.api.rest.model.ShopifyGetCustomersRequest;
+import com.justblackmagic.shopify.api.rest.model.ShopifyGiftCard;
+import com.justblackmagic.shopify.api.rest.model.ShopifyGiftCardCreationRequest;
+import com.justblackmagic.shopify.api.rest.model.ShopifyInventoryLevel;
+import com.justblackmagic.shopify.api.rest.model.ShopifyLocation;
+import com.justblackmagic.shopify.api.rest.model.ShopifyOrder;
+import com.justblackmagic.shopify.api.rest.model.ShopifyOrderCreationRequest;
+import com.justblackmagic.shopify.api.rest.model.ShopifyOrderRisk;
+import com.justblackmagic.shopify.api.rest.model.ShopifyOrderShippingAddressUpdateRequest;
+import com.justblackmagic.shopify.api.rest.model.ShopifyPage;
+import com.justblackmagic.shopify.api.rest.model.ShopifyProduct;
+import com.justblackmagic.shopify.api.rest.model.ShopifyProductCreationRequest;
+import com.justblackmagic.shopify.api.rest.model.ShopifyProductMetafieldCreationRequest;
+import com.justblackmagic.shopify.api.rest.model.ShopifyProductUpdateRequest;
+import com.justblackmagic.shopify.api.rest.model.ShopifyProducts;
+import com.justblackmagic.shopify.api.rest.model.ShopifyRecurringApplicationCharge;
+import com.justblackmagic.shopify.api.rest.model.ShopifyRecurringApplicationChargeCreationRequest;
+import com.justblackmagic.shopify.api.rest.model.ShopifyRefund;
+import com.justblackmagic.shopify.api.rest.model.ShopifyRefundCreationRequest;
+import com.justblackmagic.shopify.api.rest.model.ShopifyShop;
+import com.justblackmagic.shopify.api.rest.model.ShopifyTransaction;
+import com.justblackmagic.shopify.api.rest.model.ShopifyVariant;
+import com.justblackmagic.shopify.api.rest.model.ShopifyVariantMetafieldCreationRequest;
+import com.justblackmagic.shopify.api.rest.model.ShopifyVariantUpdateRequest;
+import com.justblackmagic.shopify.api.rest.model.Webhook;
+import com.justblackmagic.shopify.api.rest.projection.ShopifyProjection;
+
+/**
+ * Asynchronous twin of {@link ShopifyRestClient}. Every call returns a {@link CompletableFuture} and runs on a virtual thread, so fanning out across
+ * hundreds of shops does not tie up a platform thread per in-flight call.
+ *
+ * <p>The wrapped client still paces calls with the shop's call limit governor and retries failed calls, but because those waits park a virtual thread
+ * rather than block a carrier thread, one node can keep thousands of Shopify calls in flight. You should get an instance from
+ * {@link ShopifyRestClientService} rather than creating your own.
+ */
+public class ShopifyAsyncRestClient {
+
+	/** Shared executor that starts a new virtual thread for every call. */
+	static final ExecutorService VIRTUAL_THREAD_EXECUTOR = Executors.newVirtualThreadPerTaskExecutor();
+
+	private final ShopifyRestClient shopifyRestClient;
+	private final Executor executor;
+
+
+	/**
+	 * Creates an asynchronous client that runs calls on the shared virtual thread executor.
+	 *
+	 * @param shopifyRestClient the blocking client to delegate to
+	 */
+	public ShopifyAsyncRestClient(final ShopifyRestClient shopifyRestClient) {
+		this(shopifyRestClient, VIRTUAL_THREAD_EXECUTOR);
+	}
+
+
+	/**
+	 * Creates an asynchronous client that runs calls on the given executor.
+	 *
+	 * @param shopifyRestClient the blocking client to delegate to
+	 * @param executor the executor to run calls on
+	 */
+	public ShopifyAsyncRestClient(final ShopifyRestClient shopifyRestClient, final Executor executor) {
+		this.shopifyRestClient = shopifyRestClient;
+		this.executor = executor;
+	}
+
+
+	/**
+	 * @return the blocking client this asynchronous client delegates to
+	 */
+	public ShopifyRestClient getShopifyRestClient() {
+		return shopifyRestClient;
+	}
+
+
+	/**
+	 * @return CompletableFuture<Boolean>
+	 */
+	public CompletableFuture<Boolean> revokeOAuthToken() {
+		return supplyAsync(() -> shopifyRestClient.revokeOAuthToken());
+	}
+
+
+	/**
+	 * @param productId
+	 * @return CompletableFuture<ShopifyProduct>
+	 */
+	public CompletableFuture<ShopifyProduct> getProduct(final String productId) {
+		return supplyAsync(() -> shopifyRestClient.getProduct(productId));
+	}
+
+
+	/**
+	 * @param variantId
+	 * @return CompletableFuture<ShopifyVariant>
+	 */
+	public CompletableFuture<ShopifyVariant> getVariant(final String variantId) {
+		return supplyAsync(() -> shopifyRestClient.getVariant(variantId));
+	}
+
+
+	/**
+	 * @param pageSize
+	 * @return CompletableFuture<ShopifyPage<ShopifyProduct>>
+	 */
+	public CompletableFuture<ShopifyPage<ShopifyProduct>> getProducts(final int pageSize) {
+		return supplyAsync(() -> shopifyRestClient.getProducts(pageSize));
+	}
+
+
+	/**
+	 * @param pageInfo
+	 * @param pageSize
+	 * @return CompletableFuture<ShopifyPage<ShopifyProduct>>
+	 */
+	public CompletableFuture<ShopifyPage<ShopifyProduct>> getProducts(final String pageInfo, final int pageSize) {
+		return supplyAsync(() -> shopifyRestClient.getProducts(pageInfo, pageSize));
+	}
+
+
+	/**
+	 * @param projection
+	 * @param pageInfo the {@code page_info} of the page, or null for the first page
+	 * @param pageSize
+	 * @return CompletableFuture<ShopifyPage<T>>
+	 */
+	public <T> CompletableFuture<ShopifyPage<T>> getProducts(final ShopifyProjection<T> projection, final String pageInfo, final int pageSize) {
+		return supplyAsync(() -> shopifyRestClient.getProducts(projection, pageInfo, pageSize));
+	}
+
+
+	/**
+	 * @return CompletableFuture<ShopifyProducts>
+	 */
+	public CompletableFuture<ShopifyProducts> getProducts() {
+		return supplyAsync(() -> shopifyRestClient.getProducts());
+	}
+
+
+	/**
+	 * @return CompletableFuture<ShopifyCatalogSnapshot>
+	 */
+	public CompletableFuture<ShopifyCatalogSnapshot> getCatalogSnapshot() {
+		return supplyAsync(() -> shopifyRestClient.getCatalogSnapshot());
+	}
+
+
+	/**
+	 * @return CompletableFuture<Integer>
+	 */
+	public CompletableFuture<Integer> getProductCount() {
+		return supplyAsync(() -> shopifyRestClient.getProductCount());
+	}
+
+
+	/**
+	 * @param pageSize
+	 * @return CompletableFuture<ShopifyPage<ShopifyCustomCollection>>
+	 */
+	public CompletableFuture<ShopifyPage<ShopifyCustomCollection>> getCustomCollections(final int pageSize) {
+		return supplyAsync(() -> shopifyRestClient.getCustomCollections(pageSize));
+	}
+
+
+	/**
+	 * @param pageInfo
+	 * @param pageSize
+	 * @return CompletableFuture<ShopifyPage<ShopifyCustomCollection>>
+	 */
+	public CompletableFuture<ShopifyPage<ShopifyCustomCollection>> getCustomCollections(final String pageInfo, final int pageSize) {
+		return supplyAsync(() -> shopifyRestClient.getCustomCollections(pageInfo, pageSize));
+	}
+
+
+	/**
+	 * @return CompletableFuture<List<ShopifyCustomCollection>>
+	 */
+	public CompletableFuture<List<ShopifyCustomCollection>> getCustomCollections() {
+		return supplyAsync(() -> shopifyRestClient.getCustomCollections());
+	}
+
+
+	/**
+	 * @param shopifyCustomCollectionCreationRequest
+	 * @return CompletableFuture<ShopifyCustomCollection>
+	 */
+	public CompletableFuture<ShopifyCustomCollection> createCustomCollection(
+			final ShopifyCustomCollectionCreationRequest shopifyCustomCollectionCreationRequest) {
+		return supplyAsync(() -> shopifyRestClient.createCustomCollection(shopifyCustomCollectionCreationRequest));
+	}
+
+
+	/**
+	 * @return CompletableFuture<ShopifyShop>
+	 */
+	public CompletableFuture<ShopifyShop> getShop() {
+		return supplyAsync(() -> shopifyRestClient.getShop());
+	}
+
+
+	/**
+	 * @param shopifyProductCreationRequest
+	 * @return CompletableFuture<ShopifyProduct>
+	 */
+	public CompletableFuture<ShopifyProduct> createProduct(final ShopifyProductCreationRequest shopifyProductCreationRequest) {
+		return supplyAsync(() -> shopifyRestClient.createProduct(shopifyProductCreationRequest));
+	}
+
+
+	/**
+	 * @param shopifyProductUpdateRequest
+	 * @return CompletableFuture<ShopifyProduct>
+	 */
+	public CompletableFuture<ShopifyProduct> updateProduct(final ShopifyProductUpdateRequest shopifyProductUpdateRequest) {
+		return supplyAsync(() -> shopifyRestClient.updateProduct(shopifyProductUpdateRequest));
+	}
+
+
+	/**
+	 * @param shopifyVariantUpdateRequest
+	 * @return CompletableFuture<ShopifyVariant>
+	 */
+	public CompletableFuture<ShopifyVariant> updateVariant(final ShopifyVariantUpdateRequest shopifyVariantUpdateRequest) {
+		return supplyAsync(() -> shopifyRestClient.updateVariant(shopifyVariantUpdateRequest));
+	}
+
+
+	/**
+	 * @param productId
+	 * @return CompletableFuture<Boolean>
+	 */
+	public CompletableFuture<Boolean> deleteProduct(final String productId) {
+		return supplyAsync(() -> shopifyRestClient.deleteProduct(productId));
+	}
+
+
+	/**
+	 * @param shopifyRecurringApplicationChargeCreationRequest
+	 * @return CompletableFuture<ShopifyRecurringApplicationCharge>
+	 */
+	public CompletableFuture<ShopifyRecurringApplicationCharge> createRecurringApplicationCharge(
+			final ShopifyRecurringApplicationChargeCreationRequest shopifyRecurringApplicationChargeCreationRequest) {
+		return supplyAsync(() -> shopifyRestClient.createRecurringApplicationCharge(shopifyRecurringApplicationChargeCreationRequest));
+	}
+
+
+	/**
+	 * @param chargeId
+	 * @return CompletableFuture<ShopifyRecurringApplicationCharge>
+	 */
+	public CompletableFuture<ShopifyRecurringApplicationCharge> getRecurringApplicationCharge(final String chargeId) {
+		return supplyAsync(() -> shopifyRestClient.getRecurringApplicationCharge(chargeId));
+	}
+
+
+	/**
+	 * @param chargeId
+	 * @return CompletableFuture<ShopifyRecurringApplicationCharge>
+	 */
+	public CompletableFuture<ShopifyRecurringApplicationCharge> activateRecurringApplicationCharge(final String chargeId) {
+		return supplyAsync(() -> shopifyRestClient.activateRecurringApplicationCharge(chargeId));
+	}
+
+
+	/**
+	 * @param orderId
+	 * @return CompletableFuture<ShopifyOrder>
+	 */
+	public CompletableFuture<ShopifyOrder> getOrder(final String orderId) {
+		return supplyAsync(() -> shopifyRestClient.getOrder(orderId));
+	}
+
+
+	/**
+	 * @param orderId
+	 * @return CompletableFuture<List<ShopifyTransaction>>
+	 */
+	public CompletableFuture<List<ShopifyTransaction>> getOrderTransactions(final String orderId) {
+		return supplyAsync(() -> shopifyRestClient.getOrderTransactions(orderId));
+	}
+
+
+	/**
+	 * @return CompletableFuture<ShopifyPage<ShopifyOrder>>
+	 */
+	public CompletableFuture<ShopifyPage<ShopifyOrder>> getOrders() {
+		return supplyAsync(() -> shopifyRestClient.getOrders());
+	}
+
+
+	/**
+	 * @param pageSize
+	 * @return CompletableFuture<ShopifyPage<ShopifyOrder>>
+	 */
+	public CompletableFuture<ShopifyPage<ShopifyOrder>> getOrders(final int pageSize) {
+		return supplyAsync(() -> shopifyRestClient.getOrders(pageSize));
+	}
+
+
+	/**
+	 * @param mininumCreationDate
+	 * @return CompletableFuture<ShopifyPage<ShopifyOrder>>
+	 */
+	public CompletableFuture<ShopifyPage<ShopifyOrder>> getOrders(final ZonedDateTime mininumCreationDate) {
+		return supplyAsync(() -> shopifyRestClient.getOrders(mininumCreationDate));
+	}
+
+
+	/**
+	 * @param mininumCreationDate
+	 * @param pageSize
+	 * @return CompletableFuture<ShopifyPage<ShopifyOrder>>
+	 */
+	public CompletableFuture<ShopifyPage<ShopifyOrder>> getOrders(final ZonedDateTime mininumCreationDate, final int pageSize) {
+		return supplyAsync(() -> shopifyRestClient.getOrders(mininumCreationDate, pageSize));
+	}
+
+
+	/**
+	 * @param mininumCreationDate
+	 * @param maximumCreationDate
+	 * @return CompletableFuture<ShopifyPage<ShopifyOrder>>
+	 */
+	public CompletableFuture<ShopifyPage<ShopifyOrder>> getOrders(final ZonedDateTime mininumCreationDate, final ZonedDateTime maximumCreationDate) {
+		return supplyAsync(() -> shopifyRestClient.getOrders(mininumCreationDate, maximumCreationDate));
+	}
+
+
+	/**
+	 * @param minimumUpdatedAtDate
+	 * @param maximumUpdatedAtDate
+	 * @param maximumCreatedAtDate
+	 * @param pageSize
+	 * @return CompletableFuture<ShopifyPage<ShopifyOrder>>
+	 */
+	public CompletableFuture<ShopifyPage<ShopifyOrder>> getUpdatedOrdersCreatedBefore(final ZonedDateTime minimumUpdatedAtDate,
+			final ZonedDateTime maximumUpdatedAtDate, final ZonedDateTime maximumCreatedAtDate, final int pageSize) {
+		return supplyAsync(
+				() -> shopifyRestClient.getUpdatedOrdersCreatedBefore(minimumUpdatedAtDate, maximumUpdatedAtDate, maximumCreatedAtDate, pageSize));
+	}
+
+
+	/**
+	 * @param mininumCreationDate
+	 * @param maximumCreationDate
+	 * @param pageSize
+	 * @return CompletableFuture<ShopifyPage<ShopifyOrder>>
+	 */
+	public CompletableFuture<ShopifyPage<ShopifyOrder>> getOrders(final ZonedDateTime mininumCreationDate, final ZonedDateTime maximumCreationDate,
+			final int pageSize) {
+		return supplyAsync(() -> shopifyRestClient.getOrders(mininumCreationDate, maximumCreationDate, pageSize));
+	}
+
+
+	/**
+	 * @param mininumCreationDate
+	 * @param maximumCreationDate
+	 * @param appId
+	 * @return CompletableFuture<ShopifyPage<ShopifyOrder>>
+	 */
+	public CompletableFuture<ShopifyPage<ShopifyOrder>> getOrders(final ZonedDateTime mininumCreationDate, final ZonedDateTime maximumCreationDate,
+			final String appId) {
+		return supplyAsync(() -> shopifyRestClient.getOrders(mininumCreationDate, maximumCreationDate, appId));
+	}
+
+
+	/**
+	 * @param mininumCreationDate
+	 * @param maximumCreationDate
+	 * @param appId
+	 * @param pageSize
+	 * @return CompletableFuture<ShopifyPage<ShopifyOrder>>
+	 */
+	public CompletableFuture<ShopifyPage<ShopifyOrder>> getOrders(final ZonedDateTime mininumCreationDate, final ZonedDateTime maximumCreationDate,
+			final String appId, final int pageSize) {
+		return supplyAsync(() -> shopifyRestClient.getOrders(mininumCreationDate, maximumCreationDate, appId, pageSize));
+	}
+
+
+	/**
+	 * @param pageInfo
+	 * @param pageSize
+	 * @return CompletableFuture<ShopifyPage<ShopifyOrder>>
+	 */
+	public CompletableFuture<ShopifyPage<ShopifyOrder>> getOrders(final String pageInfo, final int pageSize) {
+		return supplyAsync(() -> shopifyRestClient.getOrders(pageInfo, pageSize));
+	}
+
+
+	/**
+	 * @param projection
+	 * @param pageInfo the {@code page_info} of the page, or null for the first page
+	 * @param pageSize
+	 * @return CompletableFuture<ShopifyPage<T>>
+	 */
+	public <T> CompletableFuture<ShopifyPage<T>> getOrders(final ShopifyProjection<T> projection, final String pageInfo, final int pageSize) {
+		return supplyAsync(() -> shopifyRestClient.getOrders(projection, pageInfo, pageSize));
+	}
+
+
+	/**
+	 * @param shopifyFulfillmentCreationRequest
+	 * @return CompletableFuture<ShopifyFulfillment>
+	 */
+	public CompletableFuture<ShopifyFulfillment> createFulfillment(final ShopifyFulfillmentCreationRequest shopifyFulfillmentCreationRequest) {
+		return supplyAsync(() -> shopifyRestClient.createFulfillment(shopifyFulfillmentCreationRequest));
+	}
+
+
+	/**
+	 * @param shopifyFulfillmentUpdateRequest
+	 * @return CompletableFuture<ShopifyFulfillment>
+	 */
+	public CompletableFuture<ShopifyFulfillment> updateFulfillment(final ShopifyFulfillmentUpdateRequest shopifyFulfillmentUpdateRequest) {
+		return supplyAsync(() -> shopifyRestClient.updateFulfillment(shopifyFulfillmentUpdateRequest));
+	}
+
+
+	/**
+	 * @param shopifyOrderCreationRequest
+	 * @return CompletableFuture<ShopifyOrder>
+	 */
+	public CompletableFuture<ShopifyOrder> createOrder(final ShopifyOrderCreationRequest shopifyOrderCreationRequest) {
+		return supplyAsync(() -> shopifyRestClient.createOrder(shopifyOrderCreationRequest));
+	}
+
+
+	/**
+	 * @param shopifyOrderUpdateRequest
+	 * @return CompletableFuture<ShopifyOrder>
+	 */
+	public CompletableFuture<ShopifyOrder> updateOrderShippingAddress(
+			final ShopifyOrderShippingAddressUpdateRequest shopifyOrderUpdateRequest) {
+		return supplyAsync(() -> shopifyRestClient.updateOrderShippingAddress(shopifyOrderUpdateRequest));
+	}
+
+
+	/**
+	 * @param shopifyCustomerUpdateRequest
+	 * @return CompletableFuture<ShopifyCustomer>
+	 */
+	public CompletableFuture<ShopifyCustomer> updateCustomer(final ShopifyCustomerUpdateRequest shopifyCustomerUpdateRequest) {
+		return supplyAsync(() -> shopifyRestClient.updateCustomer(shopifyCustomerUpdateRequest));
+	}
+
+
+	/**
+	 * @param customerId
+	 * @return CompletableFuture<ShopifyCustomer>
+	 */
+	public CompletableFuture<ShopifyCustomer> getCustomer(final String customerId) {
+		return supplyAsync(() -> shopifyRestClient.getCustomer(customerId));
+	}
+
+
+	/**
+	 * @param shopifyGetCustomersRequest
+	 * @return CompletableFuture<ShopifyPage<ShopifyCustomer>>
+	 */
+	public CompletableFuture<ShopifyPage<ShopifyCustomer>> getCustomers(final ShopifyGetCustomersRequest shopifyGetCustomersRequest) {
+		return supplyAsync(() -> shopifyRestClient.getCustomers(shopifyGetCustomersRequest));
+	}
+
+
+	/**
+	 * @param projection
+	 * @param shopifyGetCustomersRequest
+	 * @return CompletableFuture<ShopifyPage<T>>
+	 */
+	public <T> CompletableFuture<ShopifyPage<T>> getCustomers(final ShopifyProjection<T> projection,
+			final ShopifyGetCustomersRequest shopifyGetCustomersRequest) {
+		return supplyAsync(() -> shopifyRestClient.getCustomers(projection, shopifyGetCustomersRequest));
+	}
+
+
+	/**
+	 * @param query
+	 * @return CompletableFuture<ShopifyPage<ShopifyCustomer>>
+	 */
+	public CompletableFuture<ShopifyPage<ShopifyCustomer>> searchCustomers(final String query) {
+		return supplyAsync(() -> shopifyRestClient.searchCustomers(query));
+	}
+
+
+	/**
+	 * @param orderId
+	 * @param fulfillmentId
+	 * @return CompletableFuture<ShopifyFulfillment>
+	 */
+	public CompletableFuture<ShopifyFulfillment> cancelFulfillment(final String orderId, final String fulfillmentId) {
+		return supplyAsync(() -> shopifyRestClient.cancelFulfillment(orderId, fulfillmentId));
+	}
+
+
+	/**
+	 * @param orderId
+	 * @return CompletableFuture<ShopifyOrder>
+	 */
+	public CompletableFuture<ShopifyOrder> closeOrder(final String orderId) {
+		return supplyAsync(() -> shopifyRestClient.closeOrder(orderId));
+	}
+
+
+	/**
+	 * @param orderId
+	 * @param reason
+	 * @return CompletableFuture<ShopifyOrder>
+	 */
+	public CompletableFuture<ShopifyOrder> cancelOrder(final String orderId, final String reason) {
+		return supplyAsync(() -> shopifyRestClient.cancelOrder(orderId, reason));
+	}
+
+
+	/**
+	 * @param shopifyVariantMetafieldCreationRequest
+	 * @return CompletableFuture<Metafield>
+	 */
+	public CompletableFuture<Metafield> createVariantMetafield(
+			final ShopifyVariantMetafieldCreationRequest shopifyVariantMetafieldCreationRequest) {
+		return supplyAsync(() -> shopifyRestClient.createVariantMetafield(shopifyVariantMetafieldCreationRequest));
+	}
+
+
+	/**
+	 * @param variantId
+	 * @return CompletableFuture<List<Metafield>>
+	 */
+	public CompletableFuture<List<Metafield>> getVariantMetafields(final String variantId) {
+		return supplyAsync(() -> shopifyRestClient.getVariantMetafields(variantId));
+	}
+
+
+	/**
+	 * @param shopifyProductMetafieldCreationRequest
+	 * @return CompletableFuture<Metafield>
+	 */
+	public CompletableFuture<Metafield> createProductMetafield(
+			final ShopifyProductMetafieldCreationRequest shopifyProductMetafieldCreationRequest) {
+		return supplyAsync(() -> shopifyRestClient.createProductMetafield(shopifyProductMetafieldCreationRequest));
+	}
+
+
+	/**
+	 * @param productId
+	 * @return CompletableFuture<List<Metafield>>
+	 */
+	public CompletableFuture<List<Metafield>> getProductMetafields(final String productId) {
+		return supplyAsync(() -> shopifyRestClient.getProductMetafields(productId));
+	}
+
+
+	/**
+	 * @param orderId
+	 * @return CompletableFuture<List<ShopifyOrderRisk>>
+	 */
+	public CompletableFuture<List<ShopifyOrderRisk>> getOrderRisks(final String orderId) {
+		return supplyAsync(() -> shopifyRestClient.getOrderRisks(orderId));
+	}
+
+
+	/**
+	 * @return CompletableFuture<List<ShopifyLocation>>
+	 */
+	public CompletableFuture<List<ShopifyLocation>> getLocations() {
+		return supplyAsync(() -> shopifyRestClient.getLocations());
+	}
+
+
+	/**
+	 * @param inventoryItemId
+	 * @param locationId
+	 * @param quantity
+	 * @return CompletableFuture<ShopifyInventoryLevel>
+	 */
+	public CompletableFuture<ShopifyInventoryLevel> updateInventoryLevel(final String inventoryItemId, final String locationId,
+			final long quantity) {
+		return supplyAsync(() -> shopifyRestClient.updateInventoryLevel(inventoryItemId, locationId, quantity));
+	}
+
+
+	/**
+	 * @param orderId
+	 * @return CompletableFuture<List<Metafield>>
+	 */
+	public CompletableFuture<List<Metafield>> getOrderMetafields(final String orderId) {
+		return supplyAsync(() -> shopifyRestClient.getOrderMetafields(orderId));
+	}
+
+
+	/**
+	 * @param shopifyRefundCreationRequest
+	 * @return CompletableFuture<ShopifyRefund>
+	 */
+	public CompletableFuture<ShopifyRefund> refund(final ShopifyRefundCreationRequest shopifyRefundCreationRequest) {
+		return supplyAsync(() -> shopifyRestClient.refund(shopifyRefundCreationRequest));
+	}
+
+
+	/**
+	 * @param shopifyGiftCardCreationRequest
+	 * @return CompletableFuture<ShopifyGiftCard>
+	 */
+	public CompletableFuture<ShopifyGiftCard> createGiftCard(final ShopifyGiftCardCreationRequest shopifyGiftCardCreationRequest) {
+		return supplyAsync(() -> shopifyRestClient.createGiftCard(shopifyGiftCardCreationRequest));
+	}
+
+
+	/**
+	 * @param webhook
+	 * @return CompletableFuture<Void>
+	 */
+	public CompletableFuture<Void> createWebhook(final Webhook webhook) {
+		return runAsync(() -> shopifyRestClient.createWebhook(webhook));
+	}
+
+
+	/**
+	 * @param supplier
+	 * @return CompletableFuture<T>
+	 */
+	private <T> CompletableFuture<T> supplyAsync(final Supplier<T> supplier) {
+		return CompletableFuture.supplyAsync(supplier, executor);
+	}
+
+
+	/**
+	 * @param runnable
+	 * @return CompletableFuture<Void>
+	 */
+	private CompletableFuture<Void> runAsync(final Runnable runnable) {
+		return CompletableFuture.runAsync(runnable, executor);
+	}
+
+}
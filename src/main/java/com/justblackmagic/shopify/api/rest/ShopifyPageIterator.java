@@ -0,0 +1,146 @@
+package com.justblackmagic.shopify.api.rest;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import com.justblackmagic.shopify.api.rest.model.ShopifyPage;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Lazily walks a cursor paged Shopify REST resource one {@code page_info} page at a time. The next page is only requested once the current one has
+ * been consumed, so at most one page (two when prefetching) is held in memory no matter how large the resource is.
+ *
+ * <p>When a prefetch executor is given, the following page is requested in the background as soon as a page arrives, hiding the round-trip latency
+ * behind the processing of the current page.
+ *
+ * @param <T> the type of the paged items
+ */
+@Slf4j
+public class ShopifyPageIterator<T> implements Iterator<T> {
+
+	private final Function<String, ShopifyPage<T>> pageFetcher;
+	private final Executor prefetchExecutor;
+
+	private Iterator<T> currentItems = Collections.emptyIterator();
+	private String nextPageInfo;
+	private boolean firstPageFetched;
+	private CompletableFuture<ShopifyPage<T>> prefetchedPage;
+	private int pageCount;
+
+
+	/**
+	 * @param pageFetcher returns the page for the given {@code page_info}, or the first page when called with null
+	 * @param prefetchExecutor executor used to fetch the next page ahead of time, or null to fetch pages only on demand
+	 */
+	public ShopifyPageIterator(final Function<String, ShopifyPage<T>> pageFetcher, final Executor prefetchExecutor) {
+		this.pageFetcher = pageFetcher;
+		this.prefetchExecutor = prefetchExecutor;
+	}
+
+
+	/**
+	 * Creates a sequential, ordered stream over all items of a paged resource. Closing the stream cancels any outstanding prefetch.
+	 *
+	 * @param pageFetcher returns the page for the given {@code page_info}, or the first page when called with null
+	 * @param prefetchExecutor executor used to fetch the next page ahead of time, or null to fetch pages only on demand
+	 * @return Stream<T>
+	 */
+	public static <T> Stream<T> stream(final Function<String, ShopifyPage<T>> pageFetcher, final Executor prefetchExecutor) {
+		final ShopifyPageIterator<T> iterator = new ShopifyPageIterator<>(pageFetcher, prefetchExecutor);
+		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false)
+				.onClose(iterator::cancelPrefetch);
+	}
+
+
+	/**
+	 * @return boolean
+	 */
+	@Override
+	public boolean hasNext() {
+		while (!currentItems.hasNext()) {
+			if (!fetchNextPage()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+
+	/**
+	 * @return T
+	 */
+	@Override
+	public T next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		return currentItems.next();
+	}
+
+
+	/**
+	 * @return the number of pages fetched so far
+	 */
+	public int getPageCount() {
+		return pageCount;
+	}
+
+
+	/**
+	 * Cancels the background fetch of the next page, if one is running.
+	 */
+	public void cancelPrefetch() {
+		if (prefetchedPage != null) {
+			prefetchedPage.cancel(true);
+			prefetchedPage = null;
+		}
+	}
+
+
+	/**
+	 * @return true if another page was fetched, false if the last page has already been consumed
+	 */
+	private boolean fetchNextPage() {
+		if (firstPageFetched && nextPageInfo == null) {
+			return false;
+		}
+		final ShopifyPage<T> page = prefetchedPage != null ? awaitPrefetchedPage() : pageFetcher.apply(firstPageFetched ? nextPageInfo : null);
+		firstPageFetched = true;
+		pageCount++;
+		nextPageInfo = page.getNextPageInfo();
+		currentItems = page.iterator();
+		log.debug("Retrieved {} items from page {}", page.size(), pageCount);
+
+		if (prefetchExecutor != null && nextPageInfo != null) {
+			final String pageInfo = nextPageInfo;
+			prefetchedPage = CompletableFuture.supplyAsync(() -> pageFetcher.apply(pageInfo), prefetchExecutor);
+		}
+		return true;
+	}
+
+
+	/**
+	 * @return ShopifyPage<T>
+	 */
+	private ShopifyPage<T> awaitPrefetchedPage() {
+		final CompletableFuture<ShopifyPage<T>> pending = prefetchedPage;
+		prefetchedPage = null;
+		try {
+			return pending.join();
+		} catch (final CompletionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw e;
+		}
+	}
+
+}
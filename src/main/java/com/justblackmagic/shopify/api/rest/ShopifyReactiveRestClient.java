@@ -0,0 +1,149 @@
+package com.justblackmagic.shopify.api.rest;
+
+import java.time.ZonedDateTime;
+import java.util.Iterator;
+import java.util.function.Function;
+import com.justblackmagic.shopify.api.rest.model.ShopifyCustomCollection;
+import com.justblackmagic.shopify.api.rest.model.ShopifyCustomer;
+import com.justblackmagic.shopify.api.rest.model.ShopifyGetCustomersRequest;
+import com.justblackmagic.shopify.api.rest.model.ShopifyOrder;
+import com.justblackmagic.shopify.api.rest.model.ShopifyPage;
+import com.justblackmagic.shopify.api.rest.model.ShopifyProduct;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.SynchronousSink;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Reactive paging over the Shopify REST resources. Each {@link Flux} follows the {@code Link rel="next"} headers of a paged resource and only
+ * requests the next page when downstream demands more items than the current one has left, so a slow consumer such as a database writer throttles fetching instead
+ * of letting pages pile up in memory.
+ *
+ * <p>Pages are fetched with the blocking {@link ShopifyRestClient}, on the bounded elastic scheduler by default, so the usual call budget pacing and
+ * retries apply. You should get an instance from {@link ShopifyRestClientService} rather than creating your own.
+ */
+@Slf4j
+public class ShopifyReactiveRestClient {
+
+	private final ShopifyRestClient shopifyRestClient;
+	private final Scheduler scheduler;
+
+
+	/**
+	 * @param shopifyRestClient the blocking client used to fetch pages
+	 */
+	public ShopifyReactiveRestClient(final ShopifyRestClient shopifyRestClient) {
+		this(shopifyRestClient, Schedulers.boundedElastic());
+	}
+
+
+	/**
+	 * @param shopifyRestClient the blocking client used to fetch pages
+	 * @param scheduler the scheduler the blocking page fetches run on
+	 */
+	public ShopifyReactiveRestClient(final ShopifyRestClient shopifyRestClient, final Scheduler scheduler) {
+		this.shopifyRestClient = shopifyRestClient;
+		this.scheduler = scheduler;
+	}
+
+
+	/**
+	 * @return Flux<ShopifyProduct>
+	 */
+	public Flux<ShopifyProduct> getProducts() {
+		return getProducts(ShopifyRestClient.DEFAULT_REQUEST_LIMIT);
+	}
+
+
+	/**
+	 * @param pageSize
+	 * @return Flux<ShopifyProduct>
+	 */
+	public Flux<ShopifyProduct> getProducts(final int pageSize) {
+		return paged(shopifyRestClient.productPages(pageSize));
+	}
+
+
+	/**
+	 * @return Flux<ShopifyCustomCollection>
+	 */
+	public Flux<ShopifyCustomCollection> getCustomCollections() {
+		return paged(shopifyRestClient.customCollectionPages(ShopifyRestClient.DEFAULT_REQUEST_LIMIT));
+	}
+
+
+	/**
+	 * @return Flux<ShopifyOrder> of orders of any status
+	 */
+	public Flux<ShopifyOrder> getOrders() {
+		return paged(shopifyRestClient.orderPages(ShopifyRestClient.DEFAULT_REQUEST_LIMIT));
+	}
+
+
+	/**
+	 * @param mininumCreationDate
+	 * @param maximumCreationDate
+	 * @return Flux<ShopifyOrder>
+	 */
+	public Flux<ShopifyOrder> getOrders(final ZonedDateTime mininumCreationDate, final ZonedDateTime maximumCreationDate) {
+		return getOrders(mininumCreationDate, maximumCreationDate, ShopifyRestClient.DEFAULT_REQUEST_LIMIT);
+	}
+
+
+	/**
+	 * @param mininumCreationDate
+	 * @param maximumCreationDate
+	 * @param pageSize
+	 * @return Flux<ShopifyOrder>
+	 */
+	public Flux<ShopifyOrder> getOrders(final ZonedDateTime mininumCreationDate, final ZonedDateTime maximumCreationDate, final int pageSize) {
+		return paged(shopifyRestClient.orderPages(mininumCreationDate, maximumCreationDate, pageSize));
+	}
+
+
+	/**
+	 * @param shopifyGetCustomersRequest
+	 * @return Flux<ShopifyCustomer>
+	 */
+	public Flux<ShopifyCustomer> getCustomers(final ShopifyGetCustomersRequest shopifyGetCustomersRequest) {
+		return paged(shopifyRestClient.customerPages(shopifyGetCustomersRequest));
+	}
+
+
+	/**
+	 * Generates one item per downstream request, and only fetches a page when an item is requested after the current page has run out, so a bounded
+	 * demand fetches just the pages it needs rather than one ahead. subscribeOn forwards downstream requests to the scheduler, so fetches run there.
+	 *
+	 * @param pageFetcher returns the page for the given {@code page_info}, or the first page when called with null
+	 * @return Flux<T>
+	 */
+	private <T> Flux<T> paged(final Function<String, ShopifyPage<T>> pageFetcher) {
+		return Flux.generate(PageCursor<T>::new, (final PageCursor<T> cursor, final SynchronousSink<T> sink) -> {
+			while (cursor.items == null || !cursor.items.hasNext()) {
+				if (cursor.lastPageFetched) {
+					sink.complete();
+					return cursor;
+				}
+				final ShopifyPage<T> page = pageFetcher.apply(cursor.nextPageInfo);
+				cursor.nextPageInfo = page.getNextPageInfo();
+				cursor.lastPageFetched = cursor.nextPageInfo == null;
+				cursor.items = page.iterator();
+				log.debug("Retrieved {} items, more pages: {}", page.size(), !cursor.lastPageFetched);
+			}
+			sink.next(cursor.items.next());
+			return cursor;
+		}).subscribeOn(scheduler);
+	}
+
+
+	/**
+	 * Mutable paging state for {@link Flux#generate}.
+	 */
+	private static final class PageCursor<T> {
+		private String nextPageInfo;
+		private boolean lastPageFetched;
+		private Iterator<T> items;
+	}
+
+}
@@ -1,38 +1,46 @@
 package com.justblackmagic.shopify.api.rest;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.util.Arrays;
-import java.util.LinkedList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.Callable;
-import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import org.apache.commons.lang3.StringUtils;
 import org.glassfish.jersey.client.ClientProperties;
-import org.glassfish.jersey.jackson.JacksonFeature;
-import org.glassfish.jersey.jackson.internal.jackson.jaxrs.json.JacksonJaxbJsonProvider;
 import java.time.ZonedDateTime;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.github.rholder.retry.Attempt;
-import com.github.rholder.retry.RetryException;
-import com.github.rholder.retry.RetryListener;
-import com.github.rholder.retry.Retryer;
-import com.github.rholder.retry.RetryerBuilder;
-import com.github.rholder.retry.StopStrategies;
-import com.github.rholder.retry.WaitStrategies;
+import com.justblackmagic.shopify.api.circuitbreaker.ShopifyCircuitBreaker;
+import com.justblackmagic.shopify.api.metrics.ShopifyApiMetrics;
+import com.justblackmagic.shopify.api.rest.cache.ShopifyResponseCache;
+import com.justblackmagic.shopify.api.rest.cache.ShopifyResponseCache.CachedResponse;
+import com.justblackmagic.shopify.api.rest.catalog.ShopifyCatalogSnapshot;
+import com.justblackmagic.shopify.api.rest.coalescing.ShopifyRequestCoalescer;
 import com.justblackmagic.shopify.api.rest.exceptions.ShopifyClientException;
+import com.justblackmagic.shopify.api.rest.inventory.ShopifyBulkInventoryUpdater;
+import com.justblackmagic.shopify.api.rest.inventory.ShopifyInventoryUpdate;
+import com.justblackmagic.shopify.api.rest.inventory.ShopifyInventoryUpdateResult;
 import com.justblackmagic.shopify.api.rest.exceptions.ShopifyErrorResponseException;
 import com.justblackmagic.shopify.api.rest.mappers.ResponseEntityToStringMapper;
-import com.justblackmagic.shopify.api.rest.mappers.ShopifySdkObjectMapper;
+import com.justblackmagic.shopify.api.rest.mappers.ShopifyJsonArrayReader;
+import com.justblackmagic.shopify.api.rest.mappers.ShopifyJsonMapping;
+import com.justblackmagic.shopify.api.rest.mappers.ShopifyObjectReaderRegistry;
 import com.justblackmagic.shopify.api.rest.model.Count;
 import com.justblackmagic.shopify.api.rest.model.Image;
 import com.justblackmagic.shopify.api.rest.model.ImageAltTextCreationRequest;
 import com.justblackmagic.shopify.api.rest.model.Metafield;
 import com.justblackmagic.shopify.api.rest.model.MetafieldRoot;
 import com.justblackmagic.shopify.api.rest.model.MetafieldsRoot;
-import com.justblackmagic.shopify.api.rest.model.Shop;
 import com.justblackmagic.shopify.api.rest.model.ShopifyAccessTokenRoot;
 import com.justblackmagic.shopify.api.rest.model.ShopifyCancelOrderRequest;
 import com.justblackmagic.shopify.api.rest.model.ShopifyCustomCollection;
@@ -72,6 +80,8 @@ import com.justblackmagic.shopify.api.rest.model.ShopifyProductMetafieldCreation
 import com.justblackmagic.shopify.api.rest.model.ShopifyProductRequest;
 import com.justblackmagic.shopify.api.rest.model.ShopifyProductRoot;
 import com.justblackmagic.shopify.api.rest.model.ShopifyProductUpdateRequest;
+import com.justblackmagic.shopify.api.rest.model.ShopifyProductVariantImagesUpdate;
+import com.justblackmagic.shopify.api.rest.model.ShopifyProductVariantImagesUpdateRoot;
 import com.justblackmagic.shopify.api.rest.model.ShopifyProducts;
 import com.justblackmagic.shopify.api.rest.model.ShopifyProductsRoot;
 import com.justblackmagic.shopify.api.rest.model.ShopifyRecurringApplicationCharge;
@@ -84,14 +94,24 @@ import com.justblackmagic.shopify.api.rest.model.ShopifyShop;
 import com.justblackmagic.shopify.api.rest.model.ShopifyTransaction;
 import com.justblackmagic.shopify.api.rest.model.ShopifyTransactionsRoot;
 import com.justblackmagic.shopify.api.rest.model.ShopifyVariant;
+import com.justblackmagic.shopify.api.rest.model.ShopifyVariantImageUpdate;
 import com.justblackmagic.shopify.api.rest.model.ShopifyVariantMetafieldCreationRequest;
 import com.justblackmagic.shopify.api.rest.model.ShopifyVariantRoot;
 import com.justblackmagic.shopify.api.rest.model.ShopifyVariantUpdateRequest;
 import com.justblackmagic.shopify.api.rest.model.Webhook;
-import jakarta.ws.rs.client.Client;
-import jakarta.ws.rs.client.ClientBuilder;
+import com.justblackmagic.shopify.api.rest.projection.ShopifyProjection;
+import com.justblackmagic.shopify.api.rest.ratelimit.ShopifyCallLimitGovernor;
+import com.justblackmagic.shopify.api.rest.retry.ShopifyRetryBudget;
+import com.justblackmagic.shopify.api.rest.retry.ShopifyRetryPolicy;
+import com.justblackmagic.shopify.api.rest.scan.ShopifyPartitionedScanner;
+import com.justblackmagic.shopify.api.rest.transport.ShopifyHttpClientPool;
+import com.justblackmagic.shopify.api.rest.transport.ShopifyHttpTransport;
+import io.micrometer.core.instrument.Timer;
+import jakarta.ws.rs.HttpMethod;
 import jakarta.ws.rs.client.Entity;
+import jakarta.ws.rs.client.Invocation;
 import jakarta.ws.rs.client.WebTarget;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.Link;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
@@ -152,6 +172,7 @@ public class ShopifyRestClient {
 	static final String IDS_QUERY_PARAMETER = "ids";
 	static final String SINCE_ID_QUERY_PARAMETER = "since_id";
 	static final String QUERY_QUERY_PARAMETER = "query";
+	static final String FIELDS_QUERY_PARAMETER = "fields";
 	static final String CALCULATE = "calculate";
 	static final String REFUNDS = "refunds";
 	static final String TRANSACTIONS = "transactions";
@@ -162,24 +183,34 @@ public class ShopifyRestClient {
 	private static final String CLIENT_SECRET = "client_secret";
 	private static final String AUTHORIZATION_CODE = "code";
 
-	private static final int DEFAULT_REQUEST_LIMIT = 50;
+	static final int DEFAULT_REQUEST_LIMIT = 50;
 	private static final int TOO_MANY_REQUESTS_STATUS_CODE = 429;
 	private static final int UNPROCESSABLE_ENTITY_STATUS_CODE = 422;
 	private static final int LOCKED_STATUS_CODE = 423;
 
-	private static final String SHOP_RETRIEVED_MESSAGE = "Starting to make calls for Shopify store with ID of {} and name of {}";
+	private static final String CLIENT_READY_MESSAGE = "Starting to make calls for Shopify store {}";
 	private static final String COULD_NOT_BE_SAVED_SHOPIFY_ERROR_MESSAGE = "could not successfully be saved";
 	private static final String RETRY_FAILED_MESSAGE = "Request retry has failed.";
-	private static final String DEPRECATED_SHOPIFY_CALL_ERROR_MESSAGE =
-			"Shopify call is deprecated. Please take note of the X-Shopify-API-Deprecated-Reason and correct the call.\nRequest Location of {}\nResponse Status Code of {}\nResponse Headers of:\n{}";
+	private static final String STREAMING_READ_FAILED_MESSAGE = "Could not read the %s of a streamed page.";
+	private static final String RETRY_INTERRUPTED_MESSAGE = "Interrupted while waiting to retry a request.";
+	private static final String RETRY_EXCEPTION_ATTEMPT_MESSAGE =
+			"An exception occurred while making an API call to shopify: {} on attempt number {} and {} seconds since first attempt. Retrying in {} ms";
+	private static final String RETRY_INVALID_RESPONSE_ATTEMPT_MESSAGE =
+			"Waited {} seconds since first attempt. This is attempt {}, retrying in {} ms. Please review the following failed request information.\nRequest Location of {}\nResponse Status Code of {}\nResponse Headers of:\n{}\nResponse Body of:\n{}";
+	private static final String RESPONSE_BODY_NOT_SAMPLED = "<not sampled>";
 	static final String GENERAL_ACCESS_TOKEN_EXCEPTION_MESSAGE =
 			"There was a problem generating access token using shop subdomain of %s and authorization code of %s.";
 
 	private static final Long DEFAULT_MAXIMUM_REQUEST_RETRY_TIMEOUT_IN_MILLISECONDS = 180000L;
 	private static final Long DEFAULT_MAXIMUM_REQUEST_RETRY_RANDOM_DELAY_IN_MILLISECONDS = 5000L;
 	private static final Long DEFAULT_MINIMUM_REQUEST_RETRY_RANDOM_DELAY_IN_MILLISECONDS = 1000L;
+
+	/** Only one in this many logged retries captures the response body, which has to be buffered in memory to be logged. */
+	private static final long RETRY_RESPONSE_BODY_SAMPLE_RATE = 10L;
+	private static final AtomicLong RETRY_LOG_COUNTER = new AtomicLong();
 	private static final long DEFAULT_READ_TIMEOUT_IN_MILLISECONDS = 15000L;
 	private static final long DEFAULT_CONNECTION_TIMEOUT_IN_MILLISECONDS = 60000L;
+	private static final String CACHED_RESPONSE_READ_FAILED_MESSAGE = "Could not read the cached or coalesced response of %s.";
 
 	private String shopSubdomain;
 	private String apiUrl;
@@ -187,13 +218,19 @@ public class ShopifyRestClient {
 	private String clientId;
 	private String clientSecret;
 	private String authorizationToken;
-	private WebTarget webTarget;
+	private volatile WebTarget webTarget;
+	private final ReentrantLock webTargetLock = new ReentrantLock();
 	private String accessToken;
 	private long minimumRequestRetryRandomDelayMilliseconds;
 	private long maximumRequestRetryRandomDelayMilliseconds;
 	private long maximumRequestRetryTimeoutMilliseconds;
-
-	private static final Client CLIENT = buildClient();
+	private ShopifyRetryPolicy retryPolicy;
+	private ShopifyHttpClientPool httpClientPool;
+	/** Reads cached and coalesced response bodies the same way the HTTP client reads live ones */
+	private ShopifyObjectReaderRegistry objectReaderRegistry;
+	private int connectionTimeoutMilliseconds;
+	private int readTimeoutMilliseconds;
+	private long responseCacheTimeToLiveMilliseconds;
 
 	private static final String CUSTOMERS = "customers";
 	private static final String SEARCH = "search";
@@ -201,8 +238,9 @@ public class ShopifyRestClient {
 	public static interface OptionalsStep {
 
 		/**
-		 * The Shopify SDK uses random waits in between retry attempts. Minimum duration time to wait before retrying a failed request. Value must
-		 * also be less than {@link #withMaximumRequestRetryRandomDelay(int, TimeUnit) Maximum Request Retry Random Delay}.<br>
+		 * The Shopify SDK uses exponential backoff with random jitter in between retry attempts. Minimum duration time to wait before retrying a
+		 * failed request, also the wait before the first retry. Value must also be less than
+		 * {@link #withMaximumRequestRetryRandomDelay(int, TimeUnit) Maximum Request Retry Random Delay}.<br>
 		 * Default value is: 1 second.
 		 *
 		 * @param duration
@@ -212,8 +250,9 @@ public class ShopifyRestClient {
 		OptionalsStep withMinimumRequestRetryRandomDelay(int duration, TimeUnit timeUnit);
 
 		/**
-		 * The Shopify SDK uses random waits in between retry attempts. Maximum duration time to wait before retrying a failed request. Value must
-		 * also be more than {@link #withMinimumRequestRetryRandomDelay(int, TimeUnit) Minimum Request Retry Random Delay}.<br>
+		 * The Shopify SDK uses exponential backoff with random jitter in between retry attempts. Maximum duration time to wait before retrying a
+		 * failed request, unless Shopify asks for a longer wait with a Retry-After header. Value must also be more than
+		 * {@link #withMinimumRequestRetryRandomDelay(int, TimeUnit) Minimum Request Retry Random Delay}.<br>
 		 * Default value is: 5 seconds.
 		 *
 		 * @param duration
@@ -252,6 +291,36 @@ public class ShopifyRestClient {
 		 */
 		OptionalsStep withReadTimeout(int duration, TimeUnit timeUnit);
 
+		/**
+		 * The HTTP stack requests are sent through. Clients using the same transport share its connection pool. <br>
+		 * Default value is: {@link ShopifyHttpTransport#HTTP_URL_CONNECTION}.
+		 *
+		 * @param transport
+		 * @return {@link OptionalsStep}
+		 */
+		OptionalsStep withTransport(ShopifyHttpTransport transport);
+
+		/**
+		 * How JSON is mapped to and from the Shopify model. Clients using the same transport and mapping share a connection pool. <br>
+		 * Default value is: {@link ShopifyJsonMapping#COMPATIBLE}.
+		 *
+		 * @param jsonMapping
+		 * @return {@link OptionalsStep}
+		 */
+		OptionalsStep withJsonMapping(ShopifyJsonMapping jsonMapping);
+
+		/**
+		 * Caches the shop, its locations, and single products, their metafields and the product count in the shop's
+		 * {@link ShopifyResponseCache}. Responses younger than the time to live are served without calling Shopify, older ones are revalidated
+		 * with their ETag or Last-Modified validator. <br>
+		 * Default value is: 0, responses are not cached.
+		 *
+		 * @param duration
+		 * @param timeUnit
+		 * @return {@link OptionalsStep}
+		 */
+		OptionalsStep withResponseCache(int duration, TimeUnit timeUnit);
+
 		/**
 		 * String representation of the version you want to use. If not populated, this will use shopify oldest stable version. Although this is not
 		 * recommended so you can target a set of shopify features. Ex: '2020-10' '2020-07' '2020-04'. If you are specifying the API URL ensure you
@@ -309,9 +378,14 @@ public class ShopifyRestClient {
 			this.maximumRequestRetryRandomDelayMilliseconds = steps.maximumRequestRetryRandomDelayMilliseconds;
 			this.maximumRequestRetryTimeoutMilliseconds = steps.maximumRequestRetryTimeoutMilliseconds;
 
-			CLIENT.property(ClientProperties.CONNECT_TIMEOUT, Math.toIntExact(steps.connectionTimeoutMilliseconds));
-			CLIENT.property(ClientProperties.READ_TIMEOUT, Math.toIntExact(steps.readTimeoutMilliseconds));
+			this.connectionTimeoutMilliseconds = Math.toIntExact(steps.connectionTimeoutMilliseconds);
+			this.readTimeoutMilliseconds = Math.toIntExact(steps.readTimeoutMilliseconds);
+			this.httpClientPool = ShopifyHttpClientPool.forTransport(steps.transport, steps.jsonMapping, this.connectionTimeoutMilliseconds);
+			this.objectReaderRegistry = ShopifyObjectReaderRegistry.forMapping(steps.jsonMapping);
+			this.responseCacheTimeToLiveMilliseconds = steps.responseCacheTimeToLiveMilliseconds;
 			validateConstructionOfShopifySdk();
+			this.retryPolicy = new ShopifyRetryPolicy(minimumRequestRetryRandomDelayMilliseconds, maximumRequestRetryRandomDelayMilliseconds,
+					maximumRequestRetryTimeoutMilliseconds);
 		}
 
 	}
@@ -339,6 +413,9 @@ public class ShopifyRestClient {
 		private long maximumRequestRetryTimeoutMilliseconds = DEFAULT_MAXIMUM_REQUEST_RETRY_TIMEOUT_IN_MILLISECONDS;
 		private long connectionTimeoutMilliseconds = DEFAULT_CONNECTION_TIMEOUT_IN_MILLISECONDS;
 		private long readTimeoutMilliseconds = DEFAULT_READ_TIMEOUT_IN_MILLISECONDS;
+		private ShopifyHttpTransport transport = ShopifyHttpTransport.HTTP_URL_CONNECTION;
+		private ShopifyJsonMapping jsonMapping = ShopifyJsonMapping.COMPATIBLE;
+		private long responseCacheTimeToLiveMilliseconds;
 
 		@Override
 		public ShopifyRestClient build() {
@@ -411,6 +488,24 @@ public class ShopifyRestClient {
 			return this;
 		}
 
+		@Override
+		public OptionalsStep withTransport(final ShopifyHttpTransport transport) {
+			this.transport = transport;
+			return this;
+		}
+
+		@Override
+		public OptionalsStep withJsonMapping(final ShopifyJsonMapping jsonMapping) {
+			this.jsonMapping = jsonMapping;
+			return this;
+		}
+
+		@Override
+		public OptionalsStep withResponseCache(final int duration, final TimeUnit timeUnit) {
+			this.responseCacheTimeToLiveMilliseconds = timeUnit.toMillis(duration);
+			return this;
+		}
+
 		@Override
 		public OptionalsStep withApiVersion(final String apiVersion) {
 			this.apiVersion = apiVersion;
@@ -438,8 +533,7 @@ public class ShopifyRestClient {
 	 * @return ShopifyProduct
 	 */
 	public ShopifyProduct getProduct(final String productId) {
-		final Response response = get(getWebTarget().path(PRODUCTS).path(productId));
-		final ShopifyProductRoot shopifyProductRootResponse = response.readEntity(ShopifyProductRoot.class);
+		final ShopifyProductRoot shopifyProductRootResponse = getCached(getWebTarget().path(PRODUCTS).path(productId), PRODUCTS, ShopifyProductRoot.class);
 		return shopifyProductRootResponse.getProduct();
 	}
 
@@ -478,20 +572,114 @@ public class ShopifyRestClient {
 
 
 	/**
+	 * Loads every product into memory. Prefer {@link #streamProducts()} or {@link #getCatalogSnapshot()} for large catalogs.
+	 *
 	 * @return ShopifyProducts
 	 */
 	public ShopifyProducts getProducts() {
-		final List<ShopifyProduct> shopifyProducts = new LinkedList<>();
-
-		ShopifyPage<ShopifyProduct> shopifyProductsPage = getProducts(DEFAULT_REQUEST_LIMIT);
-		log.info("Retrieved {} products from first page", shopifyProductsPage.size());
-		shopifyProducts.addAll(shopifyProductsPage);
-		while (shopifyProductsPage.getNextPageInfo() != null) {
-			shopifyProductsPage = getProducts(shopifyProductsPage.getNextPageInfo(), DEFAULT_REQUEST_LIMIT);
-			log.info("Retrieved {} products from page {}", shopifyProductsPage.size(), shopifyProductsPage.getNextPageInfo());
-			shopifyProducts.addAll(shopifyProductsPage);
+		try (final Stream<ShopifyProduct> products = streamProducts()) {
+			return new ShopifyProducts(products.collect(Collectors.toList()));
 		}
-		return new ShopifyProducts(shopifyProducts);
+	}
+
+
+	/**
+	 * Lazily streams every product, fetching the next page only when the current one has been consumed.
+	 *
+	 * @return Stream<ShopifyProduct>
+	 */
+	public Stream<ShopifyProduct> streamProducts() {
+		return streamProducts(DEFAULT_REQUEST_LIMIT, false);
+	}
+
+
+	/**
+	 * @param pageSize
+	 * @param prefetchNextPage fetch the next page in the background while the current one is being consumed
+	 * @return Stream<ShopifyProduct>
+	 */
+	public Stream<ShopifyProduct> streamProducts(final int pageSize, final boolean prefetchNextPage) {
+		return ShopifyPageIterator.stream(productPages(pageSize), getPrefetchExecutor(prefetchNextPage));
+	}
+
+
+	/**
+	 * @param pageSize
+	 * @return a fetcher returning the product page for a {@code page_info}, or the first page for null
+	 */
+	Function<String, ShopifyPage<ShopifyProduct>> productPages(final int pageSize) {
+		return pageInfo -> getProducts(pageInfo, pageSize);
+	}
+
+
+	/**
+	 * Streams every product to the action without holding more than one product in memory. Each page is parsed element by element straight from
+	 * the response stream, so this suits very large catalogs or heavy products better than {@link #streamProducts()}.
+	 *
+	 * @param action called with each product, in order
+	 * @return the number of products read
+	 */
+	public long forEachProduct(final Consumer<? super ShopifyProduct> action) {
+		return forEachProduct(DEFAULT_REQUEST_LIMIT, action);
+	}
+
+
+	/**
+	 * @param pageSize
+	 * @param action called with each product, in order
+	 * @return the number of products read
+	 */
+	public long forEachProduct(final int pageSize, final Consumer<? super ShopifyProduct> action) {
+		return forEachItem(pageInfo -> buildProductsTarget(pageInfo, pageSize), PRODUCTS, ShopifyProduct.class, action);
+	}
+
+
+	/**
+	 * Fetches a page of products with only the fields of the projection, bound to its partial DTO.
+	 *
+	 * @param projection
+	 * @param pageInfo the {@code page_info} of the page, or null for the first page
+	 * @param pageSize
+	 * @return ShopifyPage<T>
+	 */
+	public <T> ShopifyPage<T> getProducts(final ShopifyProjection<T> projection, final String pageInfo, final int pageSize) {
+		return getProjectedPage(buildProductsTarget(pageInfo, pageSize), PRODUCTS, projection);
+	}
+
+
+	/**
+	 * Lazily streams the projection of every product, fetching the next page only when the current one has been consumed.
+	 *
+	 * @param projection
+	 * @param pageSize
+	 * @param prefetchNextPage fetch the next page in the background while the current one is being consumed
+	 * @return Stream<T>
+	 */
+	public <T> Stream<T> streamProducts(final ShopifyProjection<T> projection, final int pageSize, final boolean prefetchNextPage) {
+		return ShopifyPageIterator.stream(pageInfo -> getProducts(projection, pageInfo, pageSize), getPrefetchExecutor(prefetchNextPage));
+	}
+
+
+	/**
+	 * @param projection
+	 * @param pageSize
+	 * @param action called with the projection of each product, in order
+	 * @return the number of products read
+	 */
+	public <T> long forEachProduct(final ShopifyProjection<T> projection, final int pageSize, final Consumer<? super T> action) {
+		return forEachItem(pageInfo -> project(buildProductsTarget(pageInfo, pageSize), projection), PRODUCTS, projection.getType(), action);
+	}
+
+
+	/**
+	 * Pages through every product and keeps only the compact snapshot of their hot fields, holding no more than one product at a time besides it.
+	 *
+	 * @return ShopifyCatalogSnapshot
+	 */
+	public ShopifyCatalogSnapshot getCatalogSnapshot() {
+		final ShopifyCatalogSnapshot.Builder builder = ShopifyCatalogSnapshot.builder();
+		forEachProduct(builder::add);
+		return builder.build();
 	}
 
 
@@ -499,8 +687,7 @@ public class ShopifyRestClient {
 	 * @return int
 	 */
 	public int getProductCount() {
-		final Response response = get(getWebTarget().path(PRODUCTS).path(COUNT));
-		final Count count = response.readEntity(Count.class);
+		final Count count = getCached(getWebTarget().path(PRODUCTS).path(COUNT), PRODUCTS, Count.class);
 		return count.getCount();
 	}
 
@@ -530,22 +717,43 @@ public class ShopifyRestClient {
 
 
 	/**
+	 * Loads every custom collection into memory. Prefer {@link #streamCustomCollections()} for large shops.
+	 *
 	 * @return List<ShopifyCustomCollection>
 	 */
 	public List<ShopifyCustomCollection> getCustomCollections() {
-		final List<ShopifyCustomCollection> shopifyCustomCollections = new LinkedList<>();
+		try (final Stream<ShopifyCustomCollection> customCollections = streamCustomCollections()) {
+			return customCollections.collect(Collectors.toList());
+		}
+	}
 
-		ShopifyPage<ShopifyCustomCollection> customCollectionsPage = getCustomCollections(DEFAULT_REQUEST_LIMIT);
-		log.info("Retrieved {} custom collections from first page", customCollectionsPage.size());
-		shopifyCustomCollections.addAll(customCollectionsPage);
 
-		while (customCollectionsPage.getNextPageInfo() != null) {
-			customCollectionsPage = getCustomCollections(customCollectionsPage.getNextPageInfo(), DEFAULT_REQUEST_LIMIT);
-			log.info("Retrieved {} custom collections from page info {}", customCollectionsPage.size(), customCollectionsPage.getNextPageInfo());
-			shopifyCustomCollections.addAll(customCollectionsPage);
-		}
+	/**
+	 * Lazily streams every custom collection, fetching the next page only when the current one has been consumed.
+	 *
+	 * @return Stream<ShopifyCustomCollection>
+	 */
+	public Stream<ShopifyCustomCollection> streamCustomCollections() {
+		return streamCustomCollections(DEFAULT_REQUEST_LIMIT, false);
+	}
 
-		return shopifyCustomCollections;
+
+	/**
+	 * @param pageSize
+	 * @param prefetchNextPage fetch the next page in the background while the current one is being consumed
+	 * @return Stream<ShopifyCustomCollection>
+	 */
+	public Stream<ShopifyCustomCollection> streamCustomCollections(final int pageSize, final boolean prefetchNextPage) {
+		return ShopifyPageIterator.stream(customCollectionPages(pageSize), getPrefetchExecutor(prefetchNextPage));
+	}
+
+
+	/**
+	 * @param pageSize
+	 * @return a fetcher returning the custom collection page for a {@code page_info}, or the first page for null
+	 */
+	Function<String, ShopifyPage<ShopifyCustomCollection>> customCollectionPages(final int pageSize) {
+		return pageInfo -> getCustomCollections(pageInfo, pageSize);
 	}
 
 
@@ -567,8 +775,7 @@ public class ShopifyRestClient {
 	 * @return ShopifyShop
 	 */
 	public ShopifyShop getShop() {
-		final Response response = get(getWebTarget().path(SHOP));
-		return response.readEntity(ShopifyShop.class);
+		return getCached(getWebTarget().path(SHOP), SHOP, ShopifyShop.class);
 	}
 
 
@@ -829,6 +1036,153 @@ public class ShopifyRestClient {
 	}
 
 
+	/**
+	 * Returns orders of any status with an id greater than the given one, in ascending id order. Unlike a {@code page_info} cursor, the id of the last
+	 * order seen can be stored and used to carry on later, which is what {@link ShopifyPartitionedScanner} checkpoints.
+	 *
+	 * @param sinceId "0" to start with the oldest order
+	 * @param mininumCreationDate the earliest creation date, or null
+	 * @param maximumCreationDate the latest creation date, or null
+	 * @param pageSize
+	 * @return ShopifyPage<ShopifyOrder>
+	 */
+	public ShopifyPage<ShopifyOrder> getOrdersSinceId(final String sinceId, final ZonedDateTime mininumCreationDate,
+			final ZonedDateTime maximumCreationDate, final int pageSize) {
+		WebTarget target = buildOrdersEndpoint().queryParam(STATUS_QUERY_PARAMETER, ANY_STATUSES).queryParam(LIMIT_QUERY_PARAMETER, pageSize)
+				.queryParam(SINCE_ID_QUERY_PARAMETER, sinceId);
+		if (mininumCreationDate != null) {
+			target = target.queryParam(CREATED_AT_MIN_QUERY_PARAMETER, mininumCreationDate.toString());
+		}
+		if (maximumCreationDate != null) {
+			target = target.queryParam(CREATED_AT_MAX_QUERY_PARAMETER, maximumCreationDate.toString());
+		}
+		return getOrders(get(target));
+	}
+
+
+	/**
+	 * Lazily streams every order of any status, fetching the next page only when the current one has been consumed.
+	 *
+	 * @return Stream<ShopifyOrder>
+	 */
+	public Stream<ShopifyOrder> streamOrders() {
+		return ShopifyPageIterator.stream(orderPages(DEFAULT_REQUEST_LIMIT), null);
+	}
+
+
+	/**
+	 * Lazily streams every order created in the given range, fetching the next page only when the current one has been consumed.
+	 *
+	 * @param mininumCreationDate
+	 * @param maximumCreationDate
+	 * @return Stream<ShopifyOrder>
+	 */
+	public Stream<ShopifyOrder> streamOrders(final ZonedDateTime mininumCreationDate, final ZonedDateTime maximumCreationDate) {
+		return streamOrders(mininumCreationDate, maximumCreationDate, DEFAULT_REQUEST_LIMIT, false);
+	}
+
+
+	/**
+	 * @param mininumCreationDate
+	 * @param maximumCreationDate
+	 * @param pageSize
+	 * @param prefetchNextPage fetch the next page in the background while the current one is being consumed
+	 * @return Stream<ShopifyOrder>
+	 */
+	public Stream<ShopifyOrder> streamOrders(final ZonedDateTime mininumCreationDate, final ZonedDateTime maximumCreationDate, final int pageSize,
+			final boolean prefetchNextPage) {
+		return ShopifyPageIterator.stream(orderPages(mininumCreationDate, maximumCreationDate, pageSize), getPrefetchExecutor(prefetchNextPage));
+	}
+
+
+	/**
+	 * @param pageSize
+	 * @return a fetcher returning the page of orders of any status for a {@code page_info}, or the first page for null
+	 */
+	Function<String, ShopifyPage<ShopifyOrder>> orderPages(final int pageSize) {
+		return pageInfo -> pageInfo == null ? getOrders(pageSize) : getOrders(pageInfo, pageSize);
+	}
+
+
+	/**
+	 * @param mininumCreationDate
+	 * @param maximumCreationDate
+	 * @param pageSize
+	 * @return a fetcher returning the page of orders created in the range for a {@code page_info}, or the first page for null
+	 */
+	Function<String, ShopifyPage<ShopifyOrder>> orderPages(final ZonedDateTime mininumCreationDate, final ZonedDateTime maximumCreationDate,
+			final int pageSize) {
+		return pageInfo -> pageInfo == null ? getOrders(mininumCreationDate, maximumCreationDate, pageSize) : getOrders(pageInfo, pageSize);
+	}
+
+
+	/**
+	 * Streams every order of any status to the action without holding more than one order in memory. Each page is parsed element by element
+	 * straight from the response stream, so a page of orders with many line items is never materialized as a whole.
+	 *
+	 * @param action called with each order, in order
+	 * @return the number of orders read
+	 */
+	public long forEachOrder(final Consumer<? super ShopifyOrder> action) {
+		return forEachItem(pageInfo -> buildAllOrdersTarget(pageInfo, DEFAULT_REQUEST_LIMIT), ORDERS, ShopifyOrder.class, action);
+	}
+
+
+	/**
+	 * @param mininumCreationDate
+	 * @param maximumCreationDate
+	 * @param pageSize
+	 * @param action called with each order created in the range, in order
+	 * @return the number of orders read
+	 */
+	public long forEachOrder(final ZonedDateTime mininumCreationDate, final ZonedDateTime maximumCreationDate, final int pageSize,
+			final Consumer<? super ShopifyOrder> action) {
+		return forEachItem(pageInfo -> pageInfo == null
+				? buildOrdersEndpoint().queryParam(STATUS_QUERY_PARAMETER, ANY_STATUSES).queryParam(LIMIT_QUERY_PARAMETER, pageSize)
+						.queryParam(CREATED_AT_MIN_QUERY_PARAMETER, mininumCreationDate.toString())
+						.queryParam(CREATED_AT_MAX_QUERY_PARAMETER, maximumCreationDate.toString())
+				: buildOrdersEndpoint().queryParam(LIMIT_QUERY_PARAMETER, pageSize).queryParam(PAGE_INFO_QUERY_PARAMETER, pageInfo),
+				ORDERS, ShopifyOrder.class, action);
+	}
+
+
+	/**
+	 * Fetches a page of orders of any status with only the fields of the projection, bound to its partial DTO.
+	 *
+	 * @param projection
+	 * @param pageInfo the {@code page_info} of the page, or null for the first page
+	 * @param pageSize
+	 * @return ShopifyPage<T>
+	 */
+	public <T> ShopifyPage<T> getOrders(final ShopifyProjection<T> projection, final String pageInfo, final int pageSize) {
+		return getProjectedPage(buildAllOrdersTarget(pageInfo, pageSize), ORDERS, projection);
+	}
+
+
+	/**
+	 * Lazily streams the projection of every order of any status, fetching the next page only when the current one has been consumed.
+	 *
+	 * @param projection
+	 * @param pageSize
+	 * @param prefetchNextPage fetch the next page in the background while the current one is being consumed
+	 * @return Stream<T>
+	 */
+	public <T> Stream<T> streamOrders(final ShopifyProjection<T> projection, final int pageSize, final boolean prefetchNextPage) {
+		return ShopifyPageIterator.stream(pageInfo -> getOrders(projection, pageInfo, pageSize), getPrefetchExecutor(prefetchNextPage));
+	}
+
+
+	/**
+	 * @param projection
+	 * @param pageSize
+	 * @param action called with the projection of each order of any status, in order
+	 * @return the number of orders read
+	 */
+	public <T> long forEachOrder(final ShopifyProjection<T> projection, final int pageSize, final Consumer<? super T> action) {
+		return forEachItem(pageInfo -> project(buildAllOrdersTarget(pageInfo, pageSize), projection), ORDERS, projection.getType(), action);
+	}
+
+
 	/**
 	 * @param shopifyFulfillmentCreationRequest
 	 * @return ShopifyFulfillment
@@ -915,6 +1269,16 @@ public class ShopifyRestClient {
 	 * @return ShopifyPage<ShopifyCustomer>
 	 */
 	public ShopifyPage<ShopifyCustomer> getCustomers(final ShopifyGetCustomersRequest shopifyGetCustomersRequest) {
+		final Response response = get(buildCustomersTarget(shopifyGetCustomersRequest));
+		return getCustomers(response);
+	}
+
+
+	/**
+	 * @param shopifyGetCustomersRequest
+	 * @return WebTarget
+	 */
+	private WebTarget buildCustomersTarget(final ShopifyGetCustomersRequest shopifyGetCustomersRequest) {
 		WebTarget target = getWebTarget().path(CUSTOMERS);
 		if (shopifyGetCustomersRequest.getPageInfo() != null) {
 			target = target.queryParam(PAGE_INFO_QUERY_PARAMETER, shopifyGetCustomersRequest.getPageInfo());
@@ -936,8 +1300,103 @@ public class ShopifyRestClient {
 		if (shopifyGetCustomersRequest.getCreatedAtMax() != null) {
 			target = target.queryParam(CREATED_AT_MAX_QUERY_PARAMETER, shopifyGetCustomersRequest.getCreatedAtMax());
 		}
-		final Response response = get(target);
-		return getCustomers(response);
+		return target;
+	}
+
+
+	/**
+	 * Lazily streams every customer matching the request, fetching the next page only when the current one has been consumed.
+	 *
+	 * @param shopifyGetCustomersRequest
+	 * @return Stream<ShopifyCustomer>
+	 */
+	public Stream<ShopifyCustomer> streamCustomers(final ShopifyGetCustomersRequest shopifyGetCustomersRequest) {
+		return streamCustomers(shopifyGetCustomersRequest, false);
+	}
+
+
+	/**
+	 * @param shopifyGetCustomersRequest
+	 * @param prefetchNextPage fetch the next page in the background while the current one is being consumed
+	 * @return Stream<ShopifyCustomer>
+	 */
+	public Stream<ShopifyCustomer> streamCustomers(final ShopifyGetCustomersRequest shopifyGetCustomersRequest, final boolean prefetchNextPage) {
+		return ShopifyPageIterator.stream(customerPages(shopifyGetCustomersRequest), getPrefetchExecutor(prefetchNextPage));
+	}
+
+
+	/**
+	 * @param shopifyGetCustomersRequest
+	 * @return a fetcher returning the page of matching customers for a {@code page_info}, or the first page for null
+	 */
+	Function<String, ShopifyPage<ShopifyCustomer>> customerPages(final ShopifyGetCustomersRequest shopifyGetCustomersRequest) {
+		return pageInfo -> getCustomers(getCustomersPageRequest(shopifyGetCustomersRequest, pageInfo));
+	}
+
+
+	/**
+	 * Streams every customer matching the request to the action without holding more than one customer in memory.
+	 *
+	 * @param shopifyGetCustomersRequest
+	 * @param action called with each customer, in order
+	 * @return the number of customers read
+	 */
+	public long forEachCustomer(final ShopifyGetCustomersRequest shopifyGetCustomersRequest, final Consumer<? super ShopifyCustomer> action) {
+		return forEachItem(pageInfo -> buildCustomersTarget(getCustomersPageRequest(shopifyGetCustomersRequest, pageInfo)), CUSTOMERS,
+				ShopifyCustomer.class, action);
+	}
+
+
+	/**
+	 * Fetches a page of matching customers with only the fields of the projection, bound to its partial DTO.
+	 *
+	 * @param projection
+	 * @param shopifyGetCustomersRequest
+	 * @return ShopifyPage<T>
+	 */
+	public <T> ShopifyPage<T> getCustomers(final ShopifyProjection<T> projection, final ShopifyGetCustomersRequest shopifyGetCustomersRequest) {
+		return getProjectedPage(buildCustomersTarget(shopifyGetCustomersRequest), CUSTOMERS, projection);
+	}
+
+
+	/**
+	 * Lazily streams the projection of every customer matching the request, fetching the next page only when the current one has been consumed.
+	 *
+	 * @param projection
+	 * @param shopifyGetCustomersRequest
+	 * @param prefetchNextPage fetch the next page in the background while the current one is being consumed
+	 * @return Stream<T>
+	 */
+	public <T> Stream<T> streamCustomers(final ShopifyProjection<T> projection, final ShopifyGetCustomersRequest shopifyGetCustomersRequest,
+			final boolean prefetchNextPage) {
+		return ShopifyPageIterator.stream(pageInfo -> getCustomers(projection, getCustomersPageRequest(shopifyGetCustomersRequest, pageInfo)),
+				getPrefetchExecutor(prefetchNextPage));
+	}
+
+
+	/**
+	 * @param projection
+	 * @param shopifyGetCustomersRequest
+	 * @param action called with the projection of each matching customer, in order
+	 * @return the number of customers read
+	 */
+	public <T> long forEachCustomer(final ShopifyProjection<T> projection, final ShopifyGetCustomersRequest shopifyGetCustomersRequest,
+			final Consumer<? super T> action) {
+		return forEachItem(pageInfo -> project(buildCustomersTarget(getCustomersPageRequest(shopifyGetCustomersRequest, pageInfo)), projection),
+				CUSTOMERS, projection.getType(), action);
+	}
+
+
+	/**
+	 * @param shopifyGetCustomersRequest
+	 * @param pageInfo
+	 * @return the request itself for the first page, or a request for the page of the {@code page_info}
+	 */
+	private static ShopifyGetCustomersRequest getCustomersPageRequest(final ShopifyGetCustomersRequest shopifyGetCustomersRequest,
+			final String pageInfo) {
+		// Shopify rejects filters on page_info requests, so follow-up pages only carry the cursor and the page size
+		return pageInfo == null ? shopifyGetCustomersRequest
+				: ShopifyGetCustomersRequest.newBuilder().withPageInfo(pageInfo).withLimit(shopifyGetCustomersRequest.getLimit()).build();
 	}
 
 
@@ -1035,8 +1494,8 @@ public class ShopifyRestClient {
 	 * @return List<Metafield>
 	 */
 	public List<Metafield> getProductMetafields(final String productId) {
-		final Response response = get(getWebTarget().path(PRODUCTS).path(productId).path(METAFIELDS));
-		final MetafieldsRoot metafieldsRootResponse = response.readEntity(MetafieldsRoot.class);
+		final MetafieldsRoot metafieldsRootResponse = getCached(getWebTarget().path(PRODUCTS).path(productId).path(METAFIELDS), PRODUCTS,
+				MetafieldsRoot.class);
 		return metafieldsRootResponse.getMetafields();
 	}
 
@@ -1057,8 +1516,8 @@ public class ShopifyRestClient {
 	 */
 	public List<ShopifyLocation> getLocations() {
 		final String locationsEndpoint = new StringBuilder().append(LOCATIONS).append(JSON).toString();
-		final Response response = get(getWebTarget().path(locationsEndpoint));
-		final ShopifyLocationsRoot shopifyLocationRootResponse = response.readEntity(ShopifyLocationsRoot.class);
+		final ShopifyLocationsRoot shopifyLocationRootResponse = getCached(getWebTarget().path(locationsEndpoint), LOCATIONS,
+				ShopifyLocationsRoot.class);
 		return shopifyLocationRootResponse.getLocations();
 	}
 
@@ -1080,6 +1539,20 @@ public class ShopifyRestClient {
 	}
 
 
+	/**
+	 * Sets many inventory levels at once. Repeated updates of the same item and location are coalesced to the last one, and the surviving updates
+	 * are sent a few at a time under the shop's call limit. Use a {@link ShopifyBulkInventoryUpdater} directly to stream updates as they arrive.
+	 *
+	 * @param updates
+	 * @return one result per requested update, in order
+	 */
+	public List<ShopifyInventoryUpdateResult> updateInventoryLevels(final Collection<ShopifyInventoryUpdate> updates) {
+		try (final ShopifyBulkInventoryUpdater updater = new ShopifyBulkInventoryUpdater(this)) {
+			return updater.updateAll(updates);
+		}
+	}
+
+
 	/**
 	 * @param orderId
 	 * @return List<Metafield>
@@ -1132,6 +1605,60 @@ public class ShopifyRestClient {
 	}
 
 
+	/**
+	 * Returns the call budget governor shared by every client of this shop, for metrics and diagnostics. It is looked up on every call rather than
+	 * kept by the client: an idle governor is evicted after 10 minutes, while the client may be cached for longer, and a kept one would pace the shop
+	 * with a second bucket next to the one other clients use.
+	 *
+	 * @return ShopifyCallLimitGovernor
+	 */
+	public ShopifyCallLimitGovernor getCallLimitGovernor() {
+		return ShopifyCallLimitGovernor.forShop(getShopKey());
+	}
+
+
+	/**
+	 * Returns the circuit breaker shared by every REST and GraphQL client of this shop, for metrics and diagnostics. Looked up on every call, like
+	 * the governor.
+	 *
+	 * @return ShopifyCircuitBreaker
+	 */
+	public ShopifyCircuitBreaker getCircuitBreaker() {
+		return ShopifyCircuitBreaker.forShop(getShopKey());
+	}
+
+
+	/**
+	 * Returns the response cache shared by every client of this shop, to invalidate it or for diagnostics. Only used when the client was built
+	 * with {@link OptionalsStep#withResponseCache(int, TimeUnit)}. Looked up on every call, like the governor.
+	 *
+	 * @return ShopifyResponseCache
+	 */
+	public ShopifyResponseCache getResponseCache() {
+		return ShopifyResponseCache.forShop(getShopKey());
+	}
+
+
+	/**
+	 * Returns the request coalescer shared by every client of this shop, for metrics and diagnostics. Looked up on every call, like the governor.
+	 *
+	 * @return ShopifyRequestCoalescer
+	 */
+	public ShopifyRequestCoalescer getRequestCoalescer() {
+		return ShopifyRequestCoalescer.forShop(getShopKey());
+	}
+
+
+	/**
+	 * Returns the retry budget shared by every client of this shop, for metrics and diagnostics. Looked up on every call, like the governor.
+	 *
+	 * @return ShopifyRetryBudget
+	 */
+	public ShopifyRetryBudget getRetryBudget() {
+		return ShopifyRetryBudget.forShop(getShopKey());
+	}
+
+
 	/**
 	 * @param response
 	 * @return ShopifyPage<ShopifyCustomer>
@@ -1165,9 +1692,19 @@ public class ShopifyRestClient {
 	 * @return ShopifyProduct
 	 */
 	private ShopifyProduct updateProductImages(final ShopifyProductRequest shopifyProductRequest, final ShopifyProduct shopifyProduct) {
-		setVariantImageIds(shopifyProductRequest, shopifyProduct);
-		final ShopifyProductRoot shopifyProductRootRequest = new ShopifyProductRoot();
-		shopifyProductRootRequest.setProduct(shopifyProduct);
+		final Set<String> changedVariantIds = setVariantImageIds(shopifyProductRequest, shopifyProduct);
+		if (changedVariantIds.isEmpty()) {
+			// Every variant already shows its mapped image, so the product as written is final
+			log.debug("updateProductImages: no variant image changes for product {}, skipping update", shopifyProduct.getId());
+			return shopifyProduct;
+		}
+
+		final ShopifyProductVariantImagesUpdate variantImagesUpdate = new ShopifyProductVariantImagesUpdate();
+		variantImagesUpdate.setId(shopifyProduct.getId());
+		shopifyProduct.getVariants().stream().forEach(variant -> variantImagesUpdate.getVariants().add(
+				new ShopifyVariantImageUpdate(variant.getId(), changedVariantIds.contains(variant.getId()) ? variant.getImageId() : null)));
+		final ShopifyProductVariantImagesUpdateRoot shopifyProductRootRequest = new ShopifyProductVariantImagesUpdateRoot();
+		shopifyProductRootRequest.setProduct(variantImagesUpdate);
 		final Response response = put(getWebTarget().path(PRODUCTS).path(shopifyProduct.getId()), shopifyProductRootRequest);
 		final ShopifyProductRoot shopifyProductRootResponse = response.readEntity(ShopifyProductRoot.class);
 		return shopifyProductRootResponse.getProduct();
@@ -1177,16 +1714,31 @@ public class ShopifyRestClient {
 	/**
 	 * @param shopifyProductRequest
 	 * @param shopifyProduct
+	 * @return the ids of the variants whose image id was changed
 	 */
-	private void setVariantImageIds(final ShopifyProductRequest shopifyProductRequest, final ShopifyProduct shopifyProduct) {
+	private Set<String> setVariantImageIds(final ShopifyProductRequest shopifyProductRequest, final ShopifyProduct shopifyProduct) {
+		final Set<String> changedVariantIds = new HashSet<>();
 		shopifyProduct.getVariants().stream().forEach(variant -> {
 			final int variantPosition = variant.getPosition();
 			if (shopifyProductRequest.hasVariantImagePosition(variantPosition)) {
 				final int imagePosition = shopifyProductRequest.getVariantImagePosition(variantPosition);
 				shopifyProduct.getImages().stream().filter(image -> image.getPosition() == imagePosition).findFirst()
-						.ifPresent(variantImage -> variant.setImageId(variantImage.getId()));
+						.filter(variantImage -> !StringUtils.equals(variantImage.getId(), variant.getImageId())).ifPresent(variantImage -> {
+							variant.setImageId(variantImage.getId());
+							changedVariantIds.add(variant.getId());
+						});
 			}
 		});
+		return changedVariantIds;
+	}
+
+
+	/**
+	 * @param prefetchNextPage
+	 * @return the executor used to fetch pages ahead of time, or null when pages should only be fetched on demand
+	 */
+	private Executor getPrefetchExecutor(final boolean prefetchNextPage) {
+		return prefetchNextPage ? ShopifyAsyncRestClient.VIRTUAL_THREAD_EXECUTOR : null;
 	}
 
 
@@ -1216,11 +1768,100 @@ public class ShopifyRestClient {
 	 */
 	private Response get(final WebTarget webTarget) {
 		log.debug("get: calling: {}", webTarget.getUri().toString());
-		final Callable<Response> responseCallable =
-				() -> webTarget.request(MediaType.APPLICATION_JSON).header(ACCESS_TOKEN_HEADER, accessToken).get();
-		final Response response = invokeResponseCallable(responseCallable);
+		final String endpoint = ShopifyApiMetrics.restEndpoint(HttpMethod.GET, webTarget.getUri());
+		final Response response = send(endpoint, HttpMethod.GET, () -> request(webTarget, endpoint).get(), Status.OK);
 		log.debug("get: response: {}", response.getEntity().toString());
-		return handleResponse(response, Status.OK);
+		return response;
+	}
+
+
+	/**
+	 * Reads an entity through the shop's response cache when the client has one, and with a plain GET otherwise. Identical reads of the shop
+	 * running concurrently share one call through its {@link ShopifyRequestCoalescer}. Only the response body is shared: every call deserializes a
+	 * new entity, so callers may modify what they get.
+	 *
+	 * @param webTarget
+	 * @param resource the REST resource of the target, which webhook topics invalidate it by
+	 * @param entityType
+	 * @return the entity
+	 */
+	private <T> T getCached(final WebTarget webTarget, final String resource, final Class<T> entityType) {
+		final String key = webTarget.getUri().toString();
+		if (responseCacheTimeToLiveMilliseconds <= 0) {
+			final byte[] body = getRequestCoalescer().execute(key, () -> get(webTarget).readEntity(byte[].class));
+			return readBody(key, body, entityType);
+		}
+		final ShopifyResponseCache cache = getResponseCache();
+		final CachedResponse cachedResponse = cache.get(key);
+		if (cachedResponse != null && cache.isFresh(cachedResponse, responseCacheTimeToLiveMilliseconds)) {
+			cache.recordHit();
+			return readBody(key, cachedResponse.body(), entityType);
+		}
+		final CachedResponse fetchedResponse = getRequestCoalescer().execute(key, () -> fetchCachedResponse(webTarget, resource, cache, cachedResponse));
+		return readBody(key, fetchedResponse.body(), entityType);
+	}
+
+
+	/**
+	 * Fetches a response missing from the cache, or revalidates a stale one, and stores it.
+	 *
+	 * @param webTarget
+	 * @param resource
+	 * @param cache
+	 * @param cachedResponse the stale response, or null
+	 * @return the stored response
+	 */
+	private CachedResponse fetchCachedResponse(final WebTarget webTarget, final String resource, final ShopifyResponseCache cache,
+			final CachedResponse cachedResponse) {
+		final String key = webTarget.getUri().toString();
+		final long generation = cache.getGeneration();
+		final Response response = conditionalGet(webTarget, cachedResponse);
+		if (cachedResponse != null && response.getStatus() == Status.NOT_MODIFIED.getStatusCode()) {
+			response.close();
+			return cache.revalidate(key, cachedResponse, generation);
+		}
+		final byte[] body = response.readEntity(byte[].class);
+		return cache.put(key, resource, body, response.getHeaderString(HttpHeaders.ETAG), response.getHeaderString(HttpHeaders.LAST_MODIFIED),
+				generation);
+	}
+
+
+	/**
+	 * GET that sends the validators of a stale cached response, so Shopify can answer 304 Not Modified instead of sending the body again.
+	 *
+	 * @param webTarget
+	 * @param cachedResponse the stale response, or null
+	 * @return Response
+	 */
+	private Response conditionalGet(final WebTarget webTarget, final CachedResponse cachedResponse) {
+		log.debug("conditionalGet: calling: {}", webTarget.getUri().toString());
+		final String endpoint = ShopifyApiMetrics.restEndpoint(HttpMethod.GET, webTarget.getUri());
+		final Callable<Response> responseCallable = () -> {
+			final Invocation.Builder request = request(webTarget, endpoint);
+			if (cachedResponse != null && cachedResponse.entityTag() != null) {
+				request.header(HttpHeaders.IF_NONE_MATCH, cachedResponse.entityTag());
+			}
+			if (cachedResponse != null && cachedResponse.lastModified() != null) {
+				request.header(HttpHeaders.IF_MODIFIED_SINCE, cachedResponse.lastModified());
+			}
+			return request.get();
+		};
+		return send(endpoint, HttpMethod.GET, responseCallable, Status.OK, Status.NOT_MODIFIED);
+	}
+
+
+	/**
+	 * @param key
+	 * @param body a cached or coalesced response body
+	 * @param entityType
+	 * @return the entity
+	 */
+	private <T> T readBody(final String key, final byte[] body, final Class<T> entityType) {
+		try {
+			return objectReaderRegistry.readerFor(entityType).readValue(body);
+		} catch (final IOException e) {
+			throw new ShopifyClientException(String.format(CACHED_RESPONSE_READ_FAILED_MESSAGE, key), e);
+		}
 	}
 
 
@@ -1229,10 +1870,8 @@ public class ShopifyRestClient {
 	 * @return Response
 	 */
 	private Response delete(final WebTarget webTarget) {
-		final Callable<Response> responseCallable =
-				() -> webTarget.request(MediaType.APPLICATION_JSON).header(ACCESS_TOKEN_HEADER, accessToken).delete();
-		final Response response = invokeResponseCallable(responseCallable);
-		return handleResponse(response, Status.OK);
+		final String endpoint = ShopifyApiMetrics.restEndpoint(HttpMethod.DELETE, webTarget.getUri());
+		return send(endpoint, HttpMethod.DELETE, () -> request(webTarget, endpoint).delete(), Status.OK);
 	}
 
 
@@ -1243,14 +1882,15 @@ public class ShopifyRestClient {
 	 */
 	private <T> Response post(final WebTarget webTarget, final T object) {
 		log.debug("post: calling: {}", webTarget.getUri().toString());
+		final String endpoint = ShopifyApiMetrics.restEndpoint(HttpMethod.POST, webTarget.getUri());
 		final Callable<Response> responseCallable = () -> {
 			final Entity<T> entity = Entity.entity(object, MediaType.APPLICATION_JSON);
 			log.debug("post: entity: {}", Entity.json(entity).toString());
-			return webTarget.request(MediaType.APPLICATION_JSON).header(ACCESS_TOKEN_HEADER, accessToken).post(entity);
+			return request(webTarget, endpoint).post(entity);
 		};
-		final Response response = invokeResponseCallable(responseCallable);
+		final Response response = send(endpoint, HttpMethod.POST, responseCallable, Status.CREATED, Status.OK);
 		log.debug("post: response: {}", response.getEntity().toString());
-		return handleResponse(response, Status.CREATED, Status.OK);
+		return response;
 	}
 
 
@@ -1260,24 +1900,58 @@ public class ShopifyRestClient {
 	 * @return Response
 	 */
 	private <T> Response put(final WebTarget webTarget, final T object) {
+		final String endpoint = ShopifyApiMetrics.restEndpoint(HttpMethod.PUT, webTarget.getUri());
 		final Callable<Response> responseCallable = () -> {
 			final Entity<T> entity = Entity.entity(object, MediaType.APPLICATION_JSON);
-			return webTarget.request(MediaType.APPLICATION_JSON).header(ACCESS_TOKEN_HEADER, accessToken).put(entity);
+			return request(webTarget, endpoint).put(entity);
 		};
-		final Response response = invokeResponseCallable(responseCallable);
-		return handleResponse(response, Status.OK);
+		return send(endpoint, HttpMethod.PUT, responseCallable, Status.OK);
+	}
+
+
+	/**
+	 * @param webTarget
+	 * @param endpoint the logical endpoint, which the body bytes of the request and its response are counted under
+	 * @return a JSON request carrying the access token
+	 */
+	private Invocation.Builder request(final WebTarget webTarget, final String endpoint) {
+		return webTarget.request(MediaType.APPLICATION_JSON).header(ACCESS_TOKEN_HEADER, accessToken)
+				.property(ShopifyApiMetrics.ENDPOINT_PROPERTY, endpoint).property(ShopifyApiMetrics.API_VERSION_PROPERTY, apiVersion);
+	}
+
+
+	/**
+	 * Sends a request, retrying it as needed, and times the whole call in the {@code shopify.api.requests} metric.
+	 *
+	 * @param endpoint
+	 * @param method
+	 * @param responseCallable
+	 * @param expectedStatus
+	 * @return Response
+	 */
+	private Response send(final String endpoint, final String method, final Callable<Response> responseCallable, final Status... expectedStatus) {
+		final Timer.Sample sample = ShopifyApiMetrics.startCall();
+		Integer status = null;
+		try {
+			final Response response = invokeResponseCallable(endpoint, responseCallable);
+			status = response.getStatus();
+			return handleResponse(endpoint, response, expectedStatus);
+		} finally {
+			ShopifyApiMetrics.recordCall(sample, ShopifyApiMetrics.REST_API, endpoint, apiVersion, method, status);
+		}
 	}
 
 
 	/**
+	 * @param endpoint
 	 * @param response
 	 * @param expectedStatus
 	 * @return Response
 	 */
-	private Response handleResponse(final Response response, final Status... expectedStatus) {
+	private Response handleResponse(final String endpoint, final Response response, final Status... expectedStatus) {
 
 		if ((response.getHeaders() != null) && response.getHeaders().containsKey(DEPRECATED_REASON_HEADER)) {
-			log.error(DEPRECATED_SHOPIFY_CALL_ERROR_MESSAGE, response.getLocation(), response.getStatus(), response.getStringHeaders());
+			ShopifyApiMetrics.recordDeprecatedCall(ShopifyApiMetrics.REST_API, endpoint, apiVersion, response.getHeaderString(DEPRECATED_REASON_HEADER));
 		}
 
 		final List<Integer> expectedStatusCodes = getExpectedStatusCodes(expectedStatus);
@@ -1299,28 +1973,149 @@ public class ShopifyRestClient {
 
 
 	/**
+	 * @param endpoint the logical endpoint, which throttled, failed and retried attempts are counted under
 	 * @param responseCallable
 	 * @return Response
 	 */
-	private Response invokeResponseCallable(final Callable<Response> responseCallable) {
-		final Retryer<Response> retryer = buildResponseRetyer();
+	private Response invokeResponseCallable(final String endpoint, final Callable<Response> responseCallable) {
+		final ShopifyCallLimitGovernor governor = getCallLimitGovernor();
+		final ShopifyRetryBudget shopRetryBudget = getRetryBudget();
+		final ShopifyRetryBudget globalRetryBudget = ShopifyRetryBudget.global();
+		final ShopifyCircuitBreaker circuitBreaker = getCircuitBreaker();
+		final long startNanos = System.nanoTime();
+		long delayMillis = 0L;
+		for (int attemptNumber = 1;; attemptNumber++) {
+			// Fails fast, also between retries, once the shop's API is considered down
+			circuitBreaker.acquirePermission();
+			Response response = null;
+			Exception exception = null;
+			try {
+				governor.acquire();
+				httpClientPool.requestStarted();
+				try {
+					response = responseCallable.call();
+				} finally {
+					httpClientPool.requestFinished();
+				}
+				governor.onResponse(response.getHeaderString(ShopifyCallLimitGovernor.CALL_LIMIT_HEADER), response.getStatus());
+			} catch (final Exception e) {
+				if (Thread.currentThread().isInterrupted()) {
+					circuitBreaker.onIgnored();
+					throw new ShopifyClientException(RETRY_INTERRUPTED_MESSAGE, e);
+				}
+				exception = e;
+			} catch (final Error e) {
+				// Gives the permission back, or a half-open breaker would lose a probe for good
+				circuitBreaker.onIgnored();
+				throw e;
+			}
+
+			if (response == null || isServerError(response)) {
+				circuitBreaker.onFailure();
+			} else {
+				circuitBreaker.onSuccess();
+			}
+			if (response != null) {
+				recordResponseMetrics(endpoint, response);
+			}
+			if (response != null && !shouldRetryResponse(response)) {
+				shopRetryBudget.onSuccess();
+				globalRetryBudget.onSuccess();
+				return response;
+			}
+
+			// A Retry-After wait is Shopify pacing us rather than an outage, so it is not charged to the retry budgets
+			final boolean rateLimited = response != null && hasExceededRateLimit(response);
+			if (!rateLimited) {
+				shopRetryBudget.onFailure();
+				globalRetryBudget.onFailure();
+			}
+			delayMillis = retryPolicy.nextDelayMillis(delayMillis, rateLimited ? response.getHeaderString(RETRY_AFTER_HEADER) : null);
+			final long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+			if (!retryPolicy.isWithinDeadline(elapsedMillis, delayMillis)
+					|| (!rateLimited && !(shopRetryBudget.canRetry() && globalRetryBudget.canRetry()))) {
+				throw new ShopifyClientException(RETRY_FAILED_MESSAGE, exception != null ? exception : new ShopifyErrorResponseException(response));
+			}
+
+			ShopifyApiMetrics.recordRetry(ShopifyApiMetrics.REST_API, endpoint, apiVersion, getRetryReason(response, rateLimited));
+			logRetry(attemptNumber, elapsedMillis, delayMillis, response, exception);
+			if (response != null) {
+				// Release the connection of the failed attempt back to the pool before waiting
+				response.close();
+			}
+			waitBeforeRetry(delayMillis);
+		}
+	}
+
+
+	/**
+	 * Waits by parking the calling thread. When called from a virtual thread, as {@link ShopifyAsyncRestClient} does, the carrier thread is released
+	 * to run other work for the duration of the wait.
+	 *
+	 * @param delayMillis
+	 */
+	private static void waitBeforeRetry(final long delayMillis) {
 		try {
-			return retryer.call(responseCallable);
-		} catch (ExecutionException | RetryException e) {
-			throw new ShopifyClientException(RETRY_FAILED_MESSAGE, e);
+			TimeUnit.MILLISECONDS.sleep(delayMillis);
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new ShopifyClientException(RETRY_INTERRUPTED_MESSAGE, e);
+		}
+	}
+
+
+	/**
+	 * Counts an attempt's response that was throttled or failed on Shopify's side, whether or not it is retried.
+	 *
+	 * @param endpoint
+	 * @param response
+	 */
+	private void recordResponseMetrics(final String endpoint, final Response response) {
+		if (TOO_MANY_REQUESTS_STATUS_CODE == response.getStatus()) {
+			ShopifyApiMetrics.recordThrottled(ShopifyApiMetrics.REST_API, endpoint, apiVersion, getShopKey());
+		} else if (isServerError(response)) {
+			ShopifyApiMetrics.recordServerError(ShopifyApiMetrics.REST_API, endpoint, apiVersion, response.getStatus());
+		}
+	}
+
+
+	/**
+	 * @param response the failed response, or null if the attempt threw
+	 * @param rateLimited
+	 * @return the reason tag of a retried attempt
+	 */
+	private static String getRetryReason(final Response response, final boolean rateLimited) {
+		if (response == null) {
+			return "exception";
+		}
+		if (rateLimited) {
+			return "rate_limited";
 		}
+		return isServerError(response) ? "server_error" : "not_saved";
 	}
 
 
 	/**
-	 * @return Retryer<Response>
+	 * @param attemptNumber
+	 * @param elapsedMillis
+	 * @param delayMillis
+	 * @param response the failed response, or null if the attempt threw
+	 * @param exception the exception of the attempt, or null if it returned a response
 	 */
-	private Retryer<Response> buildResponseRetyer() {
-		return RetryerBuilder.<Response>newBuilder().retryIfResult(ShopifyRestClient::shouldRetryResponse).retryIfException()
-				.withWaitStrategy(WaitStrategies.randomWait(minimumRequestRetryRandomDelayMilliseconds, TimeUnit.MILLISECONDS,
-						maximumRequestRetryRandomDelayMilliseconds, TimeUnit.MILLISECONDS))
-				.withStopStrategy(StopStrategies.stopAfterDelay(maximumRequestRetryTimeoutMilliseconds, TimeUnit.MILLISECONDS))
-				.withRetryListener(new ShopifySdkRetryListener()).build();
+	private static void logRetry(final int attemptNumber, final long elapsedMillis, final long delayMillis, final Response response,
+			final Exception exception) {
+		if (!log.isWarnEnabled()) {
+			return;
+		}
+		final long elapsedSeconds = TimeUnit.MILLISECONDS.toSeconds(elapsedMillis);
+		if (exception != null) {
+			log.warn(RETRY_EXCEPTION_ATTEMPT_MESSAGE, exception, attemptNumber, elapsedSeconds, delayMillis);
+		} else if (!hasExceededRateLimit(response)) {
+			final boolean captureBody = RETRY_LOG_COUNTER.getAndIncrement() % RETRY_RESPONSE_BODY_SAMPLE_RATE == 0;
+			final String responseBody = captureBody ? ResponseEntityToStringMapper.map(response) : RESPONSE_BODY_NOT_SAMPLED;
+			log.warn(RETRY_INVALID_RESPONSE_ATTEMPT_MESSAGE, elapsedSeconds, attemptNumber, delayMillis, response.getLocation(), response.getStatus(),
+					response.getStringHeaders(), responseBody);
+		}
 	}
 
 
@@ -1359,7 +2154,7 @@ public class ShopifyRestClient {
 		if ((UNPROCESSABLE_ENTITY_STATUS_CODE == response.getStatus()) && response.hasEntity()) {
 			final String shopifyErrorResponse = ResponseEntityToStringMapper.map(response);
 			log.debug(shopifyErrorResponse);
-			return shopifyErrorResponse.contains(COULD_NOT_BE_SAVED_SHOPIFY_ERROR_MESSAGE);
+			return shopifyErrorResponse != null && shopifyErrorResponse.contains(COULD_NOT_BE_SAVED_SHOPIFY_ERROR_MESSAGE);
 		}
 		return false;
 	}
@@ -1394,104 +2189,166 @@ public class ShopifyRestClient {
 	 */
 	private WebTarget getUnversionedWebTarget() {
 		if (StringUtils.isNotBlank(this.shopSubdomain)) {
-			return CLIENT.target(new StringBuilder().append(HTTPS).append(this.shopSubdomain).append(API_TARGET).toString());
+			return newWebTarget(new StringBuilder().append(HTTPS).append(this.shopSubdomain).append(API_TARGET).toString());
 		}
-		return CLIENT.target(this.apiUrl);
+		return newWebTarget(this.apiUrl);
 	}
 
 
 	/**
+	 * Creates a target on the shared transport client carrying this client's own timeouts, so clients with different timeouts can share a pool.
+	 *
+	 * @param uri
 	 * @return WebTarget
 	 */
-	private WebTarget getWebTarget() {
-		if (this.webTarget == null) {
+	private WebTarget newWebTarget(final String uri) {
+		return httpClientPool.getClient().target(uri).property(ClientProperties.CONNECT_TIMEOUT, connectionTimeoutMilliseconds)
+				.property(ClientProperties.READ_TIMEOUT, readTimeoutMilliseconds);
+	}
 
-			if (StringUtils.isNotBlank(this.shopSubdomain)) {
-				this.webTarget = CLIENT.target(new StringBuilder().append(HTTPS).append(this.shopSubdomain).append(API_TARGET).toString());
 
-			} else {
-				this.webTarget = CLIENT.target(this.apiUrl);
-			}
-			if (StringUtils.isNotBlank(this.apiVersion)) {
-				this.webTarget = this.webTarget.path(API_VERSION_PREFIX).path(this.apiVersion);
-			}
-			if (this.accessToken == null) {
-				this.accessToken = generateToken();
-			}
-
-			final Shop shop = this.getShop().getShop();
-			log.info(SHOP_RETRIEVED_MESSAGE, shop.getId(), shop.getName());
+	/**
+	 * @return the shop subdomain, or the API host and port when the client was built with an API URL, so servers on the same host are paced apart
+	 */
+	private String getShopKey() {
+		if (StringUtils.isNotBlank(this.shopSubdomain)) {
+			return this.shopSubdomain;
 		}
-		return webTarget;
+		final URI uri = URI.create(this.apiUrl);
+		return uri.getPort() < 0 ? uri.getHost() : uri.getHost() + ":" + uri.getPort();
 	}
 
 
 	/**
-	 * @return Client
+	 * A single client may be shared by many concurrent callers, e.g. through {@link ShopifyAsyncRestClient}, so the target is built once under a
+	 * lock and then read without one. The lock is a {@link ReentrantLock} rather than a monitor, as building the target may request a token, and a
+	 * virtual thread blocked inside a monitor would pin its carrier thread.
+	 *
+	 * @return WebTarget
 	 */
-	private static Client buildClient() {
-		final ObjectMapper mapper = ShopifySdkObjectMapper.buildMapper();
-		final JacksonJaxbJsonProvider provider = new JacksonJaxbJsonProvider();
-		provider.setMapper(mapper);
-
-		return ClientBuilder.newClient().register(JacksonFeature.class).register(provider);
+	private WebTarget getWebTarget() {
+		final WebTarget builtWebTarget = this.webTarget;
+		if (builtWebTarget != null) {
+			return builtWebTarget;
+		}
+		webTargetLock.lock();
+		try {
+			if (this.webTarget == null) {
+				WebTarget target = getUnversionedWebTarget();
+				if (StringUtils.isNotBlank(this.apiVersion)) {
+					target = target.path(API_VERSION_PREFIX).path(this.apiVersion);
+				}
+				if (this.accessToken == null) {
+					this.accessToken = generateToken();
+				}
+				// Published last, so a caller that sees the target also sees the token
+				this.webTarget = target;
+				log.debug(CLIENT_READY_MESSAGE, getShopKey());
+			}
+			return this.webTarget;
+		} finally {
+			webTargetLock.unlock();
+		}
 	}
 
-	public class ShopifySdkRetryListener implements RetryListener {
-
-		private static final String RETRY_EXCEPTION_ATTEMPT_MESSAGE =
-				"An exception occurred while making an API call to shopify: {} on attempt number {} and {} seconds since first attempt";
-		private static final String RETRY_INVALID_RESPONSE_ATTEMPT_MESSAGE =
-				"Waited {} seconds since first retry attempt. This is attempt {}. Please review the following failed request information.\nRequest Location of {}\nResponse Status Code of {}\nResponse Headers of:\n{}\nResponse Body of:\n{}";
-
-		@Override
-		public <V> void onRetry(final Attempt<V> attempt) {
-			if (attempt.hasResult()) {
-				final Response response = (Response) attempt.getResult();
 
-				final String responseBody = ResponseEntityToStringMapper.map(response);
+	/**
+	 * Package-private for the {@code jmh} benchmarks.
+	 *
+	 * @param items
+	 * @param response
+	 * @return ShopifyPage<T>
+	 */
+	static <T> ShopifyPage<T> mapPagedResponse(final List<T> items, final Response response) {
 
-				if (log.isWarnEnabled() && !hasExceededRateLimit(response) && shouldRetryResponse(response)) {
+		final ShopifyPage<T> shopifyPage = new ShopifyPage<>();
+		shopifyPage.addAll(items);
 
-					final long delaySinceFirstAttemptInSeconds = convertMillisecondsToSeconds(attempt.getDelaySinceFirstAttempt());
-					log.warn(RETRY_INVALID_RESPONSE_ATTEMPT_MESSAGE, delaySinceFirstAttemptInSeconds, attempt.getAttemptNumber(),
-							response.getLocation(), response.getStatus(), response.getStringHeaders(), responseBody);
+		shopifyPage.setNextPageInfo(getPageInfo(response, REL_NEXT_HEADER_KEY));
+		shopifyPage.setPreviousPageInfo(getPageInfo(response, REL_PREVIOUS_HEADER_KEY));
 
-				}
+		return shopifyPage;
+	}
 
-			} else if (log.isWarnEnabled() && attempt.hasException()) {
 
-				final long delaySinceFirstAttemptInSeconds = convertMillisecondsToSeconds(attempt.getDelaySinceFirstAttempt());
-				log.warn(RETRY_EXCEPTION_ATTEMPT_MESSAGE, attempt.getAttemptNumber(), delaySinceFirstAttemptInSeconds, attempt.getExceptionCause());
-			}
-		}
+	/**
+	 * @param response
+	 * @param rel
+	 * @return the {@code page_info} of the page linked with the given relation, or null if there is none
+	 */
+	private static String getPageInfo(final Response response, final String rel) {
+		final Set<Link> links = response.getLinks();
+		return links.stream().filter(link -> link.getRel().equals(rel)).map(link -> getQueryParam(link.getUri(), PAGE_INFO_QUERY_PARAMETER))
+				.findFirst().orElse(null);
+	}
 
-		private long convertMillisecondsToSeconds(final long milliiseconds) {
-			return TimeUnit.SECONDS.convert(milliiseconds, TimeUnit.MILLISECONDS);
-		}
 
+	/**
+	 * Walks every page of a resource, parsing each page's array element by element straight from the response stream. The link to the next page
+	 * is read from the headers, so the body never has to be buffered.
+	 *
+	 * @param pageTargets returns the target of the page for a {@code page_info}, or of the first page for null
+	 * @param arrayFieldName the name of the array in the response body
+	 * @param elementType
+	 * @param action
+	 * @return the number of elements read
+	 */
+	private <T> long forEachItem(final Function<String, WebTarget> pageTargets, final String arrayFieldName, final Class<T> elementType,
+			final Consumer<? super T> action) {
+		long count = 0;
+		String pageInfo = null;
+		do {
+			final Response response = get(pageTargets.apply(pageInfo));
+			pageInfo = getPageInfo(response, REL_NEXT_HEADER_KEY);
+			count += readItems(response, arrayFieldName, elementType, action);
+			log.debug("Streamed {} {} so far, more pages: {}", count, arrayFieldName, pageInfo != null);
+		} while (pageInfo != null);
+		return count;
 	}
 
 
 	/**
-	 * @param items
-	 * @param response
+	 * Reads a page into the partial DTO of the projection with {@link ShopifyJsonArrayReader}, as the JSON provider would need a root class for
+	 * each projection type.
+	 *
+	 * @param target the target of the page, without the projection
+	 * @param arrayFieldName the name of the array in the response body
+	 * @param projection
 	 * @return ShopifyPage<T>
 	 */
-	private <T> ShopifyPage<T> mapPagedResponse(final List<T> items, final Response response) {
+	private <T> ShopifyPage<T> getProjectedPage(final WebTarget target, final String arrayFieldName, final ShopifyProjection<T> projection) {
+		final Response response = get(project(target, projection));
+		final ShopifyPage<T> shopifyPage = mapPagedResponse(List.of(), response);
+		readItems(response, arrayFieldName, projection.getType(), shopifyPage::add);
+		return shopifyPage;
+	}
 
-		final ShopifyPage<T> shopifyPage = new ShopifyPage<>();
-		shopifyPage.addAll(items);
 
-		final Set<Link> links = response.getLinks();
-		final String nextLink = links.stream().filter(link -> link.getRel().equals(REL_NEXT_HEADER_KEY))
-				.map(link -> getQueryParam(link.getUri(), PAGE_INFO_QUERY_PARAMETER)).findFirst().orElse(null);
-		final String previousLink = links.stream().filter(link -> link.getRel().equals(REL_PREVIOUS_HEADER_KEY))
-				.map(link -> getQueryParam(link.getUri(), PAGE_INFO_QUERY_PARAMETER)).findFirst().orElse(null);
-		shopifyPage.setNextPageInfo(nextLink);
-		shopifyPage.setPreviousPageInfo(previousLink);
+	/**
+	 * @param response closed once read
+	 * @param arrayFieldName the name of the array in the response body
+	 * @param elementType
+	 * @param action
+	 * @return the number of elements read
+	 */
+	private <T> int readItems(final Response response, final String arrayFieldName, final Class<T> elementType, final Consumer<? super T> action) {
+		try (final InputStream entityStream = response.readEntity(InputStream.class)) {
+			return ShopifyJsonArrayReader.readArray(entityStream, arrayFieldName, objectReaderRegistry.readerFor(elementType), action);
+		} catch (final IOException e) {
+			throw new ShopifyClientException(String.format(STREAMING_READ_FAILED_MESSAGE, arrayFieldName), e);
+		} finally {
+			response.close();
+		}
+	}
 
-		return shopifyPage;
+
+	/**
+	 * @param target
+	 * @param projection
+	 * @return the target asking Shopify for only the fields of the projection
+	 */
+	private static WebTarget project(final WebTarget target, final ShopifyProjection<?> projection) {
+		return target.queryParam(FIELDS_QUERY_PARAMETER, projection.getFields());
 	}
 
 
@@ -1500,7 +2357,7 @@ public class ShopifyRestClient {
 	 * @param key
 	 * @return String
 	 */
-	private String getQueryParam(final URI uri, final String key) {
+	private static String getQueryParam(final URI uri, final String key) {
 		final String[] params = uri.getQuery().split(AMPERSAND);
 		for (final String param : params) {
 			final String name = param.split(EQUALS)[0];
@@ -1519,4 +2376,26 @@ public class ShopifyRestClient {
 	private WebTarget buildOrdersEndpoint() {
 		return getWebTarget().path(ORDERS);
 	}
+
+
+	/**
+	 * @param pageInfo
+	 * @param pageSize
+	 * @return the target of the page of orders of any status for a {@code page_info}, or of the first page for null
+	 */
+	private WebTarget buildAllOrdersTarget(final String pageInfo, final int pageSize) {
+		// Shopify rejects the status filter on page_info requests, the cursor already carries it
+		return pageInfo == null ? buildOrdersEndpoint().queryParam(STATUS_QUERY_PARAMETER, ANY_STATUSES).queryParam(LIMIT_QUERY_PARAMETER, pageSize)
+				: buildOrdersEndpoint().queryParam(LIMIT_QUERY_PARAMETER, pageSize).queryParam(PAGE_INFO_QUERY_PARAMETER, pageInfo);
+	}
+
+
+	/**
+	 * @param pageInfo
+	 * @param pageSize
+	 * @return the target of the page of products for a {@code page_info}, or of the first page for null
+	 */
+	private WebTarget buildProductsTarget(final String pageInfo, final int pageSize) {
+		return getWebTarget().path(PRODUCTS).queryParam(LIMIT_QUERY_PARAMETER, pageSize).queryParam(PAGE_INFO_QUERY_PARAMETER, pageInfo);
+	}
 }
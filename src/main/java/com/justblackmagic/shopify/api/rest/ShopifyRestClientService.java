@@ -1,23 +1,55 @@
 package com.justblackmagic.shopify.api.rest;
 
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.TimeUnit;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.justblackmagic.shopify.api.rest.mappers.ShopifyJsonMapping;
+import com.justblackmagic.shopify.api.rest.transport.ShopifyHttpTransport;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.Getter;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 
 /*
  * This class is a Spring Service component which generates Shopify REST client instances with the given shop name and access token, using the API
  * version configured in shopify.api.rest.version property.
+ *
+ * Clients are cached by shop and access token hash and reused across requests, so a warm request makes no extra Shopify calls. Call
+ * invalidateShopifyRestClients when a shop uninstalls the app or its access token changes.
  */
 @Slf4j
 @Service
 @Data
 public class ShopifyRestClientService {
 
+    private static final String CACHE_KEY_SEPARATOR = "|";
+
     @Value("${shopify.api.rest.version}")
     private String apiVersion = "2021-10";
 
+    @Value("${shopify.api.rest.transport:JDK_HTTP_CLIENT}")
+    private ShopifyHttpTransport transport = ShopifyHttpTransport.JDK_HTTP_CLIENT;
+
+    @Value("${shopify.api.rest.json-mapping:COMPATIBLE}")
+    private ShopifyJsonMapping jsonMapping = ShopifyJsonMapping.COMPATIBLE;
+
+    /** Time to live of cached shop, location and product responses, 0 to disable the response cache */
+    @Value("${shopify.api.rest.cache.ttl-seconds:0}")
+    private int responseCacheTtlSeconds = 0;
+
+    /** Cache with automatic eviction after 30 minutes of inactivity to prevent memory leaks */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final Cache<String, ShopifyRestClient> clients = Caffeine.newBuilder().expireAfterAccess(30, TimeUnit.MINUTES).maximumSize(10_000).build();
+
 
     /**
      * @param shopName
@@ -27,7 +59,69 @@ public class ShopifyRestClientService {
     public ShopifyRestClient getShopifyRestClient(final String shopName, final String accessToken) {
         log.debug("getShopifyRestClient called for shop: {}", shopName);
         // Never log access tokens - they are sensitive credentials
-        return ShopifyRestClient.newBuilder().withSubdomain(shopName).withAccessToken(accessToken).withApiVersion(apiVersion).build();
+        return clients.get(buildCacheKey(shopName, accessToken),
+                key -> ShopifyRestClient.newBuilder().withSubdomain(shopName).withAccessToken(accessToken).withApiVersion(apiVersion)
+                        .withTransport(transport).withJsonMapping(jsonMapping).withResponseCache(responseCacheTtlSeconds, TimeUnit.SECONDS).build());
+    }
+
+
+    /**
+     * @param shopName
+     * @param accessToken
+     * @return ShopifyAsyncRestClient running every call on a virtual thread
+     */
+    public ShopifyAsyncRestClient getShopifyAsyncRestClient(final String shopName, final String accessToken) {
+        return new ShopifyAsyncRestClient(getShopifyRestClient(shopName, accessToken));
+    }
+
+
+    /**
+     * @param shopName
+     * @param accessToken
+     * @return ShopifyReactiveRestClient paging REST resources as demand-driven Flux sources
+     */
+    public ShopifyReactiveRestClient getShopifyReactiveRestClient(final String shopName, final String accessToken) {
+        return new ShopifyReactiveRestClient(getShopifyRestClient(shopName, accessToken));
+    }
+
+
+    /**
+     * Drops every cached client for the given shop. Call this when the shop uninstalls the app or its access token changes.
+     *
+     * @param shopName
+     */
+    public void invalidateShopifyRestClients(final String shopName) {
+        log.debug("invalidateShopifyRestClients called for shop: {}", shopName);
+        final String keyPrefix = buildCacheKeyPrefix(shopName);
+        clients.asMap().keySet().removeIf(key -> key.startsWith(keyPrefix));
+    }
+
+
+    /**
+     * Builds a cache key from the shop name and a hash of the access token, so raw tokens are never kept as map keys.
+     *
+     * @param shopName
+     * @param accessToken
+     * @return String
+     */
+    public static String buildCacheKey(final String shopName, final String accessToken) {
+        try {
+            final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            final byte[] hash = digest.digest(String.valueOf(accessToken).getBytes(StandardCharsets.UTF_8));
+            return buildCacheKeyPrefix(shopName) + HexFormat.of().formatHex(hash);
+        } catch (final NoSuchAlgorithmException e) {
+            // Every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+
+    /**
+     * @param shopName
+     * @return the prefix shared by the cache keys of every access token of the shop
+     */
+    public static String buildCacheKeyPrefix(final String shopName) {
+        return shopName + CACHE_KEY_SEPARATOR;
     }
 
 }
@@ -0,0 +1,235 @@
+package com.justblackmagic.shopify.api.rest.cache;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Metrics;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Per-shop cache of REST GET response bodies, shared by all clients of a shop, for read-heavy endpoints such as the shop, its locations and its
+ * products.
+ *
+ * <p>An entry younger than the client's time to live is served without a network call. An older entry is kept, up to
+ * {@value #DEFAULT_RETENTION_MINUTES} minutes, so its {@code ETag} or {@code Last-Modified} validator can be sent with the next request: a
+ * {@code 304 Not Modified} answer refreshes the entry without transferring the body again. At most {@value #DEFAULT_MAXIMUM_ENTRIES} entries are kept
+ * per shop, least recently used first out.
+ *
+ * <p>Entries are tagged with the REST resource they were read from, e.g. {@code products}, so a webhook can invalidate them with
+ * {@link #invalidate(String, String)} as soon as the data changes in Shopify. Lookups are counted in the {@code shopify.rest.cache.requests}
+ * metric, tagged with their result.
+ */
+@Slf4j
+public class ShopifyResponseCache {
+
+	/**
+	 * A cached response body and its validators.
+	 *
+	 * @param resource the REST resource the body was read from, e.g. {@code products}
+	 * @param body the raw response body
+	 * @param entityTag the {@code ETag} header, or null
+	 * @param lastModified the {@code Last-Modified} header, or null
+	 * @param storedAtNanos when the body was fetched or last revalidated
+	 */
+	public record CachedResponse(String resource, byte[] body, String entityTag, String lastModified, long storedAtNanos) {
+
+		/**
+		 * @return true if the entry can be revalidated with a conditional request
+		 */
+		public boolean hasValidator() {
+			return entityTag != null || lastModified != null;
+		}
+	}
+
+	/** Most entries kept per shop. */
+	static final long DEFAULT_MAXIMUM_ENTRIES = 1_000L;
+
+	/** Time an entry is kept for revalidation after it was stored. */
+	static final long DEFAULT_RETENTION_MINUTES = 60L;
+
+	/** Webhook topic resource whose events drop every entry of the shop. */
+	static final String APP_RESOURCE = "app";
+
+	static final String METRIC_PREFIX = "shopify.rest.cache";
+	private static final String RESULT_TAG = "result";
+
+	/** Response caches by shop, evicted after 10 minutes of inactivity to prevent memory leaks */
+	private static final Cache<String, ShopifyResponseCache> CACHES =
+			Caffeine.newBuilder().expireAfterAccess(10, TimeUnit.MINUTES).maximumSize(10_000).build();
+
+	private final String shop;
+	private final LongSupplier nanoClock;
+	private final Cache<String, CachedResponse> entries;
+
+	/** Incremented by every invalidation, so a response fetched before it is not stored after it. */
+	private final AtomicLong generation = new AtomicLong();
+
+
+	ShopifyResponseCache(final String shop, final LongSupplier nanoClock, final long maximumEntries, final long retentionMillis) {
+		this.shop = shop;
+		this.nanoClock = nanoClock;
+		this.entries = Caffeine.newBuilder().ticker(nanoClock::getAsLong).expireAfterWrite(retentionMillis, TimeUnit.MILLISECONDS)
+				.maximumSize(maximumEntries).build();
+	}
+
+
+	/**
+	 * Returns the response cache shared by all clients of the given shop.
+	 *
+	 * @param shop the shop subdomain (e.g. {@code my-shop.myshopify.com}) or API host
+	 * @return ShopifyResponseCache
+	 */
+	public static ShopifyResponseCache forShop(final String shop) {
+		return CACHES.get(shop,
+				key -> new ShopifyResponseCache(key, System::nanoTime, DEFAULT_MAXIMUM_ENTRIES, TimeUnit.MINUTES.toMillis(DEFAULT_RETENTION_MINUTES)));
+	}
+
+
+	/**
+	 * Read-only view of the currently active response caches by shop, for metrics and diagnostics.
+	 *
+	 * @return Map<String, ShopifyResponseCache>
+	 */
+	public static Map<String, ShopifyResponseCache> getResponseCaches() {
+		return Collections.unmodifiableMap(CACHES.asMap());
+	}
+
+
+	/**
+	 * Drops the cached responses of a shop that a webhook topic makes stale, e.g. every cached product and product metafield for
+	 * {@code products/update}. An {@code app/uninstalled} topic drops all of the shop's entries. Does nothing if the shop has no cache.
+	 *
+	 * @param shop the shop domain, as sent in the {@code X-Shopify-Shop-Domain} header
+	 * @param topic the webhook topic, as sent in the {@code X-Shopify-Topic} header
+	 */
+	public static void invalidate(final String shop, final String topic) {
+		final ShopifyResponseCache cache = CACHES.getIfPresent(shop);
+		if (cache != null) {
+			cache.invalidateTopic(topic);
+		}
+	}
+
+
+	/**
+	 * @param key
+	 * @return the cached response, fresh or stale, or null if there is none
+	 */
+	public CachedResponse get(final String key) {
+		return entries.getIfPresent(key);
+	}
+
+
+	/**
+	 * @param cachedResponse
+	 * @param timeToLiveMillis
+	 * @return true if the response may be served without asking Shopify
+	 */
+	public boolean isFresh(final CachedResponse cachedResponse, final long timeToLiveMillis) {
+		return nanoClock.getAsLong() - cachedResponse.storedAtNanos() < TimeUnit.MILLISECONDS.toNanos(timeToLiveMillis);
+	}
+
+
+	/**
+	 * @return the current generation, to be passed to {@link #put(String, String, byte[], String, String, long)} once the response arrives
+	 */
+	public long getGeneration() {
+		return generation.get();
+	}
+
+
+	/**
+	 * Stores a response, unless the cache was invalidated since the request was sent.
+	 *
+	 * @param key
+	 * @param resource
+	 * @param body
+	 * @param entityTag
+	 * @param lastModified
+	 * @param requestGeneration the generation read before sending the request
+	 * @return the response, whether or not it was stored
+	 */
+	public CachedResponse put(final String key, final String resource, final byte[] body, final String entityTag, final String lastModified,
+			final long requestGeneration) {
+		final CachedResponse cachedResponse = new CachedResponse(resource, body, entityTag, lastModified, nanoClock.getAsLong());
+		if (requestGeneration == generation.get()) {
+			entries.put(key, cachedResponse);
+		}
+		recordLookup("miss");
+		return cachedResponse;
+	}
+
+
+	/**
+	 * Marks a stale response as fresh again after Shopify answered {@code 304 Not Modified}.
+	 *
+	 * @param key
+	 * @param cachedResponse
+	 * @param requestGeneration the generation read before sending the request
+	 * @return the refreshed response
+	 */
+	public CachedResponse revalidate(final String key, final CachedResponse cachedResponse, final long requestGeneration) {
+		final CachedResponse revalidatedResponse = new CachedResponse(cachedResponse.resource(), cachedResponse.body(), cachedResponse.entityTag(),
+				cachedResponse.lastModified(), nanoClock.getAsLong());
+		if (requestGeneration == generation.get()) {
+			entries.put(key, revalidatedResponse);
+		}
+		recordLookup("revalidated");
+		return revalidatedResponse;
+	}
+
+
+	/**
+	 * Counts a response served from the cache without a network call.
+	 */
+	public void recordHit() {
+		recordLookup("hit");
+	}
+
+
+	/**
+	 * @param topic
+	 */
+	public void invalidateTopic(final String topic) {
+		final int separatorIndex = topic.indexOf('/');
+		final String resource = separatorIndex < 0 ? topic : topic.substring(0, separatorIndex);
+		generation.incrementAndGet();
+		if (APP_RESOURCE.equals(resource)) {
+			invalidateAll();
+			return;
+		}
+		entries.asMap().values().removeIf(cachedResponse -> cachedResponse.resource().equals(resource));
+		log.debug("Invalidated cached {} responses of shop {} for webhook topic {}", resource, shop, topic);
+	}
+
+
+	/**
+	 * Drops every entry of the shop.
+	 */
+	public void invalidateAll() {
+		generation.incrementAndGet();
+		entries.invalidateAll();
+		log.debug("Invalidated all cached responses of shop {}", shop);
+	}
+
+
+	/**
+	 * @return the number of entries, including stale ones kept for revalidation
+	 */
+	public long size() {
+		entries.cleanUp();
+		return entries.estimatedSize();
+	}
+
+
+	/**
+	 * @param result
+	 */
+	private static void recordLookup(final String result) {
+		Metrics.counter(METRIC_PREFIX + ".requests", RESULT_TAG, result).increment();
+	}
+
+}
@@ -0,0 +1,201 @@
+package com.justblackmagic.shopify.api.rest.catalog;
+
+import java.util.Arrays;
+
+/**
+ * Open addressing hash map from long keys to non-negative int values, kept in two primitive arrays, so neither keys nor values are boxed and an
+ * entry costs 12 bytes, or 24 at the lowest load, instead of the 50 to 80 bytes of a {@code HashMap<String, Integer>} entry. Copies are two array
+ * copies, so a changed copy of a large map is cheap to derive.
+ */
+final class LongIntHashMap {
+
+	/** Returned for absent keys */
+	static final int NO_VALUE = -1;
+
+	private static final int MINIMUM_CAPACITY = 16;
+
+	private long[] keys;
+	private int[] values;
+	private int size;
+
+
+	/**
+	 * @param expectedSize the number of entries to make room for without resizing
+	 */
+	LongIntHashMap(final int expectedSize) {
+		final int capacity = capacityFor(expectedSize);
+		keys = new long[capacity];
+		values = new int[capacity];
+		Arrays.fill(values, NO_VALUE);
+	}
+
+
+	/**
+	 * @param key
+	 * @return the value of the key, or {@value #NO_VALUE} if it has none
+	 */
+	int get(final long key) {
+		final int slot = find(key);
+		return slot < 0 ? NO_VALUE : values[slot];
+	}
+
+
+	/**
+	 * Maps the key to the value unless it is already mapped.
+	 *
+	 * @param key
+	 * @param value a non-negative value
+	 * @return the value the key is already mapped to, or {@value #NO_VALUE} if it was added
+	 */
+	int putIfAbsent(final long key, final int value) {
+		if ((size + 1) * 2 > keys.length) {
+			resize(keys.length * 2);
+		}
+		final int mask = keys.length - 1;
+		int slot = slot(key, mask);
+		while (values[slot] != NO_VALUE) {
+			if (keys[slot] == key) {
+				return values[slot];
+			}
+			slot = (slot + 1) & mask;
+		}
+		keys[slot] = key;
+		values[slot] = value;
+		size++;
+		return NO_VALUE;
+	}
+
+
+	/**
+	 * Maps the key to the value, replacing any value it had.
+	 *
+	 * @param key
+	 * @param value a non-negative value
+	 */
+	void put(final long key, final int value) {
+		if (putIfAbsent(key, value) != NO_VALUE) {
+			values[find(key)] = value;
+		}
+	}
+
+
+	/**
+	 * Removes the key, moving back the entries probed past it so no tombstones are left.
+	 *
+	 * @param key
+	 * @return the value the key was mapped to, or {@value #NO_VALUE} if it had none
+	 */
+	int remove(final long key) {
+		int slot = find(key);
+		if (slot < 0) {
+			return NO_VALUE;
+		}
+		final int removed = values[slot];
+		final int mask = keys.length - 1;
+		for (int next = (slot + 1) & mask; values[next] != NO_VALUE; next = (next + 1) & mask) {
+			final int home = slot(keys[next], mask);
+			if (((next - home) & mask) >= ((next - slot) & mask)) {
+				keys[slot] = keys[next];
+				values[slot] = values[next];
+				slot = next;
+			}
+		}
+		values[slot] = NO_VALUE;
+		size--;
+		return removed;
+	}
+
+
+	/**
+	 * @return a copy of the map, to change without changing this one
+	 */
+	LongIntHashMap copy() {
+		final LongIntHashMap copy = new LongIntHashMap(0);
+		copy.keys = keys.clone();
+		copy.values = values.clone();
+		copy.size = size;
+		return copy;
+	}
+
+
+	/**
+	 * @return int
+	 */
+	int size() {
+		return size;
+	}
+
+
+	/**
+	 * Shrinks the tables to the smallest capacity keeping the load at most one half, once no more entries are added.
+	 */
+	void trim() {
+		final int capacity = capacityFor(size);
+		if (capacity < keys.length) {
+			resize(capacity);
+		}
+	}
+
+
+	/**
+	 * @param key
+	 * @return the slot of the key, or -1 if it is absent
+	 */
+	private int find(final long key) {
+		final int mask = keys.length - 1;
+		for (int slot = slot(key, mask);; slot = (slot + 1) & mask) {
+			if (values[slot] == NO_VALUE) {
+				return -1;
+			}
+			if (keys[slot] == key) {
+				return slot;
+			}
+		}
+	}
+
+
+	/**
+	 * @param capacity
+	 */
+	private void resize(final int capacity) {
+		final long[] oldKeys = keys;
+		final int[] oldValues = values;
+		keys = new long[capacity];
+		values = new int[capacity];
+		Arrays.fill(values, NO_VALUE);
+		final int mask = capacity - 1;
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (oldValues[i] != NO_VALUE) {
+				int slot = slot(oldKeys[i], mask);
+				while (values[slot] != NO_VALUE) {
+					slot = (slot + 1) & mask;
+				}
+				keys[slot] = oldKeys[i];
+				values[slot] = oldValues[i];
+			}
+		}
+	}
+
+
+	/**
+	 * @param expectedSize
+	 * @return the power of two capacity keeping the load of that many entries at most one half
+	 */
+	private static int capacityFor(final int expectedSize) {
+		return Math.max(MINIMUM_CAPACITY, Integer.highestOneBit(Math.max(1, expectedSize * 2 - 1)) << 1);
+	}
+
+
+	/**
+	 * Shopify ids are sequential, so they are mixed before masking to spread consecutive ids over the table.
+	 *
+	 * @param key
+	 * @param mask
+	 * @return the first slot to probe for the key
+	 */
+	private static int slot(final long key, final int mask) {
+		final long mixed = key * 0x9E3779B97F4A7C15L;
+		return (int) (mixed ^ (mixed >>> 32)) & mask;
+	}
+
+}
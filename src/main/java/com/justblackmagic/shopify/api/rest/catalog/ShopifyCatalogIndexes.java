@@ -0,0 +1,371 @@
+package com.justblackmagic.shopify.api.rest.catalog;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+/**
+ * Secondary indexes of a {@link ShopifyCatalogSnapshot}: variants by SKU, barcode and inventory item id, and products by handle, all mapping to
+ * indexes in the snapshot's columns.
+ *
+ * <p>SKUs and barcodes are not unique in Shopify, so every variant sharing one is kept and the key is reported as a duplicate rather than resolved
+ * to an arbitrary variant. Inventory item ids and handles are unique in a shop; should the snapshot hold two anyway, the first one is indexed, and
+ * the indexes cannot be updated in place since only the rest of the snapshot knows which product or variant takes over a key the first one drops.
+ * Blank SKUs and barcodes, which Shopify sends for variants without one, are not indexed.
+ */
+final class ShopifyCatalogIndexes {
+
+	private static final int[] NO_INDEXES = new int[0];
+
+	private final KeyIndex skus;
+	private final KeyIndex barcodes;
+	private final LongIntHashMap inventoryItems;
+	private final StringIntHashMap handles;
+
+	/** True once two products share a handle or two variants an inventory item id */
+	private boolean uniqueKeyShared;
+
+
+	/**
+	 * @param skus
+	 * @param barcodes
+	 * @param inventoryItems
+	 * @param handles
+	 * @param uniqueKeyShared
+	 */
+	private ShopifyCatalogIndexes(final KeyIndex skus, final KeyIndex barcodes, final LongIntHashMap inventoryItems, final StringIntHashMap handles,
+			final boolean uniqueKeyShared) {
+		this.skus = skus;
+		this.barcodes = barcodes;
+		this.inventoryItems = inventoryItems;
+		this.handles = handles;
+		this.uniqueKeyShared = uniqueKeyShared;
+	}
+
+
+	/**
+	 * @param snapshot
+	 * @return the indexes of every product and variant of the snapshot
+	 */
+	static ShopifyCatalogIndexes build(final ShopifyCatalogSnapshot snapshot) {
+		final ShopifyCatalogIndexes indexes = new ShopifyCatalogIndexes(new KeyIndex(snapshot.getVariantCount()),
+				new KeyIndex(snapshot.getVariantCount()), new LongIntHashMap(snapshot.getVariantCount()),
+				new StringIntHashMap(snapshot.getProductCount()), false);
+		for (int product = 0; product < snapshot.getProductCount(); product++) {
+			indexes.addProduct(snapshot, product);
+		}
+		return indexes;
+	}
+
+
+	/**
+	 * @return a copy of the indexes, to update for a snapshot derived from the indexed one
+	 */
+	ShopifyCatalogIndexes copy() {
+		return new ShopifyCatalogIndexes(skus.copy(), barcodes.copy(), inventoryItems.copy(), handles.copy(), uniqueKeyShared);
+	}
+
+
+	/**
+	 * Updates the keys of the products that changed between two snapshots, whose other products and variants kept their indexes. Every old key
+	 * is removed before any new key is added, so products that swap a handle or an inventory item id within one update keep both keys.
+	 *
+	 * @param previous the indexed snapshot
+	 * @param current the snapshot derived from it
+	 * @param products the indexes of the updated or added products
+	 * @return false if a handle or an inventory item id is shared, in which case the indexes must be built again for the current snapshot
+	 */
+	boolean update(final ShopifyCatalogSnapshot previous, final ShopifyCatalogSnapshot current, final Collection<Integer> products) {
+		if (uniqueKeyShared) {
+			return false;
+		}
+		for (final int product : products) {
+			if (product < previous.getProductCount()) {
+				removeChangedKeys(previous, current, product);
+			}
+		}
+		for (final int product : products) {
+			if (product >= previous.getProductCount()) {
+				addProduct(current, product);
+			} else {
+				addChangedKeys(previous, current, product);
+			}
+		}
+		return !uniqueKeyShared;
+	}
+
+
+	/**
+	 * @return KeyIndex
+	 */
+	KeyIndex getSkus() {
+		return skus;
+	}
+
+
+	/**
+	 * @return KeyIndex
+	 */
+	KeyIndex getBarcodes() {
+		return barcodes;
+	}
+
+
+	/**
+	 * @param inventoryItemId
+	 * @return the index of the variant, or {@link ShopifyCatalogSnapshot#NOT_FOUND}
+	 */
+	int indexOfInventoryItem(final long inventoryItemId) {
+		return inventoryItems.get(inventoryItemId);
+	}
+
+
+	/**
+	 * @param handle
+	 * @return the index of the product, or {@link ShopifyCatalogSnapshot#NOT_FOUND}
+	 */
+	int indexOfHandle(final String handle) {
+		return handle == null ? ShopifyCatalogSnapshot.NOT_FOUND : handles.get(handle);
+	}
+
+
+	/**
+	 * @param previous
+	 * @param current
+	 * @param product the index of the updated product
+	 */
+	private void removeChangedKeys(final ShopifyCatalogSnapshot previous, final ShopifyCatalogSnapshot current, final int product) {
+		if (!Objects.equals(previous.getHandle(product), current.getHandle(product))) {
+			removeHandle(previous.getHandle(product), product);
+		}
+		for (int variant = current.getFirstVariant(product); variant < current.getVariantEnd(product); variant++) {
+			if (!Objects.equals(previous.getSku(variant), current.getSku(variant))) {
+				skus.remove(previous.getSku(variant), variant);
+			}
+			if (!Objects.equals(previous.getBarcode(variant), current.getBarcode(variant))) {
+				barcodes.remove(previous.getBarcode(variant), variant);
+			}
+			if (previous.getInventoryItemId(variant) != current.getInventoryItemId(variant)
+					&& inventoryItems.get(previous.getInventoryItemId(variant)) == variant) {
+				inventoryItems.remove(previous.getInventoryItemId(variant));
+			}
+		}
+	}
+
+
+	/**
+	 * @param previous
+	 * @param current
+	 * @param product the index of the updated product
+	 */
+	private void addChangedKeys(final ShopifyCatalogSnapshot previous, final ShopifyCatalogSnapshot current, final int product) {
+		if (!Objects.equals(previous.getHandle(product), current.getHandle(product))) {
+			addHandle(current.getHandle(product), product);
+		}
+		for (int variant = current.getFirstVariant(product); variant < current.getVariantEnd(product); variant++) {
+			if (!Objects.equals(previous.getSku(variant), current.getSku(variant))) {
+				skus.add(current.getSku(variant), variant);
+			}
+			if (!Objects.equals(previous.getBarcode(variant), current.getBarcode(variant))) {
+				barcodes.add(current.getBarcode(variant), variant);
+			}
+			if (previous.getInventoryItemId(variant) != current.getInventoryItemId(variant)) {
+				addInventoryItem(current.getInventoryItemId(variant), variant);
+			}
+		}
+	}
+
+
+	/**
+	 * @param snapshot
+	 * @param product the index of the product
+	 */
+	private void addProduct(final ShopifyCatalogSnapshot snapshot, final int product) {
+		addHandle(snapshot.getHandle(product), product);
+		for (int variant = snapshot.getFirstVariant(product); variant < snapshot.getVariantEnd(product); variant++) {
+			skus.add(snapshot.getSku(variant), variant);
+			barcodes.add(snapshot.getBarcode(variant), variant);
+			addInventoryItem(snapshot.getInventoryItemId(variant), variant);
+		}
+	}
+
+
+	/**
+	 * @param handle
+	 * @param product
+	 */
+	private void addHandle(final String handle, final int product) {
+		if (handle == null) {
+			return;
+		}
+		final int indexedProduct = handles.get(handle);
+		if (indexedProduct == StringIntHashMap.NO_VALUE) {
+			handles.put(handle, product);
+		} else if (indexedProduct != product) {
+			uniqueKeyShared = true;
+		}
+	}
+
+
+	/**
+	 * @param handle
+	 * @param product
+	 */
+	private void removeHandle(final String handle, final int product) {
+		if (handle != null && handles.get(handle) == product) {
+			handles.remove(handle);
+		}
+	}
+
+
+	/**
+	 * @param inventoryItemId
+	 * @param variant
+	 */
+	private void addInventoryItem(final long inventoryItemId, final int variant) {
+		if (inventoryItemId == ShopifyCatalogSnapshot.NO_VALUE) {
+			return;
+		}
+		final int indexedVariant = inventoryItems.putIfAbsent(inventoryItemId, variant);
+		if (indexedVariant != LongIntHashMap.NO_VALUE && indexedVariant != variant) {
+			uniqueKeyShared = true;
+		}
+	}
+
+	/**
+	 * Index of a key several variants may share. The first variant of every key is kept in an open addressing map, and only keys shared by
+	 * several variants also have an entry listing all of them, so unique keys cost no more than one map entry.
+	 */
+	static final class KeyIndex {
+
+		private final StringIntHashMap firstIndexes;
+		private final Map<String, int[]> duplicates;
+
+
+		/**
+		 * @param expectedSize
+		 */
+		KeyIndex(final int expectedSize) {
+			this(new StringIntHashMap(expectedSize), new HashMap<>());
+		}
+
+
+		/**
+		 * @param firstIndexes
+		 * @param duplicates
+		 */
+		private KeyIndex(final StringIntHashMap firstIndexes, final Map<String, int[]> duplicates) {
+			this.firstIndexes = firstIndexes;
+			this.duplicates = duplicates;
+		}
+
+
+		/**
+		 * @param key
+		 * @return the index of the only variant with the key, {@link ShopifyCatalogSnapshot#NOT_FOUND} or {@link ShopifyCatalogSnapshot#AMBIGUOUS}
+		 */
+		int indexOf(final String key) {
+			if (isBlank(key)) {
+				return ShopifyCatalogSnapshot.NOT_FOUND;
+			}
+			return duplicates.containsKey(key) ? ShopifyCatalogSnapshot.AMBIGUOUS : firstIndexes.get(key);
+		}
+
+
+		/**
+		 * @param key
+		 * @return the indexes of every variant with the key, in ascending order
+		 */
+		int[] indexesOf(final String key) {
+			if (isBlank(key)) {
+				return NO_INDEXES;
+			}
+			final int[] sharedIndexes = duplicates.get(key);
+			if (sharedIndexes != null) {
+				return sharedIndexes.clone();
+			}
+			final int index = firstIndexes.get(key);
+			return index == StringIntHashMap.NO_VALUE ? NO_INDEXES : new int[] {index};
+		}
+
+
+		/**
+		 * @return the keys shared by several variants
+		 */
+		Set<String> getDuplicateKeys() {
+			return Collections.unmodifiableSet(duplicates.keySet());
+		}
+
+
+		/**
+		 * @param key
+		 * @param index
+		 */
+		void add(final String key, final int index) {
+			if (isBlank(key)) {
+				return;
+			}
+			final int firstIndex = firstIndexes.get(key);
+			if (firstIndex == StringIntHashMap.NO_VALUE) {
+				firstIndexes.put(key, index);
+				return;
+			}
+			final int[] sharedIndexes = duplicates.getOrDefault(key, new int[] {firstIndex});
+			final int[] updatedIndexes = Arrays.copyOf(sharedIndexes, sharedIndexes.length + 1);
+			updatedIndexes[sharedIndexes.length] = index;
+			Arrays.sort(updatedIndexes);
+			duplicates.put(key, updatedIndexes);
+			firstIndexes.put(key, updatedIndexes[0]);
+		}
+
+
+		/**
+		 * @param key
+		 * @param index
+		 */
+		void remove(final String key, final int index) {
+			if (isBlank(key)) {
+				return;
+			}
+			final int[] sharedIndexes = duplicates.get(key);
+			if (sharedIndexes == null) {
+				if (firstIndexes.get(key) == index) {
+					firstIndexes.remove(key);
+				}
+				return;
+			}
+			final int[] remainingIndexes = IntStream.of(sharedIndexes).filter(sharedIndex -> sharedIndex != index).toArray();
+			if (remainingIndexes.length == 1) {
+				duplicates.remove(key);
+			} else {
+				duplicates.put(key, remainingIndexes);
+			}
+			firstIndexes.put(key, remainingIndexes[0]);
+		}
+
+
+		/**
+		 * Shared index arrays are replaced rather than changed, so the copy shares them.
+		 *
+		 * @return KeyIndex
+		 */
+		KeyIndex copy() {
+			return new KeyIndex(firstIndexes.copy(), new HashMap<>(duplicates));
+		}
+
+
+		/**
+		 * @param key
+		 * @return boolean
+		 */
+		private static boolean isBlank(final String key) {
+			return key == null || key.isBlank();
+		}
+	}
+
+}
@@ -0,0 +1,901 @@
+package com.justblackmagic.shopify.api.rest.catalog;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import com.justblackmagic.shopify.api.rest.model.ShopifyProduct;
+import com.justblackmagic.shopify.api.rest.model.ShopifyVariant;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Compact, immutable in-memory copy of the hot fields of a shop's catalog, for holding whole catalogs of hundreds of thousands of variants where
+ * {@link com.justblackmagic.shopify.api.rest.model.ShopifyProducts} would keep every product's whole object graph.
+ *
+ * <p>Fields are stored in columns, one primitive or String array per field, and products and variants are addressed by their index in them. The
+ * variants of a product are stored next to each other, from {@link #getFirstVariant(int)} to {@link #getVariantEnd(int)}, so a catalog is walked
+ * without copying or allocating anything:
+ *
+ * <pre>
+ * for (int p = 0; p &lt; snapshot.getProductCount(); p++) {
+ * 	for (int v = snapshot.getFirstVariant(p); v &lt; snapshot.getVariantEnd(p); v++) {
+ * 		snapshot.getSku(v);
+ * 	}
+ * }
+ * </pre>
+ *
+ * <p>Ids are looked up through primitive long keyed maps, and vendors, product types, statuses, tags and variant titles are deduplicated, so each
+ * distinct value is held once per snapshot. Inventory item ids, quantities and timestamps Shopify did not send read as {@link #NO_VALUE}.
+ *
+ * <p>Variants are also found by SKU, barcode and inventory item id, and products by handle, in constant time through secondary indexes built on
+ * the first such lookup, see {@link ShopifyCatalogIndexes}. SKUs and barcodes shared by several variants are reported rather than resolved to
+ * one of them.
+ *
+ * <p>Snapshots are built from the paging API, see {@link com.justblackmagic.shopify.api.rest.ShopifyRestClient#getCatalogSnapshot()}, and never
+ * change once built, so they can be shared between threads and swapped atomically when a newer one is built. Updated products, e.g. from webhooks,
+ * are applied with {@link #withProducts(Collection)}, which derives a new snapshot and updates the indexes for the changed keys only.
+ */
+@Slf4j
+public final class ShopifyCatalogSnapshot {
+
+	/** Read for missing numeric values */
+	public static final long NO_VALUE = Long.MIN_VALUE;
+
+	/** Returned for ids and keys not in the snapshot */
+	public static final int NOT_FOUND = LongIntHashMap.NO_VALUE;
+
+	/** Returned for SKUs and barcodes shared by several variants */
+	public static final int AMBIGUOUS = -2;
+
+	private final int productCount;
+	private final long[] productIds;
+	private final String[] titles;
+	private final String[] handles;
+	private final String[] vendors;
+	private final String[] productTypes;
+	private final String[] statuses;
+	private final String[][] tags;
+	private final long[] productUpdatedAts;
+	private final int[] firstVariants;
+	private final LongIntHashMap productIndexes;
+
+	private final int variantCount;
+	private final long[] variantIds;
+	private final int[] variantProducts;
+	private final String[] variantTitles;
+	private final String[] skus;
+	private final String[] barcodes;
+	private final long[] unscaledPrices;
+	private final byte[] priceScales;
+	private final long[] inventoryItemIds;
+	private final long[] inventoryQuantities;
+	private final long[] variantUpdatedAts;
+	private final LongIntHashMap variantIndexes;
+
+	/** Secondary indexes, built on the first lookup that needs them */
+	private volatile ShopifyCatalogIndexes indexes;
+
+
+	/**
+	 * @param builder
+	 */
+	private ShopifyCatalogSnapshot(final Builder builder) {
+		productCount = builder.productCount;
+		productIds = builder.productIds;
+		titles = builder.titles;
+		handles = builder.handles;
+		vendors = builder.vendors;
+		productTypes = builder.productTypes;
+		statuses = builder.statuses;
+		tags = builder.tags;
+		productUpdatedAts = builder.productUpdatedAts;
+		firstVariants = builder.firstVariants;
+		productIndexes = builder.productIndexes;
+
+		variantCount = builder.variantCount;
+		variantIds = builder.variantIds;
+		variantProducts = builder.variantProducts;
+		variantTitles = builder.variantTitles;
+		skus = builder.skus;
+		barcodes = builder.barcodes;
+		unscaledPrices = builder.unscaledPrices;
+		priceScales = builder.priceScales;
+		inventoryItemIds = builder.inventoryItemIds;
+		inventoryQuantities = builder.inventoryQuantities;
+		variantUpdatedAts = builder.variantUpdatedAts;
+		variantIndexes = builder.variantIndexes;
+	}
+
+
+	/**
+	 * @return a builder to add the products of a catalog to, one at a time
+	 */
+	public static Builder builder() {
+		return new Builder();
+	}
+
+
+	/**
+	 * @return int
+	 */
+	public int getProductCount() {
+		return productCount;
+	}
+
+
+	/**
+	 * @return int
+	 */
+	public int getVariantCount() {
+		return variantCount;
+	}
+
+
+	/**
+	 * @param productId
+	 * @return the index of the product, or {@value #NOT_FOUND} if it is not in the snapshot
+	 */
+	public int indexOfProduct(final long productId) {
+		return productIndexes.get(productId);
+	}
+
+
+	/**
+	 * @param variantId
+	 * @return the index of the variant, or {@value #NOT_FOUND} if it is not in the snapshot
+	 */
+	public int indexOfVariant(final long variantId) {
+		return variantIndexes.get(variantId);
+	}
+
+
+	/**
+	 * @param sku
+	 * @return the index of the variant with the SKU, {@value #NOT_FOUND} if none has it, or {@value #AMBIGUOUS} if several have it
+	 */
+	public int indexOfVariantBySku(final String sku) {
+		return getIndexes().getSkus().indexOf(sku);
+	}
+
+
+	/**
+	 * @param sku
+	 * @return the indexes of every variant with the SKU in catalog order, none if no variant has it
+	 */
+	public int[] indexesOfVariantsBySku(final String sku) {
+		return getIndexes().getSkus().indexesOf(sku);
+	}
+
+
+	/**
+	 * @return the SKUs shared by several variants, which {@link #indexOfVariantBySku(String)} does not resolve
+	 */
+	public Set<String> getDuplicateSkus() {
+		return getIndexes().getSkus().getDuplicateKeys();
+	}
+
+
+	/**
+	 * @param barcode
+	 * @return the index of the variant with the barcode, {@value #NOT_FOUND} if none has it, or {@value #AMBIGUOUS} if several have it
+	 */
+	public int indexOfVariantByBarcode(final String barcode) {
+		return getIndexes().getBarcodes().indexOf(barcode);
+	}
+
+
+	/**
+	 * @param barcode
+	 * @return the indexes of every variant with the barcode in catalog order, none if no variant has it
+	 */
+	public int[] indexesOfVariantsByBarcode(final String barcode) {
+		return getIndexes().getBarcodes().indexesOf(barcode);
+	}
+
+
+	/**
+	 * @return the barcodes shared by several variants, which {@link #indexOfVariantByBarcode(String)} does not resolve
+	 */
+	public Set<String> getDuplicateBarcodes() {
+		return getIndexes().getBarcodes().getDuplicateKeys();
+	}
+
+
+	/**
+	 * @param inventoryItemId
+	 * @return the index of the variant of the inventory item, or {@value #NOT_FOUND} if it is not in the snapshot
+	 */
+	public int indexOfVariantByInventoryItemId(final long inventoryItemId) {
+		return getIndexes().indexOfInventoryItem(inventoryItemId);
+	}
+
+
+	/**
+	 * @param handle
+	 * @return the index of the product with the handle, or {@value #NOT_FOUND} if it is not in the snapshot
+	 */
+	public int indexOfProductByHandle(final String handle) {
+		return getIndexes().indexOfHandle(handle);
+	}
+
+
+	/**
+	 * @param product the updated or new product, e.g. from a {@code products/update} webhook
+	 * @return a snapshot with the product updated or added
+	 * @see #withProducts(Collection)
+	 */
+	public ShopifyCatalogSnapshot withProduct(final ShopifyProduct product) {
+		return withProducts(List.of(product));
+	}
+
+
+	/**
+	 * Derives a snapshot with the given products updated or added, leaving this one unchanged. Updated products keep their index; new products
+	 * are added after the others.
+	 *
+	 * <p>When every updated product keeps the same variants, which is the case for changes of prices, SKUs, barcodes, quantities, titles or tags,
+	 * the columns are copied, only the updated rows rewritten, and the secondary indexes of this snapshot, if built, are copied and updated for
+	 * the changed keys only, unless a handle or an inventory item id is shared. Adding or removing variants of a product moves the variants after
+	 * it, so the snapshot is rebuilt instead. Indexes that were not updated are built again on the first lookup.
+	 *
+	 * @param products the updated or new products; of several versions of one product, the last one is kept
+	 * @return ShopifyCatalogSnapshot
+	 */
+	public ShopifyCatalogSnapshot withProducts(final Collection<ShopifyProduct> products) {
+		final Map<Long, ShopifyProduct> productsById = new LinkedHashMap<>();
+		for (final ShopifyProduct product : products) {
+			productsById.put(parseId(product.getId(), "product"), product);
+		}
+		for (final Map.Entry<Long, ShopifyProduct> entry : productsById.entrySet()) {
+			final int product = indexOfProduct(entry.getKey());
+			if (product != NOT_FOUND && !hasSameVariants(product, entry.getValue())) {
+				return rebuiltWith(productsById);
+			}
+		}
+
+		final Builder builder = new Builder(this);
+		final List<Integer> changedProducts = new ArrayList<>(productsById.size());
+		for (final Map.Entry<Long, ShopifyProduct> entry : productsById.entrySet()) {
+			final int product = indexOfProduct(entry.getKey());
+			if (product == NOT_FOUND) {
+				changedProducts.add(builder.productCount);
+				builder.add(entry.getValue());
+			} else {
+				changedProducts.add(product);
+				builder.replace(product, entry.getValue());
+			}
+		}
+		final ShopifyCatalogSnapshot snapshot = builder.build();
+		final ShopifyCatalogIndexes builtIndexes = indexes;
+		if (builtIndexes != null) {
+			final ShopifyCatalogIndexes updatedIndexes = builtIndexes.copy();
+			if (updatedIndexes.update(this, snapshot, changedProducts)) {
+				snapshot.indexes = updatedIndexes;
+			}
+		}
+		log.debug("Updated {} products of the catalog snapshot in place", changedProducts.size());
+		return snapshot;
+	}
+
+
+	/**
+	 * @param product the index of the product
+	 * @param updatedProduct
+	 * @return true if the updated product has the variants of the product, in the same order
+	 */
+	private boolean hasSameVariants(final int product, final ShopifyProduct updatedProduct) {
+		final List<ShopifyVariant> variants = updatedProduct.getVariants() == null ? List.of() : updatedProduct.getVariants();
+		if (variants.size() != getVariantEnd(product) - getFirstVariant(product)) {
+			return false;
+		}
+		int variant = getFirstVariant(product);
+		for (final ShopifyVariant updatedVariant : variants) {
+			if (parseId(updatedVariant.getId(), "variant") != variantIds[variant++]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+
+	/**
+	 * @param productsById
+	 * @return a snapshot of the products of this one, with the given ones updated or added
+	 */
+	private ShopifyCatalogSnapshot rebuiltWith(final Map<Long, ShopifyProduct> productsById) {
+		final Map<Long, ShopifyProduct> remainingProducts = new LinkedHashMap<>(productsById);
+		final Builder builder = new Builder();
+		for (int product = 0; product < productCount; product++) {
+			final ShopifyProduct updatedProduct = remainingProducts.remove(productIds[product]);
+			if (updatedProduct == null) {
+				builder.copy(this, product);
+			} else {
+				builder.add(updatedProduct);
+			}
+		}
+		remainingProducts.values().forEach(builder::add);
+		log.debug("Rebuilt the catalog snapshot of {} products to update {} of them", productCount, productsById.size());
+		return builder.build();
+	}
+
+
+	/**
+	 * @return the secondary indexes of the snapshot
+	 */
+	private ShopifyCatalogIndexes getIndexes() {
+		ShopifyCatalogIndexes builtIndexes = indexes;
+		if (builtIndexes == null) {
+			synchronized (this) {
+				builtIndexes = indexes;
+				if (builtIndexes == null) {
+					builtIndexes = ShopifyCatalogIndexes.build(this);
+					indexes = builtIndexes;
+				}
+			}
+		}
+		return builtIndexes;
+	}
+
+
+	/**
+	 * @param product the index of the product
+	 * @return long
+	 */
+	public long getProductId(final int product) {
+		return productIds[product];
+	}
+
+
+	/**
+	 * @param product the index of the product
+	 * @return String
+	 */
+	public String getTitle(final int product) {
+		return titles[product];
+	}
+
+
+	/**
+	 * @param product the index of the product
+	 * @return String
+	 */
+	public String getHandle(final int product) {
+		return handles[product];
+	}
+
+
+	/**
+	 * @param product the index of the product
+	 * @return String
+	 */
+	public String getVendor(final int product) {
+		return vendors[product];
+	}
+
+
+	/**
+	 * @param product the index of the product
+	 * @return String
+	 */
+	public String getProductType(final int product) {
+		return productTypes[product];
+	}
+
+
+	/**
+	 * @param product the index of the product
+	 * @return String
+	 */
+	public String getStatus(final int product) {
+		return statuses[product];
+	}
+
+
+	/**
+	 * @param product the index of the product
+	 * @return the tags of the product in alphabetical order, as a read-only view
+	 */
+	public List<String> getTags(final int product) {
+		return Collections.unmodifiableList(Arrays.asList(tags[product]));
+	}
+
+
+	/**
+	 * @param product the index of the product
+	 * @param tag
+	 * @return true if the product has the tag
+	 */
+	public boolean hasTag(final int product, final String tag) {
+		return Arrays.binarySearch(tags[product], tag) >= 0;
+	}
+
+
+	/**
+	 * @param product the index of the product
+	 * @return the {@code updated_at} of the product in epoch milliseconds, or {@link #NO_VALUE}
+	 */
+	public long getProductUpdatedAt(final int product) {
+		return productUpdatedAts[product];
+	}
+
+
+	/**
+	 * @param product the index of the product
+	 * @return the index of the first variant of the product
+	 */
+	public int getFirstVariant(final int product) {
+		return firstVariants[product];
+	}
+
+
+	/**
+	 * @param product the index of the product
+	 * @return the index after the last variant of the product
+	 */
+	public int getVariantEnd(final int product) {
+		return firstVariants[product + 1];
+	}
+
+
+	/**
+	 * @param variant the index of the variant
+	 * @return long
+	 */
+	public long getVariantId(final int variant) {
+		return variantIds[variant];
+	}
+
+
+	/**
+	 * @param variant the index of the variant
+	 * @return the index of the product of the variant
+	 */
+	public int getProductOfVariant(final int variant) {
+		return variantProducts[variant];
+	}
+
+
+	/**
+	 * @param variant the index of the variant
+	 * @return String
+	 */
+	public String getVariantTitle(final int variant) {
+		return variantTitles[variant];
+	}
+
+
+	/**
+	 * @param variant the index of the variant
+	 * @return String
+	 */
+	public String getSku(final int variant) {
+		return skus[variant];
+	}
+
+
+	/**
+	 * @param variant the index of the variant
+	 * @return String
+	 */
+	public String getBarcode(final int variant) {
+		return barcodes[variant];
+	}
+
+
+	/**
+	 * @param variant the index of the variant
+	 * @return the price of the variant, or null if it has none
+	 */
+	public BigDecimal getPrice(final int variant) {
+		return unscaledPrices[variant] == NO_VALUE ? null : BigDecimal.valueOf(unscaledPrices[variant], priceScales[variant]);
+	}
+
+
+	/**
+	 * @param variant the index of the variant
+	 * @return the {@code inventory_item_id} of the variant, or {@link #NO_VALUE}
+	 */
+	public long getInventoryItemId(final int variant) {
+		return inventoryItemIds[variant];
+	}
+
+
+	/**
+	 * @param variant the index of the variant
+	 * @return the {@code inventory_quantity} of the variant, or {@link #NO_VALUE}
+	 */
+	public long getInventoryQuantity(final int variant) {
+		return inventoryQuantities[variant];
+	}
+
+
+	/**
+	 * @param variant the index of the variant
+	 * @return the {@code updated_at} of the variant in epoch milliseconds, or {@link #NO_VALUE}
+	 */
+	public long getVariantUpdatedAt(final int variant) {
+		return variantUpdatedAts[variant];
+	}
+
+
+	/**
+	 * @param id
+	 * @param resource
+	 * @return long
+	 */
+	private static long parseId(final String id, final String resource) {
+		try {
+			return Long.parseLong(id);
+		} catch (final NumberFormatException e) {
+			throw new IllegalArgumentException("The " + resource + " id " + id + " is not a Shopify id.", e);
+		}
+	}
+
+
+	/**
+	 * @param value a number, or its text, as Jackson reads untyped fields
+	 * @return long
+	 */
+	private static long toLong(final Object value) {
+		if (value == null) {
+			return NO_VALUE;
+		}
+		return value instanceof final Number number ? number.longValue() : Long.parseLong(value.toString());
+	}
+
+
+	/**
+	 * @param date
+	 * @return long
+	 */
+	private static long toEpochMilli(final Date date) {
+		return date == null ? NO_VALUE : date.getTime();
+	}
+
+
+	/**
+	 * Copies the hot fields of products into growing columns as they are added, so the products themselves can be dropped right away and building
+	 * a snapshot from a stream of pages never holds more than the current page. A builder builds one snapshot.
+	 */
+	public static final class Builder {
+
+		private static final int INITIAL_PRODUCT_CAPACITY = 256;
+		private static final int INITIAL_VARIANT_CAPACITY = 1024;
+		private static final String[] NO_TAGS = new String[0];
+		private static final String ALREADY_BUILT_MESSAGE = "The catalog snapshot was already built.";
+
+		private int productCount;
+		private long[] productIds;
+		private String[] titles;
+		private String[] handles;
+		private String[] vendors;
+		private String[] productTypes;
+		private String[] statuses;
+		private String[][] tags;
+		private long[] productUpdatedAts;
+		private int[] firstVariants;
+		private final LongIntHashMap productIndexes;
+
+		private int variantCount;
+		private long[] variantIds;
+		private int[] variantProducts;
+		private String[] variantTitles;
+		private String[] skus;
+		private String[] barcodes;
+		private long[] unscaledPrices;
+		private byte[] priceScales;
+		private long[] inventoryItemIds;
+		private long[] inventoryQuantities;
+		private long[] variantUpdatedAts;
+		private final LongIntHashMap variantIndexes;
+
+		/** Distinct values of the deduplicated fields, only needed while building */
+		private final Map<String, String> dictionary = new HashMap<>();
+		private final Map<List<String>, String[]> tagSets = new HashMap<>();
+		private boolean built;
+
+		private Builder() {
+			productIds = new long[INITIAL_PRODUCT_CAPACITY];
+			titles = new String[INITIAL_PRODUCT_CAPACITY];
+			handles = new String[INITIAL_PRODUCT_CAPACITY];
+			vendors = new String[INITIAL_PRODUCT_CAPACITY];
+			productTypes = new String[INITIAL_PRODUCT_CAPACITY];
+			statuses = new String[INITIAL_PRODUCT_CAPACITY];
+			tags = new String[INITIAL_PRODUCT_CAPACITY][];
+			productUpdatedAts = new long[INITIAL_PRODUCT_CAPACITY];
+			firstVariants = new int[INITIAL_PRODUCT_CAPACITY + 1];
+			productIndexes = new LongIntHashMap(INITIAL_PRODUCT_CAPACITY);
+
+			variantIds = new long[INITIAL_VARIANT_CAPACITY];
+			variantProducts = new int[INITIAL_VARIANT_CAPACITY];
+			variantTitles = new String[INITIAL_VARIANT_CAPACITY];
+			skus = new String[INITIAL_VARIANT_CAPACITY];
+			barcodes = new String[INITIAL_VARIANT_CAPACITY];
+			unscaledPrices = new long[INITIAL_VARIANT_CAPACITY];
+			priceScales = new byte[INITIAL_VARIANT_CAPACITY];
+			inventoryItemIds = new long[INITIAL_VARIANT_CAPACITY];
+			inventoryQuantities = new long[INITIAL_VARIANT_CAPACITY];
+			variantUpdatedAts = new long[INITIAL_VARIANT_CAPACITY];
+			variantIndexes = new LongIntHashMap(INITIAL_VARIANT_CAPACITY);
+		}
+
+
+		/**
+		 * Starts from copies of the columns and id maps of a snapshot, to replace or add products without changing it.
+		 *
+		 * @param snapshot
+		 */
+		private Builder(final ShopifyCatalogSnapshot snapshot) {
+			productCount = snapshot.productCount;
+			productIds = snapshot.productIds.clone();
+			titles = snapshot.titles.clone();
+			handles = snapshot.handles.clone();
+			vendors = snapshot.vendors.clone();
+			productTypes = snapshot.productTypes.clone();
+			statuses = snapshot.statuses.clone();
+			tags = snapshot.tags.clone();
+			productUpdatedAts = snapshot.productUpdatedAts.clone();
+			firstVariants = snapshot.firstVariants.clone();
+			productIndexes = snapshot.productIndexes.copy();
+
+			variantCount = snapshot.variantCount;
+			variantIds = snapshot.variantIds.clone();
+			variantProducts = snapshot.variantProducts.clone();
+			variantTitles = snapshot.variantTitles.clone();
+			skus = snapshot.skus.clone();
+			barcodes = snapshot.barcodes.clone();
+			unscaledPrices = snapshot.unscaledPrices.clone();
+			priceScales = snapshot.priceScales.clone();
+			inventoryItemIds = snapshot.inventoryItemIds.clone();
+			inventoryQuantities = snapshot.inventoryQuantities.clone();
+			variantUpdatedAts = snapshot.variantUpdatedAts.clone();
+			variantIndexes = snapshot.variantIndexes.copy();
+		}
+
+
+		/**
+		 * Copies the hot fields of the product and its variants. A product already added, e.g. one that moved between pages while the catalog was
+		 * paged, is skipped.
+		 *
+		 * @param product
+		 * @return true if the product was added
+		 * @throws IllegalArgumentException if the product or one of its variants has no numeric id
+		 */
+		public boolean add(final ShopifyProduct product) {
+			if (built) {
+				throw new IllegalStateException(ALREADY_BUILT_MESSAGE);
+			}
+			final long productId = parseId(product.getId(), "product");
+			if (productIndexes.putIfAbsent(productId, productCount) != NOT_FOUND) {
+				log.debug("Skipped product {} of the catalog snapshot, it was already added", productId);
+				return false;
+			}
+			ensureProductCapacity();
+			final int index = productCount++;
+			productIds[index] = productId;
+			writeProduct(index, product);
+			firstVariants[index] = variantCount;
+			if (product.getVariants() != null) {
+				for (final ShopifyVariant variant : product.getVariants()) {
+					addVariant(index, variant);
+				}
+			}
+			return true;
+		}
+
+
+		/**
+		 * @return the snapshot of the products added
+		 */
+		public ShopifyCatalogSnapshot build() {
+			if (built) {
+				throw new IllegalStateException(ALREADY_BUILT_MESSAGE);
+			}
+			built = true;
+			if (productIds.length != productCount) {
+				productIds = Arrays.copyOf(productIds, productCount);
+				titles = Arrays.copyOf(titles, productCount);
+				handles = Arrays.copyOf(handles, productCount);
+				vendors = Arrays.copyOf(vendors, productCount);
+				productTypes = Arrays.copyOf(productTypes, productCount);
+				statuses = Arrays.copyOf(statuses, productCount);
+				tags = Arrays.copyOf(tags, productCount);
+				productUpdatedAts = Arrays.copyOf(productUpdatedAts, productCount);
+				firstVariants = Arrays.copyOf(firstVariants, productCount + 1);
+			}
+			firstVariants[productCount] = variantCount;
+			productIndexes.trim();
+			if (variantIds.length != variantCount) {
+				variantIds = Arrays.copyOf(variantIds, variantCount);
+				variantProducts = Arrays.copyOf(variantProducts, variantCount);
+				variantTitles = Arrays.copyOf(variantTitles, variantCount);
+				skus = Arrays.copyOf(skus, variantCount);
+				barcodes = Arrays.copyOf(barcodes, variantCount);
+				unscaledPrices = Arrays.copyOf(unscaledPrices, variantCount);
+				priceScales = Arrays.copyOf(priceScales, variantCount);
+				inventoryItemIds = Arrays.copyOf(inventoryItemIds, variantCount);
+				inventoryQuantities = Arrays.copyOf(inventoryQuantities, variantCount);
+				variantUpdatedAts = Arrays.copyOf(variantUpdatedAts, variantCount);
+			}
+			variantIndexes.trim();
+			return new ShopifyCatalogSnapshot(this);
+		}
+
+
+		/**
+		 * Rewrites a product in place, keeping its index and the indexes of its variants.
+		 *
+		 * @param product the index of the product
+		 * @param updatedProduct a version of the product with the same variants, in the same order
+		 */
+		private void replace(final int product, final ShopifyProduct updatedProduct) {
+			writeProduct(product, updatedProduct);
+			if (updatedProduct.getVariants() != null) {
+				int variant = firstVariants[product];
+				for (final ShopifyVariant updatedVariant : updatedProduct.getVariants()) {
+					writeVariant(variant++, product, updatedVariant);
+				}
+			}
+		}
+
+
+		/**
+		 * Adds a product of another snapshot as it is.
+		 *
+		 * @param snapshot
+		 * @param product the index of the product in the snapshot
+		 */
+		private void copy(final ShopifyCatalogSnapshot snapshot, final int product) {
+			if (productIndexes.putIfAbsent(snapshot.productIds[product], productCount) != NOT_FOUND) {
+				return;
+			}
+			ensureProductCapacity();
+			final int index = productCount++;
+			productIds[index] = snapshot.productIds[product];
+			titles[index] = snapshot.titles[product];
+			handles[index] = snapshot.handles[product];
+			vendors[index] = snapshot.vendors[product];
+			productTypes[index] = snapshot.productTypes[product];
+			statuses[index] = snapshot.statuses[product];
+			tags[index] = snapshot.tags[product];
+			productUpdatedAts[index] = snapshot.productUpdatedAts[product];
+			firstVariants[index] = variantCount;
+			for (int variant = snapshot.getFirstVariant(product); variant < snapshot.getVariantEnd(product); variant++) {
+				if (variantIndexes.putIfAbsent(snapshot.variantIds[variant], variantCount) != NOT_FOUND) {
+					continue;
+				}
+				ensureVariantCapacity();
+				final int variantIndex = variantCount++;
+				variantIds[variantIndex] = snapshot.variantIds[variant];
+				variantProducts[variantIndex] = index;
+				variantTitles[variantIndex] = snapshot.variantTitles[variant];
+				skus[variantIndex] = snapshot.skus[variant];
+				barcodes[variantIndex] = snapshot.barcodes[variant];
+				unscaledPrices[variantIndex] = snapshot.unscaledPrices[variant];
+				priceScales[variantIndex] = snapshot.priceScales[variant];
+				inventoryItemIds[variantIndex] = snapshot.inventoryItemIds[variant];
+				inventoryQuantities[variantIndex] = snapshot.inventoryQuantities[variant];
+				variantUpdatedAts[variantIndex] = snapshot.variantUpdatedAts[variant];
+			}
+		}
+
+
+		/**
+		 * @param product the index of the product of the variant
+		 * @param variant
+		 */
+		private void addVariant(final int product, final ShopifyVariant variant) {
+			final long variantId = parseId(variant.getId(), "variant");
+			if (variantIndexes.putIfAbsent(variantId, variantCount) != NOT_FOUND) {
+				log.debug("Skipped variant {} of the catalog snapshot, it was already added", variantId);
+				return;
+			}
+			ensureVariantCapacity();
+			final int index = variantCount++;
+			variantIds[index] = variantId;
+			writeVariant(index, product, variant);
+		}
+
+
+		/**
+		 * @param index the index of the product
+		 * @param product
+		 */
+		private void writeProduct(final int index, final ShopifyProduct product) {
+			titles[index] = product.getTitle();
+			handles[index] = product.getHandle();
+			vendors[index] = dedupe(product.getVendor());
+			productTypes[index] = dedupe(product.getProductType());
+			statuses[index] = dedupe(product.getStatus());
+			tags[index] = dedupe(product.getTags());
+			productUpdatedAts[index] = toEpochMilli(product.getUpdatedAt());
+		}
+
+
+		/**
+		 * @param index the index of the variant
+		 * @param product the index of the product of the variant
+		 * @param variant
+		 */
+		private void writeVariant(final int index, final int product, final ShopifyVariant variant) {
+			variantProducts[index] = product;
+			variantTitles[index] = dedupe(variant.getTitle());
+			skus[index] = variant.getSku();
+			barcodes[index] = variant.getBarcode();
+			if (variant.getPrice() == null) {
+				unscaledPrices[index] = NO_VALUE;
+			} else {
+				unscaledPrices[index] = variant.getPrice().unscaledValue().longValueExact();
+				priceScales[index] = (byte) variant.getPrice().scale();
+			}
+			inventoryItemIds[index] = toLong(variant.getInventoryItemId());
+			inventoryQuantities[index] = variant.getInventoryQuantity() == null ? NO_VALUE : variant.getInventoryQuantity();
+			variantUpdatedAts[index] = toEpochMilli(variant.getUpdatedAt());
+		}
+
+
+		/**
+		 * @param value
+		 * @return the instance of the value held by the snapshot
+		 */
+		private String dedupe(final String value) {
+			return value == null ? null : dictionary.computeIfAbsent(value, v -> v);
+		}
+
+
+		/**
+		 * @param tagSet
+		 * @return the sorted tags, sharing one array between every product with the same tags
+		 */
+		private String[] dedupe(final Set<String> tagSet) {
+			if (tagSet == null || tagSet.isEmpty()) {
+				return NO_TAGS;
+			}
+			final String[] sortedTags = tagSet.stream().map(this::dedupe).sorted().toArray(String[]::new);
+			return tagSets.computeIfAbsent(List.of(sortedTags), t -> sortedTags);
+		}
+
+
+		private void ensureProductCapacity() {
+			if (productCount < productIds.length) {
+				return;
+			}
+			final int capacity = Math.max(INITIAL_PRODUCT_CAPACITY, productIds.length * 2);
+			productIds = Arrays.copyOf(productIds, capacity);
+			titles = Arrays.copyOf(titles, capacity);
+			handles = Arrays.copyOf(handles, capacity);
+			vendors = Arrays.copyOf(vendors, capacity);
+			productTypes = Arrays.copyOf(productTypes, capacity);
+			statuses = Arrays.copyOf(statuses, capacity);
+			tags = Arrays.copyOf(tags, capacity);
+			productUpdatedAts = Arrays.copyOf(productUpdatedAts, capacity);
+			firstVariants = Arrays.copyOf(firstVariants, capacity + 1);
+		}
+
+
+		private void ensureVariantCapacity() {
+			if (variantCount < variantIds.length) {
+				return;
+			}
+			final int capacity = Math.max(INITIAL_VARIANT_CAPACITY, variantIds.length * 2);
+			variantIds = Arrays.copyOf(variantIds, capacity);
+			variantProducts = Arrays.copyOf(variantProducts, capacity);
+			variantTitles = Arrays.copyOf(variantTitles, capacity);
+			skus = Arrays.copyOf(skus, capacity);
+			barcodes = Arrays.copyOf(barcodes, capacity);
+			unscaledPrices = Arrays.copyOf(unscaledPrices, capacity);
+			priceScales = Arrays.copyOf(priceScales, capacity);
+			inventoryItemIds = Arrays.copyOf(inventoryItemIds, capacity);
+			inventoryQuantities = Arrays.copyOf(inventoryQuantities, capacity);
+			variantUpdatedAts = Arrays.copyOf(variantUpdatedAts, capacity);
+		}
+	}
+
+}
@@ -0,0 +1,188 @@
+package com.justblackmagic.shopify.api.rest.catalog;
+
+import java.util.Arrays;
+
+/**
+ * Open addressing hash map from String keys to non-negative int values, the String keyed counterpart of {@link LongIntHashMap}. Entries are kept
+ * in two arrays rather than in one node per entry, and copies are two array copies.
+ */
+final class StringIntHashMap {
+
+	/** Returned for absent keys */
+	static final int NO_VALUE = -1;
+
+	private static final int MINIMUM_CAPACITY = 16;
+
+	private String[] keys;
+	private int[] values;
+	private int size;
+
+
+	/**
+	 * @param expectedSize the number of entries to make room for without resizing
+	 */
+	StringIntHashMap(final int expectedSize) {
+		final int capacity = capacityFor(expectedSize);
+		keys = new String[capacity];
+		values = new int[capacity];
+		Arrays.fill(values, NO_VALUE);
+	}
+
+
+	/**
+	 * @param key
+	 * @return the value of the key, or {@value #NO_VALUE} if it has none
+	 */
+	int get(final String key) {
+		final int slot = find(key);
+		return slot < 0 ? NO_VALUE : values[slot];
+	}
+
+
+	/**
+	 * Maps the key to the value, replacing any value it had.
+	 *
+	 * @param key
+	 * @param value a non-negative value
+	 */
+	void put(final String key, final int value) {
+		final int existing = find(key);
+		if (existing >= 0) {
+			values[existing] = value;
+			return;
+		}
+		if ((size + 1) * 2 > keys.length) {
+			resize(keys.length * 2);
+		}
+		final int mask = keys.length - 1;
+		int slot = slot(key, mask);
+		while (values[slot] != NO_VALUE) {
+			slot = (slot + 1) & mask;
+		}
+		keys[slot] = key;
+		values[slot] = value;
+		size++;
+	}
+
+
+	/**
+	 * Removes the key, moving back the entries probed past it so no tombstones are left.
+	 *
+	 * @param key
+	 * @return the value the key was mapped to, or {@value #NO_VALUE} if it had none
+	 */
+	int remove(final String key) {
+		int slot = find(key);
+		if (slot < 0) {
+			return NO_VALUE;
+		}
+		final int removed = values[slot];
+		final int mask = keys.length - 1;
+		for (int next = (slot + 1) & mask; values[next] != NO_VALUE; next = (next + 1) & mask) {
+			final int home = slot(keys[next], mask);
+			if (((next - home) & mask) >= ((next - slot) & mask)) {
+				keys[slot] = keys[next];
+				values[slot] = values[next];
+				slot = next;
+			}
+		}
+		keys[slot] = null;
+		values[slot] = NO_VALUE;
+		size--;
+		return removed;
+	}
+
+
+	/**
+	 * @return a copy of the map, to change without changing this one
+	 */
+	StringIntHashMap copy() {
+		final StringIntHashMap copy = new StringIntHashMap(0);
+		copy.keys = keys.clone();
+		copy.values = values.clone();
+		copy.size = size;
+		return copy;
+	}
+
+
+	/**
+	 * @return int
+	 */
+	int size() {
+		return size;
+	}
+
+
+	/**
+	 * Shrinks the tables to the smallest capacity keeping the load at most one half, once no more entries are added.
+	 */
+	void trim() {
+		final int capacity = capacityFor(size);
+		if (capacity < keys.length) {
+			resize(capacity);
+		}
+	}
+
+
+	/**
+	 * @param key
+	 * @return the slot of the key, or -1 if it is absent
+	 */
+	private int find(final String key) {
+		final int mask = keys.length - 1;
+		for (int slot = slot(key, mask);; slot = (slot + 1) & mask) {
+			if (values[slot] == NO_VALUE) {
+				return -1;
+			}
+			if (keys[slot].equals(key)) {
+				return slot;
+			}
+		}
+	}
+
+
+	/**
+	 * @param capacity
+	 */
+	private void resize(final int capacity) {
+		final String[] oldKeys = keys;
+		final int[] oldValues = values;
+		keys = new String[capacity];
+		values = new int[capacity];
+		Arrays.fill(values, NO_VALUE);
+		final int mask = capacity - 1;
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (oldValues[i] != NO_VALUE) {
+				int slot = slot(oldKeys[i], mask);
+				while (values[slot] != NO_VALUE) {
+					slot = (slot + 1) & mask;
+				}
+				keys[slot] = oldKeys[i];
+				values[slot] = oldValues[i];
+			}
+		}
+	}
+
+
+	/**
+	 * @param expectedSize
+	 * @return the power of two capacity keeping the load of that many entries at most one half
+	 */
+	private static int capacityFor(final int expectedSize) {
+		return Math.max(MINIMUM_CAPACITY, Integer.highestOneBit(Math.max(1, expectedSize * 2 - 1)) << 1);
+	}
+
+
+	/**
+	 * SKUs and barcodes often differ only in their last characters, so the String hash is mixed before masking.
+	 *
+	 * @param key
+	 * @param mask
+	 * @return the first slot to probe for the key
+	 */
+	private static int slot(final String key, final int mask) {
+		final int mixed = key.hashCode() * 0x9E3779B9;
+		return (mixed ^ (mixed >>> 16)) & mask;
+	}
+
+}
@@ -0,0 +1,135 @@
+package com.justblackmagic.shopify.api.rest.coalescing;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.justblackmagic.shopify.api.rest.exceptions.ShopifyClientException;
+import io.micrometer.core.instrument.Metrics;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Single-flight coalescing of identical concurrent reads of one shop, shared by all clients of the shop. The first caller of a key makes the call,
+ * and every caller arriving while it is in flight waits for and shares its result, or its failure, instead of spending another Shopify call. A burst
+ * of identical reads therefore costs a single call. Nothing is kept once the call is over: a later caller makes a new one.
+ *
+ * <p>Shared results must not be modified by the callers, so the REST client shares response bodies and deserializes them once per caller. Calls
+ * served by another caller's call are counted in the {@code shopify.rest.requests.coalesced} metric.
+ */
+@Slf4j
+public class ShopifyRequestCoalescer {
+
+	static final String METRIC_NAME = "shopify.rest.requests.coalesced";
+
+	private static final String INTERRUPTED_MESSAGE = "Interrupted while waiting for a coalesced request.";
+
+	/** Coalescers by shop, evicted after 10 minutes of inactivity to prevent memory leaks */
+	private static final Cache<String, ShopifyRequestCoalescer> COALESCERS =
+			Caffeine.newBuilder().expireAfterAccess(10, TimeUnit.MINUTES).maximumSize(10_000).build();
+
+	private final String shop;
+	private final Map<String, CompletableFuture<Object>> inFlightCalls = new ConcurrentHashMap<>();
+	private final AtomicLong coalescedCount = new AtomicLong();
+
+
+	ShopifyRequestCoalescer(final String shop) {
+		this.shop = shop;
+	}
+
+
+	/**
+	 * Returns the coalescer shared by all clients of the given shop.
+	 *
+	 * @param shop the shop subdomain (e.g. {@code my-shop.myshopify.com}) or API host
+	 * @return ShopifyRequestCoalescer
+	 */
+	public static ShopifyRequestCoalescer forShop(final String shop) {
+		return COALESCERS.get(shop, ShopifyRequestCoalescer::new);
+	}
+
+
+	/**
+	 * Read-only view of the currently active coalescers by shop, for metrics and diagnostics.
+	 *
+	 * @return Map<String, ShopifyRequestCoalescer>
+	 */
+	public static Map<String, ShopifyRequestCoalescer> getCoalescers() {
+		return Collections.unmodifiableMap(COALESCERS.asMap());
+	}
+
+
+	/**
+	 * Makes the call, or waits for the identical call already in flight. Keys must identify the call completely, e.g. by its URI, and calls
+	 * sharing a key must return the same type.
+	 *
+	 * @param key
+	 * @param call
+	 * @return the result of the call, shared with every caller that waited for it
+	 * @throws RuntimeException the failure of the call, rethrown to every caller that waited for it
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> T execute(final String key, final Supplier<T> call) {
+		final CompletableFuture<Object> ownCall = new CompletableFuture<>();
+		final CompletableFuture<Object> inFlightCall = inFlightCalls.putIfAbsent(key, ownCall);
+		if (inFlightCall != null) {
+			coalescedCount.incrementAndGet();
+			Metrics.counter(METRIC_NAME).increment();
+			log.debug("Coalesced request {} of shop {} with the one in flight", key, shop);
+			return (T) await(inFlightCall);
+		}
+		try {
+			final T result = call.get();
+			ownCall.complete(result);
+			return result;
+		} catch (final Throwable e) {
+			// Errors and sneaky thrown checked exceptions must complete the call too, or its waiters would wait forever
+			ownCall.completeExceptionally(e);
+			throw e;
+		} finally {
+			inFlightCalls.remove(key, ownCall);
+		}
+	}
+
+
+	/**
+	 * @return the number of calls currently in flight
+	 */
+	public int getInFlightCount() {
+		return inFlightCalls.size();
+	}
+
+
+	/**
+	 * @return the number of calls served by another caller's call
+	 */
+	public long getCoalescedCount() {
+		return coalescedCount.get();
+	}
+
+
+	/**
+	 * @param inFlightCall
+	 * @return the result of the call
+	 */
+	private static Object await(final CompletableFuture<Object> inFlightCall) {
+		try {
+			return inFlightCall.get();
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new ShopifyClientException(INTERRUPTED_MESSAGE, e);
+		} catch (final ExecutionException e) {
+			if (e.getCause() instanceof final RuntimeException runtimeException) {
+				throw runtimeException;
+			}
+			throw new CompletionException(e.getCause());
+		}
+	}
+
+}
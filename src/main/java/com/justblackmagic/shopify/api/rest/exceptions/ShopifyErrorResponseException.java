@@ -13,8 +13,13 @@ public class ShopifyErrorResponseException extends RuntimeException {
 	private final List<ShopifyErrorCode> shopifyErrorCodes;
 
 	public ShopifyErrorResponseException(final Response response) {
-		super(buildMessage(response));
-		this.responseBody = ResponseEntityToStringMapper.map(response);
+		this(response, ResponseEntityToStringMapper.map(response));
+	}
+
+
+	private ShopifyErrorResponseException(final Response response, final String responseBody) {
+		super(buildMessage(response, responseBody));
+		this.responseBody = responseBody;
 		this.shopifyErrorCodes = ShopifyErrorCodeFactory.create(responseBody);
 		this.statusCode = response.getStatus();
 	}
@@ -22,11 +27,11 @@ public class ShopifyErrorResponseException extends RuntimeException {
 
 	/**
 	 * @param response
+	 * @param responseBody
 	 * @return String
 	 */
-	private static String buildMessage(final Response response) {
-		final String readEntity = ResponseEntityToStringMapper.map(response);
-		return String.format(MESSAGE, response.getStatus(), response.getStringHeaders(), readEntity);
+	private static String buildMessage(final Response response, final String responseBody) {
+		return String.format(MESSAGE, response.getStatus(), response.getStringHeaders(), responseBody);
 	}
 
 
@@ -0,0 +1,328 @@
+package com.justblackmagic.shopify.api.rest.inventory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import com.justblackmagic.shopify.api.rest.ShopifyRestClient;
+import com.justblackmagic.shopify.api.rest.exceptions.ShopifyClientException;
+import com.justblackmagic.shopify.api.rest.model.ShopifyInventoryLevel;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Sends large numbers of inventory level updates of one shop, such as a warehouse feed touching thousands of SKUs.
+ *
+ * <p>Updates of the same inventory item at the same location are coalesced: {@link #submit(ShopifyInventoryUpdate)} holds each update for the
+ * coalescing window, and only the last quantity submitted for an item and location within it is sent. {@link #updateAll(Collection)} coalesces a
+ * whole batch at once. Surviving updates are sent on virtual threads, at most {@code maximumConcurrency} at a time, and every call still goes
+ * through the shop's call limit governor, so the updater never outruns the shop's API budget, it only keeps enough calls in flight to use it.
+ *
+ * <p>Every requested update gets its own {@link ShopifyInventoryUpdateResult}, also the coalesced ones, which report the update sent in their place.
+ * A failed update does not stop the others. Close the updater to send the updates still waiting for their window and wait for all calls to finish.
+ */
+@Slf4j
+public class ShopifyBulkInventoryUpdater implements AutoCloseable {
+
+	static final int DEFAULT_MAXIMUM_CONCURRENCY = 4;
+	static final long DEFAULT_COALESCING_WINDOW_MILLIS = 500L;
+
+	private static final String CLOSED_MESSAGE = "The bulk inventory updater has been closed.";
+	private static final String INVALID_MAXIMUM_CONCURRENCY_MESSAGE = "Maximum concurrency must be at least 1.";
+	private static final String INTERRUPTED_MESSAGE = "Interrupted while waiting to send inventory update.";
+
+	/**
+	 * The inventory item and location an update applies to.
+	 */
+	private record Target(String inventoryItemId, String locationId) {
+
+		static Target of(final ShopifyInventoryUpdate update) {
+			return new Target(update.inventoryItemId(), update.locationId());
+		}
+	}
+
+	/**
+	 * The updates of one target waiting to be sent, of which only the last one is.
+	 */
+	private static final class PendingUpdate {
+
+		private final List<ShopifyInventoryUpdate> requestedUpdates = new ArrayList<>();
+		private final List<CompletableFuture<ShopifyInventoryUpdateResult>> results = new ArrayList<>();
+
+		boolean isEmpty() {
+			return requestedUpdates.isEmpty();
+		}
+
+		void add(final ShopifyInventoryUpdate update, final CompletableFuture<ShopifyInventoryUpdateResult> result) {
+			requestedUpdates.add(update);
+			results.add(result);
+		}
+
+		ShopifyInventoryUpdate last() {
+			return requestedUpdates.get(requestedUpdates.size() - 1);
+		}
+
+		void complete(final ShopifyInventoryLevel inventoryLevel, final RuntimeException exception) {
+			final ShopifyInventoryUpdate sentUpdate = last();
+			for (int i = 0; i < results.size(); i++) {
+				results.get(i).complete(new ShopifyInventoryUpdateResult(requestedUpdates.get(i), sentUpdate, inventoryLevel, exception));
+			}
+		}
+
+		void completeExceptionally(final Throwable throwable) {
+			results.forEach(result -> result.completeExceptionally(throwable));
+		}
+	}
+
+	private final ShopifyRestClient shopifyRestClient;
+	private final long coalescingWindowMillis;
+	private final Semaphore permits;
+	private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+	private final Map<Target, PendingUpdate> pendingUpdates = new HashMap<>();
+	private final Map<Target, CompletableFuture<Void>> inFlightSends = new HashMap<>();
+	private final AtomicLong coalescedCount = new AtomicLong();
+	private final AtomicLong sentCount = new AtomicLong();
+	private final AtomicLong failedCount = new AtomicLong();
+	// Guards the pending and in-flight updates. A ReentrantLock rather than a monitor, as it is also taken on the virtual threads sending updates,
+	// which a monitor would pin to their carrier thread
+	private final ReentrantLock lock = new ReentrantLock();
+	private boolean closed;
+
+
+	/**
+	 * Creates an updater with a concurrency of {@value #DEFAULT_MAXIMUM_CONCURRENCY} and a coalescing window of
+	 * {@value #DEFAULT_COALESCING_WINDOW_MILLIS} milliseconds.
+	 *
+	 * @param shopifyRestClient the client of the shop to update
+	 */
+	public ShopifyBulkInventoryUpdater(final ShopifyRestClient shopifyRestClient) {
+		this(shopifyRestClient, DEFAULT_MAXIMUM_CONCURRENCY, DEFAULT_COALESCING_WINDOW_MILLIS, TimeUnit.MILLISECONDS);
+	}
+
+
+	/**
+	 * @param shopifyRestClient the client of the shop to update
+	 * @param maximumConcurrency the most updates sent at the same time
+	 * @param coalescingWindow how long a submitted update waits for later updates of the same item and location
+	 * @param timeUnit
+	 */
+	public ShopifyBulkInventoryUpdater(final ShopifyRestClient shopifyRestClient, final int maximumConcurrency, final long coalescingWindow,
+			final TimeUnit timeUnit) {
+		if (maximumConcurrency < 1) {
+			throw new IllegalArgumentException(INVALID_MAXIMUM_CONCURRENCY_MESSAGE);
+		}
+		this.shopifyRestClient = shopifyRestClient;
+		this.permits = new Semaphore(maximumConcurrency);
+		this.coalescingWindowMillis = timeUnit.toMillis(coalescingWindow);
+	}
+
+
+	/**
+	 * Queues an update, to be sent once the coalescing window of its item and location ends.
+	 *
+	 * @param update
+	 * @return the result of the update, completed once it, or a later update of the same item and location, has been sent
+	 * @throws IllegalStateException if the updater has been closed
+	 */
+	public CompletableFuture<ShopifyInventoryUpdateResult> submit(final ShopifyInventoryUpdate update) {
+		final CompletableFuture<ShopifyInventoryUpdateResult> result = new CompletableFuture<>();
+		lock.lock();
+		try {
+			if (closed) {
+				throw new IllegalStateException(CLOSED_MESSAGE);
+			}
+			final Target target = Target.of(update);
+			PendingUpdate pendingUpdate = pendingUpdates.get(target);
+			if (pendingUpdate == null) {
+				pendingUpdate = new PendingUpdate();
+				pendingUpdates.put(target, pendingUpdate);
+				CompletableFuture.delayedExecutor(coalescingWindowMillis, TimeUnit.MILLISECONDS).execute(() -> flush(target));
+			} else {
+				coalescedCount.incrementAndGet();
+			}
+			pendingUpdate.add(update, result);
+		} finally {
+			lock.unlock();
+		}
+		return result;
+	}
+
+
+	/**
+	 * Coalesces a complete batch of updates, sends the surviving ones and waits for them.
+	 *
+	 * @param updates
+	 * @return one result per requested update, in the order of the batch
+	 * @throws IllegalStateException if the updater has been closed
+	 */
+	public List<ShopifyInventoryUpdateResult> updateAll(final Collection<ShopifyInventoryUpdate> updates) {
+		final Map<Target, PendingUpdate> batch = new LinkedHashMap<>();
+		final List<CompletableFuture<ShopifyInventoryUpdateResult>> results = new ArrayList<>(updates.size());
+		for (final ShopifyInventoryUpdate update : updates) {
+			final CompletableFuture<ShopifyInventoryUpdateResult> result = new CompletableFuture<>();
+			results.add(result);
+			final PendingUpdate pendingUpdate = batch.computeIfAbsent(Target.of(update), target -> new PendingUpdate());
+			if (!pendingUpdate.isEmpty()) {
+				coalescedCount.incrementAndGet();
+			}
+			pendingUpdate.add(update, result);
+		}
+		lock.lock();
+		try {
+			if (closed) {
+				throw new IllegalStateException(CLOSED_MESSAGE);
+			}
+			batch.forEach(this::send);
+		} finally {
+			lock.unlock();
+		}
+		return results.stream().map(CompletableFuture::join).toList();
+	}
+
+
+	/**
+	 * Sends every submitted update still waiting for its coalescing window.
+	 */
+	public void flush() {
+		lock.lock();
+		try {
+			pendingUpdates.forEach(this::send);
+			pendingUpdates.clear();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+
+	/**
+	 * Sends the updates still waiting for their coalescing window and waits for every update to be sent.
+	 */
+	@Override
+	public void close() {
+		final CompletableFuture<?>[] sends;
+		lock.lock();
+		try {
+			closed = true;
+			flush();
+			sends = inFlightSends.values().toArray(CompletableFuture<?>[]::new);
+		} finally {
+			lock.unlock();
+		}
+		// Chained sends are handed to the executor as the previous send of their item and location completes, so they must all be done first
+		CompletableFuture.allOf(sends).join();
+		executor.close();
+		log.debug("Bulk inventory updater closed after sending {} updates, {} failed and {} coalesced", sentCount.get(), failedCount.get(),
+				coalescedCount.get());
+	}
+
+
+	/**
+	 * @return the number of requested updates replaced by a later update of the same item and location
+	 */
+	public long getCoalescedCount() {
+		return coalescedCount.get();
+	}
+
+
+	/**
+	 * @return the number of updates Shopify accepted
+	 */
+	public long getSentCount() {
+		return sentCount.get();
+	}
+
+
+	/**
+	 * @return the number of updates that failed
+	 */
+	public long getFailedCount() {
+		return failedCount.get();
+	}
+
+
+	/**
+	 * @param target
+	 */
+	private void flush(final Target target) {
+		lock.lock();
+		try {
+			final PendingUpdate pendingUpdate = pendingUpdates.remove(target);
+			if (pendingUpdate != null) {
+				send(target, pendingUpdate);
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+
+	/**
+	 * Only called while holding the lock, so no update can be handed to the executor after {@link #close()} shut it down. The sends of one item and
+	 * location are chained, so a window that opened while the previous one was still being sent cannot overtake it, and the last update wins. A
+	 * send that failed does not break the chain, the next one still runs after it.
+	 *
+	 * @param target
+	 * @param pendingUpdate
+	 */
+	private void send(final Target target, final PendingUpdate pendingUpdate) {
+		final CompletableFuture<Void> previousSend = inFlightSends.get(target);
+		final CompletableFuture<Void> send = previousSend == null ? CompletableFuture.runAsync(() -> sendNow(pendingUpdate), executor)
+				: previousSend.<Void> handleAsync((ignored, exception) -> {
+					sendNow(pendingUpdate);
+					return null;
+				}, executor);
+		inFlightSends.put(target, send);
+		send.whenComplete((ignored, exception) -> {
+			lock.lock();
+			try {
+				inFlightSends.remove(target, send);
+			} finally {
+				lock.unlock();
+			}
+		});
+	}
+
+
+	/**
+	 * Completes the results of the update whatever happens, also on an {@link Error}, which is passed to them rather than thrown, so no caller
+	 * waits forever.
+	 *
+	 * @param pendingUpdate
+	 */
+	private void sendNow(final PendingUpdate pendingUpdate) {
+		final ShopifyInventoryUpdate update = pendingUpdate.last();
+		try {
+			permits.acquire();
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			failedCount.incrementAndGet();
+			pendingUpdate.complete(null, new ShopifyClientException(INTERRUPTED_MESSAGE, e));
+			return;
+		}
+		try {
+			final ShopifyInventoryLevel inventoryLevel =
+					shopifyRestClient.updateInventoryLevel(update.inventoryItemId(), update.locationId(), update.quantity());
+			sentCount.incrementAndGet();
+			pendingUpdate.complete(inventoryLevel, null);
+		} catch (final RuntimeException e) {
+			failedCount.incrementAndGet();
+			log.warn("Inventory update of item {} at location {} failed", update.inventoryItemId(), update.locationId(), e);
+			pendingUpdate.complete(null, e);
+		} catch (final Throwable t) {
+			failedCount.incrementAndGet();
+			log.error("Inventory update of item {} at location {} failed", update.inventoryItemId(), update.locationId(), t);
+			pendingUpdate.completeExceptionally(t);
+		} finally {
+			permits.release();
+		}
+	}
+
+}
@@ -0,0 +1,11 @@
+package com.justblackmagic.shopify.api.rest.inventory;
+
+/**
+ * Sets the available quantity of an inventory item at a location.
+ *
+ * @param inventoryItemId
+ * @param locationId
+ * @param quantity the new available quantity
+ */
+public record ShopifyInventoryUpdate(String inventoryItemId, String locationId, long quantity) {
+}
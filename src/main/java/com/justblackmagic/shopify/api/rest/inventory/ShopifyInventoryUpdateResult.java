@@ -0,0 +1,31 @@
+package com.justblackmagic.shopify.api.rest.inventory;
+
+import com.justblackmagic.shopify.api.rest.model.ShopifyInventoryLevel;
+
+/**
+ * The outcome of one requested inventory update.
+ *
+ * @param requestedUpdate the update as it was requested
+ * @param sentUpdate the update actually sent to Shopify, a later update of the same item and location if the requested one was coalesced
+ * @param inventoryLevel the inventory level returned by Shopify, or null if the update failed
+ * @param exception why the update failed, or null if it succeeded
+ */
+public record ShopifyInventoryUpdateResult(ShopifyInventoryUpdate requestedUpdate, ShopifyInventoryUpdate sentUpdate,
+		ShopifyInventoryLevel inventoryLevel, RuntimeException exception) {
+
+	/**
+	 * @return true if Shopify accepted the update
+	 */
+	public boolean isSuccessful() {
+		return exception == null;
+	}
+
+
+	/**
+	 * @return true if the requested update was replaced by a later update of the same item and location before being sent
+	 */
+	public boolean isCoalesced() {
+		return requestedUpdate != sentUpdate;
+	}
+
+}
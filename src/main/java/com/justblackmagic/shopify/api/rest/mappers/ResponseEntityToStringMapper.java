@@ -1,8 +1,12 @@
 package com.justblackmagic.shopify.api.rest.mappers;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
-import org.apache.commons.io.IOUtils;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import jakarta.ws.rs.core.Response;
@@ -11,22 +15,31 @@ public class ResponseEntityToStringMapper {
 
 	private static final Logger LOGGER = LoggerFactory.getLogger(ResponseEntityToStringMapper.class);
 
+	/** Most bytes of a response body that are read, so a huge error page cannot exhaust the heap. */
+	static final int MAXIMUM_BODY_BYTES = 64 * 1024;
+	static final String TRUNCATED_MARKER = "...[truncated]";
+
+	/** Bodies already read, by response, as the entity stream can only be consumed once */
+	private static final Map<Response, String> BODIES = Collections.synchronizedMap(new WeakHashMap<>());
+
 	private ResponseEntityToStringMapper() {}
 
 	/**
-	 * JAXRS Jersey Client implementation closes stream buffers when reading entity by string. To combat this and be able to read entities via a
-	 * string more than once, this deals with the input streams involved and resets where necessary.
+	 * Reads the body of a response as a string, at most {@value #MAXIMUM_BODY_BYTES} bytes of it. The entity stream is consumed and closed on the
+	 * first call, and later calls for the same response return the same string, so error bodies can be inspected more than once without buffering
+	 * the whole entity.
 	 *
 	 * @param response
-	 * @return
+	 * @return the body, cut short with {@value #TRUNCATED_MARKER} if too long, or null if it could not be read
 	 */
 	public static String map(final Response response) {
-
-		try {
-			response.bufferEntity();
-			final InputStream entityBytes = (InputStream) response.getEntity();
-			final String responseBody = IOUtils.toString(entityBytes, StandardCharsets.UTF_8.toString());
-			entityBytes.reset();
+		final String cachedBody = BODIES.get(response);
+		if (cachedBody != null) {
+			return cachedBody;
+		}
+		try (final InputStream entityStream = response.readEntity(InputStream.class)) {
+			final String responseBody = entityStream == null ? "" : readBounded(entityStream);
+			BODIES.put(response, responseBody);
 			return responseBody;
 		} catch (final Exception e) {
 			LOGGER.error("There was an error parsing response body on response with status {}, returning null", response.getStatus());
@@ -34,4 +47,18 @@ public class ResponseEntityToStringMapper {
 		}
 	}
 
+
+	/**
+	 * @param entityStream
+	 * @return String
+	 * @throws IOException
+	 */
+	private static String readBounded(final InputStream entityStream) throws IOException {
+		final byte[] bytes = entityStream.readNBytes(MAXIMUM_BODY_BYTES + 1);
+		if (bytes.length <= MAXIMUM_BODY_BYTES) {
+			return new String(bytes, StandardCharsets.UTF_8);
+		}
+		return new String(Arrays.copyOf(bytes, MAXIMUM_BODY_BYTES), StandardCharsets.UTF_8) + TRUNCATED_MARKER;
+	}
+
 }
@@ -0,0 +1,51 @@
+package com.justblackmagic.shopify.api.rest.mappers;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import org.glassfish.jersey.jackson.internal.jackson.jaxrs.json.JacksonJaxbJsonProvider;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.MultivaluedMap;
+
+/**
+ * Jersey Jackson provider that reads and writes the Shopify root types with the prebuilt readers and writers of a
+ * {@link ShopifyObjectReaderRegistry}, skipping the generic provider's per call lookups. Every other type is left to the generic provider, on the
+ * same mapper.
+ */
+public class ShopifyJacksonJsonProvider extends JacksonJaxbJsonProvider {
+
+	private final ShopifyObjectReaderRegistry registry;
+
+
+	/**
+	 * @param registry
+	 */
+	public ShopifyJacksonJsonProvider(final ShopifyObjectReaderRegistry registry) {
+		this.registry = registry;
+		setMapper(registry.getObjectMapper());
+	}
+
+
+	@Override
+	public Object readFrom(final Class<Object> type, final Type genericType, final Annotation[] annotations, final MediaType mediaType,
+			final MultivaluedMap<String, String> httpHeaders, final InputStream entityStream) throws IOException {
+		if (genericType != type || !ShopifyObjectReaderRegistry.isRootType(type)) {
+			return super.readFrom(type, genericType, annotations, mediaType, httpHeaders, entityStream);
+		}
+		return registry.readerFor(type).readValue(entityStream);
+	}
+
+
+	@Override
+	public void writeTo(final Object value, final Class<?> type, final Type genericType, final Annotation[] annotations, final MediaType mediaType,
+			final MultivaluedMap<String, Object> httpHeaders, final OutputStream entityStream) throws IOException {
+		if (genericType != type || !ShopifyObjectReaderRegistry.isRootType(type)) {
+			super.writeTo(value, type, genericType, annotations, mediaType, httpHeaders, entityStream);
+			return;
+		}
+		registry.writerFor(type).writeValue(entityStream, value);
+	}
+
+}
@@ -0,0 +1,57 @@
+package com.justblackmagic.shopify.api.rest.mappers;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.Consumer;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+/**
+ * Reads the elements of one array field of a Shopify REST response body, such as the {@code orders} array of {@code {"orders": [...]}}, one element
+ * at a time straight from the response stream. Each element is bound and handed to a callback before the next one is parsed, so only a single
+ * element is ever held in memory, instead of the whole page and its object graph.
+ *
+ * <p>Elements are bound with the reader the caller resolves from its {@link ShopifyObjectReaderRegistry}, so they are read with the client's
+ * {@link ShopifyJsonMapping}, like the bodies the JSON provider reads.
+ *
+ * @author justblackmagic
+ */
+public class ShopifyJsonArrayReader {
+
+	private ShopifyJsonArrayReader() {}
+
+
+	/**
+	 * @param inputStream the response body, left open for the caller to close
+	 * @param arrayFieldName the name of the top level array field
+	 * @param elementReader the reader each array element is bound with
+	 * @param action called with each element, in order
+	 * @return the number of elements read, 0 if the body has no such field
+	 * @throws IOException if the body cannot be read or is not valid JSON
+	 */
+	public static <T> int readArray(final InputStream inputStream, final String arrayFieldName, final ObjectReader elementReader,
+			final Consumer<? super T> action) throws IOException {
+		int count = 0;
+		try (final JsonParser parser = elementReader.createParser(inputStream)) {
+			if (parser.nextToken() != JsonToken.START_OBJECT) {
+				return 0;
+			}
+			while (parser.nextToken() == JsonToken.FIELD_NAME) {
+				final String fieldName = parser.currentName();
+				final JsonToken valueToken = parser.nextToken();
+				if (!arrayFieldName.equals(fieldName) || valueToken != JsonToken.START_ARRAY) {
+					parser.skipChildren();
+					continue;
+				}
+				while (parser.nextToken() == JsonToken.START_OBJECT) {
+					final T element = elementReader.readValue(parser);
+					action.accept(element);
+					count++;
+				}
+			}
+		}
+		return count;
+	}
+
+}
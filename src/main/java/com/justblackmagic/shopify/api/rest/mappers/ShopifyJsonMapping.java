@@ -0,0 +1,21 @@
+package com.justblackmagic.shopify.api.rest.mappers;
+
+/**
+ * How the Jersey based {@link com.justblackmagic.shopify.api.rest.ShopifyRestClient} maps JSON to and from the Shopify model. Each mapping is backed
+ * by its own shared, pooled Jersey client, so clients of both can run side by side.
+ */
+public enum ShopifyJsonMapping {
+
+	/**
+	 * Property names are matched case-insensitively, through the generic Jersey Jackson provider and reflection. The historical behavior.
+	 */
+	COMPATIBLE,
+
+	/**
+	 * Property names are matched exactly, as Shopify's snake_case names are stable, which is considerably cheaper. The readers and writers of every
+	 * Shopify root type are built when the transport is created rather than on first use, and properties are accessed through generated
+	 * lambdas instead of reflection (the Jackson Blackbird module).
+	 */
+	PRECOMPILED
+
+}
@@ -0,0 +1,140 @@
+package com.justblackmagic.shopify.api.rest.mappers;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.justblackmagic.shopify.api.rest.model.Count;
+import com.justblackmagic.shopify.api.rest.model.MetafieldRoot;
+import com.justblackmagic.shopify.api.rest.model.MetafieldsRoot;
+import com.justblackmagic.shopify.api.rest.model.ShopifyAccessTokenRoot;
+import com.justblackmagic.shopify.api.rest.model.ShopifyAdjustmentsRoot;
+import com.justblackmagic.shopify.api.rest.model.ShopifyCustomCollectionRoot;
+import com.justblackmagic.shopify.api.rest.model.ShopifyCustomCollectionsRoot;
+import com.justblackmagic.shopify.api.rest.model.ShopifyCustomerRoot;
+import com.justblackmagic.shopify.api.rest.model.ShopifyCustomerUpdateRoot;
+import com.justblackmagic.shopify.api.rest.model.ShopifyCustomersRoot;
+import com.justblackmagic.shopify.api.rest.model.ShopifyErrorsRoot;
+import com.justblackmagic.shopify.api.rest.model.ShopifyFulfillmentRoot;
+import com.justblackmagic.shopify.api.rest.model.ShopifyGiftCardRoot;
+import com.justblackmagic.shopify.api.rest.model.ShopifyImageRoot;
+import com.justblackmagic.shopify.api.rest.model.ShopifyInventoryLevelRoot;
+import com.justblackmagic.shopify.api.rest.model.ShopifyLocationsRoot;
+import com.justblackmagic.shopify.api.rest.model.ShopifyOrderRisksRoot;
+import com.justblackmagic.shopify.api.rest.model.ShopifyOrderRoot;
+import com.justblackmagic.shopify.api.rest.model.ShopifyOrderUpdateRoot;
+import com.justblackmagic.shopify.api.rest.model.ShopifyOrdersRoot;
+import com.justblackmagic.shopify.api.rest.model.ShopifyProductRoot;
+import com.justblackmagic.shopify.api.rest.model.ShopifyProductVariantImagesUpdateRoot;
+import com.justblackmagic.shopify.api.rest.model.ShopifyProductsRoot;
+import com.justblackmagic.shopify.api.rest.model.ShopifyRecurringApplicationChargeRoot;
+import com.justblackmagic.shopify.api.rest.model.ShopifyRefundRoot;
+import com.justblackmagic.shopify.api.rest.model.ShopifyShop;
+import com.justblackmagic.shopify.api.rest.model.ShopifyTransactionsRoot;
+import com.justblackmagic.shopify.api.rest.model.ShopifyVariantRoot;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * The {@link ObjectReader}s and {@link ObjectWriter}s of the Shopify root types, the request and response bodies of the REST API, built once per
+ * {@link ShopifyJsonMapping} and shared. Readers and writers resolve their (de)serializers when they are built, so with
+ * {@link ShopifyJsonMapping#PRECOMPILED} every root type is built when the registry is created, and no request pays for introspecting the model.
+ * Other types are built on first use and cached.
+ *
+ * <p>Readers and writers leave the streams they are given open, like the Jersey Jackson provider, as Jersey closes entity streams itself.
+ */
+@Slf4j
+public final class ShopifyObjectReaderRegistry {
+
+	/** The request and response bodies of the Shopify REST API */
+	static final List<Class<?>> ROOT_TYPES = List.of(Count.class, MetafieldRoot.class, MetafieldsRoot.class, ShopifyAccessTokenRoot.class,
+			ShopifyAdjustmentsRoot.class, ShopifyCustomCollectionRoot.class, ShopifyCustomCollectionsRoot.class, ShopifyCustomerRoot.class,
+			ShopifyCustomerUpdateRoot.class, ShopifyCustomersRoot.class, ShopifyErrorsRoot.class, ShopifyFulfillmentRoot.class,
+			ShopifyGiftCardRoot.class, ShopifyImageRoot.class, ShopifyInventoryLevelRoot.class, ShopifyLocationsRoot.class,
+			ShopifyOrderRisksRoot.class, ShopifyOrderRoot.class, ShopifyOrderUpdateRoot.class, ShopifyOrdersRoot.class, ShopifyProductRoot.class,
+			ShopifyProductVariantImagesUpdateRoot.class, ShopifyProductsRoot.class, ShopifyRecurringApplicationChargeRoot.class,
+			ShopifyRefundRoot.class, ShopifyShop.class, ShopifyTransactionsRoot.class, ShopifyVariantRoot.class);
+
+	private static final Set<Class<?>> ROOT_TYPE_SET = Set.copyOf(ROOT_TYPES);
+
+	private static final Map<ShopifyJsonMapping, ShopifyObjectReaderRegistry> REGISTRIES = new ConcurrentHashMap<>();
+
+	private final ShopifyJsonMapping jsonMapping;
+	private final ObjectMapper objectMapper;
+	private final Map<Class<?>, ObjectReader> readers = new ConcurrentHashMap<>();
+	private final Map<Class<?>, ObjectWriter> writers = new ConcurrentHashMap<>();
+
+
+	/**
+	 * @param jsonMapping
+	 */
+	private ShopifyObjectReaderRegistry(final ShopifyJsonMapping jsonMapping) {
+		this.jsonMapping = jsonMapping;
+		this.objectMapper = ShopifySdkObjectMapper.buildMapper(jsonMapping);
+		if (jsonMapping == ShopifyJsonMapping.PRECOMPILED) {
+			final long start = System.nanoTime();
+			ROOT_TYPES.forEach(type -> {
+				readerFor(type);
+				writerFor(type);
+			});
+			log.info("Built the readers and writers of {} Shopify root types in {} ms", ROOT_TYPES.size(), (System.nanoTime() - start) / 1_000_000);
+		}
+	}
+
+
+	/**
+	 * @param jsonMapping
+	 * @return the shared registry of the mapping, created on first use
+	 */
+	public static ShopifyObjectReaderRegistry forMapping(final ShopifyJsonMapping jsonMapping) {
+		return REGISTRIES.computeIfAbsent(jsonMapping, ShopifyObjectReaderRegistry::new);
+	}
+
+
+	/**
+	 * @param type
+	 * @return true if the type is the request or response body of a Shopify REST call
+	 */
+	public static boolean isRootType(final Class<?> type) {
+		return ROOT_TYPE_SET.contains(type);
+	}
+
+
+	/**
+	 * @return ShopifyJsonMapping
+	 */
+	public ShopifyJsonMapping getJsonMapping() {
+		return jsonMapping;
+	}
+
+
+	/**
+	 * @return the mapper the readers and writers are built from
+	 */
+	public ObjectMapper getObjectMapper() {
+		return objectMapper;
+	}
+
+
+	/**
+	 * @param type
+	 * @return ObjectReader
+	 */
+	public ObjectReader readerFor(final Class<?> type) {
+		return readers.computeIfAbsent(type, key -> objectMapper.readerFor(key).without(JsonParser.Feature.AUTO_CLOSE_SOURCE));
+	}
+
+
+	/**
+	 * @param type
+	 * @return ObjectWriter
+	 */
+	public ObjectWriter writerFor(final Class<?> type) {
+		return writers.computeIfAbsent(type, key -> objectMapper.writerFor(key).without(JsonGenerator.Feature.AUTO_CLOSE_TARGET));
+	}
+
+}
@@ -7,6 +7,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.json.JsonMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
 
 
 /**
@@ -26,8 +27,17 @@ public class ShopifySdkObjectMapper {
 	 *
 	 */
 	public static ObjectMapper buildMapper() {
+		return buildMapper(ShopifyJsonMapping.COMPATIBLE);
+	}
+
+
+	/**
+	 * @param jsonMapping
+	 * @return ObjectMapper
+	 */
+	public static ObjectMapper buildMapper(final ShopifyJsonMapping jsonMapping) {
 		ObjectMapper objectMapper = JsonMapper.builder()
-				.enable(MapperFeature.ACCEPT_CASE_INSENSITIVE_PROPERTIES)
+				.configure(MapperFeature.ACCEPT_CASE_INSENSITIVE_PROPERTIES, jsonMapping == ShopifyJsonMapping.COMPATIBLE)
 				.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
 				.configure(SerializationFeature.FAIL_ON_EMPTY_BEANS, false)
 				.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
@@ -35,6 +45,9 @@ public class ShopifySdkObjectMapper {
 				.serializationInclusion(Include.NON_NULL)
 				.build();
 		objectMapper.registerModule(new JavaTimeModule());
+		if (jsonMapping == ShopifyJsonMapping.PRECOMPILED) {
+			objectMapper.registerModule(new BlackbirdModule());
+		}
 		return objectMapper;
 	}
 }
@@ -0,0 +1,17 @@
+package com.justblackmagic.shopify.api.rest.model;
+
+import java.util.LinkedList;
+import java.util.List;
+import lombok.Data;
+
+/**
+ * Product update that only maps images to variants. Every variant of the product is listed by id, so Shopify keeps them all, but only the
+ * variants whose image changes carry an image id, and no other product or variant field is sent.
+ */
+@Data
+public class ShopifyProductVariantImagesUpdate {
+
+	private String id;
+	private List<ShopifyVariantImageUpdate> variants = new LinkedList<>();
+
+}
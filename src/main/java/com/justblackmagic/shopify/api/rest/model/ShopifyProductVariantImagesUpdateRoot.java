@@ -0,0 +1,10 @@
+package com.justblackmagic.shopify.api.rest.model;
+
+import lombok.Data;
+
+@Data
+public class ShopifyProductVariantImagesUpdateRoot {
+
+	private ShopifyProductVariantImagesUpdate product;
+
+}
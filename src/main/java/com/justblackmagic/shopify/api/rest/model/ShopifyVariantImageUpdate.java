@@ -0,0 +1,21 @@
+package com.justblackmagic.shopify.api.rest.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A variant of a {@link ShopifyProductVariantImagesUpdate}, which only carries an image id when the variant's image changes.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ShopifyVariantImageUpdate {
+
+	private String id;
+
+	@JsonProperty("image_id")
+	private String imageId;
+
+}
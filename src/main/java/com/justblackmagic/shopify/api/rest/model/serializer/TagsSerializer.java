@@ -31,20 +31,19 @@ public class TagsSerializer extends StdSerializer<Set<String>> {
     public void serialize(Set<String> value, JsonGenerator gen, SerializerProvider provider) throws IOException {
         if ((value == null) || value.isEmpty()) {
             gen.writeNull();
+            return;
         }
 
+        // The property name has already been written by the bean serializer, only the value is written here
         final StringBuilder tagStringBuilder = new StringBuilder();
-        if (value != null) {
-            final Iterator<String> tagIterator = value.iterator();
-            while (tagIterator.hasNext()) {
-                final String tag = tagIterator.next();
-                tagStringBuilder.append(tag);
-                if (tagIterator.hasNext()) {
-                    tagStringBuilder.append(TAG_SERIALIZATION_DELIMITTER);
-                }
+        final Iterator<String> tagIterator = value.iterator();
+        while (tagIterator.hasNext()) {
+            final String tag = tagIterator.next();
+            tagStringBuilder.append(tag);
+            if (tagIterator.hasNext()) {
+                tagStringBuilder.append(TAG_SERIALIZATION_DELIMITTER);
             }
         }
-        gen.writeFieldName("tags");
         gen.writeString(tagStringBuilder.toString());
     }
 
@@ -0,0 +1,100 @@
+package com.justblackmagic.shopify.api.rest.projection;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+import com.justblackmagic.shopify.api.rest.mappers.ShopifySdkObjectMapper;
+
+/**
+ * A partial view of a REST resource: the class list elements are bound to, and the fields Shopify is asked to return for them in the {@code fields}
+ * query parameter. Sync jobs that only need a few fields of each order or product can page through a small DTO of their own instead of the full
+ * model, so Shopify sends, and the client parses, only those fields.
+ *
+ * <p>Shopify only projects top level fields: {@code variants} can be selected, but not {@code variants.sku}, so a nested field brings its whole
+ * parent object. Nested names are cut back to their top level field.
+ *
+ * @param <T> the partial DTO
+ * @author justblackmagic
+ */
+public final class ShopifyProjection<T> {
+
+	private static final ObjectMapper MAPPER = ShopifySdkObjectMapper.buildMapper();
+	private static final char NESTED_FIELD_SEPARATOR = '.';
+
+	private final Class<T> type;
+	private final String fields;
+
+
+	/**
+	 * @param type
+	 * @param fields
+	 */
+	private ShopifyProjection(final Class<T> type, final Set<String> fields) {
+		if (fields.isEmpty()) {
+			throw new IllegalArgumentException("A projection to " + type.getName() + " needs at least one field.");
+		}
+		this.type = type;
+		this.fields = String.join(",", fields);
+	}
+
+
+	/**
+	 * Projects to every JSON property of the DTO, as named by its {@code @JsonProperty} annotations.
+	 *
+	 * @param type the partial DTO, with a property for each field to fetch
+	 * @return ShopifyProjection<T>
+	 */
+	public static <T> ShopifyProjection<T> of(final Class<T> type) {
+		final Set<String> fields = MAPPER.getDeserializationConfig().introspect(MAPPER.constructType(type)).findProperties().stream()
+				.filter(BeanPropertyDefinition::couldDeserialize).map(BeanPropertyDefinition::getName)
+				.collect(Collectors.toCollection(LinkedHashSet::new));
+		return new ShopifyProjection<>(type, fields);
+	}
+
+
+	/**
+	 * @param type the class elements are bound to, which may also be a full model such as {@code ShopifyOrder}
+	 * @param fields the Shopify field names, such as {@code id} or {@code updated_at}
+	 * @return ShopifyProjection<T>
+	 */
+	public static <T> ShopifyProjection<T> of(final Class<T> type, final String... fields) {
+		return new ShopifyProjection<>(type, Arrays.stream(fields).map(ShopifyProjection::topLevelField)
+				.filter(field -> !field.isEmpty()).collect(Collectors.toCollection(LinkedHashSet::new)));
+	}
+
+
+	/**
+	 * @return Class<T>
+	 */
+	public Class<T> getType() {
+		return type;
+	}
+
+
+	/**
+	 * @return the value of the {@code fields} query parameter, a comma separated list of field names
+	 */
+	public String getFields() {
+		return fields;
+	}
+
+
+	@Override
+	public String toString() {
+		return type.getSimpleName() + "[" + fields + "]";
+	}
+
+
+	/**
+	 * @param field
+	 * @return the top level field of a possibly nested field name
+	 */
+	private static String topLevelField(final String field) {
+		final int separator = field.indexOf(NESTED_FIELD_SEPARATOR);
+		return (separator < 0 ? field : field.substring(0, separator)).trim();
+	}
+
+}
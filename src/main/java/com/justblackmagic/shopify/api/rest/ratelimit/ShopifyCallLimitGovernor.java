@@ -0,0 +1,249 @@
+package com.justblackmagic.shopify.api.rest.ratelimit;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import org.apache.commons.lang3.StringUtils;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.justblackmagic.shopify.api.rest.exceptions.ShopifyClientException;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Proactive, per-shop call budget governor for the Shopify REST Admin API.
+ *
+ * <p>Shopify enforces REST rate limits with a leaky bucket per app and shop. Every response carries the current bucket state in the
+ * {@value #CALL_LIMIT_HEADER} header (for example {@code 32/40}). This governor models that bucket locally: each outgoing call reserves a slot, the
+ * bucket drains at the shop's leak rate, and callers are paced so the bucket never fills up. The local model is corrected from the header on every
+ * response, so calls made by other client instances or other nodes for the same shop are taken into account.
+ *
+ * <p>Governors are shared by every client instance for the same shop through {@link #forShop(String)}. Idle governors are evicted after 10 minutes.
+ */
+@Slf4j
+public class ShopifyCallLimitGovernor {
+
+	public static final String CALL_LIMIT_HEADER = "X-Shopify-Shop-Api-Call-Limit";
+
+	/** Bucket size for a standard Shopify plan. Larger plans report a larger size in the call limit header. */
+	static final int DEFAULT_BUCKET_CAPACITY = 40;
+
+	/** Shopify drains the bucket completely in 20 seconds on every plan (40 at 2/s, 400 at 20/s). */
+	static final double SECONDS_TO_DRAIN_FULL_BUCKET = 20.0d;
+
+	/** Slots kept free so calls from other nodes or apps racing ours do not tip the bucket over. */
+	static final int DEFAULT_HEADROOM = 2;
+
+	private static final int TOO_MANY_REQUESTS_STATUS_CODE = 429;
+	private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+	private static final String INTERRUPTED_MESSAGE = "Interrupted while waiting for Shopify call budget for shop %s";
+
+	/** Governors by shop, evicted after 10 minutes of inactivity to prevent memory leaks */
+	private static final Cache<String, ShopifyCallLimitGovernor> GOVERNORS =
+			Caffeine.newBuilder().expireAfterAccess(10, TimeUnit.MINUTES).maximumSize(10_000).build();
+
+	private final String shop;
+	private final LongSupplier nanoClock;
+	private final int headroom;
+
+	private int capacity = DEFAULT_BUCKET_CAPACITY;
+	private double leakRatePerSecond = DEFAULT_BUCKET_CAPACITY / SECONDS_TO_DRAIN_FULL_BUCKET;
+	private double level;
+	private long lastLeakNanos;
+
+	private long callCount;
+	private long throttledCallCount;
+	private long totalWaitNanos;
+	private long tooManyRequestsCount;
+
+
+	ShopifyCallLimitGovernor(final String shop, final LongSupplier nanoClock, final int headroom) {
+		this.shop = shop;
+		this.nanoClock = nanoClock;
+		this.headroom = headroom;
+		this.lastLeakNanos = nanoClock.getAsLong();
+	}
+
+
+	/**
+	 * Returns the governor shared by all clients of the given shop.
+	 *
+	 * @param shop the shop subdomain (e.g. {@code my-shop.myshopify.com}) or API host
+	 * @return ShopifyCallLimitGovernor
+	 */
+	public static ShopifyCallLimitGovernor forShop(final String shop) {
+		return GOVERNORS.get(shop, key -> new ShopifyCallLimitGovernor(key, System::nanoTime, DEFAULT_HEADROOM));
+	}
+
+
+	/**
+	 * Read-only view of the currently active governors by shop, for metrics and diagnostics.
+	 *
+	 * @return Map<String, ShopifyCallLimitGovernor>
+	 */
+	public static Map<String, ShopifyCallLimitGovernor> getGovernors() {
+		return Collections.unmodifiableMap(GOVERNORS.asMap());
+	}
+
+
+	/**
+	 * Reserves a slot in the bucket for one call, blocking until the bucket has drained far enough to send it.
+	 */
+	public void acquire() {
+		final long waitNanos = reserve();
+		if (waitNanos > 0) {
+			try {
+				TimeUnit.NANOSECONDS.sleep(waitNanos);
+			} catch (final InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new ShopifyClientException(String.format(INTERRUPTED_MESSAGE, shop), e);
+			}
+		}
+	}
+
+
+	/**
+	 * Reserves a slot in the bucket for one call without waiting. The caller must delay the call by the returned number of nanoseconds. Reservations
+	 * accumulate, so concurrent callers receive staggered delays and are paced at the bucket's drain rate.
+	 *
+	 * @return the number of nanoseconds to wait before sending the call, zero if it can be sent right away
+	 */
+	public synchronized long reserve() {
+		leak();
+		callCount++;
+		final double ceiling = Math.max(1, capacity - headroom);
+		final double overflow = (level + 1) - ceiling;
+		level++;
+		if (overflow <= 0) {
+			return 0L;
+		}
+		final long waitNanos = (long) Math.ceil(overflow / leakRatePerSecond * NANOS_PER_SECOND);
+		throttledCallCount++;
+		totalWaitNanos += waitNanos;
+		log.debug("Pacing call to shop {} by {} ms, bucket level {} of {}", shop, TimeUnit.NANOSECONDS.toMillis(waitNanos), level, capacity);
+		return waitNanos;
+	}
+
+
+	/**
+	 * Corrects the local bucket model from a Shopify response.
+	 *
+	 * @param callLimitHeader the value of the {@value #CALL_LIMIT_HEADER} response header, may be null
+	 * @param status the response status code
+	 */
+	public synchronized void onResponse(final String callLimitHeader, final int status) {
+		leak();
+		if (TOO_MANY_REQUESTS_STATUS_CODE == status) {
+			tooManyRequestsCount++;
+			level = Math.max(level, capacity);
+		}
+		if (StringUtils.isBlank(callLimitHeader)) {
+			return;
+		}
+		final String[] parts = callLimitHeader.trim().split("/");
+		if (parts.length != 2) {
+			log.debug("Ignoring malformed {} header: {}", CALL_LIMIT_HEADER, callLimitHeader);
+			return;
+		}
+		try {
+			final int used = Integer.parseInt(parts[0].trim());
+			final int max = Integer.parseInt(parts[1].trim());
+			if (max > 0 && max != capacity) {
+				capacity = max;
+				leakRatePerSecond = max / SECONDS_TO_DRAIN_FULL_BUCKET;
+			}
+			// Our local level also counts reservations still in flight, which Shopify has not seen yet, so only ever raise it here.
+			level = Math.max(level, used);
+		} catch (final NumberFormatException e) {
+			log.debug("Ignoring malformed {} header: {}", CALL_LIMIT_HEADER, callLimitHeader);
+		}
+	}
+
+
+	/**
+	 * Drains the bucket for the time elapsed since the last update.
+	 */
+	private void leak() {
+		final long now = nanoClock.getAsLong();
+		final long elapsedNanos = now - lastLeakNanos;
+		if (elapsedNanos > 0) {
+			level = Math.max(0d, level - (elapsedNanos / NANOS_PER_SECOND) * leakRatePerSecond);
+			lastLeakNanos = now;
+		}
+	}
+
+
+	/**
+	 * @return String
+	 */
+	public String getShop() {
+		return shop;
+	}
+
+
+	/**
+	 * @return the bucket size last reported by Shopify
+	 */
+	public synchronized int getCapacity() {
+		return capacity;
+	}
+
+
+	/**
+	 * @return the drain rate in calls per second
+	 */
+	public synchronized double getLeakRatePerSecond() {
+		return leakRatePerSecond;
+	}
+
+
+	/**
+	 * @return the current estimated bucket level, including reserved calls
+	 */
+	public synchronized double getCurrentLevel() {
+		leak();
+		return level;
+	}
+
+
+	/**
+	 * @return the estimated number of calls that can be sent right now without waiting
+	 */
+	public synchronized double getAvailable() {
+		leak();
+		return Math.max(0d, capacity - headroom - level);
+	}
+
+
+	/**
+	 * @return the total number of calls that reserved a slot
+	 */
+	public synchronized long getCallCount() {
+		return callCount;
+	}
+
+
+	/**
+	 * @return the number of calls that had to wait for the bucket to drain
+	 */
+	public synchronized long getThrottledCallCount() {
+		return throttledCallCount;
+	}
+
+
+	/**
+	 * @return the total time callers were asked to wait, in milliseconds
+	 */
+	public synchronized long getTotalWaitMillis() {
+		return TimeUnit.NANOSECONDS.toMillis(totalWaitNanos);
+	}
+
+
+	/**
+	 * @return the number of 429 Too Many Requests responses seen despite pacing
+	 */
+	public synchronized long getTooManyRequestsCount() {
+		return tooManyRequestsCount;
+	}
+
+}
@@ -0,0 +1,135 @@
+package com.justblackmagic.shopify.api.rest.retry;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Token based retry budget, so retries cannot multiply the load on a shop, or on Shopify as a whole, during an outage.
+ *
+ * <p>The budget holds up to a maximum number of tokens and starts full. Every failed attempt removes one token and every successful call adds back a
+ * fraction of one. Retries are only allowed while more than half of the tokens remain. With the defaults, once failures outnumber successes roughly
+ * ten to one, retrying stops until successful calls refill the budget, and each request fails fast after its first attempt.
+ *
+ * <p>Each shop has its own budget through {@link #forShop(String)}, and {@link #global()} caps retries across every shop of the application.
+ * Failures whose wait is dictated by a {@code Retry-After} header are pacing, not an outage, and should not be recorded here.
+ */
+@Slf4j
+public class ShopifyRetryBudget {
+
+	/** Tokens of a shop's budget. The first four failures of a burst are retried, the fifth exhausts the budget. */
+	static final double DEFAULT_SHOP_MAXIMUM_TOKENS = 10.0d;
+
+	/** Tokens of the application wide budget. */
+	static final double DEFAULT_GLOBAL_MAXIMUM_TOKENS = 100.0d;
+
+	/** Tokens a successful call adds back, i.e. the sustained ratio of retries to successful calls. */
+	static final double DEFAULT_TOKEN_RATIO = 0.1d;
+
+	private static final ShopifyRetryBudget GLOBAL = new ShopifyRetryBudget("global", DEFAULT_GLOBAL_MAXIMUM_TOKENS, DEFAULT_TOKEN_RATIO);
+
+	/** Budgets by shop, evicted after 10 minutes of inactivity to prevent memory leaks */
+	private static final Cache<String, ShopifyRetryBudget> BUDGETS =
+			Caffeine.newBuilder().expireAfterAccess(10, TimeUnit.MINUTES).maximumSize(10_000).build();
+
+	private final String name;
+	private final double maximumTokens;
+	private final double tokenRatio;
+
+	private double tokens;
+	private long rejectedRetryCount;
+
+
+	ShopifyRetryBudget(final String name, final double maximumTokens, final double tokenRatio) {
+		this.name = name;
+		this.maximumTokens = maximumTokens;
+		this.tokenRatio = tokenRatio;
+		this.tokens = maximumTokens;
+	}
+
+
+	/**
+	 * Returns the budget shared by all clients of the given shop.
+	 *
+	 * @param shop the shop subdomain (e.g. {@code my-shop.myshopify.com}) or API host
+	 * @return ShopifyRetryBudget
+	 */
+	public static ShopifyRetryBudget forShop(final String shop) {
+		return BUDGETS.get(shop, key -> new ShopifyRetryBudget(key, DEFAULT_SHOP_MAXIMUM_TOKENS, DEFAULT_TOKEN_RATIO));
+	}
+
+
+	/**
+	 * @return the budget shared by every shop of the application
+	 */
+	public static ShopifyRetryBudget global() {
+		return GLOBAL;
+	}
+
+
+	/**
+	 * Read-only view of the currently active shop budgets by shop, for metrics and diagnostics.
+	 *
+	 * @return Map<String, ShopifyRetryBudget>
+	 */
+	public static Map<String, ShopifyRetryBudget> getBudgets() {
+		return Collections.unmodifiableMap(BUDGETS.asMap());
+	}
+
+
+	/**
+	 * Records a successful call, refilling the budget.
+	 */
+	public synchronized void onSuccess() {
+		tokens = Math.min(maximumTokens, tokens + tokenRatio);
+	}
+
+
+	/**
+	 * Records a failed attempt, draining the budget.
+	 */
+	public synchronized void onFailure() {
+		tokens = Math.max(0.0d, tokens - 1.0d);
+	}
+
+
+	/**
+	 * @return true if the budget allows another retry right now
+	 */
+	public synchronized boolean canRetry() {
+		if (tokens > maximumTokens / 2) {
+			return true;
+		}
+		rejectedRetryCount++;
+		log.debug("Retry budget {} exhausted with {} of {} tokens left", name, tokens, maximumTokens);
+		return false;
+	}
+
+
+	/**
+	 * @return String
+	 */
+	public String getName() {
+		return name;
+	}
+
+
+	/**
+	 * @return the tokens currently left in the budget
+	 */
+	public synchronized double getTokens() {
+		return tokens;
+	}
+
+
+	/**
+	 * @return the number of retries refused because the budget was exhausted
+	 */
+	public synchronized long getRejectedRetryCount() {
+		return rejectedRetryCount;
+	}
+
+}
@@ -0,0 +1,140 @@
+package com.justblackmagic.shopify.api.rest.retry;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongBinaryOperator;
+import java.util.function.LongSupplier;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Immutable, thread safe retry timing for Shopify REST calls. One policy is built per client and reused for every request.
+ *
+ * <p>Waits follow the "decorrelated jitter" exponential backoff: each wait is drawn uniformly between the base delay and three times the previous
+ * wait, capped at the maximum delay. Compared to fixed random waits this backs off quickly during an outage while still spreading concurrent callers
+ * apart. When Shopify sends a {@code Retry-After} header the server's value is used instead, since it knows exactly when the call budget refills.
+ *
+ * <p>No retry is scheduled when its wait would end past the maximum elapsed time of the request.
+ */
+@Slf4j
+public class ShopifyRetryPolicy {
+
+	static final long BACKOFF_MULTIPLIER = 3L;
+
+	private final long baseDelayMillis;
+	private final long maximumDelayMillis;
+	private final long maximumElapsedMillis;
+	private final LongBinaryOperator randomBetween;
+
+
+	/**
+	 * @param baseDelayMillis the shortest wait between attempts, also the first wait
+	 * @param maximumDelayMillis the longest backoff wait between attempts
+	 * @param maximumElapsedMillis the time after the first attempt beyond which no retry is started
+	 */
+	public ShopifyRetryPolicy(final long baseDelayMillis, final long maximumDelayMillis, final long maximumElapsedMillis) {
+		this(baseDelayMillis, maximumDelayMillis, maximumElapsedMillis, (low, high) -> ThreadLocalRandom.current().nextLong(low, high + 1));
+	}
+
+
+	/**
+	 * @param baseDelayMillis
+	 * @param maximumDelayMillis
+	 * @param maximumElapsedMillis
+	 * @param randomBetween returns a random value between its two inclusive bounds
+	 */
+	ShopifyRetryPolicy(final long baseDelayMillis, final long maximumDelayMillis, final long maximumElapsedMillis,
+			final LongBinaryOperator randomBetween) {
+		this.baseDelayMillis = baseDelayMillis;
+		this.maximumDelayMillis = maximumDelayMillis;
+		this.maximumElapsedMillis = maximumElapsedMillis;
+		this.randomBetween = randomBetween;
+	}
+
+
+	/**
+	 * @param previousDelayMillis the previous wait of this request, or 0 before the first retry
+	 * @return the next decorrelated jitter backoff wait in milliseconds
+	 */
+	public long nextBackoffMillis(final long previousDelayMillis) {
+		final long upperBound = Math.min(maximumDelayMillis, Math.max(baseDelayMillis, previousDelayMillis * BACKOFF_MULTIPLIER));
+		return randomBetween.applyAsLong(baseDelayMillis, upperBound);
+	}
+
+
+	/**
+	 * @param previousDelayMillis the previous wait of this request, or 0 before the first retry
+	 * @param retryAfterHeader the {@code Retry-After} header of the failed response, may be null
+	 * @return the wait before the next attempt in milliseconds, the server's {@code Retry-After} if it sent a valid one
+	 */
+	public long nextDelayMillis(final long previousDelayMillis, final String retryAfterHeader) {
+		final long retryAfterMillis = parseRetryAfterMillis(retryAfterHeader, System::currentTimeMillis);
+		return retryAfterMillis >= 0 ? retryAfterMillis : nextBackoffMillis(previousDelayMillis);
+	}
+
+
+	/**
+	 * @param elapsedMillis time since the first attempt of the request
+	 * @param delayMillis the wait before the next attempt
+	 * @return true if the next attempt would still start within the maximum elapsed time
+	 */
+	public boolean isWithinDeadline(final long elapsedMillis, final long delayMillis) {
+		return elapsedMillis + delayMillis <= maximumElapsedMillis;
+	}
+
+
+	/**
+	 * Parses a {@code Retry-After} header, which is either a number of seconds (Shopify sends fractional values like {@code 2.0}) or an HTTP date.
+	 *
+	 * @param retryAfterHeader
+	 * @param currentTimeMillis
+	 * @return the wait in milliseconds, or -1 if the header is missing or invalid
+	 */
+	static long parseRetryAfterMillis(final String retryAfterHeader, final LongSupplier currentTimeMillis) {
+		if (retryAfterHeader == null || retryAfterHeader.isBlank()) {
+			return -1L;
+		}
+		final String value = retryAfterHeader.trim();
+		try {
+			final double seconds = Double.parseDouble(value);
+			return seconds >= 0 ? Math.round(seconds * 1000) : -1L;
+		} catch (final NumberFormatException e) {
+			// Not delta-seconds, try an HTTP date below
+		}
+		try {
+			final Instant retryAt = ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant();
+			return Math.max(0L, Duration.between(Instant.ofEpochMilli(currentTimeMillis.getAsLong()), retryAt).toMillis());
+		} catch (final DateTimeParseException e) {
+			log.debug("Ignoring invalid Retry-After header: {}", value);
+			return -1L;
+		}
+	}
+
+
+	/**
+	 * @return long
+	 */
+	public long getBaseDelayMillis() {
+		return baseDelayMillis;
+	}
+
+
+	/**
+	 * @return long
+	 */
+	public long getMaximumDelayMillis() {
+		return maximumDelayMillis;
+	}
+
+
+	/**
+	 * @return long
+	 */
+	public long getMaximumElapsedMillis() {
+		return maximumElapsedMillis;
+	}
+
+}
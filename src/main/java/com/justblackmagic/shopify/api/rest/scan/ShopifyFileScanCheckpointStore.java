@@ -0,0 +1,124 @@
+package com.justblackmagic.shopify.api.rest.scan;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Properties;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps scan checkpoints in one properties file per scan in a directory. Every change rewrites the file through a temporary file that is then
+ * atomically moved into place, so a crash never leaves a half-written checkpoint behind.
+ */
+public class ShopifyFileScanCheckpointStore implements ShopifyScanCheckpointStore {
+
+	private static final Pattern VALID_SCAN_ID = Pattern.compile("[A-Za-z0-9._-]+");
+	private static final String INVALID_SCAN_ID_MESSAGE = "Scan id %s may only contain letters, digits, dots, dashes and underscores.";
+	private static final String FILE_EXTENSION = ".properties";
+	private static final String TEMPORARY_FILE_EXTENSION = ".tmp";
+	private static final String LAST_ID_KEY = "partition.%d.lastId";
+	private static final String COMPLETE_KEY = "partition.%d.complete";
+
+	private final Path directory;
+
+
+	/**
+	 * @param directory the directory to keep checkpoint files in, created if missing
+	 */
+	public ShopifyFileScanCheckpointStore(final Path directory) {
+		this.directory = directory;
+	}
+
+
+	@Override
+	public synchronized String getLastId(final String scanId, final int partitionIndex) {
+		return load(scanId).getProperty(String.format(LAST_ID_KEY, partitionIndex));
+	}
+
+
+	@Override
+	public synchronized boolean isComplete(final String scanId, final int partitionIndex) {
+		return Boolean.parseBoolean(load(scanId).getProperty(String.format(COMPLETE_KEY, partitionIndex)));
+	}
+
+
+	@Override
+	public synchronized void saveLastId(final String scanId, final int partitionIndex, final String lastId) {
+		final Properties checkpoints = load(scanId);
+		checkpoints.setProperty(String.format(LAST_ID_KEY, partitionIndex), lastId);
+		store(scanId, checkpoints);
+	}
+
+
+	@Override
+	public synchronized void markComplete(final String scanId, final int partitionIndex) {
+		final Properties checkpoints = load(scanId);
+		checkpoints.setProperty(String.format(COMPLETE_KEY, partitionIndex), Boolean.TRUE.toString());
+		store(scanId, checkpoints);
+	}
+
+
+	@Override
+	public synchronized void clear(final String scanId) {
+		try {
+			Files.deleteIfExists(getFile(scanId));
+		} catch (final IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+
+	/**
+	 * @param scanId
+	 * @return Properties
+	 */
+	private Properties load(final String scanId) {
+		final Properties checkpoints = new Properties();
+		final Path file = getFile(scanId);
+		if (Files.exists(file)) {
+			try (final Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+				checkpoints.load(reader);
+			} catch (final IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+		return checkpoints;
+	}
+
+
+	/**
+	 * @param scanId
+	 * @param checkpoints
+	 */
+	private void store(final String scanId, final Properties checkpoints) {
+		final Path file = getFile(scanId);
+		final Path temporaryFile = file.resolveSibling(file.getFileName() + TEMPORARY_FILE_EXTENSION);
+		try {
+			Files.createDirectories(directory);
+			try (final Writer writer = Files.newBufferedWriter(temporaryFile, StandardCharsets.UTF_8)) {
+				checkpoints.store(writer, scanId);
+			}
+			Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (final IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+
+	/**
+	 * @param scanId
+	 * @return Path
+	 */
+	private Path getFile(final String scanId) {
+		if (!VALID_SCAN_ID.matcher(scanId).matches()) {
+			throw new IllegalArgumentException(String.format(INVALID_SCAN_ID_MESSAGE, scanId));
+		}
+		return directory.resolve(scanId + FILE_EXTENSION);
+	}
+
+}
@@ -0,0 +1,394 @@
+package com.justblackmagic.shopify.api.rest.scan;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import com.justblackmagic.shopify.api.rest.ShopifyRestClient;
+import com.justblackmagic.shopify.api.rest.exceptions.ShopifyClientException;
+import com.justblackmagic.shopify.api.rest.model.ShopifyCustomer;
+import com.justblackmagic.shopify.api.rest.model.ShopifyGetCustomersRequest;
+import com.justblackmagic.shopify.api.rest.model.ShopifyOrder;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Scans a large number of orders or customers of one shop by splitting them into independent partitions, see {@link ShopifyScanPartition}, and
+ * walking the partitions concurrently on virtual threads, each one page by page in ascending id order using {@code since_id}.
+ *
+ * <p>At most {@code parallelism} partitions are fetched at the same time, and every call still goes through the shop's call limit governor, so a
+ * scan never outruns the shop's API budget. {@link #scan(List, Consumer)} hands resources to the sink as soon as they arrive, from several threads;
+ * {@link #scanInOrder(List, Consumer)} delivers them on the calling thread in partition order, letting later partitions fetch a few pages ahead.
+ *
+ * <p>With a checkpoint store, the id of the last resource handled is saved after each page of a partition, and finished partitions are marked
+ * complete, so running a failed or interrupted scan again with the same scan id skips what was already handled. Resources are delivered at least
+ * once: a page handed to the sink just before a crash is delivered again by the rerun.
+ *
+ * @param <T> the type of resource scanned
+ */
+@Slf4j
+public class ShopifyPartitionedScanner<T> {
+
+	static final int DEFAULT_PARALLELISM = 4;
+	static final int DEFAULT_PAGE_SIZE = 250;
+
+	/** Pages a partition may fetch ahead of the consumer of an ordered scan. */
+	static final int ORDERED_PAGE_BUFFER = 2;
+
+	private static final String INVALID_PARALLELISM_MESSAGE = "Parallelism must be at least 1.";
+	private static final String INVALID_PAGE_SIZE_MESSAGE = "Page size must be between 1 and 250.";
+	private static final String SCAN_FAILED_MESSAGE = "Partitioned scan failed, completed partitions can be skipped by running it again.";
+	private static final String INTERRUPTED_MESSAGE = "Interrupted while scanning partitions.";
+
+	/**
+	 * Fetches one page of a partition.
+	 *
+	 * @param <T> the type of resource fetched
+	 */
+	@FunctionalInterface
+	public interface PageFetcher<T> {
+
+		/**
+		 * @param partition
+		 * @param sinceId only resources with a greater id are fetched
+		 * @param pageSize
+		 * @return the resources in ascending id order
+		 */
+		List<T> fetchPage(ShopifyScanPartition partition, String sinceId, int pageSize);
+	}
+
+	/**
+	 * A page handed from a partition to the consumer.
+	 *
+	 * @param items the resources of the page within the partition, possibly none
+	 * @param lastId the id of the last resource, or null if there is none
+	 * @param last true if the partition has no more pages
+	 * @param failed true if the partition stopped because of a failure
+	 */
+	private record Page<T>(List<T> items, String lastId, boolean last, boolean failed) {}
+
+	private final PageFetcher<T> pageFetcher;
+	private final Function<T, String> idGetter;
+	private int parallelism = DEFAULT_PARALLELISM;
+	private int pageSize = DEFAULT_PAGE_SIZE;
+	private ShopifyScanCheckpointStore checkpointStore;
+	private String scanId;
+
+
+	/**
+	 * @param pageFetcher fetches the pages of a partition
+	 * @param idGetter returns the id of a resource
+	 */
+	public ShopifyPartitionedScanner(final PageFetcher<T> pageFetcher, final Function<T, String> idGetter) {
+		this.pageFetcher = pageFetcher;
+		this.idGetter = idGetter;
+	}
+
+
+	/**
+	 * Scans orders of any status.
+	 *
+	 * @param shopifyRestClient
+	 * @return ShopifyPartitionedScanner<ShopifyOrder>
+	 */
+	public static ShopifyPartitionedScanner<ShopifyOrder> forOrders(final ShopifyRestClient shopifyRestClient) {
+		return new ShopifyPartitionedScanner<>((partition, sinceId, pageSize) -> shopifyRestClient.getOrdersSinceId(sinceId,
+				partition.createdAtMin(), partition.createdAtMax(), pageSize), ShopifyOrder::getId);
+	}
+
+
+	/**
+	 * Scans customers.
+	 *
+	 * @param shopifyRestClient
+	 * @return ShopifyPartitionedScanner<ShopifyCustomer>
+	 */
+	public static ShopifyPartitionedScanner<ShopifyCustomer> forCustomers(final ShopifyRestClient shopifyRestClient) {
+		return new ShopifyPartitionedScanner<>((partition, sinceId, pageSize) -> shopifyRestClient.getCustomers(ShopifyGetCustomersRequest.newBuilder()
+				.withSinceId(sinceId).withCreatedAtMin(partition.createdAtMin()).withCreatedAtMax(partition.createdAtMax()).withLimit(pageSize).build()),
+				ShopifyCustomer::getId);
+	}
+
+
+	/**
+	 * @param parallelism the most partitions fetched at the same time, {@value #DEFAULT_PARALLELISM} by default
+	 * @return this scanner
+	 */
+	public ShopifyPartitionedScanner<T> withParallelism(final int parallelism) {
+		if (parallelism < 1) {
+			throw new IllegalArgumentException(INVALID_PARALLELISM_MESSAGE);
+		}
+		this.parallelism = parallelism;
+		return this;
+	}
+
+
+	/**
+	 * @param pageSize the resources fetched per call, {@value #DEFAULT_PAGE_SIZE} by default
+	 * @return this scanner
+	 */
+	public ShopifyPartitionedScanner<T> withPageSize(final int pageSize) {
+		if (pageSize < 1 || pageSize > DEFAULT_PAGE_SIZE) {
+			throw new IllegalArgumentException(INVALID_PAGE_SIZE_MESSAGE);
+		}
+		this.pageSize = pageSize;
+		return this;
+	}
+
+
+	/**
+	 * Saves the progress of every partition, so a scan run again with the same scan id resumes where it stopped.
+	 *
+	 * @param checkpointStore
+	 * @param scanId identifies the scan and its partitioning, e.g. {@code orders-2024}
+	 * @return this scanner
+	 */
+	public ShopifyPartitionedScanner<T> withCheckpoints(final ShopifyScanCheckpointStore checkpointStore, final String scanId) {
+		this.checkpointStore = checkpointStore;
+		this.scanId = scanId;
+		return this;
+	}
+
+
+	/**
+	 * Scans the partitions concurrently and hands every resource to the sink as soon as its page arrives. The sink is called from several threads and
+	 * must be thread-safe; the resources of one partition arrive in ascending id order.
+	 *
+	 * @param partitions
+	 * @param sink
+	 * @return the number of resources handed to the sink
+	 * @throws ShopifyClientException if a partition failed, after the other partitions have stopped
+	 */
+	public long scan(final List<ShopifyScanPartition> partitions, final Consumer<? super T> sink) {
+		final Semaphore permits = new Semaphore(parallelism);
+		final AtomicLong count = new AtomicLong();
+		final AtomicReference<RuntimeException> failure = new AtomicReference<>();
+		try (final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (final ShopifyScanPartition partition : partitions) {
+				acquire(permits);
+				if (failure.get() != null) {
+					permits.release();
+					break;
+				}
+				executor.execute(() -> {
+					try {
+						scanPartition(partition, failure, page -> handlePage(partition, page, sink, count));
+					} catch (final RuntimeException e) {
+						fail(failure, partition, e);
+					} finally {
+						permits.release();
+					}
+				});
+			}
+		}
+		throwIfFailed(failure);
+		return count.get();
+	}
+
+
+	/**
+	 * Scans the partitions concurrently and hands every resource to the sink on the calling thread, in partition order and, within a partition, in
+	 * ascending id order. Partitions after the one being consumed fetch at most {@value #ORDERED_PAGE_BUFFER} pages ahead.
+	 *
+	 * @param partitions in the order their resources are delivered
+	 * @param sink
+	 * @return the number of resources handed to the sink
+	 * @throws ShopifyClientException if a partition or the sink failed, after the other partitions have stopped
+	 */
+	public long scanInOrder(final List<ShopifyScanPartition> partitions, final Consumer<? super T> sink) {
+		final Semaphore permits = new Semaphore(parallelism, true);
+		final AtomicLong count = new AtomicLong();
+		final AtomicReference<RuntimeException> failure = new AtomicReference<>();
+		final List<BlockingQueue<Page<T>>> queues = new ArrayList<>(partitions.size());
+		partitions.forEach(partition -> queues.add(new ArrayBlockingQueue<>(ORDERED_PAGE_BUFFER)));
+		final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+		try {
+			// Partitions are started in order, so the one being consumed has always been started and no permit is held by a partition waiting on it
+			executor.execute(() -> {
+				for (int i = 0; i < partitions.size(); i++) {
+					final ShopifyScanPartition partition = partitions.get(i);
+					final BlockingQueue<Page<T>> queue = queues.get(i);
+					try {
+						permits.acquire();
+					} catch (final InterruptedException e) {
+						Thread.currentThread().interrupt();
+						return;
+					}
+					try {
+						executor.execute(() -> scanPartitionInOrder(partition, queue, permits, failure));
+					} catch (final RejectedExecutionException e) {
+						// The scan was stopped after a failure, the consumer no longer waits on the remaining partitions
+						permits.release();
+						return;
+					}
+				}
+			});
+			consume: for (int i = 0; i < partitions.size(); i++) {
+				Page<T> page;
+				do {
+					page = queues.get(i).take();
+					if (page.failed()) {
+						break consume;
+					}
+					handlePage(partitions.get(i), page, sink, count);
+				} while (!page.last());
+			}
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			failure.compareAndSet(null, new ShopifyClientException(INTERRUPTED_MESSAGE, e));
+		} catch (final RuntimeException e) {
+			failure.compareAndSet(null, e);
+		} finally {
+			if (failure.get() != null) {
+				executor.shutdownNow();
+			}
+			executor.close();
+		}
+		throwIfFailed(failure);
+		return count.get();
+	}
+
+
+	/**
+	 * Fetches the pages of a partition, from its checkpoint if it has one, until it is exhausted or another partition failed.
+	 *
+	 * @param partition
+	 * @param failure
+	 * @param pageHandler called with every page, the last one flagged
+	 */
+	private void scanPartition(final ShopifyScanPartition partition, final AtomicReference<RuntimeException> failure,
+			final Consumer<Page<T>> pageHandler) {
+		if (checkpointStore != null && checkpointStore.isComplete(scanId, partition.index())) {
+			log.debug("Skipping partition {} of scan {}, it is already complete", partition.index(), scanId);
+			pageHandler.accept(new Page<>(List.of(), null, true, false));
+			return;
+		}
+		final String checkpointId = checkpointStore == null ? null : checkpointStore.getLastId(scanId, partition.index());
+		String sinceId = checkpointId == null ? partition.sinceId() : checkpointId;
+		while (failure.get() == null) {
+			final List<T> fetched = pageFetcher.fetchPage(partition, sinceId, pageSize);
+			final List<T> items = fetched.stream().filter(item -> partition.isBeforeUntilId(idGetter.apply(item))).toList();
+			final boolean last = fetched.size() < pageSize || items.size() < fetched.size();
+			final String lastId = items.isEmpty() ? null : idGetter.apply(items.get(items.size() - 1));
+			pageHandler.accept(new Page<>(items, lastId, last, false));
+			if (last) {
+				return;
+			}
+			sinceId = lastId;
+		}
+	}
+
+
+	/**
+	 * Fetches the pages of a partition of an ordered scan into its queue, which always ends with a last or failed page unless the scan was stopped.
+	 *
+	 * @param partition
+	 * @param queue
+	 * @param permits released once the partition stopped fetching
+	 * @param failure
+	 */
+	private void scanPartitionInOrder(final ShopifyScanPartition partition, final BlockingQueue<Page<T>> queue, final Semaphore permits,
+			final AtomicReference<RuntimeException> failure) {
+		final AtomicBoolean delivered = new AtomicBoolean();
+		try {
+			scanPartition(partition, failure, page -> {
+				put(queue, page);
+				delivered.set(page.last());
+			});
+		} catch (final RuntimeException e) {
+			fail(failure, partition, e);
+		} finally {
+			permits.release();
+		}
+		// However the partition stopped, its queue ends with a page, or the consumer could wait on it forever
+		if (!delivered.get() && !Thread.currentThread().isInterrupted()) {
+			try {
+				put(queue, new Page<>(List.of(), null, true, true));
+			} catch (final ShopifyClientException e) {
+				// Interrupted by the scan being stopped, nothing consumes the queue anymore
+				log.debug("Partition {} of scan {} stopped before ending its queue", partition.index(), scanId);
+			}
+		}
+	}
+
+
+	/**
+	 * Hands the resources of a page to the sink, then records the progress of the partition.
+	 *
+	 * @param partition
+	 * @param page
+	 * @param sink
+	 * @param count
+	 */
+	private void handlePage(final ShopifyScanPartition partition, final Page<T> page, final Consumer<? super T> sink, final AtomicLong count) {
+		page.items().forEach(sink);
+		count.addAndGet(page.items().size());
+		if (checkpointStore == null) {
+			return;
+		}
+		if (page.lastId() != null) {
+			checkpointStore.saveLastId(scanId, partition.index(), page.lastId());
+		}
+		if (page.last()) {
+			checkpointStore.markComplete(scanId, partition.index());
+		}
+	}
+
+
+	/**
+	 * @param failure
+	 * @param partition
+	 * @param exception
+	 */
+	private void fail(final AtomicReference<RuntimeException> failure, final ShopifyScanPartition partition, final RuntimeException exception) {
+		log.warn("Partition {} of scan {} failed", partition.index(), scanId, exception);
+		failure.compareAndSet(null, exception);
+	}
+
+
+	/**
+	 * @param queue
+	 * @param page
+	 */
+	private static <T> void put(final BlockingQueue<Page<T>> queue, final Page<T> page) {
+		try {
+			queue.put(page);
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new ShopifyClientException(INTERRUPTED_MESSAGE, e);
+		}
+	}
+
+
+	/**
+	 * @param permits
+	 */
+	private static void acquire(final Semaphore permits) {
+		try {
+			permits.acquire();
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new ShopifyClientException(INTERRUPTED_MESSAGE, e);
+		}
+	}
+
+
+	/**
+	 * @param failure
+	 */
+	private static void throwIfFailed(final AtomicReference<RuntimeException> failure) {
+		final RuntimeException exception = failure.get();
+		if (exception != null) {
+			throw new ShopifyClientException(SCAN_FAILED_MESSAGE, exception);
+		}
+	}
+
+}
@@ -0,0 +1,49 @@
+package com.justblackmagic.shopify.api.rest.scan;
+
+/**
+ * Durable progress of the partitions of a scan, so a scan interrupted by a crash or a deploy can carry on where each partition stopped instead of
+ * starting over. Implementations must be thread-safe, as the partitions of a scan save their progress concurrently.
+ */
+public interface ShopifyScanCheckpointStore {
+
+	/**
+	 * @param scanId
+	 * @param partitionIndex
+	 * @return the id of the last resource handled by the partition, or null if it has not started
+	 */
+	String getLastId(String scanId, int partitionIndex);
+
+
+	/**
+	 * @param scanId
+	 * @param partitionIndex
+	 * @return true if the partition was scanned to its end
+	 */
+	boolean isComplete(String scanId, int partitionIndex);
+
+
+	/**
+	 * Records that every resource of the partition up to and including the given id has been handled.
+	 *
+	 * @param scanId
+	 * @param partitionIndex
+	 * @param lastId
+	 */
+	void saveLastId(String scanId, int partitionIndex, String lastId);
+
+
+	/**
+	 * @param scanId
+	 * @param partitionIndex
+	 */
+	void markComplete(String scanId, int partitionIndex);
+
+
+	/**
+	 * Forgets the progress of every partition of a scan, so it runs from the start next time.
+	 *
+	 * @param scanId
+	 */
+	void clear(String scanId);
+
+}
@@ -0,0 +1,114 @@
+package com.justblackmagic.shopify.api.rest.scan;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One independent window of a partitioned scan: the resources created within a time range, or with an id within a range, or both.
+ *
+ * @param index the position of the partition in the scan, which results are merged in
+ * @param createdAtMin the earliest creation date, or null for no lower bound
+ * @param createdAtMax the latest creation date, or null for no upper bound
+ * @param sinceId resources with a greater id are scanned, "0" for all of them
+ * @param untilId resources with this id or greater are left to the next partition, or null for no upper bound
+ */
+public record ShopifyScanPartition(int index, ZonedDateTime createdAtMin, ZonedDateTime createdAtMax, String sinceId, String untilId) {
+
+	static final String FIRST_ID = "0";
+
+	/** The precision of Shopify's creation date filters. */
+	static final Duration MINIMUM_PARTITION_LENGTH = Duration.ofSeconds(1);
+
+	private static final String INVALID_PARTITION_COUNT_MESSAGE = "Partition count must be at least 1.";
+	private static final String INVALID_RANGE_MESSAGE = "The end of the range must be after its start.";
+
+
+	/**
+	 * Splits a creation time range into equally long partitions. Each partition ends one second before the next one starts, because Shopify's
+	 * {@code created_at_max} is inclusive at second precision. Partitions are at least one second long, so a short range gets fewer partitions than
+	 * asked for.
+	 *
+	 * @param from the start of the range, inclusive
+	 * @param to the end of the range, exclusive
+	 * @param partitionCount
+	 * @return the partitions, in time order
+	 */
+	public static List<ShopifyScanPartition> byCreationTime(final ZonedDateTime from, final ZonedDateTime to, final int partitionCount) {
+		validate(partitionCount, from.isBefore(to));
+		final Duration partitionLength = max(MINIMUM_PARTITION_LENGTH, Duration.between(from, to).dividedBy(partitionCount));
+		final List<ShopifyScanPartition> partitions = new ArrayList<>(partitionCount);
+		for (int i = 0; i < partitionCount; i++) {
+			final ZonedDateTime start = from.plus(partitionLength.multipliedBy(i));
+			if (!start.isBefore(to)) {
+				break;
+			}
+			final ZonedDateTime next = from.plus(partitionLength.multipliedBy(i + 1L));
+			final ZonedDateTime end = i == partitionCount - 1 || next.isAfter(to) ? to : next;
+			// Only the end of the range can leave less than a second, which Shopify's inclusive created_at_max cannot express
+			final ZonedDateTime createdAtMax = end.minusSeconds(1);
+			partitions.add(new ShopifyScanPartition(i, start, createdAtMax.isBefore(start) ? start : createdAtMax, FIRST_ID, null));
+		}
+		return partitions;
+	}
+
+
+	/**
+	 * Splits an id range into partitions of equally many ids. Shopify ids grow with creation time, so this is the way to split a scan without
+	 * knowing when the resources were created, e.g. from the id of the oldest to that of the newest order.
+	 *
+	 * @param minimumId the smallest id to scan
+	 * @param maximumId the largest id to scan
+	 * @param partitionCount
+	 * @return the partitions, in id order
+	 */
+	public static List<ShopifyScanPartition> byId(final long minimumId, final long maximumId, final int partitionCount) {
+		validate(partitionCount, minimumId <= maximumId);
+		final long partitionSize = Math.max(1L, (maximumId - minimumId + 1L) / partitionCount);
+		final List<ShopifyScanPartition> partitions = new ArrayList<>(partitionCount);
+		for (int i = 0; i < partitionCount; i++) {
+			final long start = minimumId + (partitionSize * i);
+			if (start > maximumId) {
+				break;
+			}
+			final long untilId = i == partitionCount - 1 ? maximumId + 1L : Math.min(start + partitionSize, maximumId + 1L);
+			partitions.add(new ShopifyScanPartition(i, null, null, String.valueOf(start - 1L), String.valueOf(untilId)));
+		}
+		return partitions;
+	}
+
+
+	/**
+	 * @param id
+	 * @return true if the id is below this partition's upper id bound
+	 */
+	public boolean isBeforeUntilId(final String id) {
+		return untilId == null || Long.parseLong(id) < Long.parseLong(untilId);
+	}
+
+
+	/**
+	 * @param a
+	 * @param b
+	 * @return the longer of both durations
+	 */
+	private static Duration max(final Duration a, final Duration b) {
+		return a.compareTo(b) >= 0 ? a : b;
+	}
+
+
+	/**
+	 * @param partitionCount
+	 * @param validRange
+	 */
+	private static void validate(final int partitionCount, final boolean validRange) {
+		if (partitionCount < 1) {
+			throw new IllegalArgumentException(INVALID_PARTITION_COUNT_MESSAGE);
+		}
+		if (!validRange) {
+			throw new IllegalArgumentException(INVALID_RANGE_MESSAGE);
+		}
+	}
+
+}
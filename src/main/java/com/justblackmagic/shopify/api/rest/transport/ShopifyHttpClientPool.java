@@ -0,0 +1,278 @@
+package com.justblackmagic.shopify.api.rest.transport;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.hc.client5.http.impl.classic.HttpClientBuilder;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.pool.PoolStats;
+import org.glassfish.jersey.apache5.connector.Apache5ClientProperties;
+import org.glassfish.jersey.apache5.connector.Apache5ConnectorProvider;
+import org.glassfish.jersey.apache5.connector.Apache5HttpClientBuilderConfigurator;
+import org.glassfish.jersey.client.ClientConfig;
+import org.glassfish.jersey.client.ClientProperties;
+import org.glassfish.jersey.client.filter.EncodingFilter;
+import org.glassfish.jersey.jackson.JacksonFeature;
+import org.glassfish.jersey.jackson.internal.jackson.jaxrs.json.JacksonJaxbJsonProvider;
+import org.glassfish.jersey.message.DeflateEncoder;
+import org.glassfish.jersey.message.GZipEncoder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.justblackmagic.shopify.api.metrics.ShopifyApiMetricsInterceptor;
+import com.justblackmagic.shopify.api.rest.mappers.ShopifyJacksonJsonProvider;
+import com.justblackmagic.shopify.api.rest.mappers.ShopifyJsonMapping;
+import com.justblackmagic.shopify.api.rest.mappers.ShopifyObjectReaderRegistry;
+import com.justblackmagic.shopify.api.rest.mappers.ShopifySdkObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Tags;
+import jakarta.ws.rs.Priorities;
+import jakarta.ws.rs.client.Client;
+import jakarta.ws.rs.client.ClientBuilder;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Holds the one shared Jersey {@link Client} of a {@link ShopifyHttpTransport}. Jersey clients are heavyweight and thread safe, so every REST client
+ * of every shop sends its requests through the same instance and its connection pool. Each REST client sets its own timeouts on the web targets
+ * it creates, except the connect timeout of the {@link ShopifyHttpTransport#JDK_HTTP_CLIENT} transport: the JDK client only takes it when it is
+ * built, so that transport has one pool per connect timeout.
+ *
+ * <p>A transport has one pool per {@link ShopifyJsonMapping}, as the JSON provider is registered on the Jersey client. Every client sends
+ * {@code Accept-Encoding: gzip,deflate} and inflates compressed responses transparently, which shrinks JSON list pages several times over.
+ *
+ * <p>Pool usage is published as Micrometer gauges on the global registry, which Spring Boot links to the application's registry, tagged with the
+ * transport and the JSON mapping:
+ * <ul>
+ * <li>{@code shopify.rest.client.requests.active} - requests currently in flight on the transport</li>
+ * <li>{@code shopify.rest.client.pool.saturation} - share of the connection capacity in use, 1.0 meaning new requests have to queue</li>
+ * <li>{@code shopify.rest.client.pool.leased}, {@code .idle}, {@code .pending} and {@code .max} - Apache connection pool statistics</li>
+ * </ul>
+ */
+@Slf4j
+public final class ShopifyHttpClientPool {
+
+	/** Maximum connections kept open to a single shop host. Shopify's call limit makes more than this counterproductive. */
+	public static final int MAX_CONNECTIONS_PER_HOST = 20;
+
+	/** Maximum connections kept open across all shop hosts. */
+	public static final int MAX_CONNECTIONS_TOTAL = 200;
+
+	static final String METRIC_PREFIX = "shopify.rest.client";
+	private static final String TRANSPORT_TAG = "transport";
+	private static final String JSON_MAPPING_TAG = "json.mapping";
+	private static final String CONNECT_TIMEOUT_TAG = "connect.timeout";
+	private static final String PER_REQUEST_CONNECT_TIMEOUT = "per-request";
+
+	/** Connect timeout of the JDK client of pools created without one, the default of the REST client */
+	public static final long DEFAULT_CONNECT_TIMEOUT_MILLISECONDS = 60000L;
+
+	private static final Map<PoolKey, ShopifyHttpClientPool> POOLS = new ConcurrentHashMap<>();
+
+	/**
+	 * @param transport
+	 * @param jsonMapping
+	 * @param connectTimeoutMilliseconds the connect timeout of the JDK client, 0 for the transports that take it per request
+	 */
+	private record PoolKey(ShopifyHttpTransport transport, ShopifyJsonMapping jsonMapping, long connectTimeoutMilliseconds) {}
+
+	private final ShopifyHttpTransport transport;
+	private final ShopifyJsonMapping jsonMapping;
+	private final long connectTimeoutMilliseconds;
+	private final PoolingHttpClientConnectionManager connectionManager;
+	private final HttpClient javaNetHttpClient;
+	private final Client client;
+	private final AtomicInteger activeRequests = new AtomicInteger();
+
+
+	/**
+	 * @param poolKey
+	 */
+	private ShopifyHttpClientPool(final PoolKey poolKey) {
+		this.transport = poolKey.transport();
+		this.jsonMapping = poolKey.jsonMapping();
+		this.connectTimeoutMilliseconds = poolKey.connectTimeoutMilliseconds();
+		this.connectionManager = transport == ShopifyHttpTransport.APACHE_HTTP_CLIENT ? PoolingHttpClientConnectionManagerBuilder.create()
+				.setMaxConnPerRoute(MAX_CONNECTIONS_PER_HOST).setMaxConnTotal(MAX_CONNECTIONS_TOTAL).build() : null;
+		this.javaNetHttpClient = transport == ShopifyHttpTransport.JDK_HTTP_CLIENT ? HttpClient.newBuilder().version(HttpClient.Version.HTTP_2)
+				.connectTimeout(Duration.ofMillis(connectTimeoutMilliseconds)).followRedirects(HttpClient.Redirect.NORMAL).build() : null;
+		this.client = buildClient();
+		registerMetrics(Metrics.globalRegistry);
+		log.info("Created shared {} Shopify REST transport with {} JSON mapping and {} ms connect timeout", transport, jsonMapping,
+				connectTimeoutMilliseconds);
+	}
+
+
+	/**
+	 * @param transport
+	 * @return the shared pool of the transport with the {@link ShopifyJsonMapping#COMPATIBLE} JSON mapping, created on first use
+	 */
+	public static ShopifyHttpClientPool forTransport(final ShopifyHttpTransport transport) {
+		return forTransport(transport, ShopifyJsonMapping.COMPATIBLE);
+	}
+
+
+	/**
+	 * @param transport
+	 * @param jsonMapping
+	 * @return the shared pool of the transport and JSON mapping, created on first use
+	 */
+	public static ShopifyHttpClientPool forTransport(final ShopifyHttpTransport transport, final ShopifyJsonMapping jsonMapping) {
+		return forTransport(transport, jsonMapping, DEFAULT_CONNECT_TIMEOUT_MILLISECONDS);
+	}
+
+
+	/**
+	 * @param transport
+	 * @param jsonMapping
+	 * @param connectTimeoutMilliseconds the connect timeout of the JDK client, ignored by the other transports, which take it per request
+	 * @return the shared pool of the transport, JSON mapping and, for the JDK client, connect timeout, created on first use
+	 */
+	public static ShopifyHttpClientPool forTransport(final ShopifyHttpTransport transport, final ShopifyJsonMapping jsonMapping,
+			final long connectTimeoutMilliseconds) {
+		final long poolConnectTimeout = transport == ShopifyHttpTransport.JDK_HTTP_CLIENT ? connectTimeoutMilliseconds : 0L;
+		return POOLS.computeIfAbsent(new PoolKey(transport, jsonMapping, poolConnectTimeout), ShopifyHttpClientPool::new);
+	}
+
+
+	/**
+	 * @return ShopifyHttpTransport
+	 */
+	public ShopifyHttpTransport getTransport() {
+		return transport;
+	}
+
+
+	/**
+	 * @return ShopifyJsonMapping
+	 */
+	public ShopifyJsonMapping getJsonMapping() {
+		return jsonMapping;
+	}
+
+
+	/**
+	 * @return the connect timeout of the JDK client, 0 for the transports that take it per request
+	 */
+	public long getConnectTimeoutMilliseconds() {
+		return connectTimeoutMilliseconds;
+	}
+
+
+	/**
+	 * @return the JDK client behind the {@link ShopifyHttpTransport#JDK_HTTP_CLIENT} transport, null for the other transports
+	 */
+	HttpClient getJavaNetHttpClient() {
+		return javaNetHttpClient;
+	}
+
+
+	/**
+	 * @return the shared Jersey client of the transport
+	 */
+	public Client getClient() {
+		return client;
+	}
+
+
+	/**
+	 * Marks the start of a request, for the active request and saturation gauges. Must be paired with {@link #requestFinished()}.
+	 */
+	public void requestStarted() {
+		activeRequests.incrementAndGet();
+	}
+
+
+	/**
+	 * Marks the end of a request started with {@link #requestStarted()}.
+	 */
+	public void requestFinished() {
+		activeRequests.decrementAndGet();
+	}
+
+
+	/**
+	 * @return the number of requests currently in flight
+	 */
+	public int getActiveRequests() {
+		return activeRequests.get();
+	}
+
+
+	/**
+	 * @return the share of the connection capacity in use. Uses the real pool statistics for the Apache transport, and in flight requests against
+	 *         {@link #MAX_CONNECTIONS_TOTAL} for the JDK transports.
+	 */
+	public double getSaturation() {
+		if (connectionManager != null) {
+			final PoolStats stats = connectionManager.getTotalStats();
+			return (double) (stats.getLeased() + stats.getPending()) / stats.getMax();
+		}
+		return (double) activeRequests.get() / MAX_CONNECTIONS_TOTAL;
+	}
+
+
+	/**
+	 * @return Client
+	 */
+	private Client buildClient() {
+		final JacksonJaxbJsonProvider provider;
+		if (jsonMapping == ShopifyJsonMapping.PRECOMPILED) {
+			provider = new ShopifyJacksonJsonProvider(ShopifyObjectReaderRegistry.forMapping(jsonMapping));
+		} else {
+			final ObjectMapper mapper = ShopifySdkObjectMapper.buildMapper();
+			provider = new JacksonJaxbJsonProvider();
+			provider.setMapper(mapper);
+		}
+
+		// JacksonFeature adds its own provider unless exactly JacksonJaxbJsonProvider is registered, so ours is registered ahead of it.
+		// The encoding filter asks for gzip or deflate bodies and the encoders inflate them; the metrics interceptor wraps the encoders, so it
+		// still counts the bytes on the wire.
+		final ClientConfig clientConfig = new ClientConfig().register(JacksonFeature.class).register(provider, Priorities.ENTITY_CODER)
+				.register(EncodingFilter.class).register(GZipEncoder.class).register(DeflateEncoder.class)
+				.register(ShopifyApiMetricsInterceptor.class, Priorities.HEADER_DECORATOR);
+		switch (transport) {
+			case JDK_HTTP_CLIENT:
+				// Jersey's JavaNetHttpConnectorProvider would build a client without a connect timeout, so requests go through the pool's own
+				clientConfig.connectorProvider((jerseyClient, configuration) -> new ShopifyJavaNetHttpConnector(javaNetHttpClient));
+				break;
+			case APACHE_HTTP_CLIENT:
+				clientConfig.connectorProvider(new Apache5ConnectorProvider());
+				clientConfig.property(Apache5ClientProperties.CONNECTION_MANAGER, connectionManager);
+				// HttpClient would inflate bodies but keep their Content-Encoding header, so the encoders inflate them as on the other transports
+				clientConfig.register((Apache5HttpClientBuilderConfigurator) HttpClientBuilder::disableContentCompression);
+				// Buffer entities so requests are sent with a Content-Length, as Shopify expects
+				clientConfig.property(ClientProperties.REQUEST_ENTITY_PROCESSING, "BUFFERED");
+				break;
+			default:
+				break;
+		}
+		return ClientBuilder.newClient(clientConfig);
+	}
+
+
+	/**
+	 * @param registry
+	 */
+	private void registerMetrics(final MeterRegistry registry) {
+		final Tags tags = Tags.of(TRANSPORT_TAG, transport.name(), JSON_MAPPING_TAG, jsonMapping.name(), CONNECT_TIMEOUT_TAG,
+				javaNetHttpClient == null ? PER_REQUEST_CONNECT_TIMEOUT : connectTimeoutMilliseconds + "ms");
+		Gauge.builder(METRIC_PREFIX + ".requests.active", activeRequests, AtomicInteger::get).tags(tags)
+				.description("Shopify REST requests currently in flight").register(registry);
+		Gauge.builder(METRIC_PREFIX + ".pool.saturation", this, ShopifyHttpClientPool::getSaturation).tags(tags)
+				.description("Share of the Shopify REST connection capacity in use").register(registry);
+		if (connectionManager != null) {
+			Gauge.builder(METRIC_PREFIX + ".pool.leased", connectionManager, manager -> manager.getTotalStats().getLeased()).tags(tags)
+					.description("Pooled connections currently serving a request").register(registry);
+			Gauge.builder(METRIC_PREFIX + ".pool.idle", connectionManager, manager -> manager.getTotalStats().getAvailable()).tags(tags)
+					.description("Pooled connections kept alive for reuse").register(registry);
+			Gauge.builder(METRIC_PREFIX + ".pool.pending", connectionManager, manager -> manager.getTotalStats().getPending()).tags(tags)
+					.description("Requests waiting for a pooled connection").register(registry);
+			Gauge.builder(METRIC_PREFIX + ".pool.max", connectionManager, manager -> manager.getTotalStats().getMax()).tags(tags)
+					.description("Maximum pooled connections").register(registry);
+		}
+	}
+
+}
@@ -0,0 +1,27 @@
+package com.justblackmagic.shopify.api.rest.transport;
+
+/**
+ * The HTTP stacks the Jersey based {@link com.justblackmagic.shopify.api.rest.ShopifyRestClient} can send its requests through. Each transport is
+ * backed by one shared, pooled Jersey client from {@link ShopifyHttpClientPool}, so connections to a shop host are kept alive and reused across all
+ * REST clients of that shop.
+ */
+public enum ShopifyHttpTransport {
+
+	/**
+	 * The JDK {@code HttpURLConnection} connector Jersey uses by default. Relies on the JVM wide keep-alive cache, which cannot be sized or measured.
+	 */
+	HTTP_URL_CONNECTION,
+
+	/**
+	 * The JDK {@code java.net.http.HttpClient}. Negotiates HTTP/2 with Shopify where available and multiplexes concurrent requests to the same host
+	 * over a single connection.
+	 */
+	JDK_HTTP_CLIENT,
+
+	/**
+	 * Apache HttpClient 5 with a pooling connection manager, bounded per shop host and in total. The only transport that reports leased, idle and
+	 * pending connection counts.
+	 */
+	APACHE_HTTP_CLIENT
+
+}
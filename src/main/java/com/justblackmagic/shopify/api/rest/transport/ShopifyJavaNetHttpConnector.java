@@ -0,0 +1,144 @@
+package com.justblackmagic.shopify.api.rest.transport;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Future;
+import org.glassfish.jersey.client.ClientProperties;
+import org.glassfish.jersey.client.ClientRequest;
+import org.glassfish.jersey.client.ClientResponse;
+import org.glassfish.jersey.client.spi.AsyncConnectorCallback;
+import org.glassfish.jersey.client.spi.Connector;
+import org.glassfish.jersey.message.internal.Statuses;
+import jakarta.ws.rs.ProcessingException;
+
+/**
+ * A Jersey {@link Connector} that sends requests through a {@link HttpClient} built by the {@link ShopifyHttpClientPool}. Jersey's own
+ * {@code java.net.http} connector builds its client itself and ignores {@link ClientProperties#CONNECT_TIMEOUT}, which the JDK client only supports
+ * on the client and not per request, so the shared client would have no connect timeout at all. The read timeout is still taken from each request.
+ */
+final class ShopifyJavaNetHttpConnector implements Connector {
+
+	private static final String CONNECTOR_NAME = "Shopify java.net.http connector";
+
+	/** Headers the JDK client sets itself and refuses to take from the caller */
+	private static final Set<String> RESTRICTED_HEADERS = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+
+	static {
+		RESTRICTED_HEADERS.addAll(List.of("Connection", "Content-Length", "Expect", "Host", "Upgrade"));
+	}
+
+	private final HttpClient httpClient;
+
+
+	/**
+	 * @param httpClient the shared client, with its connect timeout
+	 */
+	ShopifyJavaNetHttpConnector(final HttpClient httpClient) {
+		this.httpClient = httpClient;
+	}
+
+
+	@Override
+	public ClientResponse apply(final ClientRequest request) {
+		try {
+			return toClientResponse(request, httpClient.send(toHttpRequest(request), HttpResponse.BodyHandlers.ofInputStream()));
+		} catch (final IOException e) {
+			throw new ProcessingException(e.getMessage(), e);
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new ProcessingException(e.getMessage(), e);
+		}
+	}
+
+
+	@Override
+	public Future<?> apply(final ClientRequest request, final AsyncConnectorCallback callback) {
+		final HttpRequest httpRequest;
+		try {
+			httpRequest = toHttpRequest(request);
+		} catch (final RuntimeException e) {
+			callback.failure(e);
+			return CompletableFuture.failedFuture(e);
+		}
+		return httpClient.sendAsync(httpRequest, HttpResponse.BodyHandlers.ofInputStream()).whenComplete((response, exception) -> {
+			if (exception != null) {
+				callback.failure(exception instanceof CompletionException && exception.getCause() != null ? exception.getCause() : exception);
+				return;
+			}
+			try {
+				callback.response(toClientResponse(request, response));
+			} catch (final RuntimeException e) {
+				callback.failure(e);
+			}
+		});
+	}
+
+
+	@Override
+	public String getName() {
+		return CONNECTOR_NAME;
+	}
+
+
+	/**
+	 * The client is shared by the pool and lives as long as it does.
+	 */
+	@Override
+	public void close() {}
+
+
+	/**
+	 * @param request
+	 * @return the request, with its entity written out, so the headers the entity providers and encoders set are included
+	 */
+	private static HttpRequest toHttpRequest(final ClientRequest request) {
+		final HttpRequest.Builder builder = HttpRequest.newBuilder(request.getUri());
+		final int readTimeout = request.resolveProperty(ClientProperties.READ_TIMEOUT, 0);
+		if (readTimeout > 0) {
+			builder.timeout(Duration.ofMillis(readTimeout));
+		}
+		HttpRequest.BodyPublisher body = HttpRequest.BodyPublishers.noBody();
+		if (request.hasEntity()) {
+			final ByteArrayOutputStream entity = new ByteArrayOutputStream();
+			request.setStreamProvider(contentLength -> entity);
+			try {
+				request.writeEntity();
+			} catch (final IOException e) {
+				throw new ProcessingException(e.getMessage(), e);
+			}
+			body = HttpRequest.BodyPublishers.ofByteArray(entity.toByteArray());
+		}
+		builder.method(request.getMethod(), body);
+		for (final Map.Entry<String, List<String>> header : request.getStringHeaders().entrySet()) {
+			if (!RESTRICTED_HEADERS.contains(header.getKey())) {
+				header.getValue().forEach(value -> builder.header(header.getKey(), value));
+			}
+		}
+		return builder.build();
+	}
+
+
+	/**
+	 * @param request
+	 * @param httpResponse
+	 * @return ClientResponse
+	 */
+	private static ClientResponse toClientResponse(final ClientRequest request, final HttpResponse<InputStream> httpResponse) {
+		final ClientResponse response = new ClientResponse(Statuses.from(httpResponse.statusCode()), request, httpResponse.uri());
+		httpResponse.headers().map().forEach((name, values) -> values.forEach(value -> response.getHeaders().add(name, value)));
+		response.setEntityStream(httpResponse.body());
+		return response;
+	}
+
+}
@@ -0,0 +1,48 @@
+package com.justblackmagic.shopify.app.controller.webhooks;
+
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+import com.justblackmagic.shopify.api.rest.cache.ShopifyResponseCache;
+import com.justblackmagic.shopify.auth.util.ShopifyHMACValidator;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Receives the shop, location and product webhooks registered when the REST response cache is enabled, and drops the cached responses their topic
+ * makes stale.
+ */
+@Slf4j
+@RestController
+public class CacheInvalidationWebhook {
+
+    private final ShopifyHMACValidator shopifyHMACValidator;
+
+    public CacheInvalidationWebhook(ShopifyHMACValidator shopifyHMACValidator) {
+        this.shopifyHMACValidator = shopifyHMACValidator;
+    }
+
+    @PostMapping(value = "/webhook/cache-invalidation", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<String> invalidateCache(HttpServletRequest request, @RequestBody String requestBody,
+            @RequestHeader(name = "X-Shopify-Topic", required = false) String topic,
+            @RequestHeader(name = "X-Shopify-Shop-Domain", required = false) String shopDomain) {
+        log.debug("invalidateCache: topic: {}, shop: {}", topic, shopDomain);
+
+        if (!shopifyHMACValidator.validatePostHMAC(request, requestBody)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+
+        if (StringUtils.isBlank(topic) || StringUtils.isBlank(shopDomain)) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);
+        }
+
+        ShopifyResponseCache.invalidate(shopDomain, topic);
+        return ResponseEntity.ok("{\"status\":\"ok\"}");
+    }
+
+}
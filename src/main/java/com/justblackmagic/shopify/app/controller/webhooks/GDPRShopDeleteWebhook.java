@@ -2,6 +2,7 @@ package com.justblackmagic.shopify.app.controller.webhooks;
 
 import java.io.IOException;
 import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -11,6 +12,7 @@ import org.springframework.web.bind.annotation.RestController;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.justblackmagic.shopify.auth.util.ShopifyHMACValidator;
+import com.justblackmagic.shopify.sync.service.SyncedOrderStore;
 import org.springframework.transaction.annotation.Transactional;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
@@ -21,10 +23,14 @@ public class GDPRShopDeleteWebhook {
 
     private final ShopifyHMACValidator shopifyHMACValidator;
     private final ObjectMapper objectMapper;
+    // Only present when the order sync is enabled
+    private final ObjectProvider<SyncedOrderStore> syncedOrderStore;
 
-    public GDPRShopDeleteWebhook(ShopifyHMACValidator shopifyHMACValidator, ObjectMapper objectMapper) {
+    public GDPRShopDeleteWebhook(ShopifyHMACValidator shopifyHMACValidator, ObjectMapper objectMapper,
+            ObjectProvider<SyncedOrderStore> syncedOrderStore) {
         this.shopifyHMACValidator = shopifyHMACValidator;
         this.objectMapper = objectMapper;
+        this.syncedOrderStore = syncedOrderStore;
     }
 
     @Transactional(rollbackFor = Exception.class)
@@ -50,6 +56,7 @@ public class GDPRShopDeleteWebhook {
             }
 
             // Delete all Shop data for this shop from your system here.....
+            syncedOrderStore.ifAvailable(store -> store.deleteShop(shopDomain));
 
             return ResponseEntity.ok("{\"status\":\"ok\"}");
         } catch (IOException e) {
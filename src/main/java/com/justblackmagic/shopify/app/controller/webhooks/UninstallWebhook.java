@@ -8,6 +8,9 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import com.justblackmagic.shopify.api.graphql.ShopifyGraphQLClientService;
+import com.justblackmagic.shopify.api.rest.ShopifyRestClientService;
+import com.justblackmagic.shopify.api.rest.cache.ShopifyResponseCache;
 import com.justblackmagic.shopify.auth.persistence.model.AuthorizedClient;
 import com.justblackmagic.shopify.auth.persistence.repository.JPAAuthorizedClientRepository;
 import com.justblackmagic.shopify.auth.util.ShopifyHMACValidator;
@@ -23,12 +26,16 @@ public class UninstallWebhook {
     private final JPAAuthorizedClientRepository authorizedClientRepository;
     private final ShopifyHMACValidator shopifyHMACValidator;
     private final EntityManager entityManager;
+    private final ShopifyRestClientService shopifyRestClientService;
+    private final ShopifyGraphQLClientService shopifyGraphQLClientService;
 
     public UninstallWebhook(JPAAuthorizedClientRepository authorizedClientRepository, ShopifyHMACValidator shopifyHMACValidator,
-            EntityManager entityManager) {
+            EntityManager entityManager, ShopifyRestClientService shopifyRestClientService, ShopifyGraphQLClientService shopifyGraphQLClientService) {
         this.authorizedClientRepository = authorizedClientRepository;
         this.shopifyHMACValidator = shopifyHMACValidator;
         this.entityManager = entityManager;
+        this.shopifyRestClientService = shopifyRestClientService;
+        this.shopifyGraphQLClientService = shopifyGraphQLClientService;
     }
 
     @Transactional(rollbackFor = Exception.class)
@@ -47,6 +54,12 @@ public class UninstallWebhook {
 
         List<AuthorizedClient> clients = authorizedClientRepository.findByClientRegistrationId(id);
         clients.forEach(entityManager::remove);
+        // The uninstall revokes the access tokens, so drop any cached API clients still holding them
+        clients.forEach(client -> {
+            shopifyRestClientService.invalidateShopifyRestClients(client.getPrincipalName());
+            shopifyGraphQLClientService.invalidateShopifyGraphQLClients(client.getPrincipalName());
+            ShopifyResponseCache.invalidate(client.getPrincipalName(), "app/uninstalled");
+        });
         return ResponseEntity.ok("{\"message\": \"success\"}");
     }
 
@@ -71,6 +71,7 @@ public class ClientSecurityConfig {
 						"/webhook/gdpr/customer-delete",
 						"/webhook/gdpr/data-request",
 						"/webhook/gdpr/shop-delete",
+						"/webhook/cache-invalidation",
 						"/oauth2/**",
 						"/login/oauth2/**")
 				.csrfTokenRepository(CookieCsrfTokenRepository.withHttpOnlyFalse()));
@@ -1,5 +1,7 @@
 package com.justblackmagic.shopify.auth.service;
 
+import com.justblackmagic.shopify.api.graphql.ShopifyGraphQLClientService;
+import com.justblackmagic.shopify.api.rest.ShopifyRestClientService;
 import com.justblackmagic.shopify.auth.persistence.model.AuthorizedClient;
 import com.justblackmagic.shopify.auth.persistence.model.AuthorizedClientId;
 import com.justblackmagic.shopify.auth.persistence.repository.JPAAuthorizedClientRepository;
@@ -38,6 +40,13 @@ public class JPAOAuth2AuthorizedClientService implements OAuth2AuthorizedClientS
 	@Autowired
 	private ApplicationEventPublisher eventPublisher;
 
+	/** Cached API clients are dropped whenever a shop's token is replaced or removed. */
+	@Autowired
+	private ShopifyRestClientService shopifyRestClientService;
+
+	@Autowired
+	private ShopifyGraphQLClientService shopifyGraphQLClientService;
+
 
 	/**
 	 * Loads the authorized client for the given principal and client registration id.
@@ -86,6 +95,7 @@ public class JPAOAuth2AuthorizedClientService implements OAuth2AuthorizedClientS
 		log.trace("saveAuthorizedClient: about to save.");
 		jpaAuthorizedClientRepository.save(authorizedClient);
 		log.debug("saveAuthorizedClient: saved client successfully.");
+		invalidateCachedApiClients(pAuthorizedClient.getPrincipalName());
 
 		eventPublisher.publishEvent(new AppInstallEvent(pAuthorizedClient.getPrincipalName(), null, null));
 	}
@@ -104,6 +114,18 @@ public class JPAOAuth2AuthorizedClientService implements OAuth2AuthorizedClientS
 		AuthorizedClientId clientId = new AuthorizedClientId(pClientRegistrationId, pPrincipalName);
 		jpaAuthorizedClientRepository.deleteById(clientId);
 		log.debug("removeAuthorizedClient: client deleted.");
+		invalidateCachedApiClients(pPrincipalName);
+	}
+
+
+	/**
+	 * Drops the cached REST and GraphQL clients of the given shop, so no client keeps using a replaced or revoked token.
+	 *
+	 * @param pShopName
+	 */
+	private void invalidateCachedApiClients(String pShopName) {
+		shopifyRestClientService.invalidateShopifyRestClients(pShopName);
+		shopifyGraphQLClientService.invalidateShopifyGraphQLClients(pShopName);
 	}
 
 }
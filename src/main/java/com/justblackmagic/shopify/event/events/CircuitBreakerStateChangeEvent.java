@@ -0,0 +1,41 @@
+package com.justblackmagic.shopify.event.events;
+
+import org.springframework.context.ApplicationEvent;
+import com.justblackmagic.shopify.api.circuitbreaker.ShopifyCircuitBreaker.State;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+/**
+ * The CircuitBreakerStateChangeEvent class is triggered when the circuit breaker of a Shopify Shop changes state. An OPEN state means calls to the
+ * shop's API are failing fast, which might drive alerting or pausing background jobs for the shop.
+ */
+@Data
+@EqualsAndHashCode(callSuper = false)
+public class CircuitBreakerStateChangeEvent extends ApplicationEvent {
+
+    /** The Constant serialVersionUID. */
+    private static final long serialVersionUID = 4478305591630261583L;
+
+    /** The shop name. */
+    private final String shopName;
+
+    /** The state before the change. */
+    private final State fromState;
+
+    /** The state after the change. */
+    private final State toState;
+
+    /**
+     * Instantiates a new circuit breaker state change event.
+     *
+     * @param shopName the shop name
+     * @param fromState the state before the change
+     * @param toState the state after the change
+     */
+    public CircuitBreakerStateChangeEvent(final String shopName, final State fromState, final State toState) {
+        super(shopName);
+        this.shopName = shopName;
+        this.fromState = fromState;
+        this.toState = toState;
+    }
+}
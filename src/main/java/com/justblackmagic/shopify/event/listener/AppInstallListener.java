@@ -7,6 +7,7 @@ import com.justblackmagic.shopify.api.rest.model.Webhook;
 import com.justblackmagic.shopify.auth.persistence.model.AuthorizedClient;
 import com.justblackmagic.shopify.auth.persistence.repository.JPAAuthorizedClientRepository;
 import com.justblackmagic.shopify.event.events.AppInstallEvent;
+import java.util.List;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.event.EventListener;
@@ -30,6 +31,13 @@ public class AppInstallListener {
     @Value("${shopify.app.hostname}")
     private String shopifyAppHostname;
 
+    @Value("${shopify.api.rest.cache.ttl-seconds:0}")
+    private int responseCacheTtlSeconds;
+
+    /** Topics whose webhooks keep the REST response cache in step with changes made in Shopify */
+    private static final List<String> CACHE_INVALIDATION_TOPICS = List.of("shop/update", "locations/create", "locations/update",
+            "locations/delete", "products/create", "products/update", "products/delete");
+
 
     /**
      * @param event
@@ -66,9 +74,27 @@ public class AppInstallListener {
                             shopifyRestClientService.getShopifyRestClient(client.getPrincipalName(), client.getAccessTokenValue());
                     shopifyRestClient.createWebhook(webhook);
 
+                    if (responseCacheTtlSeconds > 0) {
+                        registerCacheInvalidationWebhooks(shopifyRestClient);
+                    }
+
                 }
 
             }
         }
     }
+
+
+    /**
+     * @param shopifyRestClient
+     */
+    private void registerCacheInvalidationWebhooks(ShopifyRestClient shopifyRestClient) {
+        for (String topic : CACHE_INVALIDATION_TOPICS) {
+            Webhook webhook = new Webhook();
+            webhook.setAddress("https://" + shopifyAppHostname + "/webhook/cache-invalidation");
+            webhook.setTopic(topic);
+            webhook.setFormat("json");
+            shopifyRestClient.createWebhook(webhook);
+        }
+    }
 }
@@ -79,7 +79,7 @@ public class InstallTestListener {
                 log.debug("onApplicationEvent: custom collection: {}", customCollection.getTitle());
             });
 
-            shopifyRestClient.getProducts().values().forEach(product -> {
+            shopifyRestClient.streamProducts().forEach(product -> {
                 log.debug("onApplicationEvent: product: {}", product.getTitle());
             });
 
@@ -0,0 +1,22 @@
+package com.justblackmagic.shopify.sync;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.persistence.autoconfigure.EntityScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import com.justblackmagic.shopify.sync.persistence.model.SyncedOrder;
+import com.justblackmagic.shopify.sync.persistence.repository.SyncedOrderRepository;
+
+/**
+ * Registers the synced order entities and repositories only when the order sync is enabled, so apps that leave it off do not need the
+ * synced_order and sync_watermark tables.
+ *
+ * @author justblackmagic
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "shopify.sync.orders", name = "enabled", havingValue = "true")
+@EntityScan(basePackageClasses = SyncedOrder.class)
+@EnableJpaRepositories(basePackageClasses = SyncedOrderRepository.class)
+public class OrderSyncConfig {
+
+}
@@ -0,0 +1,4 @@
+/*
+ * This package keeps local copies of Shopify resources current by incrementally syncing what changed since the last run of each shop.
+ */
+package com.justblackmagic.shopify.sync;
@@ -0,0 +1,34 @@
+package com.justblackmagic.shopify.sync.persistence.model;
+
+import java.time.Instant;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import lombok.Data;
+
+
+/**
+ * JPA entity for persisting how far the incremental sync of a shop's resource has got: every record updated up to the watermark has been synced.
+ * 
+ * @author justblackmagic
+ */
+@Data
+@Entity
+@IdClass(SyncWatermarkId.class)
+public class SyncWatermark {
+	@Id
+	private String shop;
+
+	/** The synced REST resource, e.g. orders */
+	@Id
+	private String resource;
+
+	/** The latest updated_at of the synced records, or null before the first sync */
+	private Instant watermark;
+
+	private Instant lastSyncedAt;
+
+	/** Records written to the local store by the last sync */
+	private int lastSyncedCount;
+
+}
@@ -0,0 +1,28 @@
+package com.justblackmagic.shopify.sync.persistence.model;
+
+import java.io.Serializable;
+
+import lombok.Data;
+
+/**
+ * This class is to provide a composite (multi-column) id for the Sync Watermark model's table.
+ */
+@Data
+public class SyncWatermarkId implements Serializable {
+
+	/**
+	 * Generated SerialVersionUID
+	 */
+	private static final long serialVersionUID = 4650375208115294733L;
+
+	private String shop;
+
+	private String resource;
+
+	public SyncWatermarkId(String shop, String resource) {
+		this.shop = shop;
+		this.resource = resource;
+	}
+
+	public SyncWatermarkId() {}
+}
@@ -0,0 +1,88 @@
+package com.justblackmagic.shopify.sync.persistence.model;
+
+import java.time.Instant;
+import org.springframework.data.domain.Persistable;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Lob;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Transient;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+
+/**
+ * JPA entity for persisting the local copy of a Shopify order, kept current by the incremental order sync. The order is stored as the JSON the REST
+ * API returned, next to the columns needed to decide whether a newer version has arrived.
+ * 
+ * @author justblackmagic
+ */
+@Data
+@Entity
+@IdClass(SyncedOrderId.class)
+public class SyncedOrder implements Persistable<SyncedOrderId> {
+	@Id
+	private String shop;
+
+	@Id
+	private String orderId;
+
+	private String name;
+
+	private Instant updatedAt;
+
+	private Instant syncedAt;
+
+	@Lob
+	@ToString.Exclude
+	private String payload;
+
+	// Lets a batch of new orders be inserted without a select per order to find out whether they exist
+	@Transient
+	@ToString.Exclude
+	@EqualsAndHashCode.Exclude
+	private boolean newOrder;
+
+
+	/**
+	 * @param shop
+	 * @param orderId
+	 * @return a new order, inserted when saved
+	 */
+	public static SyncedOrder newOrder(final String shop, final String orderId) {
+		final SyncedOrder syncedOrder = new SyncedOrder();
+		syncedOrder.setShop(shop);
+		syncedOrder.setOrderId(orderId);
+		syncedOrder.setNewOrder(true);
+		return syncedOrder;
+	}
+
+
+	/**
+	 * @return SyncedOrderId
+	 */
+	@Override
+	public SyncedOrderId getId() {
+		return new SyncedOrderId(shop, orderId);
+	}
+
+
+	/**
+	 * @return boolean
+	 */
+	@Override
+	public boolean isNew() {
+		return newOrder;
+	}
+
+
+	@PostLoad
+	@PostPersist
+	void markNotNew() {
+		this.newOrder = false;
+	}
+
+}
@@ -0,0 +1,28 @@
+package com.justblackmagic.shopify.sync.persistence.model;
+
+import java.io.Serializable;
+
+import lombok.Data;
+
+/**
+ * This class is to provide a composite (multi-column) id for the Synced Order model's table.
+ */
+@Data
+public class SyncedOrderId implements Serializable {
+
+	/**
+	 * Generated SerialVersionUID
+	 */
+	private static final long serialVersionUID = -2875027941378420756L;
+
+	private String shop;
+
+	private String orderId;
+
+	public SyncedOrderId(String shop, String orderId) {
+		this.shop = shop;
+		this.orderId = orderId;
+	}
+
+	public SyncedOrderId() {}
+}
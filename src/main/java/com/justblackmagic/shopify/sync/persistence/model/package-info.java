@@ -0,0 +1 @@
+package com.justblackmagic.shopify.sync.persistence.model;
\ No newline at end of file
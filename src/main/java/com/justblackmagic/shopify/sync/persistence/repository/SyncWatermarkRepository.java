@@ -0,0 +1,21 @@
+package com.justblackmagic.shopify.sync.persistence.repository;
+
+import com.justblackmagic.shopify.sync.persistence.model.SyncWatermark;
+import com.justblackmagic.shopify.sync.persistence.model.SyncWatermarkId;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+/**
+ * A simple JPA repository for {@link SyncWatermark} entity.
+ * 
+ * @author justblackmagic
+ */
+public interface SyncWatermarkRepository extends JpaRepository<SyncWatermark, SyncWatermarkId> {
+
+	/**
+	 * Forgets the sync progress of a shop, so its next sync starts over.
+	 * 
+	 * @param shop The full shop name
+	 */
+	void deleteByShop(String shop);
+
+}
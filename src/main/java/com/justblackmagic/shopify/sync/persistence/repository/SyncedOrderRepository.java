@@ -0,0 +1,38 @@
+package com.justblackmagic.shopify.sync.persistence.repository;
+
+import java.util.Collection;
+import java.util.List;
+import com.justblackmagic.shopify.sync.persistence.model.SyncedOrder;
+import com.justblackmagic.shopify.sync.persistence.model.SyncedOrderId;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+/**
+ * A simple JPA repository for {@link SyncedOrder} entity.
+ * 
+ * @author justblackmagic
+ */
+public interface SyncedOrderRepository extends JpaRepository<SyncedOrder, SyncedOrderId> {
+
+	/**
+	 * Loads the stored orders of a batch in a single query. Unlike findAllById, which finds the orders one by one because of the composite id.
+	 * 
+	 * @param shop The full shop name
+	 * @param orderIds
+	 * @return the stored orders among the given ones
+	 */
+	List<SyncedOrder> findByShopAndOrderIdIn(String shop, Collection<String> orderIds);
+
+	/**
+	 * @param shop The full shop name
+	 * @return the number of orders synced for the shop
+	 */
+	long countByShop(String shop);
+
+	/**
+	 * Forgets everything synced for a shop, e.g. when Shopify asks for the shop's data to be erased.
+	 * 
+	 * @param shop The full shop name
+	 */
+	void deleteByShop(String shop);
+
+}
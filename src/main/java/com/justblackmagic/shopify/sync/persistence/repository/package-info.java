@@ -0,0 +1 @@
+package com.justblackmagic.shopify.sync.persistence.repository;
\ No newline at end of file
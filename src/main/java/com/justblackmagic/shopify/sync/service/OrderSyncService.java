@@ -0,0 +1,214 @@
+package com.justblackmagic.shopify.sync.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import com.justblackmagic.shopify.api.rest.ShopifyRestClient;
+import com.justblackmagic.shopify.api.rest.ShopifyRestClientService;
+import com.justblackmagic.shopify.api.rest.model.ShopifyOrder;
+import com.justblackmagic.shopify.api.rest.model.ShopifyPage;
+import com.justblackmagic.shopify.auth.persistence.model.AuthorizedClient;
+import com.justblackmagic.shopify.auth.persistence.repository.JPAAuthorizedClientRepository;
+import com.justblackmagic.shopify.sync.persistence.model.SyncWatermark;
+import com.justblackmagic.shopify.sync.persistence.model.SyncWatermarkId;
+import com.justblackmagic.shopify.sync.persistence.repository.SyncWatermarkRepository;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps the local copy of every installed shop's orders current. Each cycle fetches only the orders updated since the shop's persisted watermark,
+ * so an idle shop costs a single call, instead of re-pulling its whole order history.
+ *
+ * <p>Every window starts a little before the watermark, so orders Shopify indexed late, or updated within the second the last window ended in, are
+ * not missed. Orders fetched twice, by the overlap or because they moved between pages while being paged, are de-duplicated by id, and written to
+ * the {@link SyncedOrderStore} in batches. The watermark only moves once a whole window has been stored, so a failed cycle is simply repeated.
+ *
+ * <p>Enabled with {@code shopify.sync.orders.enabled=true}.
+ *
+ * @author justblackmagic
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(prefix = "shopify.sync.orders", name = "enabled", havingValue = "true")
+public class OrderSyncService {
+
+    static final String ORDERS_RESOURCE = "orders";
+    private static final String CLIENT_REGISTRATION_ID = "shopify";
+
+    /**
+     * The range of {@code updated_at} values one sync cycle fetches, both ends inclusive.
+     *
+     * @param updatedAtMin
+     * @param updatedAtMax
+     */
+    record SyncWindow(Instant updatedAtMin, Instant updatedAtMax) {}
+
+    @Autowired
+    private ShopifyRestClientService shopifyRestClientService;
+
+    @Autowired
+    private JPAAuthorizedClientRepository authorizedClientRepository;
+
+    @Autowired
+    private SyncWatermarkRepository syncWatermarkRepository;
+
+    @Autowired
+    private SyncedOrderStore syncedOrderStore;
+
+    /** How far before the watermark each window starts */
+    @Value("${shopify.sync.orders.overlap:PT5M}")
+    private Duration overlap = Duration.ofMinutes(5);
+
+    /** How far back the first sync of a shop reaches */
+    @Value("${shopify.sync.orders.initial-lookback:P30D}")
+    private Duration initialLookback = Duration.ofDays(30);
+
+    @Value("${shopify.sync.orders.page-size:250}")
+    private int pageSize = 250;
+
+    /** Orders upserted per transaction */
+    @Value("${shopify.sync.orders.batch-size:100}")
+    private int batchSize = 100;
+
+
+    /**
+     * Syncs the orders of every installed shop, one shop at a time. A shop that fails is logged and retried next cycle.
+     */
+    @Scheduled(fixedDelayString = "${shopify.sync.orders.interval:PT5M}", initialDelayString = "${shopify.sync.orders.initial-delay:PT1M}")
+    public void syncAllShops() {
+        for (final AuthorizedClient client : authorizedClientRepository.findByClientRegistrationId(CLIENT_REGISTRATION_ID)) {
+            try {
+                syncShop(client.getPrincipalName(),
+                        shopifyRestClientService.getShopifyRestClient(client.getPrincipalName(), client.getAccessTokenValue()));
+            } catch (final RuntimeException e) {
+                log.warn("Order sync of shop {} failed, it will be retried next cycle", client.getPrincipalName(), e);
+            }
+        }
+    }
+
+
+    /**
+     * Fetches the orders of a shop updated since its watermark, stores them and moves the watermark on.
+     *
+     * @param shop
+     * @param shopifyRestClient
+     * @return the number of orders inserted or updated
+     */
+    public int syncShop(final String shop, final ShopifyRestClient shopifyRestClient) {
+        final SyncWatermark syncWatermark =
+                syncWatermarkRepository.findById(new SyncWatermarkId(shop, ORDERS_RESOURCE)).orElseGet(() -> newSyncWatermark(shop));
+        final SyncWindow window = nextWindow(syncWatermark.getWatermark(), Instant.now(), overlap, initialLookback);
+        final ZonedDateTime updatedAtMax = toZonedDateTime(window.updatedAtMax());
+
+        final Map<String, Instant> seenOrders = new HashMap<>();
+        final Map<String, ShopifyOrder> batch = new LinkedHashMap<>();
+        Instant latestUpdatedAt = null;
+        int fetchedCount = 0;
+        int upsertedCount = 0;
+        ShopifyPage<ShopifyOrder> page =
+                shopifyRestClient.getUpdatedOrdersCreatedBefore(toZonedDateTime(window.updatedAtMin()), updatedAtMax, updatedAtMax, pageSize);
+        while (true) {
+            for (final ShopifyOrder order : page) {
+                fetchedCount++;
+                final Instant updatedAt = order.getUpdatedAt() == null ? null : order.getUpdatedAt().toInstant();
+                if (seenOrders.containsKey(order.getId()) && !isNewer(updatedAt, seenOrders.get(order.getId()))) {
+                    continue;
+                }
+                seenOrders.put(order.getId(), updatedAt);
+                batch.put(order.getId(), order);
+                if (updatedAt != null && isNewer(updatedAt, latestUpdatedAt)) {
+                    latestUpdatedAt = updatedAt;
+                }
+                if (batch.size() >= batchSize) {
+                    upsertedCount += syncedOrderStore.upsert(shop, batch.values());
+                    batch.clear();
+                }
+            }
+            if (page.getNextPageInfo() == null) {
+                break;
+            }
+            page = shopifyRestClient.getOrders(page.getNextPageInfo(), pageSize);
+        }
+        if (!batch.isEmpty()) {
+            upsertedCount += syncedOrderStore.upsert(shop, batch.values());
+        }
+
+        syncWatermark.setWatermark(advanceWatermark(syncWatermark.getWatermark(), latestUpdatedAt, window, overlap));
+        syncWatermark.setLastSyncedAt(window.updatedAtMax());
+        syncWatermark.setLastSyncedCount(upsertedCount);
+        syncWatermarkRepository.save(syncWatermark);
+        log.info("Synced orders of shop {} updated from {} to {}: {} fetched, {} distinct, {} upserted", shop, window.updatedAtMin(),
+                window.updatedAtMax(), fetchedCount, seenOrders.size(), upsertedCount);
+        return upsertedCount;
+    }
+
+
+    /**
+     * @param watermark the watermark of the last sync, or null before the first one
+     * @param now
+     * @param overlap
+     * @param initialLookback
+     * @return the window of the next sync, at second precision like Shopify's {@code updated_at} filters
+     */
+    static SyncWindow nextWindow(final Instant watermark, final Instant now, final Duration overlap, final Duration initialLookback) {
+        final Instant updatedAtMin = watermark == null ? now.minus(initialLookback) : watermark.minus(overlap);
+        return new SyncWindow(updatedAtMin.truncatedTo(ChronoUnit.SECONDS), now.truncatedTo(ChronoUnit.SECONDS));
+    }
+
+
+    /**
+     * Moves the watermark to the latest {@code updated_at} of the synced orders. Shopify's own timestamps are used rather than the local clock, so
+     * clock skew cannot open a gap. A window without orders moves it to the end of the window less the overlap, keeping the next window short.
+     *
+     * @param watermark the watermark of the last sync, or null before the first one
+     * @param latestUpdatedAt the latest {@code updated_at} synced, or null if the window had no orders
+     * @param window
+     * @param overlap
+     * @return the new watermark, never earlier than the last one
+     */
+    static Instant advanceWatermark(final Instant watermark, final Instant latestUpdatedAt, final SyncWindow window, final Duration overlap) {
+        final Instant candidate = latestUpdatedAt != null ? latestUpdatedAt : window.updatedAtMax().minus(overlap);
+        return isNewer(candidate, watermark) ? candidate : watermark;
+    }
+
+
+    /**
+     * @param updatedAt
+     * @param previousUpdatedAt
+     * @return true if updatedAt is later than previousUpdatedAt, or either is unknown
+     */
+    private static boolean isNewer(final Instant updatedAt, final Instant previousUpdatedAt) {
+        return updatedAt == null || previousUpdatedAt == null || updatedAt.isAfter(previousUpdatedAt);
+    }
+
+
+    /**
+     * @param shop
+     * @return SyncWatermark
+     */
+    private static SyncWatermark newSyncWatermark(final String shop) {
+        final SyncWatermark syncWatermark = new SyncWatermark();
+        syncWatermark.setShop(shop);
+        syncWatermark.setResource(ORDERS_RESOURCE);
+        return syncWatermark;
+    }
+
+
+    /**
+     * @param instant
+     * @return ZonedDateTime
+     */
+    private static ZonedDateTime toZonedDateTime(final Instant instant) {
+        return ZonedDateTime.ofInstant(instant, ZoneOffset.UTC);
+    }
+
+}
@@ -0,0 +1,105 @@
+package com.justblackmagic.shopify.sync.service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.justblackmagic.shopify.api.rest.mappers.ShopifySdkObjectMapper;
+import com.justblackmagic.shopify.api.rest.model.ShopifyOrder;
+import com.justblackmagic.shopify.sync.persistence.model.SyncedOrder;
+import com.justblackmagic.shopify.sync.persistence.model.SyncedOrderId;
+import com.justblackmagic.shopify.sync.persistence.repository.SyncWatermarkRepository;
+import com.justblackmagic.shopify.sync.persistence.repository.SyncedOrderRepository;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * The local store of synced orders. A batch of orders is upserted in one transaction: the orders already stored are loaded with a single query, only
+ * those Shopify changed since are rewritten, and new ones are inserted without a lookup each, so a batch costs a handful of statements.
+ *
+ * <p>Enabled with {@code shopify.sync.orders.enabled=true}, along with the {@link OrderSyncService}.
+ *
+ * @author justblackmagic
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(prefix = "shopify.sync.orders", name = "enabled", havingValue = "true")
+public class SyncedOrderStore {
+
+    private static final ObjectMapper PAYLOAD_MAPPER = ShopifySdkObjectMapper.buildMapper();
+
+    @Autowired
+    private SyncedOrderRepository syncedOrderRepository;
+
+    @Autowired
+    private SyncWatermarkRepository syncWatermarkRepository;
+
+
+    /**
+     * Inserts the orders not stored yet and updates those stored with an older {@code updated_at}. Orders re-fetched unchanged, e.g. by the overlap
+     * window of an incremental sync, are skipped.
+     *
+     * @param shop
+     * @param orders distinct orders
+     * @return the number of orders inserted or updated
+     */
+    @Transactional
+    public int upsert(final String shop, final Collection<ShopifyOrder> orders) {
+        final List<String> orderIds = orders.stream().map(ShopifyOrder::getId).toList();
+        final Map<SyncedOrderId, SyncedOrder> storedOrders = syncedOrderRepository.findByShopAndOrderIdIn(shop, orderIds).stream()
+                .collect(Collectors.toMap(SyncedOrder::getId, Function.identity()));
+        final Instant now = Instant.now();
+        final List<SyncedOrder> changedOrders = new ArrayList<>(orders.size());
+        for (final ShopifyOrder order : orders) {
+            final Instant updatedAt = order.getUpdatedAt() == null ? null : order.getUpdatedAt().toInstant();
+            SyncedOrder syncedOrder = storedOrders.get(new SyncedOrderId(shop, order.getId()));
+            if (syncedOrder == null) {
+                syncedOrder = SyncedOrder.newOrder(shop, order.getId());
+            } else if (updatedAt != null && syncedOrder.getUpdatedAt() != null && !updatedAt.isAfter(syncedOrder.getUpdatedAt())) {
+                continue;
+            }
+            syncedOrder.setName(order.getName());
+            syncedOrder.setUpdatedAt(updatedAt);
+            syncedOrder.setSyncedAt(now);
+            syncedOrder.setPayload(toPayload(order));
+            changedOrders.add(syncedOrder);
+        }
+        syncedOrderRepository.saveAll(changedOrders);
+        log.debug("Upserted {} of {} orders of shop {}", changedOrders.size(), orders.size(), shop);
+        return changedOrders.size();
+    }
+
+
+    /**
+     * Deletes the synced orders and the sync progress of a shop.
+     *
+     * @param shop
+     */
+    @Transactional
+    public void deleteShop(final String shop) {
+        syncedOrderRepository.deleteByShop(shop);
+        syncWatermarkRepository.deleteByShop(shop);
+    }
+
+
+    /**
+     * @param order
+     * @return the order as JSON
+     */
+    private static String toPayload(final ShopifyOrder order) {
+        try {
+            return PAYLOAD_MAPPER.writeValueAsString(order);
+        } catch (final JsonProcessingException e) {
+            throw new IllegalStateException("Order " + order.getId() + " could not be serialized.", e);
+        }
+    }
+
+}
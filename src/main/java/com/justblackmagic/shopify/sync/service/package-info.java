@@ -0,0 +1 @@
+package com.justblackmagic.shopify.sync.service;
\ No newline at end of file
@@ -0,0 +1,105 @@
+package com.justblackmagic.shopify.api;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.GZIPOutputStream;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * A local stand-in for the Shopify API that tests point their clients at. Each request is handled on its own thread, so handlers may block to hold
+ * calls in flight.
+ */
+public final class StubShopifyServer implements AutoCloseable {
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    private StubShopifyServer(HttpServer server) {
+        this.server = server;
+        server.setExecutor(executor);
+    }
+
+    /**
+     * @return a server on a free local port, to add handlers to and start
+     * @throws IOException if no port can be bound
+     */
+    public static StubShopifyServer create() throws IOException {
+        return new StubShopifyServer(HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0));
+    }
+
+    /**
+     * @param path the path, and every path under it, the handler answers
+     * @param handler
+     * @return this server
+     */
+    public StubShopifyServer handle(String path, HttpHandler handler) {
+        server.createContext(path, handler);
+        return this;
+    }
+
+    /**
+     * @return this server, accepting requests
+     */
+    public StubShopifyServer start() {
+        server.start();
+        return this;
+    }
+
+    /**
+     * @return the URL of the server, such as {@code http://127.0.0.1:54321}, to use as the API URL. Clients key their shop by host and port, so
+     *         the clients of each server get their own call limit governor, circuit breaker and retry budget, untouched by other tests.
+     */
+    public String getBaseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    /**
+     * Sends a JSON response and closes the exchange.
+     *
+     * @param exchange
+     * @param status
+     * @param body
+     * @throws IOException
+     */
+    public static void respond(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        exchange.getResponseBody().write(body);
+        exchange.close();
+    }
+
+    /**
+     * Sends a gzip compressed JSON response and closes the exchange.
+     *
+     * @param exchange
+     * @param body the uncompressed body
+     * @throws IOException
+     */
+    public static void respondGzip(HttpExchange exchange, byte[] body) throws IOException {
+        exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+        respond(exchange, 200, gzip(body));
+    }
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return compressed.toByteArray();
+    }
+}
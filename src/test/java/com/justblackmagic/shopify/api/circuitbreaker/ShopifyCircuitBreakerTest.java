@@ -0,0 +1,111 @@
+package com.justblackmagic.shopify.api.circuitbreaker;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.justblackmagic.shopify.api.circuitbreaker.ShopifyCircuitBreaker.State;
+import com.justblackmagic.shopify.api.circuitbreaker.ShopifyCircuitBreaker.StateChange;
+
+/**
+ * Tests for ShopifyCircuitBreaker to verify the closed, open and half-open state transitions.
+ */
+class ShopifyCircuitBreakerTest {
+
+    private AtomicLong clock;
+    private ShopifyCircuitBreaker breaker;
+    private final List<StateChange> stateChanges = new ArrayList<>();
+    private final Consumer<StateChange> listener = stateChanges::add;
+
+    @BeforeEach
+    void setUp() {
+        clock = new AtomicLong(0L);
+        breaker = new ShopifyCircuitBreaker("test-store.myshopify.com", clock::get, 30000L);
+        ShopifyCircuitBreaker.addStateChangeListener(listener);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ShopifyCircuitBreaker.removeStateChangeListener(listener);
+    }
+
+    @Test
+    void testStaysClosedBelowMinimumCalls() {
+        for (int i = 0; i < ShopifyCircuitBreaker.DEFAULT_MINIMUM_CALLS - 1; i++) {
+            breaker.onFailure();
+        }
+        assertEquals(State.CLOSED, breaker.getState());
+        assertTrue(breaker.tryAcquirePermission());
+    }
+
+    @Test
+    void testOpensAtFailureRateThreshold() {
+        trip();
+        assertEquals(State.OPEN, breaker.getState());
+        assertThrows(ShopifyCircuitBreakerOpenException.class, breaker::acquirePermission);
+        assertEquals(1L, breaker.getRejectedCallCount());
+        assertEquals(List.of(new StateChange("test-store.myshopify.com", State.CLOSED, State.OPEN)), stateChanges);
+    }
+
+    @Test
+    void testMostlySuccessfulCallsKeepBreakerClosed() {
+        for (int i = 0; i < 100; i++) {
+            breaker.onSuccess();
+            breaker.onSuccess();
+            breaker.onFailure();
+        }
+        assertEquals(State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void testSuccessfulProbesCloseBreaker() {
+        trip();
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(30));
+        for (int i = 0; i < ShopifyCircuitBreaker.DEFAULT_PROBE_CALLS; i++) {
+            assertTrue(breaker.tryAcquirePermission());
+        }
+        assertEquals(State.HALF_OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquirePermission());
+        for (int i = 0; i < ShopifyCircuitBreaker.DEFAULT_PROBE_CALLS; i++) {
+            breaker.onSuccess();
+        }
+        assertEquals(State.CLOSED, breaker.getState());
+        assertEquals(0.0d, breaker.getFailureRate(), 0.001d);
+        assertEquals(State.CLOSED, stateChanges.get(stateChanges.size() - 1).toState());
+    }
+
+    @Test
+    void testFailedProbeReopensBreaker() {
+        trip();
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(30));
+        assertTrue(breaker.tryAcquirePermission());
+        breaker.onFailure();
+        assertEquals(State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquirePermission());
+    }
+
+    @Test
+    void testIgnoredProbeReleasesPermission() {
+        trip();
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(30));
+        for (int i = 0; i < ShopifyCircuitBreaker.DEFAULT_PROBE_CALLS; i++) {
+            assertTrue(breaker.tryAcquirePermission());
+        }
+        breaker.onIgnored();
+        assertTrue(breaker.tryAcquirePermission());
+    }
+
+    private void trip() {
+        for (int i = 0; i < ShopifyCircuitBreaker.DEFAULT_MINIMUM_CALLS; i++) {
+            breaker.onFailure();
+        }
+    }
+}
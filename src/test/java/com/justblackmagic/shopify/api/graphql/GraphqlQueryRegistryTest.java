@@ -0,0 +1,77 @@
+package com.justblackmagic.shopify.api.graphql;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Tests for GraphqlQueryRegistry to verify queries are loaded once with prebuilt request bodies, and missing or invalid queries fail the load.
+ */
+class GraphqlQueryRegistryTest {
+
+    @TempDir
+    Path queryDirectory;
+
+    @Test
+    void testClasspathQueriesAreLoadedWithPrebuiltBodies() throws Exception {
+        final GraphqlQueryRegistry registry = GraphqlQueryRegistry.getDefault().require(ShopifyGraphQLClient.QUERY_NAMES);
+        assertSame(registry, GraphqlQueryRegistry.getDefault());
+
+        final GraphqlQuery getShop = registry.get(ShopifyGraphQLClient.GET_SHOP_QUERY);
+        assertFalse(getShop.hasVariables());
+        assertSame(getShop.getRequestBody(), getShop.getRequestBody(Map.of()));
+        final JsonNode body = new ObjectMapper().readTree(getShop.getRequestBody());
+        assertEquals(getShop.getQuery(), body.get("query").asText());
+        assertNull(body.get("variables"));
+
+        final GraphqlQuery createProduct = registry.get(ShopifyGraphQLClient.CREATE_PRODUCT_QUERY);
+        assertTrue(createProduct.hasVariables());
+        final JsonNode createBody = new ObjectMapper().readTree(createProduct.getRequestBody(Map.of("$titleValue", "The \"Best\" Tee")));
+        assertEquals("The \"Best\" Tee", createBody.path("variables").path("input").path("title").asText());
+    }
+
+    @Test
+    void testMissingQueriesFailTheRequirement() {
+        final GraphqlQueryRegistry registry = GraphqlQueryRegistry.getDefault();
+        final IllegalStateException exception = assertThrows(IllegalStateException.class, () -> registry.require(List.of("getShop", "getOrders")));
+        assertTrue(exception.getMessage().contains("graphql/getOrders.graphql"), exception.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> registry.get("getOrders"));
+    }
+
+    @Test
+    void testInvalidQueriesFailTheLoad() throws Exception {
+        Files.writeString(queryDirectory.resolve("getShop.graphql"), "{ shop { name } }");
+        Files.writeString(queryDirectory.resolve("broken.graphql"), "{ shop { name }");
+        final String pattern = queryDirectory.toUri() + "*.graphql";
+
+        final IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> GraphqlQueryRegistry.load(new PathMatchingResourcePatternResolver(), pattern));
+        assertTrue(exception.getMessage().contains("broken.graphql"), exception.getMessage());
+
+        Files.delete(queryDirectory.resolve("broken.graphql"));
+        Files.writeString(queryDirectory.resolve("getShopVariables.json"), "[]");
+        assertThrows(IllegalStateException.class, () -> GraphqlQueryRegistry.load(new PathMatchingResourcePatternResolver(), pattern));
+
+        Files.writeString(queryDirectory.resolve("getShopVariables.json"), "{\"id\": \"$id\"}");
+        assertTrue(GraphqlQueryRegistry.load(new PathMatchingResourcePatternResolver(), pattern).get("getShop").hasVariables());
+    }
+
+    @Test
+    void testValidationChecksBracesOutsideStringsAndComments() {
+        assertNull(GraphqlQueryRegistry.validate("query { shop { name } } # closing } only in a comment\n"));
+        assertNull(GraphqlQueryRegistry.validate("{ products(query: \"title:{\") { edges { node { id } } } }"));
+        assertNotNull(GraphqlQueryRegistry.validate("  \n"));
+        assertNotNull(GraphqlQueryRegistry.validate("{ shop { name } } }"));
+        assertNotNull(GraphqlQueryRegistry.validate("{ products(first: 10 { id } }"));
+    }
+}
@@ -0,0 +1,97 @@
+package com.justblackmagic.shopify.api.graphql;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonRootName;
+import com.justblackmagic.shopify.api.graphql.model.Product;
+import com.justblackmagic.shopify.api.graphql.model.ProductCreate;
+import com.justblackmagic.shopify.api.graphql.model.ProductNode;
+import com.justblackmagic.shopify.api.graphql.model.Products;
+import com.justblackmagic.shopify.api.graphql.model.Shop;
+
+/**
+ * Tests for GraphqlResponseReader to verify the root field, extensions and errors of a response are decoded in one pass, and unrelated nodes are
+ * skipped.
+ */
+class GraphqlResponseReaderTest {
+
+    private static final String EXTENSIONS = "\"extensions\":{\"cost\":{\"requestedQueryCost\":52,\"actualQueryCost\":12,"
+            + "\"throttleStatus\":{\"maximumAvailable\":1000.0,\"currentlyAvailable\":988,\"restoreRate\":50.0}}}";
+
+    /**
+     * The array returned by the {@code nodes} root field.
+     */
+    @JsonRootName("nodes")
+    static class ProductList {
+        private final List<Product> products;
+
+        @JsonCreator(mode = JsonCreator.Mode.DELEGATING)
+        ProductList(List<Product> products) {
+            this.products = products;
+        }
+    }
+
+    @Test
+    void testRootFieldAndExtensionsAreBound() throws Exception {
+        final String json = "{\"data\":{\"other\":{\"nested\":[1,{\"a\":2}]},\"shop\":{\"name\":\"Test Store\",\"currencyCode\":\"USD\","
+                + "\"taxesIncluded\":true,\"unknown\":{\"x\":1}}}," + EXTENSIONS + "}";
+
+        final GraphqlResult<Shop> result = GraphqlResponseReader.read(json, Shop.class);
+        assertFalse(result.hasErrors());
+        assertFalse(result.isThrottled());
+        assertEquals("Test Store", result.getData().getName());
+        assertEquals("USD", result.getData().getCurrencyCode());
+        assertTrue(result.getData().isTaxesIncluded());
+        assertEquals(52, result.getCost().getRequestedQueryCost());
+        assertEquals(988, result.getCost().getThrottleStatus().getCurrentlyAvailable());
+    }
+
+    @Test
+    void testConnectionsAreBoundFromBytes() throws Exception {
+        final String json = "{\"data\":{\"products\":{\"edges\":[{\"node\":{\"id\":\"gid://shopify/Product/1\",\"title\":\"One\"}},"
+                + "{\"node\":{\"id\":\"gid://shopify/Product/2\",\"title\":\"Two\",\"handle\":\"two\"}}]}}}";
+
+        final GraphqlResult<Products> result = GraphqlResponseReader.read(json.getBytes(StandardCharsets.UTF_8), Products.class);
+        assertNull(result.getExtensions());
+        assertNull(result.getCost());
+        assertEquals(2, result.getData().getProducts().size());
+        assertEquals("two", result.getData().getProducts().get(1).getHandle());
+    }
+
+    @Test
+    void testArrayRootFieldIsBound() throws Exception {
+        final String json = "{\"data\":{\"nodes\":[{\"id\":\"gid://shopify/Product/1\",\"title\":\"One\"},null]}," + EXTENSIONS + "}";
+
+        final GraphqlResult<ProductList> result = GraphqlResponseReader.read(json, ProductList.class);
+        assertEquals(2, result.getData().products.size());
+        assertEquals("One", result.getData().products.get(0).getTitle());
+        assertNull(result.getData().products.get(1));
+        assertEquals(12, result.getCost().getActualQueryCost());
+        assertNull(GraphqlResponseReader.read("{\"data\":{\"nodes\":null}}", ProductList.class).getData());
+    }
+
+    @Test
+    void testThrottledErrorsAreRead() throws Exception {
+        final String json = "{\"errors\":[{\"message\":\"Throttled\",\"extensions\":{\"code\":\"THROTTLED\"}}],\"data\":null," + EXTENSIONS + "}";
+
+        final GraphqlResult<ProductCreate> result = GraphqlResponseReader.read(json, ProductCreate.class);
+        assertTrue(result.hasErrors());
+        assertTrue(result.isThrottled());
+        assertNull(result.getData());
+        assertEquals(12, result.getCost().getActualQueryCost());
+    }
+
+    @Test
+    void testRootFieldNameIsResolvedFromTheType() {
+        assertEquals("shop", GraphqlResponseReader.getRootFieldName(Shop.class));
+        assertEquals("productCreate", GraphqlResponseReader.getRootFieldName(ProductCreate.class));
+        assertEquals("product", GraphqlResponseReader.getRootFieldName(Product.class));
+        assertThrows(IllegalArgumentException.class, () -> GraphqlResponseReader.getRootFieldName(ProductNode.class));
+    }
+}
@@ -0,0 +1,171 @@
+package com.justblackmagic.shopify.api.graphql;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.justblackmagic.shopify.api.StubShopifyServer;
+import com.justblackmagic.shopify.api.graphql.model.Product;
+import com.justblackmagic.shopify.api.graphql.model.ProductCreate;
+import com.justblackmagic.shopify.api.graphql.model.Shop;
+import com.justblackmagic.shopify.api.metrics.ShopifyApiMetrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Tests for ShopifyGraphQLClient to verify the reactive queries decode their responses, retry THROTTLED responses without blocking and surface
+ * errors, against a local server.
+ */
+class ShopifyGraphQLClientTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+    private static final String COST = "\"extensions\":{\"cost\":{\"requestedQueryCost\":1,\"actualQueryCost\":1,"
+            + "\"throttleStatus\":{\"maximumAvailable\":1000.0,\"currentlyAvailable\":999,\"restoreRate\":50.0}}}";
+    private static final String SHOP_RESPONSE = "{\"data\":{\"shop\":{\"name\":\"Test Store\",\"currencyCode\":\"USD\"}}," + COST + "}";
+    private static final String THROTTLED_RESPONSE = "{\"errors\":[{\"message\":\"Throttled\",\"extensions\":{\"code\":\"THROTTLED\"}}],"
+            + "\"extensions\":{\"cost\":{\"requestedQueryCost\":1,\"actualQueryCost\":0,"
+            + "\"throttleStatus\":{\"maximumAvailable\":1000.0,\"currentlyAvailable\":0,\"restoreRate\":50.0}}}}";
+
+    private StubShopifyServer server;
+    private String baseUrl;
+    private final Queue<String> requests = new ConcurrentLinkedQueue<>();
+    private final Queue<Object[]> responses = new ConcurrentLinkedQueue<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = StubShopifyServer.create().handle("/graphql.json", exchange -> {
+            requests.add(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            Object[] response = responses.poll();
+            int status = response == null ? 200 : (Integer) response[0];
+            StubShopifyServer.respond(exchange, status, (response == null ? SHOP_RESPONSE : (String) response[1]).getBytes(StandardCharsets.UTF_8));
+        }).start();
+        baseUrl = server.getBaseUrl() + "/graphql.json";
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+    }
+
+    @Test
+    void testShopsAreQueriedConcurrentlyWithoutBlocking() throws Exception {
+        List<Shop> shops = Flux.range(0, 3).flatMap(i -> newClient().getShopAsync()).collectList().block(TIMEOUT);
+
+        assertEquals(3, shops.size());
+        for (Shop shop : shops) {
+            assertEquals("Test Store", shop.getName());
+            assertEquals(1, shop.getExtensions().getCost().getActualQueryCost());
+        }
+        JsonNode request = new ObjectMapper().readTree(requests.peek());
+        assertEquals(GraphqlQueryRegistry.getDefault().get(ShopifyGraphQLClient.GET_SHOP_QUERY).getQuery(), request.get("query").asText());
+    }
+
+    @Test
+    void testProductsAreEmittedOneByOne() {
+        responses.add(new Object[] {200, "{\"data\":{\"products\":{\"edges\":[{\"node\":{\"id\":\"gid://shopify/Product/1\",\"title\":\"One\"}},"
+                + "{\"node\":{\"id\":\"gid://shopify/Product/2\",\"title\":\"Two\"}}]}}," + COST + "}"});
+
+        List<Product> products = newClient().getProductsFlux().collectList().block(TIMEOUT);
+
+        assertEquals(2, products.size());
+        assertEquals("Two", products.get(1).getTitle());
+    }
+
+    @Test
+    void testExecuteFillsTheVariablesTemplate() throws Exception {
+        responses.add(new Object[] {200, "{\"data\":{\"productCreate\":{\"product\":{\"id\":\"gid://shopify/Product/3\",\"title\":\"New\"}}}}"});
+
+        ProductCreate created = newClient().execute(ShopifyGraphQLClient.CREATE_PRODUCT_QUERY, Map.of("$titleValue", "New"), ProductCreate.class)
+                .block(TIMEOUT);
+
+        assertEquals("gid://shopify/Product/3", created.getProduct().getId());
+        assertEquals("New", new ObjectMapper().readTree(requests.peek()).path("variables").path("input").path("title").asText());
+    }
+
+    @Test
+    void testThrottledResponsesAreRetried() {
+        responses.add(new Object[] {200, THROTTLED_RESPONSE});
+        ShopifyGraphQLClient client = newClient();
+
+        Shop shop = client.getShopAsync().block(TIMEOUT);
+
+        assertEquals("Test Store", shop.getName());
+        assertEquals(2, requests.size());
+        assertEquals(1L, client.getCostScheduler().getThrottledCount());
+    }
+
+    @Test
+    void testUndecodableResponseGivesBackItsReservation() {
+        responses.add(new Object[] {200, "{\"data\":{\"products\":"});
+        ShopifyGraphQLClient client = newClient();
+
+        assertNull(client.getProducts());
+
+        assertEquals(1, requests.size());
+        // The 50 product page reserved about as many points, which would take a second to be restored
+        assertEquals(client.getCostScheduler().getMaximumAvailable(), client.getCostScheduler().getCurrentlyAvailable(), 10.0d);
+    }
+
+    @Test
+    void testBlockingQueriesCountOnlyThrottledErrors() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        Metrics.addRegistry(registry);
+        try {
+            responses.add(new Object[] {200, THROTTLED_RESPONSE});
+            responses.add(new Object[] {200, "{\"data\":{\"shop\":{\"name\":\"THROTTLED\",\"currencyCode\":\"USD\"}}," + COST + "}"});
+
+            assertEquals("THROTTLED", newClient().getShop().getName());
+            assertEquals(2, requests.size());
+            // Meters of earlier tests are added to the registry too, with no counts
+            String endpoint = ShopifyApiMetrics.graphqlEndpoint(ShopifyGraphQLClient.GET_SHOP_QUERY);
+            assertEquals(1.0d, registry.get("shopify.api.throttled").tag("endpoint", endpoint).counters().stream().mapToDouble(Counter::count).sum());
+        } finally {
+            Metrics.removeRegistry(registry);
+        }
+    }
+
+    @Test
+    void testErrorsAreSurfaced() {
+        responses.add(new Object[] {200, "{\"errors\":[{\"message\":\"Field 'nope' doesn't exist on type 'Shop'\"}]}"});
+        responses.add(new Object[] {500, "{\"errors\":\"Internal Server Error\"}"});
+        ShopifyGraphQLClient client = newClient();
+
+        assertNull(client.getShopAsync().block(TIMEOUT));
+        assertThrows(WebClientResponseException.InternalServerError.class, () -> client.getShopAsync().block(TIMEOUT));
+        assertThrows(IllegalArgumentException.class, () -> client.execute("getOrders", null, Shop.class).block(TIMEOUT));
+        assertEquals(2, requests.size());
+    }
+
+    @Test
+    void testNothingIsSentUntilSubscribed() {
+        Mono<Shop> shop = newClient().getShopAsync();
+        assertTrue(requests.isEmpty());
+        assertNotNull(shop.block(TIMEOUT));
+        assertEquals(1, requests.size());
+    }
+
+    private ShopifyGraphQLClient newClient() {
+        ShopifyGraphQLClient client = new ShopifyGraphQLClient("graphql-test-" + UUID.randomUUID() + ".myshopify.com", "token", "2025-01");
+        client.setWebClient(WebClient.builder().baseUrl(baseUrl).defaultHeader("Content-Type", MediaType.APPLICATION_JSON_VALUE).build());
+        return client;
+    }
+}
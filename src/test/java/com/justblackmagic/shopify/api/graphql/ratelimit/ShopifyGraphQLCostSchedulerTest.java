@@ -0,0 +1,120 @@
+package com.justblackmagic.shopify.api.graphql.ratelimit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.justblackmagic.shopify.api.graphql.model.Cost;
+import com.justblackmagic.shopify.api.graphql.model.ThrottleStatus;
+
+/**
+ * Tests for ShopifyGraphQLCostScheduler to verify query cost estimates, the local cost bucket model and the retry time of throttled queries.
+ */
+class ShopifyGraphQLCostSchedulerTest {
+
+    private static final String PRODUCTS_QUERY = "{\n  products(first: 50, reverse: true) {\n    edges {\n      node {\n        id\n        title\n"
+            + "      }\n    }\n  }\n}";
+
+    private AtomicLong clock;
+    private ShopifyGraphQLCostScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        clock = new AtomicLong(0L);
+        scheduler = new ShopifyGraphQLCostScheduler("test-store.myshopify.com", clock::get, 0);
+    }
+
+    @Test
+    void testQueryCostIsEstimatedFromTheQueryText() {
+        assertEquals(52, ShopifyGraphQLCostScheduler.estimateQueryCost(PRODUCTS_QUERY));
+        assertEquals(1, ShopifyGraphQLCostScheduler.estimateQueryCost("{ shop { name currencyCode } }"));
+        assertEquals(10, ShopifyGraphQLCostScheduler.estimateQueryCost(
+                "mutation productCreate($input: ProductInput!) { productCreate(input: $input) { product { id } } }"));
+        // 2 for orders, 10 orders of 1 plus 2 for their line items, 10 x 5 line items of 1
+        assertEquals(82, ShopifyGraphQLCostScheduler.estimateQueryCost(
+                "query { orders(first: 10) { edges { node { id lineItems(first: 5) { edges { node { id } } } } } } }"));
+        assertEquals(252, ShopifyGraphQLCostScheduler.estimateQueryCost(
+                "query getProducts($first: Int) { products(first: $first) { edges { node { id } } } }"));
+    }
+
+    @Test
+    void testReportedRequestedCostReplacesTheEstimate() {
+        assertEquals(52, scheduler.estimateCost("getProducts", PRODUCTS_QUERY));
+        scheduler.onResponse("getProducts", 52, cost(42, 12, 988));
+        assertEquals(42, scheduler.estimateCost("getProducts", PRODUCTS_QUERY));
+    }
+
+    @Test
+    void testQueriesBeyondTheBucketAreQueuedAtTheRestoreRate() {
+        for (int i = 0; i < 10; i++) {
+            assertEquals(0L, scheduler.reserve(100));
+        }
+        // Standard bucket restores 50 points per second, so each extra query of 100 waits another two seconds
+        assertEquals(TimeUnit.SECONDS.toNanos(2), scheduler.reserve(100));
+        assertEquals(TimeUnit.SECONDS.toNanos(4), scheduler.reserve(100));
+        assertEquals(2L, scheduler.getDelayedQueryCount());
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(4));
+        assertEquals(0.0d, scheduler.getCurrentlyAvailable(), 0.001d);
+        assertEquals(0L, scheduler.reserve(0));
+    }
+
+    @Test
+    void testResponsesRefundTheUnusedCostAndLowerTheBucket() {
+        scheduler.reserve(100);
+        scheduler.reserve(100);
+        scheduler.onResponse("getProducts", 100, cost(100, 20, 980));
+        assertEquals(880.0d, scheduler.getCurrentlyAvailable(), 0.001d);
+
+        scheduler.onResponse("getProducts", 100, cost(100, 20, 300));
+        assertEquals(300.0d, scheduler.getCurrentlyAvailable(), 0.001d);
+    }
+
+    @Test
+    void testThrottledQueryIsRetriedWhenItsCostIsRestored() {
+        scheduler.reserve(300);
+        final Cost throttled = cost(300, 0, 100);
+        throttled.getThrottleStatus().setMaximumAvailable(2000);
+        throttled.getThrottleStatus().setRestoreRate(100);
+
+        assertEquals(TimeUnit.SECONDS.toNanos(2), scheduler.onThrottled("bulkQuery", 300, throttled));
+        assertEquals(1L, scheduler.getThrottledCount());
+        assertEquals(2000.0d, scheduler.getMaximumAvailable(), 0.001d);
+        assertEquals(300, scheduler.estimateCost("bulkQuery", null));
+        assertEquals(TimeUnit.SECONDS.toNanos(2), scheduler.reserve(300));
+    }
+
+    @Test
+    void testQueriesBeyondTheBucketRefundOnlyTheCappedReservation() {
+        scheduler.reserve(100);
+        assertEquals(TimeUnit.SECONDS.toNanos(2), scheduler.reserve(1500));
+        assertEquals(-100.0d, scheduler.getCurrentlyAvailable(), 0.001d);
+
+        scheduler.cancel(1500);
+        assertEquals(900.0d, scheduler.getCurrentlyAvailable(), 0.001d);
+
+        scheduler.reserve(1500);
+        scheduler.onResponse("bulkQuery", 1500, cost(1500, 0, 1000));
+        assertEquals(900.0d, scheduler.getCurrentlyAvailable(), 0.001d);
+
+        scheduler.reserve(1500);
+        assertEquals(TimeUnit.SECONDS.toNanos(2), scheduler.onThrottled("bulkQuery", 1500, cost(1500, 0, 1000)));
+        assertEquals(900.0d, scheduler.getCurrentlyAvailable(), 0.001d);
+    }
+
+    private static Cost cost(final int requestedQueryCost, final int actualQueryCost, final int currentlyAvailable) {
+        final ThrottleStatus throttleStatus = new ThrottleStatus();
+        throttleStatus.setMaximumAvailable(1000);
+        throttleStatus.setCurrentlyAvailable(currentlyAvailable);
+        throttleStatus.setRestoreRate(50);
+        final Cost cost = new Cost();
+        cost.setRequestedQueryCost(requestedQueryCost);
+        cost.setActualQueryCost(actualQueryCost);
+        cost.setThrottleStatus(throttleStatus);
+        return cost;
+    }
+}
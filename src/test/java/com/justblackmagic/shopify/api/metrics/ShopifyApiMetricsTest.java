@@ -0,0 +1,81 @@
+package com.justblackmagic.shopify.api.metrics;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.justblackmagic.shopify.api.StubShopifyServer;
+import com.justblackmagic.shopify.api.rest.ShopifyRestClient;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Tests for ShopifyApiMetrics to verify endpoint naming and the metrics recorded for REST calls.
+ */
+class ShopifyApiMetricsTest {
+
+    private static final byte[] BODY = "{\"count\":3}".getBytes(StandardCharsets.UTF_8);
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void setUp() {
+        Metrics.addRegistry(registry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        Metrics.removeRegistry(registry);
+    }
+
+    @Test
+    void testRestEndpointsDropIdsAndVersion() {
+        assertEquals("products.get", endpoint("GET", "/admin/api/2024-10/products/632910392"));
+        assertEquals("products.list", endpoint("GET", "/admin/api/2024-10/products"));
+        assertEquals("products.count.get", endpoint("GET", "/admin/api/2024-10/products/count"));
+        assertEquals("products.images.create", endpoint("POST", "/admin/api/2024-10/products/632910392/images"));
+        assertEquals("variants.update", endpoint("PUT", "/admin/api/2024-10/variants/808950810"));
+        assertEquals("orders.delete", endpoint("DELETE", "/admin/api/2024-10/orders/450789469"));
+        assertEquals("orders.fulfillments.cancel", endpoint("POST", "/admin/api/2024-10/orders/450789469/fulfillments/255858046/cancel"));
+        assertEquals("locations.list", endpoint("GET", "/admin/api/2024-10/locations.json"));
+        assertEquals("shop.get", endpoint("GET", "/shop"));
+    }
+
+    @Test
+    void testRestCallIsTimedAndCounted() throws Exception {
+        AtomicInteger requests = new AtomicInteger();
+        String shop;
+        try (StubShopifyServer server = StubShopifyServer.create().handle("/products/count", exchange -> {
+            if (requests.incrementAndGet() == 1) {
+                exchange.getResponseHeaders().add("Retry-After", "0");
+                exchange.sendResponseHeaders(429, -1);
+                exchange.close();
+            } else {
+                exchange.getResponseHeaders().add("X-Shopify-API-Deprecated-Reason", "https://shopify.dev/changelog");
+                StubShopifyServer.respond(exchange, 200, BODY);
+            }
+        }).start()) {
+            ShopifyRestClient client = ShopifyRestClient.newBuilder().withApiUrl(server.getBaseUrl()).withAccessToken("token").build();
+            assertEquals(3, client.getProductCount());
+            shop = URI.create(server.getBaseUrl()).getAuthority();
+        }
+
+        assertEquals(1L, registry.get("shopify.api.requests").tag("endpoint", "products.count.get").tag("status", "200")
+                .tag("outcome", "SUCCESS").tag("api.version", "unversioned").timer().count());
+        assertEquals(1.0d, registry.get("shopify.api.throttled").tag("endpoint", "products.count.get").tag("shop", shop).counter().count());
+        assertEquals(1.0d, registry.get("shopify.api.retries").tag("reason", "rate_limited").counter().count());
+        assertEquals(1.0d, registry.get("shopify.api.deprecated.calls").tag("endpoint", "products.count.get").counter().count());
+        assertEquals(BODY.length, registry.get("shopify.api.bytes.received").tag("endpoint", "products.count.get").counter().count());
+    }
+
+    private static String endpoint(String method, String path) {
+        return ShopifyApiMetrics.restEndpoint(method, URI.create("https://test-store.myshopify.com" + path));
+    }
+}
@@ -0,0 +1,114 @@
+package com.justblackmagic.shopify.api.rest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.justblackmagic.shopify.api.StubShopifyServer;
+import com.justblackmagic.shopify.api.rest.exceptions.ShopifyErrorResponseException;
+import com.justblackmagic.shopify.api.rest.model.ShopifyProduct;
+
+/**
+ * Tests for ShopifyAsyncRestClient to verify calls run off the calling thread, complete with the decoded response and fail with the client's
+ * exceptions, against a local server.
+ */
+class ShopifyAsyncRestClientTest {
+
+    private StubShopifyServer server;
+    private ShopifyRestClient client;
+    private final CountDownLatch releaseSlowRequest = new CountDownLatch(1);
+    private final List<Boolean> callerThreadsVirtual = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = StubShopifyServer.create().handle("/products", exchange -> {
+            String path = exchange.getRequestURI().getPath();
+            if (path.contains("missing")) {
+                StubShopifyServer.respond(exchange, 404, "{\"errors\":\"Not Found\"}".getBytes(StandardCharsets.UTF_8));
+                return;
+            }
+            if (path.contains("slow")) {
+                try {
+                    releaseSlowRequest.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            String id = path.replaceAll(".*/products/([^/.]+).*", "$1");
+            StubShopifyServer.respond(exchange, 200, ("{\"product\":{\"id\":\"" + id + "\",\"title\":\"Tee\"}}").getBytes(StandardCharsets.UTF_8));
+        }).start();
+        client = ShopifyRestClient.newBuilder().withApiUrl(server.getBaseUrl()).withAccessToken("token").build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+    }
+
+    @Test
+    void testCallCompletesWithTheDecodedResponse() throws Exception {
+        ShopifyAsyncRestClient asyncClient = new ShopifyAsyncRestClient(client);
+
+        ShopifyProduct product = asyncClient.getProduct("42").get(5, TimeUnit.SECONDS);
+
+        assertEquals("42", product.getId());
+        assertEquals("Tee", product.getTitle());
+    }
+
+    @Test
+    void testCallDoesNotBlockTheCaller() throws Exception {
+        ShopifyAsyncRestClient asyncClient = new ShopifyAsyncRestClient(client);
+
+        CompletableFuture<ShopifyProduct> slow = asyncClient.getProduct("slow");
+        CompletableFuture<ShopifyProduct> fast = asyncClient.getProduct("7");
+
+        assertEquals("7", fast.get(5, TimeUnit.SECONDS).getId());
+        assertFalse(slow.isDone());
+        releaseSlowRequest.countDown();
+        assertEquals("slow", slow.get(5, TimeUnit.SECONDS).getId());
+    }
+
+    @Test
+    void testCallRunsOnTheGivenExecutor() throws Exception {
+        AtomicInteger tasks = new AtomicInteger();
+        Executor executor = task -> {
+            tasks.incrementAndGet();
+            Thread.ofVirtual().start(() -> {
+                callerThreadsVirtual.add(Thread.currentThread().isVirtual());
+                task.run();
+            });
+        };
+        ShopifyAsyncRestClient asyncClient = new ShopifyAsyncRestClient(client, executor);
+
+        assertEquals("1", asyncClient.getProduct("1").get(5, TimeUnit.SECONDS).getId());
+        assertTrue(asyncClient.deleteProduct("2").get(5, TimeUnit.SECONDS));
+
+        assertEquals(2, tasks.get());
+        assertEquals(List.of(true, true), callerThreadsVirtual);
+        assertSame(client, asyncClient.getShopifyRestClient());
+    }
+
+    @Test
+    void testErrorResponseFailsTheFuture() {
+        ShopifyAsyncRestClient asyncClient = new ShopifyAsyncRestClient(client);
+
+        CompletableFuture<ShopifyProduct> missing = asyncClient.getProduct("missing");
+
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> missing.get(5, TimeUnit.SECONDS));
+        ShopifyErrorResponseException cause = assertInstanceOf(ShopifyErrorResponseException.class, exception.getCause());
+        assertEquals(404, cause.getStatusCode());
+        assertTrue(missing.isCompletedExceptionally());
+    }
+}
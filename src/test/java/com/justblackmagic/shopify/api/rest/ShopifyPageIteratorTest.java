@@ -0,0 +1,79 @@
+package com.justblackmagic.shopify.api.rest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import com.justblackmagic.shopify.api.rest.model.ShopifyPage;
+
+/**
+ * Tests for ShopifyPageIterator to verify pages are fetched lazily and in order.
+ */
+class ShopifyPageIteratorTest {
+
+    private final List<String> requestedPageInfos = new ArrayList<>();
+
+    /** Three pages linked by page_info cursors: null -> "p2" -> "p3" -> end. */
+    private final Function<String, ShopifyPage<Integer>> pageFetcher = pageInfo -> {
+        requestedPageInfos.add(pageInfo);
+        if (pageInfo == null) {
+            return page("p2", 1, 2);
+        } else if (pageInfo.equals("p2")) {
+            return page("p3", 3, 4);
+        }
+        return page(null, 5);
+    };
+
+    @Test
+    void testStreamsAllItemsInOrder() {
+        List<Integer> items = ShopifyPageIterator.stream(pageFetcher, null).collect(Collectors.toList());
+        assertEquals(Arrays.asList(1, 2, 3, 4, 5), items);
+        assertEquals(Arrays.asList(null, "p2", "p3"), requestedPageInfos);
+    }
+
+    @Test
+    void testNextPageIsOnlyFetchedWhenNeeded() {
+        Iterator<Integer> iterator = new ShopifyPageIterator<>(pageFetcher, null);
+        assertEquals(1, iterator.next());
+        assertEquals(2, iterator.next());
+        assertEquals(1, requestedPageInfos.size());
+        assertEquals(3, iterator.next());
+        assertEquals(2, requestedPageInfos.size());
+    }
+
+    @Test
+    void testShortCircuitingStreamStopsFetching() {
+        List<Integer> items = ShopifyPageIterator.stream(pageFetcher, null).limit(2).collect(Collectors.toList());
+        assertEquals(Arrays.asList(1, 2), items);
+        assertEquals(1, requestedPageInfos.size());
+    }
+
+    @Test
+    void testPrefetchingReturnsSameItems() {
+        List<Integer> items =
+                ShopifyPageIterator.stream(pageFetcher, Executors.newVirtualThreadPerTaskExecutor()).collect(Collectors.toList());
+        assertEquals(Arrays.asList(1, 2, 3, 4, 5), items);
+    }
+
+    @Test
+    void testEmptyResource() {
+        ShopifyPageIterator<Integer> iterator = new ShopifyPageIterator<>(pageInfo -> page(null), null);
+        assertFalse(iterator.hasNext());
+        assertEquals(1, iterator.getPageCount());
+    }
+
+    private static ShopifyPage<Integer> page(String nextPageInfo, Integer... items) {
+        ShopifyPage<Integer> page = new ShopifyPage<>();
+        page.addAll(Arrays.asList(items));
+        page.setNextPageInfo(nextPageInfo);
+        return page;
+    }
+}
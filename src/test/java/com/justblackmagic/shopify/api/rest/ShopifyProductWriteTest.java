@@ -0,0 +1,116 @@
+package com.justblackmagic.shopify.api.rest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.justblackmagic.shopify.api.StubShopifyServer;
+import com.justblackmagic.shopify.api.rest.model.ShopifyProduct;
+import com.justblackmagic.shopify.api.rest.model.ShopifyProductCreationRequest;
+import com.justblackmagic.shopify.api.rest.model.ShopifyVariantCreationRequest;
+
+/**
+ * Tests for ShopifyRestClient product writes to verify the variant image update is only sent when needed, against a local stand-in server.
+ */
+class ShopifyProductWriteTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private StubShopifyServer server;
+    private ShopifyRestClient client;
+    private final AtomicInteger posts = new AtomicInteger();
+    private final AtomicInteger puts = new AtomicInteger();
+    private final List<JsonNode> putBodies = Collections.synchronizedList(new ArrayList<>());
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = StubShopifyServer.create().handle("/products", exchange -> {
+            ObjectNode product = (ObjectNode) MAPPER.readTree(exchange.getRequestBody()).get("product");
+            if ("POST".equals(exchange.getRequestMethod())) {
+                posts.incrementAndGet();
+                // Assign the ids Shopify would, keyed by position
+                product.put("id", "100");
+                product.withArray("images").forEach(image -> ((ObjectNode) image).put("id", "img-" + image.get("position").asInt()));
+                product.withArray("variants").forEach(variant -> ((ObjectNode) variant).put("id", "var-" + variant.get("position").asInt()));
+            } else {
+                puts.incrementAndGet();
+                putBodies.add(product);
+            }
+            StubShopifyServer.respond(exchange, 200, MAPPER.writeValueAsBytes(MAPPER.createObjectNode().set("product", product)));
+        }).start();
+        client = ShopifyRestClient.newBuilder().withApiUrl(server.getBaseUrl()).withAccessToken("token").build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+    }
+
+    @Test
+    void testCreateWithoutVariantImagesTakesOneCall() {
+        ShopifyProduct product = client.createProduct(productRequest(false));
+        assertEquals("100", product.getId());
+        assertEquals(1, posts.get());
+        assertEquals(0, puts.get());
+    }
+
+    @Test
+    void testCreateWithVariantImagesOnlySendsImageIds() {
+        ShopifyProduct product = client.createProduct(productRequest(true));
+        assertEquals(1, puts.get());
+
+        JsonNode update = putBodies.get(0);
+        assertEquals(Set.of("id", "variants"), fieldNames(update));
+        assertEquals(2, update.get("variants").size());
+        for (JsonNode variant : update.get("variants")) {
+            assertEquals(Set.of("id", "image_id"), fieldNames(variant));
+        }
+        assertEquals("img-1", product.getVariants().get(0).getImageId());
+    }
+
+    @Test
+    void testCatalogImportSavesOneCallPerProduct() {
+        int productCount = 20;
+        for (int i = 0; i < productCount; i++) {
+            client.createProduct(productRequest(false));
+        }
+
+        // Before, every product write was followed by a PUT of the full product: 40 calls for 20 products
+        assertEquals(productCount, posts.get() + puts.get());
+    }
+
+    private static ShopifyProductCreationRequest productRequest(boolean withVariantImages) {
+        List<ShopifyVariantCreationRequest> variants = new ArrayList<>();
+        for (String size : List.of("L", "S")) {
+            ShopifyVariantCreationRequest.ImageSourceStep step = ShopifyVariantCreationRequest.newBuilder().withPrice(BigDecimal.TEN)
+                    .noCompareAtPrice().withSku("SKU-" + size).withBarcode("BC-" + size).withWeight(BigDecimal.ONE).withAvailable(5)
+                    .withFirstOption(size).noSecondOption().noThirdOption();
+            variants.add((withVariantImages ? step.withImageSource("https://cdn.example.com/" + size + ".jpg") : step.noImageSource())
+                    .withDefaultInventoryManagement().withDefaultInventoryPolicy().withDefaultFulfillmentService().withRequiresShippingDefault()
+                    .withTaxableDefault().build());
+        }
+        return ShopifyProductCreationRequest.newBuilder().withTitle("Shirt").withMetafieldsGlobalTitleTag("Shirt").withProductType("Apparel")
+                .withBodyHtml("<p>Shirt</p>").withMetafieldsGlobalDescriptionTag("Shirt").withVendor("Acme").withTags(Set.of("shirt"))
+                .withSortedOptionNames(List.of("Size")).withImageSources(List.of("https://cdn.example.com/L.jpg", "https://cdn.example.com/S.jpg"))
+                .withVariantCreationRequests(variants).withPublished(true).build();
+    }
+
+    private static Set<String> fieldNames(JsonNode node) {
+        Set<String> names = new HashSet<>();
+        node.fieldNames().forEachRemaining(names::add);
+        return names;
+    }
+}
@@ -0,0 +1,115 @@
+package com.justblackmagic.shopify.api.rest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+
+import com.justblackmagic.shopify.api.StubShopifyServer;
+import com.justblackmagic.shopify.api.rest.model.ShopifyProduct;
+
+import reactor.core.publisher.BaseSubscriber;
+
+/**
+ * Tests for ShopifyReactiveRestClient to verify pages are followed in order and only fetched as downstream demand needs them, against a local
+ * server.
+ */
+class ShopifyReactiveRestClientTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    private StubShopifyServer server;
+    private ShopifyReactiveRestClient reactiveClient;
+    private final List<String> requestedPages = new CopyOnWriteArrayList<>();
+
+    /** Three pages of two, one and two products, linked by page_info cursors: first -> "p2" -> "p3" -> end. */
+    @BeforeEach
+    void setUp() throws Exception {
+        server = StubShopifyServer.create().handle("/products", exchange -> {
+            String query = exchange.getRequestURI().getQuery();
+            String page = query.contains("page_info=p3") ? "p3" : query.contains("page_info=p2") ? "p2" : "p1";
+            requestedPages.add(page);
+            String products = switch (page) {
+                case "p1" -> "{\"id\":1},{\"id\":2}";
+                case "p2" -> "{\"id\":3}";
+                default -> "{\"id\":4},{\"id\":5}";
+            };
+            if (!page.equals("p3")) {
+                String next = page.equals("p1") ? "p2" : "p3";
+                exchange.getResponseHeaders().add("Link", "<" + server.getBaseUrl() + "/products?limit=2&page_info=" + next + ">; rel=\"next\"");
+            }
+            StubShopifyServer.respond(exchange, 200, ("{\"products\":[" + products + "]}").getBytes(StandardCharsets.UTF_8));
+        }).start();
+        ShopifyRestClient client = ShopifyRestClient.newBuilder().withApiUrl(server.getBaseUrl()).withAccessToken("token").build();
+        reactiveClient = new ShopifyReactiveRestClient(client);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+    }
+
+    @Test
+    void testAllPagesAreFollowedInOrder() {
+        List<String> ids = reactiveClient.getProducts(2).map(ShopifyProduct::getId).collectList().block(TIMEOUT);
+
+        assertEquals(List.of("1", "2", "3", "4", "5"), ids);
+        assertEquals(List.of("p1", "p2", "p3"), requestedPages);
+    }
+
+    @Test
+    void testTakingFewItemsFetchesOnlyTheirPages() {
+        List<String> ids = reactiveClient.getProducts(2).take(2).map(ShopifyProduct::getId).collectList().block(TIMEOUT);
+
+        assertEquals(List.of("1", "2"), ids);
+        assertEquals(List.of("p1"), requestedPages);
+    }
+
+    @Test
+    void testBoundedDemandFetchesOnlyThePagesNeeded() throws Exception {
+        List<String> ids = new CopyOnWriteArrayList<>();
+        BaseSubscriber<ShopifyProduct> subscriber = new BaseSubscriber<>() {
+            @Override
+            protected void hookOnSubscribe(Subscription subscription) {
+                request(1);
+            }
+
+            @Override
+            protected void hookOnNext(ShopifyProduct product) {
+                ids.add(product.getId());
+            }
+        };
+        reactiveClient.getProducts(2).subscribe(subscriber);
+
+        awaitSize(ids, 1);
+        TimeUnit.MILLISECONDS.sleep(200);
+        assertEquals(List.of("p1"), requestedPages);
+
+        // The second item is still on the first page, the third needs the second page but not the last one
+        subscriber.request(2);
+        awaitSize(ids, 3);
+        TimeUnit.MILLISECONDS.sleep(200);
+        assertEquals(List.of("1", "2", "3"), ids);
+        assertEquals(List.of("p1", "p2"), requestedPages);
+
+        subscriber.request(Long.MAX_VALUE);
+        awaitSize(ids, 5);
+        assertEquals(List.of("p1", "p2", "p3"), requestedPages);
+    }
+
+    private static void awaitSize(List<String> ids, int size) throws InterruptedException {
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (ids.size() < size && System.nanoTime() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(5);
+        }
+        assertEquals(size, ids.size());
+    }
+}
@@ -0,0 +1,47 @@
+package com.justblackmagic.shopify.api.rest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for ShopifyRestClientService to verify clients are cached by shop and access token hash, and dropped when the access token changes.
+ */
+class ShopifyRestClientServiceTest {
+
+    private static final String SHOP = "test-store";
+    private static final String OLD_TOKEN = "shpat_old";
+    private static final String NEW_TOKEN = "shpat_new";
+
+    private final ShopifyRestClientService service = new ShopifyRestClientService();
+
+    @Test
+    void testCacheIsKeyedByTokenHash() {
+        String key = ShopifyRestClientService.buildCacheKey(SHOP, OLD_TOKEN);
+        assertTrue(key.startsWith(ShopifyRestClientService.buildCacheKeyPrefix(SHOP)), key);
+        assertFalse(key.contains(OLD_TOKEN), key);
+        assertTrue(key.substring(ShopifyRestClientService.buildCacheKeyPrefix(SHOP).length()).matches("[0-9a-f]{64}"), key);
+        assertEquals(key, ShopifyRestClientService.buildCacheKey(SHOP, OLD_TOKEN));
+        assertNotEquals(key, ShopifyRestClientService.buildCacheKey(SHOP, NEW_TOKEN));
+
+        ShopifyRestClient client = service.getShopifyRestClient(SHOP, OLD_TOKEN);
+        assertSame(client, service.getShopifyRestClient(SHOP, OLD_TOKEN));
+        assertEquals(OLD_TOKEN, client.getAccessToken());
+        assertNotSame(client, service.getShopifyRestClient(SHOP, NEW_TOKEN));
+        assertNotSame(client, service.getShopifyRestClient("other-store", OLD_TOKEN));
+    }
+
+    @Test
+    void testTokenChangeEvictsClientsOfTheOldToken() {
+        ShopifyRestClient oldClient = service.getShopifyRestClient(SHOP, OLD_TOKEN);
+        ShopifyRestClient otherShopClient = service.getShopifyRestClient("other-store", OLD_TOKEN);
+
+        service.invalidateShopifyRestClients(SHOP);
+
+        ShopifyRestClient newClient = service.getShopifyRestClient(SHOP, NEW_TOKEN);
+        assertEquals(NEW_TOKEN, newClient.getAccessToken());
+        assertNotSame(oldClient, service.getShopifyRestClient(SHOP, OLD_TOKEN));
+        assertSame(newClient, service.getShopifyRestClient(SHOP, NEW_TOKEN));
+        assertSame(otherShopClient, service.getShopifyRestClient("other-store", OLD_TOKEN));
+    }
+}
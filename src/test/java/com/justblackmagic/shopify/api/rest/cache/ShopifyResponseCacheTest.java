@@ -0,0 +1,94 @@
+package com.justblackmagic.shopify.api.rest.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import com.justblackmagic.shopify.api.StubShopifyServer;
+import com.justblackmagic.shopify.api.rest.ShopifyRestClient;
+import com.justblackmagic.shopify.api.rest.cache.ShopifyResponseCache.CachedResponse;
+
+/**
+ * Tests for ShopifyResponseCache to verify freshness, conditional revalidation and invalidation by webhook topic.
+ */
+class ShopifyResponseCacheTest {
+
+    private static final byte[] BODY = "{\"count\":3}".getBytes(StandardCharsets.UTF_8);
+
+    private final AtomicLong clock = new AtomicLong(0L);
+    private final ShopifyResponseCache cache = new ShopifyResponseCache("test-store.myshopify.com", clock::get, 100L, 60000L);
+
+    @Test
+    void testEntryIsFreshUntilTimeToLive() {
+        CachedResponse stored = cache.put("products/count", "products", BODY, "\"v1\"", null, cache.getGeneration());
+        assertSame(stored, cache.get("products/count"));
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(999));
+        assertTrue(cache.isFresh(stored, 1000L));
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(1));
+        assertFalse(cache.isFresh(stored, 1000L));
+        assertTrue(stored.hasValidator());
+    }
+
+    @Test
+    void testRevalidationRefreshesEntry() {
+        CachedResponse stored = cache.put("shop", "shop", BODY, null, "Wed, 21 Oct 2026 07:28:00 GMT", cache.getGeneration());
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(5));
+        CachedResponse revalidated = cache.revalidate("shop", stored, cache.getGeneration());
+        assertTrue(cache.isFresh(cache.get("shop"), 1000L));
+        assertArrayEquals(BODY, revalidated.body());
+        assertEquals(stored.lastModified(), revalidated.lastModified());
+    }
+
+    @Test
+    void testTopicInvalidatesOnlyItsResource() {
+        cache.put("products/1", "products", BODY, null, null, cache.getGeneration());
+        cache.put("locations.json", "locations", BODY, null, null, cache.getGeneration());
+        cache.invalidateTopic("products/update");
+        assertNull(cache.get("products/1"));
+        assertNotNull(cache.get("locations.json"));
+        cache.invalidateTopic("app/uninstalled");
+        assertEquals(0L, cache.size());
+    }
+
+    @Test
+    void testResponseFetchedBeforeInvalidationIsNotStored() {
+        long generation = cache.getGeneration();
+        cache.invalidateTopic("products/update");
+        cache.put("products/1", "products", BODY, null, null, generation);
+        assertNull(cache.get("products/1"));
+    }
+
+    @Test
+    void testClientServesFreshEntriesAndRevalidatesStaleOnes() throws Exception {
+        AtomicInteger requests = new AtomicInteger();
+        AtomicInteger notModified = new AtomicInteger();
+        try (StubShopifyServer server = StubShopifyServer.create().handle("/products/count", exchange -> {
+            requests.incrementAndGet();
+            exchange.getResponseHeaders().add("ETag", "\"v1\"");
+            if ("\"v1\"".equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                notModified.incrementAndGet();
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+            } else {
+                StubShopifyServer.respond(exchange, 200, BODY);
+            }
+        }).start()) {
+            ShopifyRestClient client = ShopifyRestClient.newBuilder().withApiUrl(server.getBaseUrl()).withAccessToken("token")
+                    .withResponseCache(200, TimeUnit.MILLISECONDS).build();
+
+            assertEquals(3, client.getProductCount());
+            assertEquals(3, client.getProductCount());
+            assertEquals(1, requests.get());
+
+            TimeUnit.MILLISECONDS.sleep(250);
+            assertEquals(3, client.getProductCount());
+            assertEquals(2, requests.get());
+            assertEquals(1, notModified.get());
+        }
+    }
+}
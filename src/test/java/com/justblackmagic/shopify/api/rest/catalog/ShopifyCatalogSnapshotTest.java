@@ -0,0 +1,205 @@
+package com.justblackmagic.shopify.api.rest.catalog;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import com.justblackmagic.shopify.api.StubShopifyServer;
+import com.justblackmagic.shopify.api.rest.ShopifyRestClient;
+import com.justblackmagic.shopify.api.rest.model.ShopifyProduct;
+import com.justblackmagic.shopify.api.rest.model.ShopifyVariant;
+
+/**
+ * Tests for ShopifyCatalogSnapshot to verify lookups, secondary indexes, updates, value deduplication and building from the paging API.
+ */
+class ShopifyCatalogSnapshotTest {
+
+    private static final int PRODUCTS = 600;
+    private static final int VARIANTS_PER_PRODUCT = 3;
+
+    @Test
+    void testSnapshotKeepsHotFieldsOfEveryProductAndVariant() {
+        final ShopifyCatalogSnapshot.Builder builder = ShopifyCatalogSnapshot.builder();
+        for (int i = 1; i <= PRODUCTS; i++) {
+            assertTrue(builder.add(product(i)));
+        }
+        assertFalse(builder.add(product(7)));
+        final ShopifyCatalogSnapshot snapshot = builder.build();
+
+        assertEquals(PRODUCTS, snapshot.getProductCount());
+        assertEquals(PRODUCTS * VARIANTS_PER_PRODUCT, snapshot.getVariantCount());
+        final int product = snapshot.indexOfProduct(1_000_042L);
+        assertEquals(1_000_042L, snapshot.getProductId(product));
+        assertEquals("tee-42", snapshot.getHandle(product));
+        assertEquals(List.of("cotton", "summer"), snapshot.getTags(product));
+        assertTrue(snapshot.hasTag(product, "summer"));
+        assertEquals(1_700_000_042_000L, snapshot.getProductUpdatedAt(product));
+        assertEquals(VARIANTS_PER_PRODUCT, snapshot.getVariantEnd(product) - snapshot.getFirstVariant(product));
+
+        final int variant = snapshot.indexOfVariant(2_000_042_002L);
+        assertEquals(product, snapshot.getProductOfVariant(variant));
+        assertEquals("TEE-42-2", snapshot.getSku(variant));
+        assertEquals(new BigDecimal("19.90"), snapshot.getPrice(variant));
+        assertEquals(42_002L, snapshot.getInventoryItemId(variant));
+        assertEquals(ShopifyCatalogSnapshot.NO_VALUE, snapshot.getInventoryQuantity(variant));
+        assertEquals(ShopifyCatalogSnapshot.NOT_FOUND, snapshot.indexOfProduct(42L));
+
+        final int other = snapshot.indexOfProduct(1_000_043L);
+        assertSame(snapshot.getVendor(product), snapshot.getVendor(other));
+        assertSame(snapshot.getTags(product).get(0), snapshot.getTags(other).get(0));
+        assertThrows(IllegalStateException.class, () -> builder.add(product(PRODUCTS + 1)));
+    }
+
+    @Test
+    void testSecondaryIndexesFindVariantsAndReportDuplicateSkus() {
+        final ShopifyProduct duplicate = product(2);
+        duplicate.getVariants().get(0).setSku("TEE-1-1");
+        duplicate.getVariants().get(1).setSku("");
+        final ShopifyCatalogSnapshot snapshot = snapshot(product(1), duplicate);
+
+        assertEquals(snapshot.indexOfVariant(2_000_001_002L), snapshot.indexOfVariantBySku("TEE-1-2"));
+        assertEquals(ShopifyCatalogSnapshot.AMBIGUOUS, snapshot.indexOfVariantBySku("TEE-1-1"));
+        assertArrayEquals(new int[] {0, VARIANTS_PER_PRODUCT}, snapshot.indexesOfVariantsBySku("TEE-1-1"));
+        assertEquals(Set.of("TEE-1-1"), snapshot.getDuplicateSkus());
+        assertEquals(ShopifyCatalogSnapshot.NOT_FOUND, snapshot.indexOfVariantBySku(""));
+        assertEquals(snapshot.indexOfVariant(2_000_002_003L), snapshot.indexOfVariantByBarcode("0400000002003"));
+        assertEquals(snapshot.indexOfVariant(2_000_002_003L), snapshot.indexOfVariantByInventoryItemId(2003L));
+        assertEquals(1, snapshot.indexOfProductByHandle("tee-2"));
+        assertEquals(ShopifyCatalogSnapshot.NOT_FOUND, snapshot.indexOfProductByHandle("tee-3"));
+    }
+
+    @Test
+    void testUpdatedProductsAreReindexed() {
+        final ShopifyCatalogSnapshot snapshot = snapshot(product(1), product(2));
+        assertEquals(0, snapshot.indexOfVariantBySku("TEE-1-1"));
+
+        final ShopifyProduct updated = product(1);
+        updated.setHandle("tee-one");
+        updated.getVariants().get(0).setSku("TEE-ONE-1");
+        updated.getVariants().get(1).setSku("TEE-2-1");
+        updated.getVariants().get(2).setPrice(new BigDecimal("24.90"));
+        final ShopifyCatalogSnapshot updatedSnapshot = snapshot.withProducts(List.of(updated, product(3)));
+        assertEquals(0, snapshot.indexOfVariantBySku("TEE-1-1"));
+        assertEquals(0, snapshot.indexOfProductByHandle("tee-1"));
+        assertEquals(ShopifyCatalogSnapshot.NOT_FOUND, updatedSnapshot.indexOfVariantBySku("TEE-1-1"));
+        assertEquals(0, updatedSnapshot.indexOfVariantBySku("TEE-ONE-1"));
+        assertEquals(Set.of("TEE-2-1"), updatedSnapshot.getDuplicateSkus());
+        assertEquals(0, updatedSnapshot.indexOfProductByHandle("tee-one"));
+        assertEquals(ShopifyCatalogSnapshot.NOT_FOUND, updatedSnapshot.indexOfProductByHandle("tee-1"));
+        assertEquals(2, updatedSnapshot.indexOfProductByHandle("tee-3"));
+        assertEquals(new BigDecimal("24.90"), updatedSnapshot.getPrice(2));
+        assertEquals(new BigDecimal("19.90"), snapshot.getPrice(2));
+        assertEquals(updatedSnapshot.indexOfVariant(2_000_003_001L), updatedSnapshot.indexOfVariantByInventoryItemId(3001L));
+
+        final ShopifyProduct restructured = product(1);
+        restructured.getVariants().remove(2);
+        final ShopifyCatalogSnapshot restructuredSnapshot = updatedSnapshot.withProduct(restructured);
+        assertEquals(3 * VARIANTS_PER_PRODUCT - 1, restructuredSnapshot.getVariantCount());
+        assertEquals(0, restructuredSnapshot.indexOfProduct(1_000_001L));
+        assertEquals(ShopifyCatalogSnapshot.NOT_FOUND, restructuredSnapshot.indexOfVariant(2_000_001_003L));
+        assertEquals(restructuredSnapshot.indexOfVariant(2_000_002_001L), restructuredSnapshot.indexOfVariantBySku("TEE-2-1"));
+        assertEquals(VARIANTS_PER_PRODUCT - 1, restructuredSnapshot.getFirstVariant(1));
+    }
+
+    @Test
+    void testKeysSwappedBetweenProductsAreReindexed() {
+        final ShopifyCatalogSnapshot snapshot = snapshot(product(1), product(2));
+        assertEquals(1, snapshot.indexOfProductByHandle("tee-2"));
+
+        final ShopifyProduct first = product(1);
+        final ShopifyProduct second = product(2);
+        first.setHandle("tee-2");
+        second.setHandle("tee-1");
+        first.getVariants().get(0).setInventoryItemId(2001L);
+        second.getVariants().get(0).setInventoryItemId(1001L);
+        final ShopifyCatalogSnapshot updatedSnapshot = snapshot.withProducts(List.of(first, second));
+        assertEquals(1, updatedSnapshot.indexOfProductByHandle("tee-1"));
+        assertEquals(0, updatedSnapshot.indexOfProductByHandle("tee-2"));
+        assertEquals(updatedSnapshot.indexOfVariant(2_000_002_001L), updatedSnapshot.indexOfVariantByInventoryItemId(1001L));
+        assertEquals(updatedSnapshot.indexOfVariant(2_000_001_001L), updatedSnapshot.indexOfVariantByInventoryItemId(2001L));
+        assertEquals(0, snapshot.indexOfProductByHandle("tee-1"));
+        assertEquals(snapshot.indexOfVariant(2_000_001_001L), snapshot.indexOfVariantByInventoryItemId(1001L));
+    }
+
+    @Test
+    void testSharedKeysFallBackToTheNextProductOrVariant() {
+        final ShopifyProduct duplicate = product(2);
+        duplicate.setHandle("tee-1");
+        duplicate.getVariants().get(0).setInventoryItemId(1001L);
+        final ShopifyCatalogSnapshot snapshot = snapshot(product(1), duplicate);
+        assertEquals(0, snapshot.indexOfProductByHandle("tee-1"));
+        assertEquals(0, snapshot.indexOfVariantByInventoryItemId(1001L));
+
+        final ShopifyProduct renamed = product(1);
+        renamed.setHandle("tee-one");
+        renamed.getVariants().get(0).setInventoryItemId(9001L);
+        final ShopifyCatalogSnapshot renamedSnapshot = snapshot.withProduct(renamed);
+        assertEquals(1, renamedSnapshot.indexOfProductByHandle("tee-1"));
+        assertEquals(0, renamedSnapshot.indexOfProductByHandle("tee-one"));
+        assertEquals(renamedSnapshot.indexOfVariant(2_000_002_001L), renamedSnapshot.indexOfVariantByInventoryItemId(1001L));
+
+        final ShopifyProduct taken = product(3);
+        taken.setHandle("tee-2");
+        final ShopifyCatalogSnapshot takenSnapshot = snapshot(product(1), product(2), product(3));
+        assertEquals(1, takenSnapshot.indexOfProductByHandle("tee-2"));
+        final ShopifyProduct first = product(1);
+        first.setHandle("tee-2");
+        assertEquals(0, takenSnapshot.withProducts(List.of(first, taken)).indexOfProductByHandle("tee-2"));
+    }
+
+    @Test
+    void testCatalogSnapshotIsBuiltFromProductPages() throws Exception {
+        final byte[] body = ("{\"products\":[{\"id\":1,\"title\":\"Tee\",\"vendor\":\"Acme\",\"tags\":\"b, a\",\"variants\":[{\"id\":11,"
+                + "\"sku\":\"TEE-S\",\"price\":\"10.00\",\"inventory_item_id\":111},{\"id\":12,\"sku\":\"TEE-M\",\"price\":\"12.50\"}]},"
+                + "{\"id\":2,\"title\":\"Cap\",\"vendor\":\"Acme\",\"variants\":[]}]}").getBytes(StandardCharsets.UTF_8);
+        try (StubShopifyServer server = StubShopifyServer.create().handle("/products", exchange -> StubShopifyServer.respond(exchange, 200, body))
+                .start()) {
+            final ShopifyRestClient client = ShopifyRestClient.newBuilder().withApiUrl(server.getBaseUrl()).withAccessToken("token").build();
+            final ShopifyCatalogSnapshot snapshot = client.getCatalogSnapshot();
+            assertEquals(2, snapshot.getProductCount());
+            assertEquals(2, snapshot.getVariantCount());
+            assertEquals(List.of("a", "b"), snapshot.getTags(0));
+            assertEquals(new BigDecimal("12.50"), snapshot.getPrice(snapshot.indexOfVariant(12L)));
+            assertEquals(ShopifyCatalogSnapshot.NO_VALUE, snapshot.getInventoryItemId(snapshot.indexOfVariant(12L)));
+            assertEquals(snapshot.getFirstVariant(1), snapshot.getVariantEnd(1));
+        }
+    }
+
+    private static ShopifyCatalogSnapshot snapshot(final ShopifyProduct... products) {
+        final ShopifyCatalogSnapshot.Builder builder = ShopifyCatalogSnapshot.builder();
+        for (final ShopifyProduct product : products) {
+            builder.add(product);
+        }
+        return builder.build();
+    }
+
+    private static ShopifyProduct product(final int number) {
+        final ShopifyProduct product = new ShopifyProduct();
+        product.setId(String.valueOf(1_000_000L + number));
+        product.setTitle("Tee " + number);
+        product.setHandle("tee-" + number);
+        product.setVendor(new String("Acme"));
+        product.setTags(new LinkedHashSet<>(List.of(new String("summer"), new String("cotton"))));
+        product.setUpdatedAt(new Date(1_700_000_000_000L + number * 1000L));
+        final List<ShopifyVariant> variants = new LinkedList<>();
+        for (int position = 1; position <= VARIANTS_PER_PRODUCT; position++) {
+            final ShopifyVariant variant = new ShopifyVariant();
+            variant.setId(String.valueOf(2_000_000_000L + number * 1000L + position));
+            variant.setSku("TEE-" + number + "-" + position);
+            variant.setBarcode(String.format("04%011d", number * 1000L + position));
+            variant.setPrice(new BigDecimal("19.90"));
+            variant.setInventoryItemId(number * 1000L + position);
+            variants.add(variant);
+        }
+        product.setVariants(variants);
+        return product;
+    }
+}
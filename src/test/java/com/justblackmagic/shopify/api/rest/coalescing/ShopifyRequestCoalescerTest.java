@@ -0,0 +1,129 @@
+package com.justblackmagic.shopify.api.rest.coalescing;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.justblackmagic.shopify.api.StubShopifyServer;
+import com.justblackmagic.shopify.api.rest.ShopifyRestClient;
+
+/**
+ * Tests for ShopifyRequestCoalescer to verify that concurrent identical reads share one call, its result and its failure.
+ */
+class ShopifyRequestCoalescerTest {
+
+    private static final int CALLERS = 5;
+    private static final byte[] BODY = "{\"count\":3}".getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    void testFailureIsPropagatedToEveryWaiter() throws Exception {
+        ShopifyRequestCoalescer coalescer = new ShopifyRequestCoalescer("test-store.myshopify.com");
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < CALLERS; i++) {
+                results.add(executor.submit(() -> coalescer.execute("shop", () -> {
+                    calls.incrementAndGet();
+                    awaitQuietly(release);
+                    throw new IllegalStateException("boom");
+                })));
+            }
+            awaitCoalesced(coalescer, CALLERS - 1);
+            release.countDown();
+            for (Future<String> result : results) {
+                Exception e = assertThrows(Exception.class, result::get);
+                assertInstanceOf(IllegalStateException.class, e.getCause());
+                assertEquals("boom", e.getCause().getMessage());
+            }
+            assertEquals(1, calls.get());
+            assertEquals(0, coalescer.getInFlightCount());
+            assertEquals("ok", coalescer.execute("shop", () -> "ok"));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testErrorIsPropagatedToParkedWaiter() throws Exception {
+        ShopifyRequestCoalescer coalescer = new ShopifyRequestCoalescer("test-store.myshopify.com");
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> caller = executor.submit(() -> coalescer.execute("shop", () -> {
+                awaitQuietly(release);
+                throw new AssertionError("fatal");
+            }));
+            Future<String> waiter = executor.submit(() -> coalescer.execute("shop", () -> "not called"));
+            awaitCoalesced(coalescer, 1);
+            release.countDown();
+
+            ExecutionException callerFailure = assertThrows(ExecutionException.class, () -> caller.get(10, TimeUnit.SECONDS));
+            assertInstanceOf(AssertionError.class, callerFailure.getCause());
+            ExecutionException waiterFailure = assertThrows(ExecutionException.class, () -> waiter.get(10, TimeUnit.SECONDS));
+            assertInstanceOf(CompletionException.class, waiterFailure.getCause());
+            assertInstanceOf(AssertionError.class, waiterFailure.getCause().getCause());
+            assertEquals(0, coalescer.getInFlightCount());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testClientCoalescesConcurrentIdenticalReads() throws Exception {
+        AtomicInteger requests = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+        try (StubShopifyServer server = StubShopifyServer.create().handle("/products/count", exchange -> {
+            requests.incrementAndGet();
+            awaitQuietly(release);
+            StubShopifyServer.respond(exchange, 200, BODY);
+        }).start()) {
+            ShopifyRestClient client = ShopifyRestClient.newBuilder().withApiUrl(server.getBaseUrl()).withAccessToken("token").build();
+            ShopifyRequestCoalescer coalescer = client.getRequestCoalescer();
+            long coalescedBefore = coalescer.getCoalescedCount();
+
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < CALLERS; i++) {
+                results.add(executor.submit(client::getProductCount));
+            }
+            awaitCoalesced(coalescer, coalescedBefore + CALLERS - 1);
+            release.countDown();
+            for (Future<Integer> result : results) {
+                assertEquals(3, result.get(10, TimeUnit.SECONDS));
+            }
+            assertEquals(1, requests.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void awaitCoalesced(ShopifyRequestCoalescer coalescer, long coalescedCount) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (coalescer.getCoalescedCount() < coalescedCount) {
+            assertTrue(System.nanoTime() < deadline, "callers were not coalesced");
+            TimeUnit.MILLISECONDS.sleep(5);
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.justblackmagic.shopify.api.rest.inventory;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.justblackmagic.shopify.api.StubShopifyServer;
+import com.justblackmagic.shopify.api.rest.ShopifyRestClient;
+import com.justblackmagic.shopify.api.rest.model.ShopifyInventoryLevel;
+
+/**
+ * Tests for ShopifyBulkInventoryUpdater to verify coalescing, bounded concurrency and per-item results against a local server.
+ */
+class ShopifyBulkInventoryUpdaterTest {
+
+    private StubShopifyServer server;
+    private ShopifyRestClient client;
+    private final Map<String, String> lastRequestByItem = new ConcurrentHashMap<>();
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maximumInFlight = new AtomicInteger();
+    private final List<String> slowRequests = new CopyOnWriteArrayList<>();
+    private final CountDownLatch releaseSlowRequest = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = StubShopifyServer.create().handle("/inventory_levels/set", exchange -> {
+            requests.incrementAndGet();
+            maximumInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                String request = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+                String itemId = request.replaceAll(".*\"inventory_item_id\":\"([^\"]+)\".*", "$1");
+                lastRequestByItem.put(itemId, request);
+                if (itemId.equals("slow")) {
+                    slowRequests.add(request);
+                    releaseSlowRequest.await(5, TimeUnit.SECONDS);
+                }
+                TimeUnit.MILLISECONDS.sleep(30);
+                byte[] body = ("{\"inventory_level\":" + request + "}").getBytes(StandardCharsets.UTF_8);
+                StubShopifyServer.respond(exchange, itemId.equals("missing") ? 404 : 200, body);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                inFlight.decrementAndGet();
+                exchange.close();
+            }
+        }).start();
+        client = ShopifyRestClient.newBuilder().withApiUrl(server.getBaseUrl()).withAccessToken("token").build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+    }
+
+    @Test
+    void testBatchIsCoalescedToLastQuantity() {
+        ShopifyInventoryUpdate first = new ShopifyInventoryUpdate("1", "10", 5);
+        ShopifyInventoryUpdate last = new ShopifyInventoryUpdate("1", "10", 7);
+        ShopifyInventoryUpdate other = new ShopifyInventoryUpdate("2", "10", 3);
+        List<ShopifyInventoryUpdateResult> results = client.updateInventoryLevels(List.of(first, other, last));
+
+        assertEquals(2, requests.get());
+        assertEquals(3, results.size());
+        assertTrue(results.get(0).isCoalesced());
+        assertSame(last, results.get(0).sentUpdate());
+        assertEquals(7L, results.get(0).inventoryLevel().getAvailable());
+        assertFalse(results.get(1).isCoalesced());
+        assertTrue(lastRequestByItem.get("1").contains("\"available\":7"));
+    }
+
+    @Test
+    void testFailedUpdateDoesNotStopOthers() {
+        List<ShopifyInventoryUpdateResult> results = client.updateInventoryLevels(
+                List.of(new ShopifyInventoryUpdate("missing", "10", 1), new ShopifyInventoryUpdate("3", "10", 2)));
+
+        assertFalse(results.get(0).isSuccessful());
+        assertNotNull(results.get(0).exception());
+        assertTrue(results.get(1).isSuccessful());
+    }
+
+    @Test
+    void testConcurrencyIsBounded() {
+        try (ShopifyBulkInventoryUpdater updater = new ShopifyBulkInventoryUpdater(client, 2, 0, TimeUnit.MILLISECONDS)) {
+            List<ShopifyInventoryUpdate> updates = IntStream.range(0, 12)
+                    .mapToObj(i -> new ShopifyInventoryUpdate(String.valueOf(i), "10", i)).toList();
+            updater.updateAll(updates);
+            assertEquals(12L, updater.getSentCount());
+        }
+        assertTrue(maximumInFlight.get() <= 2, "at most 2 calls in flight, was " + maximumInFlight.get());
+    }
+
+    @Test
+    void testSubmittedUpdatesAreCoalescedWithinWindow() throws Exception {
+        CompletableFuture<ShopifyInventoryUpdateResult> first;
+        CompletableFuture<ShopifyInventoryUpdateResult> second;
+        try (ShopifyBulkInventoryUpdater updater = new ShopifyBulkInventoryUpdater(client, 4, 200, TimeUnit.MILLISECONDS)) {
+            first = updater.submit(new ShopifyInventoryUpdate("4", "10", 1));
+            second = updater.submit(new ShopifyInventoryUpdate("4", "10", 9));
+            assertEquals(9L, second.get(5, TimeUnit.SECONDS).inventoryLevel().getAvailable());
+            assertEquals(1L, updater.getCoalescedCount());
+        }
+        assertTrue(first.get().isCoalesced());
+        assertEquals(1, requests.get());
+    }
+
+    @Test
+    void testWindowOpenedDuringSendIsSentAfterIt() throws Exception {
+        try (ShopifyBulkInventoryUpdater updater = new ShopifyBulkInventoryUpdater(client, 4, 0, TimeUnit.MILLISECONDS)) {
+            CompletableFuture<ShopifyInventoryUpdateResult> first = updater.submit(new ShopifyInventoryUpdate("slow", "10", 1));
+            while (slowRequests.isEmpty()) {
+                TimeUnit.MILLISECONDS.sleep(5);
+            }
+            CompletableFuture<ShopifyInventoryUpdateResult> second = updater.submit(new ShopifyInventoryUpdate("slow", "10", 2));
+            TimeUnit.MILLISECONDS.sleep(200);
+            assertEquals(1, slowRequests.size(), "the second window must wait for the first send");
+
+            releaseSlowRequest.countDown();
+            assertEquals(1L, first.get(5, TimeUnit.SECONDS).inventoryLevel().getAvailable());
+            assertEquals(2L, second.get(5, TimeUnit.SECONDS).inventoryLevel().getAvailable());
+        }
+        assertEquals(2, slowRequests.size());
+        assertTrue(slowRequests.get(1).contains("\"available\":2"));
+        assertTrue(lastRequestByItem.get("slow").contains("\"available\":2"));
+    }
+
+    @Test
+    void testErrorFailsItsUpdateAndLaterSendsOfTheSameItemStillRun() throws Exception {
+        ShopifyRestClient failingClient = mock(ShopifyRestClient.class);
+        ShopifyInventoryLevel inventoryLevel = new ShopifyInventoryLevel();
+        inventoryLevel.setAvailable(2L);
+        when(failingClient.updateInventoryLevel(anyString(), anyString(), anyLong())).thenReturn(inventoryLevel);
+        CountDownLatch failingSendStarted = new CountDownLatch(1);
+        when(failingClient.updateInventoryLevel(anyString(), anyString(), eq(1L))).thenAnswer(invocation -> {
+            failingSendStarted.countDown();
+            releaseSlowRequest.await(5, TimeUnit.SECONDS);
+            throw new AssertionError("broken");
+        });
+
+        CompletableFuture<ShopifyInventoryUpdateResult> failed;
+        CompletableFuture<ShopifyInventoryUpdateResult> next;
+        try (ShopifyBulkInventoryUpdater updater = new ShopifyBulkInventoryUpdater(failingClient, 4, 0, TimeUnit.MILLISECONDS)) {
+            failed = updater.submit(new ShopifyInventoryUpdate("5", "10", 1));
+            assertTrue(failingSendStarted.await(5, TimeUnit.SECONDS));
+            // Chained after the failing send, which is still in flight
+            next = updater.submit(new ShopifyInventoryUpdate("5", "10", 2));
+            TimeUnit.MILLISECONDS.sleep(100);
+            releaseSlowRequest.countDown();
+            ExecutionException exception = assertThrows(ExecutionException.class, () -> failed.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(AssertionError.class, exception.getCause());
+            assertEquals(2L, next.get(5, TimeUnit.SECONDS).inventoryLevel().getAvailable());
+            assertEquals(1L, updater.getFailedCount());
+
+            ExecutionException batchException = assertThrows(ExecutionException.class,
+                    () -> CompletableFuture.supplyAsync(() -> updater.updateAll(List.of(new ShopifyInventoryUpdate("6", "10", 1))))
+                            .get(5, TimeUnit.SECONDS));
+            assertInstanceOf(AssertionError.class, batchException.getCause());
+        }
+        assertTrue(failed.isCompletedExceptionally());
+    }
+}
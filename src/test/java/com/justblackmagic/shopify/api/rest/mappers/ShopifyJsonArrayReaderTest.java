@@ -0,0 +1,56 @@
+package com.justblackmagic.shopify.api.rest.mappers;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.justblackmagic.shopify.api.rest.model.ShopifyProduct;
+
+/**
+ * Tests for ShopifyJsonArrayReader to verify array elements are bound one at a time and other fields are skipped.
+ */
+class ShopifyJsonArrayReaderTest {
+
+    private static final ObjectReader PRODUCT_READER = ShopifyObjectReaderRegistry.forMapping(ShopifyJsonMapping.COMPATIBLE)
+            .readerFor(ShopifyProduct.class);
+
+    @Test
+    void testReadsEachElementOfNamedArray() throws IOException {
+        String body = "{\"meta\":{\"products\":[{\"id\":\"x\"}]},\"products\":[{\"id\":\"1\",\"title\":\"One\"},{\"id\":\"2\",\"title\":\"Two\"}],"
+                + "\"other\":[1,2,3]}";
+        List<ShopifyProduct> products = new ArrayList<>();
+        int count = ShopifyJsonArrayReader.<ShopifyProduct> readArray(stream(body), "products", PRODUCT_READER, products::add);
+        assertEquals(2, count);
+        assertEquals("1", products.get(0).getId());
+        assertEquals("Two", products.get(1).getTitle());
+    }
+
+    @Test
+    void testElementsAreHandedOverBeforeTheRestIsParsed() {
+        String truncatedBody = "{\"products\":[{\"id\":\"1\"},{\"id\":\"2\"},{\"id\":";
+        List<String> ids = new ArrayList<>();
+        assertThrows(IOException.class, () -> ShopifyJsonArrayReader.<ShopifyProduct> readArray(stream(truncatedBody), "products", PRODUCT_READER,
+                product -> ids.add(product.getId())));
+        assertEquals(List.of("1", "2"), ids);
+    }
+
+    @Test
+    void testMissingArrayReadsNothing() throws IOException {
+        List<ShopifyProduct> products = new ArrayList<>();
+        assertEquals(0, ShopifyJsonArrayReader.<ShopifyProduct> readArray(stream("{\"errors\":\"Not Found\"}"), "products", PRODUCT_READER,
+                products::add));
+        assertTrue(products.isEmpty());
+    }
+
+    private static InputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,85 @@
+package com.justblackmagic.shopify.api.rest.mappers;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Currency;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+import com.justblackmagic.shopify.api.StubShopifyServer;
+import com.justblackmagic.shopify.api.rest.ShopifyRestClient;
+import com.justblackmagic.shopify.api.rest.model.InventoryPolicy;
+import com.justblackmagic.shopify.api.rest.model.ShopifyOrdersRoot;
+import com.justblackmagic.shopify.api.rest.model.ShopifyProductsRoot;
+import com.justblackmagic.shopify.api.rest.model.ShopifyVariant;
+import com.justblackmagic.shopify.api.rest.model.ShopifyVariantUpdateRequest;
+
+/**
+ * Tests for ShopifyObjectReaderRegistry to verify the PRECOMPILED mapping reads Shopify payloads like the COMPATIBLE one, and that clients using it
+ * write and read root types through the prebuilt readers and writers.
+ */
+class ShopifyObjectReaderRegistryTest {
+
+    private static final byte[] ORDERS = ("{\"orders\":[{\"id\":450789469,\"name\":\"#1001\",\"currency\":\"usd\",\"total_price\":\"598.94\","
+            + "\"tags\":\"imported, priority\",\"created_at\":\"2026-09-12T15:42:11-04:00\",\"confirmed\":true,"
+            + "\"customer\":{\"id\":207119551,\"first_name\":\"Bob\",\"last_name\":\"Norman\",\"orders_count\":1},"
+            + "\"line_items\":[{\"id\":466157049,\"variant_id\":39072856,\"quantity\":1,\"price\":\"199.00\",\"sku\":\"IPOD2008GREEN\","
+            + "\"tax_lines\":[{\"title\":\"State Tax\",\"price\":\"3.98\",\"rate\":0.06}]}]}]}").getBytes(StandardCharsets.UTF_8);
+
+    private static final byte[] PRODUCTS = ("{\"products\":[{\"id\":632910392,\"title\":\"IPod Nano - 8GB\",\"body_html\":\"<p>It's the small iPod</p>\","
+            + "\"tags\":\"Emotive, Flash Memory, MP3\",\"admin_graphql_api_id\":\"gid://shopify/Product/632910392\","
+            + "\"options\":[{\"id\":594680422,\"name\":\"Color\",\"position\":1,\"values\":[\"Pink\",\"Red\"]}],"
+            + "\"images\":[{\"id\":850703190,\"position\":1,\"src\":\"https://cdn.shopify.com/ipod-nano.png\",\"variant_ids\":[]}],"
+            + "\"variants\":[{\"id\":808950810,\"title\":\"Pink\",\"price\":\"199.00\",\"sku\":\"IPOD2008PINK\",\"position\":1,"
+            + "\"inventory_policy\":\"continue\",\"option1\":\"Pink\",\"grams\":567,\"inventory_item_id\":808950810}]}]}")
+            .getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    void testPrecompiledMappingReadsLikeCompatibleMapping() throws Exception {
+        ShopifyObjectReaderRegistry compatible = ShopifyObjectReaderRegistry.forMapping(ShopifyJsonMapping.COMPATIBLE);
+        ShopifyObjectReaderRegistry precompiled = ShopifyObjectReaderRegistry.forMapping(ShopifyJsonMapping.PRECOMPILED);
+        assertSame(precompiled, ShopifyObjectReaderRegistry.forMapping(ShopifyJsonMapping.PRECOMPILED));
+
+        ShopifyOrdersRoot orders = precompiled.readerFor(ShopifyOrdersRoot.class).readValue(ORDERS);
+        assertEquals(compatible.getObjectMapper().readValue(ORDERS, ShopifyOrdersRoot.class), orders);
+        assertEquals(Currency.getInstance("USD"), orders.getOrders().get(0).getCurrency());
+        assertEquals("Norman", orders.getOrders().get(0).getCustomer().getLastname());
+
+        ShopifyProductsRoot products = precompiled.readerFor(ShopifyProductsRoot.class).readValue(PRODUCTS);
+        assertEquals(compatible.getObjectMapper().readValue(PRODUCTS, ShopifyProductsRoot.class), products);
+        assertEquals(Set.of("Emotive", "Flash Memory", "MP3"), products.getProducts().get(0).getTags());
+        assertEquals(InventoryPolicy.CONTINUE, products.getProducts().get(0).getVariants().get(0).getInventoryPolicy());
+    }
+
+    @Test
+    void testPrecompiledClientWritesAndReadsRootTypes() throws Exception {
+        AtomicReference<String> requestBody = new AtomicReference<>();
+        try (StubShopifyServer server = StubShopifyServer.create().handle("/variants/808950810", exchange -> {
+            byte[] body = exchange.getRequestBody().readAllBytes();
+            requestBody.set(new String(body, StandardCharsets.UTF_8));
+            StubShopifyServer.respond(exchange, 200, body);
+        }).start()) {
+            ShopifyRestClient client = ShopifyRestClient.newBuilder().withApiUrl(server.getBaseUrl()).withAccessToken("token")
+                    .withJsonMapping(ShopifyJsonMapping.PRECOMPILED).build();
+            ShopifyVariant currentVariant = new ShopifyVariant();
+            currentVariant.setId("808950810");
+            currentVariant.setPrice(new BigDecimal("199.00"));
+            currentVariant.setInventoryPolicy(InventoryPolicy.DENY);
+            ShopifyVariantUpdateRequest request = ShopifyVariantUpdateRequest.newBuilder().withCurrentShopifyVariant(currentVariant)
+                    .withPrice(new BigDecimal("179.00")).withSameCompareAtPrice().withSameSku().withSameBarcode().withSameWeight()
+                    .withAvailable(3L).withSameFirstOption().withSameSecondOption().withSameThirdOption().withSameImage()
+                    .withSameInventoryManagement().withInventoryPolicy(InventoryPolicy.CONTINUE).withSameFulfillmentService()
+                    .withSameRequiresShipping().withSameTaxable().withSameInventoryItemId().build();
+
+            ShopifyVariant updatedVariant = client.updateVariant(request);
+
+            assertTrue(requestBody.get().contains("\"inventory_policy\":\"continue\""), requestBody.get());
+            assertEquals(0, new BigDecimal("179.00").compareTo(updatedVariant.getPrice()));
+            assertEquals(InventoryPolicy.CONTINUE, updatedVariant.getInventoryPolicy());
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.justblackmagic.shopify.api.rest.projection;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.justblackmagic.shopify.api.StubShopifyServer;
+import com.justblackmagic.shopify.api.rest.ShopifyRestClient;
+import com.justblackmagic.shopify.api.rest.model.ShopifyPage;
+import com.justblackmagic.shopify.api.rest.model.ShopifyProduct;
+
+import lombok.Data;
+
+/**
+ * Tests for ShopifyProjection to verify the fields sent to Shopify and the paging of gzip compressed partial pages into partial DTOs.
+ */
+class ShopifyProjectionTest {
+
+    @Data
+    static class OrderSync {
+        private String id;
+        @JsonProperty("updated_at")
+        private ZonedDateTime updatedAt;
+        @JsonProperty("financial_status")
+        private String financialStatus;
+    }
+
+    @Test
+    void testFieldsAreDerivedFromTheDtoOrGivenExplicitly() {
+        assertEquals("id,updated_at,financial_status", ShopifyProjection.of(OrderSync.class).getFields());
+        assertEquals("id,updated_at,variants", ShopifyProjection.of(ShopifyProduct.class, "id", "updated_at", "variants.sku", "variants.id")
+                .getFields());
+        assertThrows(IllegalArgumentException.class, () -> ShopifyProjection.of(ShopifyProduct.class, " "));
+    }
+
+    @Test
+    void testProjectedPagesAreReadIntoPartialDtos() throws Exception {
+        final List<String> queries = new ArrayList<>();
+        final List<String> acceptEncodings = new ArrayList<>();
+        try (StubShopifyServer server = StubShopifyServer.create().handle("/orders", exchange -> {
+            final String query = exchange.getRequestURI().getQuery();
+            queries.add(query);
+            acceptEncodings.add(String.valueOf(exchange.getRequestHeaders().get("Accept-Encoding")));
+            final boolean firstPage = !query.contains("page_info");
+            final long id = firstPage ? 1 : 2;
+            final String json = "{\"orders\":[{\"id\":" + id + ",\"updated_at\":\"2026-10-0" + id + "T10:00:00-04:00\",\"financial_status\":\"paid\"}]}";
+            if (firstPage) {
+                exchange.getResponseHeaders().add("Link", "<http://127.0.0.1/orders?limit=1&page_info=next>; rel=\"next\"");
+            }
+            StubShopifyServer.respondGzip(exchange, json.getBytes(StandardCharsets.UTF_8));
+        }).start()) {
+            final ShopifyRestClient client = ShopifyRestClient.newBuilder().withApiUrl(server.getBaseUrl()).withAccessToken("token").build();
+            final ShopifyProjection<OrderSync> projection = ShopifyProjection.of(OrderSync.class);
+
+            final ShopifyPage<OrderSync> page = client.getOrders(projection, null, 1);
+            assertEquals(1, page.size());
+            assertEquals("1", page.get(0).getId());
+            assertEquals("paid", page.get(0).getFinancialStatus());
+            assertEquals(1, page.get(0).getUpdatedAt().getDayOfMonth());
+            assertEquals("next", page.getNextPageInfo());
+            assertTrue(queries.get(0).contains("status=any"), queries.get(0));
+            assertTrue(queries.get(0).contains("fields=id,updated_at,financial_status"), queries.get(0));
+            assertTrue(acceptEncodings.get(0).contains("gzip"), acceptEncodings.get(0));
+
+            final List<String> ids = new ArrayList<>();
+            assertEquals(2, client.forEachOrder(projection, 1, order -> ids.add(order.getId())));
+            assertEquals(List.of("1", "2"), ids);
+            assertTrue(queries.get(2).contains("page_info=next"), queries.get(2));
+            assertTrue(queries.get(2).contains("fields=id,updated_at,financial_status"), queries.get(2));
+
+            try (final Stream<OrderSync> orders = client.streamOrders(projection, 1, false)) {
+                assertEquals(List.of("1", "2"), orders.map(OrderSync::getId).toList());
+            }
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.justblackmagic.shopify.api.rest.ratelimit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for ShopifyCallLimitGovernor to verify the local leaky bucket model and pacing.
+ */
+class ShopifyCallLimitGovernorTest {
+
+    private AtomicLong clock;
+    private ShopifyCallLimitGovernor governor;
+
+    @BeforeEach
+    void setUp() {
+        clock = new AtomicLong(0L);
+        governor = new ShopifyCallLimitGovernor("test-store.myshopify.com", clock::get, 0);
+    }
+
+    @Test
+    void testCallsWithinCapacityAreNotDelayed() {
+        for (int i = 0; i < ShopifyCallLimitGovernor.DEFAULT_BUCKET_CAPACITY; i++) {
+            assertEquals(0L, governor.reserve());
+        }
+        assertEquals(0L, governor.getThrottledCallCount());
+    }
+
+    @Test
+    void testCallsBeyondCapacityArePacedAtLeakRate() {
+        for (int i = 0; i < ShopifyCallLimitGovernor.DEFAULT_BUCKET_CAPACITY; i++) {
+            governor.reserve();
+        }
+        // Standard bucket drains at 2 calls per second, so each extra call waits another half second
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(500), governor.reserve());
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(1000), governor.reserve());
+        assertEquals(2L, governor.getThrottledCallCount());
+    }
+
+    @Test
+    void testBucketDrainsOverTime() {
+        for (int i = 0; i < ShopifyCallLimitGovernor.DEFAULT_BUCKET_CAPACITY; i++) {
+            governor.reserve();
+        }
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(5));
+        assertEquals(30.0d, governor.getCurrentLevel(), 0.001d);
+        assertEquals(0L, governor.reserve());
+    }
+
+    @Test
+    void testHeaderRaisesLevelFromOtherClients() {
+        governor.onResponse("39/40", 200);
+        assertEquals(39.0d, governor.getCurrentLevel(), 0.001d);
+        assertEquals(0L, governor.reserve());
+        assertTrue(governor.reserve() > 0L);
+    }
+
+    @Test
+    void testHeaderDoesNotLowerLevelBelowInFlightReservations() {
+        for (int i = 0; i < 10; i++) {
+            governor.reserve();
+        }
+        governor.onResponse("1/40", 200);
+        assertEquals(10.0d, governor.getCurrentLevel(), 0.001d);
+    }
+
+    @Test
+    void testLargerBucketAdjustsCapacityAndLeakRate() {
+        governor.onResponse("1/400", 200);
+        assertEquals(400, governor.getCapacity());
+        assertEquals(20.0d, governor.getLeakRatePerSecond(), 0.001d);
+    }
+
+    @Test
+    void testTooManyRequestsFillsBucket() {
+        governor.onResponse(null, 429);
+        assertEquals(40.0d, governor.getCurrentLevel(), 0.001d);
+        assertEquals(1L, governor.getTooManyRequestsCount());
+    }
+
+    @Test
+    void testMalformedHeaderIsIgnored() {
+        governor.onResponse("garbage", 200);
+        governor.onResponse("a/b", 200);
+        assertEquals(0.0d, governor.getCurrentLevel(), 0.001d);
+        assertEquals(40, governor.getCapacity());
+    }
+
+    @Test
+    void testGovernorIsSharedPerShop() {
+        assertSame(ShopifyCallLimitGovernor.forShop("shared.myshopify.com"), ShopifyCallLimitGovernor.forShop("shared.myshopify.com"));
+        assertNotSame(ShopifyCallLimitGovernor.forShop("shared.myshopify.com"), ShopifyCallLimitGovernor.forShop("other.myshopify.com"));
+    }
+}
@@ -0,0 +1,91 @@
+package com.justblackmagic.shopify.api.rest.retry;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for ShopifyRetryPolicy and ShopifyRetryBudget to verify backoff timing, Retry-After handling and budget exhaustion.
+ */
+class ShopifyRetryPolicyTest {
+
+    /** Always picks the upper bound, so the growth of the backoff window is observable. */
+    private final ShopifyRetryPolicy policy = new ShopifyRetryPolicy(1000L, 5000L, 60000L, (low, high) -> high);
+
+    @Test
+    void testBackoffGrowsUpToMaximumDelay() {
+        assertEquals(1000L, policy.nextBackoffMillis(0L));
+        assertEquals(3000L, policy.nextBackoffMillis(1000L));
+        assertEquals(5000L, policy.nextBackoffMillis(3000L));
+        assertEquals(5000L, policy.nextBackoffMillis(5000L));
+    }
+
+    @Test
+    void testBackoffNeverDropsBelowBaseDelay() {
+        ShopifyRetryPolicy lowest = new ShopifyRetryPolicy(1000L, 5000L, 60000L, (low, high) -> low);
+        assertEquals(1000L, lowest.nextBackoffMillis(4000L));
+    }
+
+    @Test
+    void testRetryAfterSecondsOverridesBackoff() {
+        assertEquals(2000L, policy.nextDelayMillis(0L, "2.0"));
+        assertEquals(30000L, policy.nextDelayMillis(0L, "30"));
+    }
+
+    @Test
+    void testRetryAfterHttpDate() {
+        long now = 1_700_000_000_000L;
+        String header = DateTimeFormatter.RFC_1123_DATE_TIME.format(Instant.ofEpochMilli(now + 4000L).atZone(ZoneOffset.UTC));
+        assertEquals(4000L, ShopifyRetryPolicy.parseRetryAfterMillis(header, () -> now));
+    }
+
+    @Test
+    void testInvalidRetryAfterFallsBackToBackoff() {
+        assertEquals(-1L, ShopifyRetryPolicy.parseRetryAfterMillis("soon", () -> 0L));
+        assertEquals(-1L, ShopifyRetryPolicy.parseRetryAfterMillis(null, () -> 0L));
+        assertEquals(1000L, policy.nextDelayMillis(0L, "soon"));
+    }
+
+    @Test
+    void testDeadline() {
+        assertTrue(policy.isWithinDeadline(55000L, 5000L));
+        assertFalse(policy.isWithinDeadline(55001L, 5000L));
+    }
+
+    @Test
+    void testBudgetStopsRetriesAfterRepeatedFailures() {
+        ShopifyRetryBudget budget = new ShopifyRetryBudget("test", 10.0d, 0.1d);
+        for (int i = 0; i < 4; i++) {
+            budget.onFailure();
+            assertTrue(budget.canRetry());
+        }
+        budget.onFailure();
+        assertFalse(budget.canRetry());
+        assertEquals(1L, budget.getRejectedRetryCount());
+    }
+
+    @Test
+    void testBudgetRefillsOnSuccess() {
+        ShopifyRetryBudget budget = new ShopifyRetryBudget("test", 10.0d, 0.1d);
+        for (int i = 0; i < 5; i++) {
+            budget.onFailure();
+        }
+        assertFalse(budget.canRetry());
+        budget.onSuccess();
+        assertTrue(budget.canRetry());
+        for (int i = 0; i < 100; i++) {
+            budget.onSuccess();
+        }
+        assertEquals(10.0d, budget.getTokens(), 0.001d);
+    }
+
+    @Test
+    void testBudgetIsSharedPerShop() {
+        assertSame(ShopifyRetryBudget.forShop("shared.myshopify.com"), ShopifyRetryBudget.forShop("shared.myshopify.com"));
+        assertNotSame(ShopifyRetryBudget.forShop("shared.myshopify.com"), ShopifyRetryBudget.global());
+    }
+}
@@ -0,0 +1,148 @@
+package com.justblackmagic.shopify.api.rest.scan;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.justblackmagic.shopify.api.rest.exceptions.ShopifyClientException;
+
+/**
+ * Tests for ShopifyPartitionedScanner to verify partitioning, ordered merging and resuming from checkpoints.
+ */
+class ShopifyPartitionedScannerTest {
+
+    private static final List<Long> IDS = LongStream.rangeClosed(1L, 100L).boxed().toList();
+
+    @TempDir
+    Path checkpointDirectory;
+
+    @Test
+    void testPartitionsCoverRangeWithoutOverlap() {
+        final List<ShopifyScanPartition> byId = ShopifyScanPartition.byId(1L, 100L, 3);
+        assertEquals(3, byId.size());
+        assertEquals("0", byId.get(0).sinceId());
+        assertEquals(byId.get(0).untilId(), String.valueOf(Long.parseLong(byId.get(1).sinceId()) + 1L));
+        assertEquals("101", byId.get(2).untilId());
+
+        final ZonedDateTime from = ZonedDateTime.of(2024, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+        final List<ShopifyScanPartition> byTime = ShopifyScanPartition.byCreationTime(from, from.plusDays(4), 4);
+        assertEquals(from.plusDays(1).minusSeconds(1), byTime.get(0).createdAtMax());
+        assertEquals(from.plusDays(1), byTime.get(1).createdAtMin());
+        assertThrows(IllegalArgumentException.class, () -> ShopifyScanPartition.byId(1L, 100L, 0));
+    }
+
+    @Test
+    void testShortCreationTimeRangeGetsPartitionsOfAtLeastOneSecond() {
+        final ZonedDateTime from = ZonedDateTime.of(2024, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+        final List<ShopifyScanPartition> partitions = ShopifyScanPartition.byCreationTime(from, from.plus(Duration.ofMillis(2500L)), 10);
+        assertEquals(3, partitions.size());
+        assertEquals(from.plusSeconds(1), partitions.get(1).createdAtMin());
+        assertEquals(from.plusSeconds(2), partitions.get(2).createdAtMin());
+        partitions.forEach(partition -> assertFalse(partition.createdAtMax().isBefore(partition.createdAtMin())));
+
+        final List<ShopifyScanPartition> single = ShopifyScanPartition.byCreationTime(from, from.plus(Duration.ofMillis(500L)), 4);
+        assertEquals(1, single.size());
+        assertEquals(from, single.get(0).createdAtMax());
+    }
+
+    @Test
+    void testScanInOrderMergesPartitionsInOrder() {
+        final List<Long> scanned = new ArrayList<>();
+        final long count = new ShopifyPartitionedScanner<Long>(this::fetchPage, String::valueOf).withParallelism(3).withPageSize(7)
+                .scanInOrder(ShopifyScanPartition.byId(1L, 100L, 5), scanned::add);
+        assertEquals(100L, count);
+        assertEquals(IDS, scanned);
+    }
+
+    @Test
+    void testScanHandsEveryResourceToSink() {
+        final List<Long> scanned = Collections.synchronizedList(new ArrayList<>());
+        new ShopifyPartitionedScanner<Long>(this::fetchPage, String::valueOf).withPageSize(10).scan(ShopifyScanPartition.byId(1L, 100L, 4),
+                scanned::add);
+        assertEquals(IDS, scanned.stream().sorted().toList());
+    }
+
+    @Test
+    void testRerunResumesFromCheckpoints() {
+        final ShopifyScanCheckpointStore store = new ShopifyFileScanCheckpointStore(checkpointDirectory);
+        final List<ShopifyScanPartition> partitions = ShopifyScanPartition.byId(1L, 100L, 4);
+        final AtomicBoolean failing = new AtomicBoolean(true);
+        final ShopifyPartitionedScanner.PageFetcher<Long> fetcher = (partition, sinceId, pageSize) -> {
+            if (failing.get() && partition.index() == 2 && Long.parseLong(sinceId) >= 60L) {
+                throw new IllegalStateException("Simulated outage");
+            }
+            return fetchPage(partition, sinceId, pageSize);
+        };
+
+        final List<Long> firstRun = new ArrayList<>();
+        assertThrows(ShopifyClientException.class, () -> new ShopifyPartitionedScanner<>(fetcher, String::valueOf).withParallelism(1)
+                .withPageSize(5).withCheckpoints(store, "orders-test").scanInOrder(partitions, firstRun::add));
+        assertTrue(store.isComplete("orders-test", 1));
+        assertEquals("60", store.getLastId("orders-test", 2));
+
+        failing.set(false);
+        final List<Long> secondRun = new ArrayList<>();
+        new ShopifyPartitionedScanner<>(fetcher, String::valueOf).withPageSize(5).withCheckpoints(store, "orders-test").scanInOrder(partitions,
+                secondRun::add);
+        assertEquals(IDS.subList(0, 60), firstRun);
+        assertEquals(IDS.subList(60, 100), secondRun);
+    }
+
+    @Test
+    void testScanInOrderStopsWhenLaterPartitionFails() {
+        final CountDownLatch laterPartitionFailed = new CountDownLatch(1);
+        final ShopifyPartitionedScanner.PageFetcher<Long> fetcher = (partition, sinceId, pageSize) -> {
+            if (partition.index() == 2) {
+                laterPartitionFailed.countDown();
+                throw new IllegalStateException("Simulated outage");
+            }
+            if (partition.index() == 0) {
+                try {
+                    // Still producing the partition being consumed when the later one fails
+                    laterPartitionFailed.await();
+                    Thread.sleep(50L);
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return fetchPage(partition, sinceId, pageSize);
+        };
+
+        final List<Long> scanned = new ArrayList<>();
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> assertThrows(ShopifyClientException.class,
+                () -> new ShopifyPartitionedScanner<>(fetcher, String::valueOf).withParallelism(3).withPageSize(5)
+                        .scanInOrder(ShopifyScanPartition.byId(1L, 100L, 3), scanned::add)));
+        assertFalse(scanned.contains(100L));
+    }
+
+    @Test
+    void testScanInOrderStopsWhenSinkFailsWithPartitionsLeftToStart() {
+        final List<Long> scanned = new ArrayList<>();
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> assertThrows(ShopifyClientException.class,
+                () -> new ShopifyPartitionedScanner<Long>(this::fetchPage, String::valueOf).withParallelism(2).withPageSize(5)
+                        .scanInOrder(ShopifyScanPartition.byId(1L, 100L, 50), id -> {
+                            if (id == 3L) {
+                                throw new IllegalStateException("Simulated sink failure");
+                            }
+                            scanned.add(id);
+                        })));
+        assertEquals(List.of(1L, 2L), scanned);
+    }
+
+    private List<Long> fetchPage(final ShopifyScanPartition partition, final String sinceId, final int pageSize) {
+        final long since = Long.parseLong(sinceId);
+        return IDS.stream().filter(id -> id > since).limit(pageSize).toList();
+    }
+}
@@ -0,0 +1,106 @@
+package com.justblackmagic.shopify.api.rest.transport;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Optional;
+
+import org.glassfish.jersey.client.ClientProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import com.justblackmagic.shopify.api.StubShopifyServer;
+import com.justblackmagic.shopify.api.rest.mappers.ShopifyJsonMapping;
+
+import jakarta.ws.rs.client.Entity;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+
+/**
+ * Tests for ShopifyHttpClientPool to verify every transport can talk to a local server, shares one client and inflates gzip responses.
+ */
+class ShopifyHttpClientPoolTest {
+
+    private StubShopifyServer server;
+    private String baseUrl;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = StubShopifyServer.create().handle("/echo", exchange -> {
+            byte[] request = exchange.getRequestBody().readAllBytes();
+            StubShopifyServer.respond(exchange, 200, request.length > 0 ? request : "{\"ok\":true}".getBytes(StandardCharsets.UTF_8));
+        }).handle("/gzip", exchange -> {
+            String acceptEncoding = String.valueOf(exchange.getRequestHeaders().get("Accept-Encoding"));
+            StubShopifyServer.respondGzip(exchange, ("{\"accept\":\"" + acceptEncoding + "\"}").getBytes(StandardCharsets.UTF_8));
+        }).start();
+        baseUrl = server.getBaseUrl();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+    }
+
+    @ParameterizedTest
+    @EnumSource(ShopifyHttpTransport.class)
+    void testTransportSendsRequests(ShopifyHttpTransport transport) {
+        ShopifyHttpClientPool pool = ShopifyHttpClientPool.forTransport(transport);
+        assertSame(pool, ShopifyHttpClientPool.forTransport(transport));
+
+        try (Response get = pool.getClient().target(baseUrl).path("echo").property(ClientProperties.READ_TIMEOUT, 5000).request().get()) {
+            assertEquals(200, get.getStatus());
+            assertEquals("{\"ok\":true}", get.readEntity(String.class));
+        }
+        try (Response put = pool.getClient().target(baseUrl).path("echo").request()
+                .put(Entity.entity("{\"id\":1}", MediaType.APPLICATION_JSON_TYPE))) {
+            assertEquals("{\"id\":1}", put.readEntity(String.class));
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(ShopifyHttpTransport.class)
+    void testSaturationTracksActiveRequests(ShopifyHttpTransport transport) {
+        ShopifyHttpClientPool pool = ShopifyHttpClientPool.forTransport(transport);
+        int activeBefore = pool.getActiveRequests();
+        pool.requestStarted();
+        assertEquals(activeBefore + 1, pool.getActiveRequests());
+        pool.requestFinished();
+        assertEquals(activeBefore, pool.getActiveRequests());
+        assertTrue(pool.getSaturation() >= 0.0d && pool.getSaturation() <= 1.0d);
+    }
+
+    @ParameterizedTest
+    @EnumSource(ShopifyHttpTransport.class)
+    void testTransportInflatesGzipResponses(ShopifyHttpTransport transport) {
+        ShopifyHttpClientPool pool = ShopifyHttpClientPool.forTransport(transport);
+
+        try (Response get = pool.getClient().target(baseUrl).path("gzip").request().get()) {
+            assertEquals(200, get.getStatus());
+            String body = get.readEntity(String.class);
+            assertTrue(body.startsWith("{\"accept\":\""), body);
+            assertTrue(body.contains("gzip"), body);
+        }
+    }
+
+    @Test
+    void testJdkTransportAppliesConnectTimeout() {
+        ShopifyHttpClientPool pool = ShopifyHttpClientPool.forTransport(ShopifyHttpTransport.JDK_HTTP_CLIENT, ShopifyJsonMapping.COMPATIBLE, 1234L);
+        assertSame(pool, ShopifyHttpClientPool.forTransport(ShopifyHttpTransport.JDK_HTTP_CLIENT, ShopifyJsonMapping.COMPATIBLE, 1234L));
+        assertEquals(1234L, pool.getConnectTimeoutMilliseconds());
+        assertEquals(Optional.of(Duration.ofMillis(1234L)), pool.getJavaNetHttpClient().connectTimeout());
+        assertEquals(Optional.of(Duration.ofMillis(ShopifyHttpClientPool.DEFAULT_CONNECT_TIMEOUT_MILLISECONDS)),
+                ShopifyHttpClientPool.forTransport(ShopifyHttpTransport.JDK_HTTP_CLIENT).getJavaNetHttpClient().connectTimeout());
+
+        // The other transports take the connect timeout per request, so they keep sharing one pool
+        assertSame(ShopifyHttpClientPool.forTransport(ShopifyHttpTransport.APACHE_HTTP_CLIENT),
+                ShopifyHttpClientPool.forTransport(ShopifyHttpTransport.APACHE_HTTP_CLIENT, ShopifyJsonMapping.COMPATIBLE, 1234L));
+
+        try (Response get = pool.getClient().target(baseUrl).path("echo").request().get()) {
+            assertEquals(200, get.getStatus());
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.justblackmagic.shopify.sync.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.justblackmagic.shopify.api.StubShopifyServer;
+import com.justblackmagic.shopify.api.rest.ShopifyRestClient;
+import com.justblackmagic.shopify.sync.persistence.model.SyncWatermark;
+import com.justblackmagic.shopify.sync.persistence.model.SyncWatermarkId;
+import com.justblackmagic.shopify.sync.persistence.repository.SyncWatermarkRepository;
+import com.justblackmagic.shopify.sync.persistence.repository.SyncedOrderRepository;
+import com.justblackmagic.shopify.sync.service.OrderSyncService.SyncWindow;
+
+/**
+ * Tests for OrderSyncService to verify how sync windows overlap, how the watermark moves, and that orders fetched twice are stored once.
+ */
+@SpringBootTest(classes = OrderSyncTestConfiguration.class, properties = {"shopify.sync.orders.enabled=true",
+        "spring.jpa.properties.hibernate.generate_statistics=true"})
+@ActiveProfiles("test")
+class OrderSyncServiceTest {
+
+    private static final Duration OVERLAP = Duration.ofMinutes(5);
+    private static final Duration INITIAL_LOOKBACK = Duration.ofDays(30);
+    private static final Instant NOW = Instant.parse("2024-06-01T12:00:00.750Z");
+
+    @Autowired
+    private OrderSyncService orderSyncService;
+
+    @Autowired
+    private SyncedOrderRepository syncedOrderRepository;
+
+    @Autowired
+    private SyncWatermarkRepository syncWatermarkRepository;
+
+    private final String shop = "store-" + UUID.randomUUID() + ".myshopify.com";
+
+    @Test
+    void testFirstWindowReachesBackInitialLookback() {
+        final SyncWindow window = OrderSyncService.nextWindow(null, NOW, OVERLAP, INITIAL_LOOKBACK);
+        assertEquals(Instant.parse("2024-05-02T12:00:00Z"), window.updatedAtMin());
+        assertEquals(Instant.parse("2024-06-01T12:00:00Z"), window.updatedAtMax());
+    }
+
+    @Test
+    void testWindowStartsOverlapBeforeWatermark() {
+        final SyncWindow window = OrderSyncService.nextWindow(Instant.parse("2024-06-01T11:58:30Z"), NOW, OVERLAP, INITIAL_LOOKBACK);
+        assertEquals(Instant.parse("2024-06-01T11:53:30Z"), window.updatedAtMin());
+    }
+
+    @Test
+    void testWatermarkMovesToLatestUpdate() {
+        final SyncWindow window = OrderSyncService.nextWindow(Instant.parse("2024-06-01T11:00:00Z"), NOW, OVERLAP, INITIAL_LOOKBACK);
+        final Instant latestUpdatedAt = Instant.parse("2024-06-01T11:59:00Z");
+        assertEquals(latestUpdatedAt, OrderSyncService.advanceWatermark(Instant.parse("2024-06-01T11:00:00Z"), latestUpdatedAt, window, OVERLAP));
+    }
+
+    @Test
+    void testEmptyWindowKeepsNextWindowShort() {
+        final SyncWindow window = OrderSyncService.nextWindow(Instant.parse("2024-06-01T10:00:00Z"), NOW, OVERLAP, INITIAL_LOOKBACK);
+        assertEquals(Instant.parse("2024-06-01T11:55:00Z"),
+                OrderSyncService.advanceWatermark(Instant.parse("2024-06-01T10:00:00Z"), null, window, OVERLAP));
+    }
+
+    @Test
+    void testWatermarkNeverMovesBack() {
+        final Instant watermark = Instant.parse("2024-06-01T11:58:00Z");
+        final SyncWindow window = OrderSyncService.nextWindow(watermark, NOW, OVERLAP, INITIAL_LOOKBACK);
+        assertEquals(watermark, OrderSyncService.advanceWatermark(watermark, Instant.parse("2024-06-01T11:54:00Z"), window, OVERLAP));
+    }
+
+    @Test
+    void testOrdersFetchedOnTwoPagesAreStoredOnce() throws Exception {
+        final List<String> queries = new CopyOnWriteArrayList<>();
+        try (StubShopifyServer server = StubShopifyServer.create().handle("/orders", exchange -> {
+            final String query = URLDecoder.decode(exchange.getRequestURI().getRawQuery(), StandardCharsets.UTF_8);
+            queries.add(query);
+            final String json;
+            if (query.contains("page_info")) {
+                // Order 2 moved to the second page while the first was read, and order 3 is the latest update
+                json = "{\"orders\":[" + order(2, "2024-06-01T10:02:00Z") + "," + order(3, "2024-06-01T10:03:00Z") + "]}";
+            } else {
+                exchange.getResponseHeaders().add("Link", "<http://127.0.0.1/orders?limit=2&page_info=next>; rel=\"next\"");
+                json = "{\"orders\":[" + order(1, "2024-06-01T10:01:00Z") + "," + order(2, "2024-06-01T10:02:00Z") + "]}";
+            }
+            StubShopifyServer.respond(exchange, 200, json.getBytes(StandardCharsets.UTF_8));
+        }).start()) {
+            final ShopifyRestClient client = ShopifyRestClient.newBuilder().withApiUrl(server.getBaseUrl()).withAccessToken("token").build();
+
+            assertEquals(3, orderSyncService.syncShop(shop, client));
+            assertEquals(3, syncedOrderRepository.countByShop(shop));
+            assertEquals(2, queries.size());
+            assertTrue(queries.get(1).contains("page_info=next"), queries.get(1));
+            final SyncWatermark syncWatermark =
+                    syncWatermarkRepository.findById(new SyncWatermarkId(shop, OrderSyncService.ORDERS_RESOURCE)).orElseThrow();
+            assertEquals(Instant.parse("2024-06-01T10:03:00Z"), syncWatermark.getWatermark());
+            assertEquals(3, syncWatermark.getLastSyncedCount());
+        }
+    }
+
+    @Test
+    void testNextSyncStartsOverlapBeforeWatermarkAndSkipsUnchangedOrders() throws Exception {
+        final List<String> queries = new CopyOnWriteArrayList<>();
+        try (StubShopifyServer server = StubShopifyServer.create().handle("/orders", exchange -> {
+            queries.add(URLDecoder.decode(exchange.getRequestURI().getRawQuery(), StandardCharsets.UTF_8));
+            final String json = "{\"orders\":[" + order(1, "2024-06-01T10:01:00Z") + "," + order(2, "2024-06-01T10:02:00Z") + "]}";
+            StubShopifyServer.respond(exchange, 200, json.getBytes(StandardCharsets.UTF_8));
+        }).start()) {
+            final ShopifyRestClient client = ShopifyRestClient.newBuilder().withApiUrl(server.getBaseUrl()).withAccessToken("token").build();
+            assertEquals(2, orderSyncService.syncShop(shop, client));
+
+            // The overlap re-fetches both orders unchanged
+            assertEquals(0, orderSyncService.syncShop(shop, client));
+            assertTrue(queries.get(1).contains("updated_at_min=2024-06-01T09:57Z"), queries.get(1));
+            assertEquals(2, syncedOrderRepository.countByShop(shop));
+            final SyncWatermark syncWatermark =
+                    syncWatermarkRepository.findById(new SyncWatermarkId(shop, OrderSyncService.ORDERS_RESOURCE)).orElseThrow();
+            assertEquals(Instant.parse("2024-06-01T10:02:00Z"), syncWatermark.getWatermark());
+            assertEquals(0, syncWatermark.getLastSyncedCount());
+        }
+    }
+
+    private static String order(final long id, final String updatedAt) {
+        return "{\"id\":" + id + ",\"name\":\"#" + (1000 + id) + "\",\"updated_at\":\"" + updatedAt + "\"}";
+    }
+}
@@ -0,0 +1,30 @@
+package com.justblackmagic.shopify.sync.service;
+
+import static org.mockito.Mockito.mock;
+
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.hibernate.autoconfigure.HibernateJpaAutoConfiguration;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceAutoConfiguration;
+import org.springframework.boot.transaction.autoconfigure.TransactionAutoConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+import com.justblackmagic.shopify.api.rest.ShopifyRestClientService;
+import com.justblackmagic.shopify.auth.persistence.repository.JPAAuthorizedClientRepository;
+import com.justblackmagic.shopify.sync.OrderSyncConfig;
+
+/**
+ * The order sync and its store on an in-memory H2 database, without the rest of the application. Tests using it run with the test profile and
+ * {@code shopify.sync.orders.enabled=true}, which OrderSyncConfig needs to register the sync entities.
+ */
+@Configuration
+@ImportAutoConfiguration({DataSourceAutoConfiguration.class, HibernateJpaAutoConfiguration.class, TransactionAutoConfiguration.class})
+@Import({OrderSyncConfig.class, SyncedOrderStore.class, OrderSyncService.class, ShopifyRestClientService.class})
+class OrderSyncTestConfiguration {
+
+    @Bean
+    JPAAuthorizedClientRepository authorizedClientRepository() {
+        return mock(JPAAuthorizedClientRepository.class);
+    }
+}
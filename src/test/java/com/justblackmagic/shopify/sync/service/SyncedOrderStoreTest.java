@@ -0,0 +1,118 @@
+package com.justblackmagic.shopify.sync.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.justblackmagic.shopify.api.rest.model.ShopifyOrder;
+import com.justblackmagic.shopify.sync.persistence.model.SyncedOrder;
+import com.justblackmagic.shopify.sync.persistence.model.SyncedOrderId;
+import com.justblackmagic.shopify.sync.persistence.repository.SyncedOrderRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Tests for SyncedOrderStore to verify orders are inserted, updated only when Shopify changed them, and new ones inserted without a lookup each.
+ */
+@SpringBootTest(classes = OrderSyncTestConfiguration.class, properties = {"shopify.sync.orders.enabled=true",
+        "spring.jpa.properties.hibernate.generate_statistics=true"})
+@ActiveProfiles("test")
+class SyncedOrderStoreTest {
+
+    private static final ZonedDateTime UPDATED_AT = ZonedDateTime.parse("2024-06-01T10:00:00Z");
+
+    @Autowired
+    private SyncedOrderStore syncedOrderStore;
+
+    @Autowired
+    private SyncedOrderRepository syncedOrderRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final String shop = "store-" + UUID.randomUUID() + ".myshopify.com";
+
+    @Test
+    void testNewOrdersAreInserted() {
+        assertEquals(2, syncedOrderStore.upsert(shop, List.of(order("1", "#1001", UPDATED_AT), order("2", "#1002", UPDATED_AT))));
+
+        assertEquals(2, syncedOrderRepository.countByShop(shop));
+        final SyncedOrder stored = syncedOrderRepository.findById(new SyncedOrderId(shop, "1")).orElseThrow();
+        assertEquals("#1001", stored.getName());
+        assertEquals(UPDATED_AT.toInstant(), stored.getUpdatedAt());
+        assertNotNull(stored.getSyncedAt());
+        assertTrue(stored.getPayload().contains("#1001"), stored.getPayload());
+        assertFalse(stored.isNew());
+    }
+
+    @Test
+    void testNewOrdersAreInsertedWithoutALookupEach() {
+        final Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        assertEquals(3, syncedOrderStore.upsert(shop,
+                List.of(order("1", "#1001", UPDATED_AT), order("2", "#1002", UPDATED_AT), order("3", "#1003", UPDATED_AT))));
+
+        assertEquals(3, statistics.getEntityInsertCount());
+        // The stored orders are loaded with one query, and isNew() lets the new ones be persisted rather than merged, which would select each first
+        assertEquals(1, statistics.getQueryExecutionCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertTrue(statistics.getPrepareStatementCount() < 3, "statements: " + statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testUnchangedOrdersAreSkipped() {
+        syncedOrderStore.upsert(shop, List.of(order("1", "#1001", UPDATED_AT)));
+        final SyncedOrder stored = syncedOrderRepository.findById(new SyncedOrderId(shop, "1")).orElseThrow();
+
+        assertEquals(0, syncedOrderStore.upsert(shop, List.of(order("1", "#1001-refetched", UPDATED_AT))));
+        assertEquals(0, syncedOrderStore.upsert(shop, List.of(order("1", "#1001-stale", UPDATED_AT.minusMinutes(1)))));
+
+        final SyncedOrder unchanged = syncedOrderRepository.findById(new SyncedOrderId(shop, "1")).orElseThrow();
+        assertEquals("#1001", unchanged.getName());
+        assertEquals(stored.getSyncedAt(), unchanged.getSyncedAt());
+    }
+
+    @Test
+    void testNewerOrdersAreUpdated() {
+        syncedOrderStore.upsert(shop, List.of(order("1", "#1001", UPDATED_AT), order("2", "#1002", UPDATED_AT)));
+
+        assertEquals(2, syncedOrderStore.upsert(shop, List.of(order("1", "#1001-edited", UPDATED_AT.plusSeconds(1)),
+                order("2", "#1002", UPDATED_AT), order("3", "#1003", UPDATED_AT))));
+
+        assertEquals(3, syncedOrderRepository.countByShop(shop));
+        final SyncedOrder updated = syncedOrderRepository.findById(new SyncedOrderId(shop, "1")).orElseThrow();
+        assertEquals("#1001-edited", updated.getName());
+        assertEquals(UPDATED_AT.plusSeconds(1).toInstant(), updated.getUpdatedAt());
+        assertTrue(updated.getPayload().contains("#1001-edited"), updated.getPayload());
+    }
+
+    @Test
+    void testDeleteShopForgetsOnlyThatShop() {
+        final String otherShop = "other-" + shop;
+        syncedOrderStore.upsert(shop, List.of(order("1", "#1001", UPDATED_AT)));
+        syncedOrderStore.upsert(otherShop, List.of(order("1", "#1001", UPDATED_AT)));
+
+        syncedOrderStore.deleteShop(shop);
+
+        assertEquals(0, syncedOrderRepository.countByShop(shop));
+        assertEquals(1, syncedOrderRepository.countByShop(otherShop));
+    }
+
+    private static ShopifyOrder order(final String id, final String name, final ZonedDateTime updatedAt) {
+        final ShopifyOrder order = new ShopifyOrder();
+        order.setId(id);
+        order.setName(name);
+        order.setUpdatedAt(updatedAt);
+        return order;
+    }
+}